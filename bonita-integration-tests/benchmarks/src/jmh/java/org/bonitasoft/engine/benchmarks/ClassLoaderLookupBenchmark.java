@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.GLOBAL;
+import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
+import static org.bonitasoft.engine.home.BonitaResource.resource;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.bonitasoft.engine.classloader.BonitaClassLoader;
+import org.bonitasoft.engine.classloader.BonitaClassLoaderFactory;
+import org.bonitasoft.engine.dependency.model.ScopeType;
+import org.bonitasoft.engine.home.BonitaResource;
+import org.bonitasoft.engine.io.IOUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the class and resource lookups done on a process classloader during the execution of a connector: the
+ * classes of the connector and of its libraries, classes of the JDK and of the engine found in the parent
+ * classloaders, and the BeanInfo, Customizer and MetaClass classes probed by Groovy that do not exist.
+ * <p>
+ * The process and tenant classloaders have several library jars, as most processes do. The number of classes found and
+ * not found by each invocation is reported as secondary results.
+ */
+@State(Scope.Benchmark)
+public class ClassLoaderLookupBenchmark {
+
+    private static final int LIBRARIES = 20;
+    private static final String CONNECTOR = "com.company.connector.RestConnector";
+    private static final String[] USED_TYPES = { CONNECTOR, "java.lang.String", "java.util.HashMap",
+            "java.util.ArrayList", "org.bonitasoft.engine.bpm.process.ProcessInstance" };
+
+    private File temporaryFolder;
+    private BonitaClassLoader globalClassLoader;
+    private BonitaClassLoader tenantClassLoader;
+    private BonitaClassLoader processClassLoader;
+    private final List<String> classLookups = new ArrayList<>();
+    private final List<String> resourceLookups = new ArrayList<>();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+
+        public long classesFound;
+        public long classesNotFound;
+        public long resourcesFound;
+        public long resourcesNotFound;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        temporaryFolder = Files.createTempDirectory(ClassLoaderLookupBenchmark.class.getSimpleName()).toFile();
+        globalClassLoader = BonitaClassLoaderFactory.createClassLoader(Stream.empty(), GLOBAL,
+                newFolder(), ClassLoaderLookupBenchmark.class.getClassLoader());
+        tenantClassLoader = BonitaClassLoaderFactory.createClassLoader(libraries("tenant"),
+                identifier(ScopeType.TENANT, 1L), newFolder(), globalClassLoader);
+        List<BonitaResource> processResources = new ArrayList<>();
+        libraries("process").forEach(processResources::add);
+        processResources.add(resource("connector.jar", IOUtil.generateJar(CONNECTOR,
+                "package com.company.connector;",
+                "public class RestConnector {",
+                "    public String execute(String url) {",
+                "        return new java.util.HashMap<String, String>().getOrDefault(url, \"\");",
+                "    }",
+                "}")));
+        processClassLoader = BonitaClassLoaderFactory.createClassLoader(processResources.stream(),
+                identifier(ScopeType.PROCESS, 1L), newFolder(), tenantClassLoader);
+
+        for (String type : USED_TYPES) {
+            classLookups.add(type);
+            String simpleName = type.substring(type.lastIndexOf('.') + 1);
+            classLookups.add(type + "BeanInfo");
+            classLookups.add(type + "Customizer");
+            classLookups.add("groovy.runtime.metaclass." + type + "MetaClass");
+            classLookups.add("java.lang." + simpleName);
+            classLookups.add("java.util." + simpleName);
+            classLookups.add("groovy.lang." + simpleName);
+        }
+        resourceLookups.add("com/company/lib0/messages.properties");
+        resourceLookups.add("com/company/lib0/messages_en.properties");
+        resourceLookups.add("META-INF/services/com.company.connector.RestConnectorFactory");
+        resourceLookups.add("log4j2.component.properties");
+    }
+
+    private Stream<BonitaResource> libraries(String scope) throws Exception {
+        List<BonitaResource> libraries = new ArrayList<>();
+        for (int i = 0; i < LIBRARIES; i++) {
+            Map<String, byte[]> entries = new HashMap<>();
+            for (int j = 0; j < 50; j++) {
+                entries.put("com/company/lib" + i + "/" + scope + "/package" + j + "/Resource.txt", new byte[10]);
+            }
+            entries.put("com/company/lib" + i + "/messages.properties", new byte[10]);
+            libraries.add(resource(scope + "-lib" + i + ".jar", IOUtil.generateJar(entries)));
+        }
+        return libraries.stream();
+    }
+
+    private URI newFolder() throws Exception {
+        return Files.createTempDirectory(temporaryFolder.toPath(), "classloader").toUri();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        processClassLoader.destroy();
+        tenantClassLoader.destroy();
+        globalClassLoader.destroy();
+        FileUtils.deleteDirectory(temporaryFolder);
+    }
+
+    @Benchmark
+    public void lookupClassesDuringConnectorExecution(Lookups lookups) {
+        for (String className : classLookups) {
+            try {
+                processClassLoader.loadClass(className);
+                lookups.classesFound++;
+            } catch (ClassNotFoundException e) {
+                lookups.classesNotFound++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void lookupResourcesDuringConnectorExecution(Lookups lookups) {
+        for (String resourceName : resourceLookups) {
+            if (processClassLoader.getResource(resourceName) != null) {
+                lookups.resourcesFound++;
+            } else {
+                lookups.resourcesNotFound++;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.commons.time.DefaultEngineClock;
+import org.bonitasoft.engine.commons.time.EngineClock;
+import org.bonitasoft.engine.work.BonitaWork;
+import org.bonitasoft.engine.work.DefaultBonitaExecutorService;
+import org.bonitasoft.engine.work.WorkDescriptor;
+import org.bonitasoft.engine.work.WorkExecutionCallback;
+import org.bonitasoft.engine.work.WorkFactory;
+import org.bonitasoft.engine.work.WorkerThreadFactory;
+import org.bonitasoft.engine.work.audit.WorkExecutionAuditor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures how fast immediate works are executed while works delayed by the
+ * 'delayOnMultipleXAResource' setting (50 ms) are waiting, comparing the delay scheduler of
+ * {@link DefaultBonitaExecutorService} with the former behavior that re-submitted not-yet-due works to the worker
+ * queue.
+ */
+@State(Scope.Benchmark)
+public class DelayedWorkBenchmark {
+
+    private static final int XA_DELAY_IN_MILLIS = 50;
+    private static final int WORKER_THREADS = 4;
+    private static final int DELAYED_WORKS = 200;
+    private static final int IMMEDIATE_WORKS = 1000;
+
+    @Param({ "SCHEDULED", "RESUBMITTED" })
+    public String mode;
+
+    private final EngineClock engineClock = new DefaultEngineClock();
+    private ThreadPoolExecutor threadPoolExecutor;
+    private DefaultBonitaExecutorService bonitaExecutorService;
+    private volatile CountDownLatch immediateWorksLatch;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        threadPoolExecutor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new WorkerThreadFactory("Benchmark-Worker", 1L, WORKER_THREADS));
+        bonitaExecutorService = new DefaultBonitaExecutorService(threadPoolExecutor, new NoopWorkFactory(),
+                engineClock, new CountingWorkExecutionCallback(), mock(WorkExecutionAuditor.class),
+                new SimpleMeterRegistry(), 1L);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        bonitaExecutorService.shutdownAndEmptyQueue();
+    }
+
+    @Benchmark
+    public void execute1000WorksWhile200WorksAreDelayed() throws Exception {
+        immediateWorksLatch = new CountDownLatch(IMMEDIATE_WORKS);
+        for (int i = 0; i < DELAYED_WORKS; i++) {
+            submitDelayed(WorkDescriptor.create("DELAYED")
+                    .mustBeExecutedAfter(Instant.now().plusMillis(XA_DELAY_IN_MILLIS)));
+        }
+        for (int i = 0; i < IMMEDIATE_WORKS; i++) {
+            bonitaExecutorService.submit(WorkDescriptor.create("IMMEDIATE"));
+        }
+        immediateWorksLatch.await();
+    }
+
+    private void submitDelayed(WorkDescriptor work) {
+        if ("SCHEDULED".equals(mode)) {
+            bonitaExecutorService.submit(work);
+        } else {
+            // former behavior: the work goes back to the worker queue until it is due
+            threadPoolExecutor.submit(() -> resubmitUntilDue(work));
+        }
+    }
+
+    private void resubmitUntilDue(WorkDescriptor work) {
+        if (work.getExecutionThreshold().isAfter(engineClock.now())) {
+            if (!threadPoolExecutor.isShutdown()) {
+                threadPoolExecutor.submit(() -> resubmitUntilDue(work));
+            }
+            return;
+        }
+        bonitaExecutorService.submit(work);
+    }
+
+    private class CountingWorkExecutionCallback implements WorkExecutionCallback {
+
+        @Override
+        public void onSuccess(WorkDescriptor workDescriptor) {
+            if ("IMMEDIATE".equals(workDescriptor.getType())) {
+                immediateWorksLatch.countDown();
+            }
+        }
+
+        @Override
+        public void onFailure(WorkDescriptor work, BonitaWork bonitaWork, Map<String, Object> context,
+                Throwable thrown) {
+        }
+    }
+
+    private static class NoopWorkFactory implements WorkFactory {
+
+        @Override
+        public BonitaWork create(WorkDescriptor workDescriptor) {
+            return new BonitaWork() {
+
+                @Override
+                public String getDescription() {
+                    return workDescriptor.getType();
+                }
+
+                @Override
+                public CompletableFuture<Void> work(Map<String, Object> context) {
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                @Override
+                public void handleFailure(Throwable e, Map<String, Object> context) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.engine.core.expression.control.api.impl.ExpressionResolverServiceImpl;
+import org.bonitasoft.engine.expression.ContainerState;
+import org.bonitasoft.engine.expression.ExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.ExpressionService;
+import org.bonitasoft.engine.expression.model.ExpressionKind;
+import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.bonitasoft.engine.tracking.TimeTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the overhead of the expression resolver itself (ordering and resolution of dependencies) when evaluating
+ * the expressions of a process: gateway conditions and right operands of operations. Expression strategies are
+ * replaced by a stub returning the content of the expressions, so that only the resolver is measured.
+ * <p>
+ * With a cache size of 0, the evaluation plan is built on each evaluation.
+ */
+@State(Scope.Benchmark)
+public class ExpressionEvaluationBenchmark {
+
+    @Param({ "0", "10000" })
+    public int evaluationPlanCacheSize;
+
+    private ExpressionResolverServiceImpl resolverService;
+    private SExpression gatewayCondition;
+    private SExpression operationRightOperand;
+
+    @Setup
+    public void setup() {
+        resolverService = new ExpressionResolverServiceImpl(new StubExpressionService(), null, null,
+                mock(TimeTracker.class), evaluationPlanCacheSize);
+        gatewayCondition = expression("amount > 1000 && approved", "TYPE_READ_ONLY_SCRIPT", "GROOVY",
+                expression("amount", "TYPE_VARIABLE", null),
+                expression("approved", "TYPE_VARIABLE", null));
+        // a list of patterns and scripts sharing the same variables
+        final List<SExpression> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            elements.add(expression("${customer} - " + i, "TYPE_PATTERN", null,
+                    expression("customer", "TYPE_VARIABLE", null),
+                    expression(String.valueOf(i), "TYPE_CONSTANT", null)));
+            elements.add(expression("amount * " + i, "TYPE_READ_ONLY_SCRIPT", "GROOVY",
+                    expression("amount", "TYPE_VARIABLE", null),
+                    expression(String.valueOf(i), "TYPE_CONSTANT", null)));
+        }
+        operationRightOperand = expression("lines", "TYPE_LIST", null, elements.toArray(new SExpression[0]));
+    }
+
+    private static SExpression expression(String content, String type, String interpreter,
+            SExpression... dependencies) {
+        return new SExpressionImpl(content, content, type, Object.class.getName(), interpreter,
+                asList(dependencies));
+    }
+
+    @Benchmark
+    public Object evaluateGatewayCondition() throws Exception {
+        return resolverService.evaluate(gatewayCondition);
+    }
+
+    @Benchmark
+    public Object evaluateOperationRightOperand() throws Exception {
+        return resolverService.evaluate(operationRightOperand);
+    }
+
+    private static class StubExpressionService implements ExpressionService {
+
+        @Override
+        public Object evaluate(SExpression expression, Map<Integer, Object> resolvedExpressions,
+                ContainerState containerState) {
+            return expression.getContent();
+        }
+
+        @Override
+        public Object evaluate(SExpression expression, Map<String, Object> dependencyValues,
+                Map<Integer, Object> resolvedExpressions, ContainerState containerState) {
+            return expression.getContent();
+        }
+
+        @Override
+        public List<Object> evaluate(ExpressionKind expressionKind, List<SExpression> expressions,
+                Map<String, Object> dependencyValues, Map<Integer, Object> resolvedExpressions,
+                ContainerState containerState) {
+            final List<Object> results = new ArrayList<>(expressions.size());
+            for (final SExpression expression : expressions) {
+                results.add(expression.getContent());
+            }
+            return results;
+        }
+
+        @Override
+        public boolean mustCheckExpressionReturnType() {
+            return false;
+        }
+
+        @Override
+        public boolean mustPutEvaluatedExpressionInContext(ExpressionKind expressionKind) {
+            return ExpressionExecutorStrategy.KIND_VARIABLE.equals(expressionKind);
+        }
+
+        @Override
+        public void setExpressionExecutorStrategy(List<ExpressionExecutorStrategy> expressionStrategies) {
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.bonitasoft.engine.expression.ExpressionExecutorStrategy.DEFINITION_ID;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.cache.CacheConfiguration;
+import org.bonitasoft.engine.cache.ehcache.EhCacheCacheService;
+import org.bonitasoft.engine.classloader.ClassLoaderService;
+import org.bonitasoft.engine.commons.io.IOUtil;
+import org.bonitasoft.engine.expression.impl.GroovyScriptConditionExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.impl.GroovyScriptExpressionExecutorCacheStrategy;
+import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the evaluation of representative Groovy expressions of a process, once their script is compiled: a gateway
+ * condition, a script building a label from process data and a script iterating over a list of contract inputs.
+ * <p>
+ * Compares the default dynamic execution with the static compilation mode, where the dependencies of the scripts are
+ * declared with their type.
+ */
+@State(Scope.Benchmark)
+public class GroovyScriptBenchmark {
+
+    private static final String DISK_STORE_PATH = IOUtil.TMP_DIRECTORY + File.separator
+            + GroovyScriptBenchmark.class.getSimpleName();
+
+    @Param({ "false", "true" })
+    public boolean staticCompilation;
+
+    private EhCacheCacheService cacheService;
+    private GroovyScriptExpressionExecutorCacheStrategy scriptStrategy;
+    private GroovyScriptConditionExpressionExecutorStrategy conditionStrategy;
+    private SExpression condition;
+    private SExpression label;
+    private SExpression total;
+    private Map<String, Object> context;
+
+    @Setup
+    public void setup() throws Exception {
+        final CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        cacheConfiguration.setName(GroovyScriptExpressionExecutorCacheStrategy.GROOVY_SCRIPT_CACHE_NAME);
+        cacheService = new EhCacheCacheService(singletonList(cacheConfiguration), new CacheConfiguration(),
+                DISK_STORE_PATH, new SimpleMeterRegistry());
+        cacheService.start();
+        final ClassLoaderService classLoaderService = mock(ClassLoaderService.class);
+        doReturn(GroovyScriptBenchmark.class.getClassLoader()).when(classLoaderService).getClassLoader(any());
+        scriptStrategy = new GroovyScriptExpressionExecutorCacheStrategy(cacheService, classLoaderService,
+                staticCompilation);
+        conditionStrategy = new GroovyScriptConditionExpressionExecutorStrategy(cacheService, classLoaderService,
+                staticCompilation);
+
+        final SExpression amount = dependency("amount", Integer.class);
+        final SExpression approved = dependency("approved", Boolean.class);
+        final SExpression firstName = dependency("firstName", String.class);
+        final SExpression lastName = dependency("lastName", String.class);
+        final SExpression lines = new SExpressionImpl("lines", "lines", "TYPE_CONTRACT_INPUT", List.class.getName(),
+                null, emptyList());
+        condition = script("amount > 1000 && approved", Boolean.class, amount, approved);
+        label = script("\"${lastName.toUpperCase()}, ${firstName} (${amount})\".toString()", String.class, firstName,
+                lastName, amount);
+        total = script("int total = 0\nfor (Object line : lines) { total += ((Map) line).get('amount') as int }\n"
+                + "total", Integer.class, lines);
+
+        context = new HashMap<>();
+        context.put(DEFINITION_ID, 1L);
+        context.put("amount", 2500);
+        context.put("approved", true);
+        context.put("firstName", "Walter");
+        context.put("lastName", "Bates");
+        final List<Map<String, Object>> lineValues = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final Map<String, Object> line = new HashMap<>();
+            line.put("amount", i);
+            lineValues.add(line);
+        }
+        context.put("lines", lineValues);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        cacheService.stop();
+        IOUtil.deleteDir(new File(DISK_STORE_PATH));
+    }
+
+    private static SExpression dependency(String name, Class<?> type) {
+        return new SExpressionImpl(name, name, "TYPE_VARIABLE", type.getName(), null, emptyList());
+    }
+
+    private static SExpression script(String content, Class<?> returnType, SExpression... dependencies) {
+        return new SExpressionImpl("script", content, "TYPE_READ_ONLY_SCRIPT", returnType.getName(), "GROOVY",
+                asList(dependencies));
+    }
+
+    @Benchmark
+    public Object evaluateCondition() throws Exception {
+        return conditionStrategy.evaluate(condition, context, emptyMap(), null);
+    }
+
+    @Benchmark
+    public Object evaluateLabel() throws Exception {
+        return scriptStrategy.evaluate(label, context, emptyMap(), null);
+    }
+
+    @Benchmark
+    public Object evaluateTotal() throws Exception {
+        return scriptStrategy.evaluate(total, context, emptyMap(), null);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.lock.BonitaLock;
+import org.bonitasoft.engine.lock.LockService;
+import org.bonitasoft.engine.lock.MemoryLockService;
+import org.bonitasoft.engine.lock.StripedLockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares {@link MemoryLockService} and {@link StripedLockService} when many work threads lock process instances,
+ * most of them being different.
+ */
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+
+    private static final long TENANT_ID = 1L;
+
+    @Param({ "memory", "striped" })
+    public String implementation;
+
+    /**
+     * Number of distinct process instances locked by the threads, the lower the more contention
+     */
+    @Param({ "10", "10000" })
+    public int processInstances;
+
+    private LockService lockService;
+
+    @Setup
+    public void setup() {
+        if ("striped".equals(implementation)) {
+            lockService = new StripedLockService(60, 64, new SimpleMeterRegistry());
+        } else {
+            lockService = new MemoryLockService(60);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lockAndUnlockProcessInstance1Thread() throws Exception {
+        lockAndUnlockRandomProcessInstance();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void lockAndUnlockProcessInstance16Threads() throws Exception {
+        lockAndUnlockRandomProcessInstance();
+    }
+
+    @Benchmark
+    @Threads(200)
+    public void lockAndUnlockProcessInstance200Threads() throws Exception {
+        lockAndUnlockRandomProcessInstance();
+    }
+
+    private void lockAndUnlockRandomProcessInstance() throws Exception {
+        long processInstanceId = ThreadLocalRandom.current().nextInt(processInstances);
+        BonitaLock lock = lockService.lock(processInstanceId, "PROCESS", TENANT_ID);
+        lockService.unlock(lock, TENANT_ID);
+    }
+}
@@ -13,10 +13,18 @@
  **/
 package org.bonitasoft.engine.benchmarks;
 
+import java.util.Collections;
+import java.util.Set;
+
+import org.bonitasoft.engine.api.permission.APICallContext;
+import org.bonitasoft.engine.authorization.PermissionService;
 import org.bonitasoft.engine.authorization.properties.ConfigurationFilesManager;
 import org.bonitasoft.engine.authorization.properties.ResourcesPermissionsMapping;
 import org.bonitasoft.engine.cache.CacheService;
+import org.bonitasoft.engine.commons.exceptions.SExecutionException;
+import org.bonitasoft.engine.service.ServiceAccessor;
 import org.bonitasoft.engine.service.ServiceAccessorSingleton;
+import org.bonitasoft.engine.session.model.SSession;
 import org.bonitasoft.engine.test.TestEngine;
 import org.bonitasoft.engine.test.TestEngineImpl;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -24,6 +32,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Benchmark)
 public class PermissionCachingBenchmark {
@@ -31,6 +40,8 @@ public class PermissionCachingBenchmark {
     private TestEngine engine;
     private ResourcesPermissionsMapping resourcesPermissionsMapping;
     private CacheService cacheService;
+    private PermissionService permissionService;
+    private APICallContext getCase;
 
     @Setup
     public void setup() throws Exception {
@@ -39,6 +50,13 @@ public class PermissionCachingBenchmark {
         cacheService = ServiceAccessorSingleton.getInstance().getCacheService();
         resourcesPermissionsMapping = new ResourcesPermissionsMapping(1L, cacheService,
                 new ConfigurationFilesManager());
+        // full REST API authorization path: dynamic checks lookup, then static permissions of the session
+        final ServiceAccessor serviceAccessor = ServiceAccessorSingleton.getInstance();
+        permissionService = serviceAccessor.getPermissionService();
+        final SSession session = serviceAccessor.getSessionService().createSession(serviceAccessor.getTenantId(),
+                1L, "walter.bates", false, Collections.singletonList("User"), Set.of("case_visualization"));
+        serviceAccessor.getSessionAccessor().setSessionInfo(session.getId(), serviceAccessor.getTenantId());
+        getCase = new APICallContext("GET", "bpm", "case", "12", "", "");
     }
 
     @TearDown
@@ -57,4 +75,16 @@ public class PermissionCachingBenchmark {
             resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "case");
         }
     }
+
+    @Benchmark
+    public boolean isAuthorized() throws SExecutionException {
+        return permissionService.isAuthorized(getCase);
+    }
+
+    @Benchmark
+    public void isAuthorized50times(Blackhole blackhole) throws SExecutionException {
+        for (int i = 0; i < 50; i++) {
+            blackhole.consume(permissionService.isAuthorized(getCase));
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import org.bonitasoft.engine.bpm.bar.ProcessDefinitionBARContribution;
+import org.bonitasoft.engine.bpm.flownode.TimerType;
+import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
+import org.bonitasoft.engine.bpm.process.impl.ProcessDefinitionBuilder;
+import org.bonitasoft.engine.core.process.definition.ProcessDefinitionBinaryFormat;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.impl.SProcessDefinitionImpl;
+import org.bonitasoft.engine.expression.ExpressionBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the time needed to load a process definition that is not in the cache, from its XML design (parsing and
+ * conversion to the server model) and from its binary content written by {@link ProcessDefinitionBinaryFormat}.
+ */
+@State(Scope.Benchmark)
+public class ProcessDefinitionLoadingBenchmark {
+
+    @Param({ "50", "400" })
+    public int numberOfFlowNodes;
+
+    private final ProcessDefinitionBARContribution processDefinitionBARContribution = new ProcessDefinitionBARContribution();
+    private final ProcessDefinitionBinaryFormat binaryFormat = new ProcessDefinitionBinaryFormat("benchmark");
+    private String xmlContent;
+    private byte[] binaryContent;
+
+    @Setup
+    public void setup() throws Exception {
+        final DesignProcessDefinition designProcessDefinition = createProcess(numberOfFlowNodes);
+        xmlContent = processDefinitionBARContribution.convertProcessToXml(designProcessDefinition);
+        final SProcessDefinitionImpl processDefinition = new SProcessDefinitionImpl(designProcessDefinition);
+        processDefinition.setId(1L);
+        binaryContent = binaryFormat.write(processDefinition);
+    }
+
+    private DesignProcessDefinition createProcess(int numberOfFlowNodes) throws Exception {
+        final ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder().createNewInstance("Benchmark",
+                String.valueOf(numberOfFlowNodes));
+        builder.addActor("actor");
+        builder.addStartEvent("start");
+        String previous = "start";
+        // each step is a user task with a timer boundary event leading to an automatic task
+        for (int i = 0; i < (numberOfFlowNodes - 2) / 3; i++) {
+            builder.addUserTask("step" + i, "actor").addBoundaryEvent("timer" + i)
+                    .addTimerEventTriggerDefinition(TimerType.DURATION,
+                            new ExpressionBuilder().createConstantLongExpression(1000));
+            builder.addAutomaticTask("onTimer" + i);
+            builder.addTransition("timer" + i, "onTimer" + i);
+            builder.addTransition(previous, "step" + i);
+            previous = "step" + i;
+        }
+        builder.addEndEvent("end");
+        builder.addTransition(previous, "end");
+        return builder.done();
+    }
+
+    @Benchmark
+    public SProcessDefinition loadFromXml() throws Exception {
+        return new SProcessDefinitionImpl(processDefinitionBARContribution.convertXmlToProcess(xmlContent));
+    }
+
+    @Benchmark
+    public SProcessDefinition loadFromBinary() throws Exception {
+        return binaryFormat.read(binaryContent);
+    }
+}
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.cache.ehcache.EhCacheCacheService;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.junit.After;
@@ -106,7 +107,7 @@ public class CacheServiceIT {
         configurationsList.add(cacheWithOneElementInMemoryOnly);
 
         return new EhCacheCacheService(configurationsList, new CacheConfiguration(),
-                "target") {
+                "target", new SimpleMeterRegistry()) {
 
             @Override
             protected String getCacheManagerName() {
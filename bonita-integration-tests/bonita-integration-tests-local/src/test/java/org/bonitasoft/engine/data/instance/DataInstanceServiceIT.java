@@ -22,6 +22,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.bonitasoft.engine.archive.ArchiveService;
 import org.bonitasoft.engine.bpm.CommonBPMServicesTest;
@@ -79,7 +80,8 @@ public class DataInstanceServiceIT extends CommonBPMServicesTest {
         final ArchiveService archiveService = getServiceAccessor().getArchiveService();
         expressionService = getServiceAccessor().getExpressionService();
         parentContainerResolver = (ParentContainerResolverImpl) getServiceAccessor().getParentContainerResolver();
-        dataInstanceService = new DataInstanceServiceImpl(recorder, persistenceService, archiveService);
+        dataInstanceService = new DataInstanceServiceImpl(recorder, persistenceService, archiveService,
+                getServiceAccessor().getUserTransactionService(), true, new SimpleMeterRegistry(), 1L);
         parentContainerResolver.setAllowUnknownContainer(true);
         final EhCacheCacheService cacheService = (EhCacheCacheService) getServiceAccessor().getCacheService();
         if (cacheService.isStopped()) {
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.bonitasoft.engine.bpm.CommonBPMServicesTest;
 import org.bonitasoft.engine.builder.BuilderFactory;
@@ -82,7 +83,8 @@ public class TransientDataInstanceServiceIT extends CommonBPMServicesTest {
         dataInstanceService = new TransientDataServiceImpl(cacheService,
                 getServiceAccessor().getExpressionResolverService(),
                 getServiceAccessor().getActivityInstanceService(),
-                getServiceAccessor().getProcessDefinitionService());
+                getServiceAccessor().getProcessDefinitionService(),
+                getServiceAccessor().getUserTransactionService(), false, new SimpleMeterRegistry(), 1L);
     }
 
     @After
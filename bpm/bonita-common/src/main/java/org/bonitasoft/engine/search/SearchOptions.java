@@ -77,4 +77,27 @@ public interface SearchOptions extends Serializable {
      */
     List<Sort> getSorts();
 
+    /**
+     * Gets the sort values of the last result of the previous page, as returned by
+     * {@link SearchResult#getNextSearchAfter()}. When set, the results located after these values are returned, and the
+     * start index is not used to skip results anymore, which keeps deep pages as fast as the first one.
+     *
+     * @return the sort values to search after, or null to page using the start index
+     * @since 10.3
+     */
+    default List<Serializable> getSearchAfter() {
+        return null;
+    }
+
+    /**
+     * Whether the total number of matching results is computed. When skipped, {@link SearchResult#getCount()} is only
+     * a lower bound: the start index plus the number of returned results, plus one when more results exist.
+     *
+     * @return true if the count of the results is skipped
+     * @since 10.3
+     */
+    default boolean isCountSkipped() {
+        return false;
+    }
+
 }
@@ -64,6 +64,8 @@ public class SearchOptionsBuilder {
         options.setFilters(searchOptions.getFilters());
         options.setSorts(searchOptions.getSorts());
         options.setSearchTerm(searchOptions.getSearchTerm());
+        options.setSearchAfter(searchOptions.getSearchAfter());
+        options.setCountSkipped(searchOptions.isCountSkipped());
     }
 
     /**
@@ -228,6 +230,31 @@ public class SearchOptionsBuilder {
         return this;
     }
 
+    /**
+     * Only return the results located after the given sort values, instead of skipping the first start index results.
+     * The start index is then only used to compute the count when it is skipped.
+     *
+     * @param values the sort values of the last result of the previous page, as returned by
+     *        {@link SearchResult#getNextSearchAfter()}
+     * @return this builder itself
+     * @since 10.3
+     */
+    public SearchOptionsBuilder searchAfter(final List<Serializable> values) {
+        options.setSearchAfter(values);
+        return this;
+    }
+
+    /**
+     * Do not compute the total number of matching results, {@link SearchResult#getCount()} is then a lower bound.
+     *
+     * @return this builder itself
+     * @since 10.3
+     */
+    public SearchOptionsBuilder skipCount() {
+        options.setCountSkipped(true);
+        return this;
+    }
+
     /**
      * @return the <code>SearchOptions</code> finally built using this builder.
      */
@@ -51,4 +51,16 @@ public interface SearchResult<T extends Serializable> extends Serializable {
      */
     List<T> getResult();
 
+    /**
+     * Get the sort values of the last element retrieved by the search, to give to
+     * {@link SearchOptionsBuilder#searchAfter(List)} in order to get the next page.
+     *
+     * @return the sort values of the last element, or null when there is no next page or when these values cannot be
+     *         used to search after them (e.g. one of them is null)
+     * @since 10.3
+     */
+    default List<Serializable> getNextSearchAfter() {
+        return null;
+    }
+
 }
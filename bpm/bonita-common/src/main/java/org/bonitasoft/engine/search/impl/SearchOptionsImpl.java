@@ -42,6 +42,10 @@ public class SearchOptionsImpl implements SearchOptions {
 
     private List<Sort> sorts;
 
+    private List<Serializable> searchAfter;
+
+    private boolean countSkipped;
+
     public SearchOptionsImpl(final int startIndex, final int numberOfResults) {
         filters = new ArrayList<SearchFilter>(5);
         sorts = new ArrayList<Sort>(2);
@@ -78,6 +82,24 @@ public class SearchOptionsImpl implements SearchOptions {
         return sorts;
     }
 
+    @Override
+    public List<Serializable> getSearchAfter() {
+        return searchAfter;
+    }
+
+    public void setSearchAfter(final List<Serializable> searchAfter) {
+        this.searchAfter = searchAfter;
+    }
+
+    @Override
+    public boolean isCountSkipped() {
+        return countSkipped;
+    }
+
+    public void setCountSkipped(final boolean countSkipped) {
+        this.countSkipped = countSkipped;
+    }
+
     public void setSearchTerm(final String value) {
         searchTerm = value;
     }
@@ -159,6 +181,8 @@ public class SearchOptionsImpl implements SearchOptions {
         result = prime * result + (searchTerm == null ? 0 : searchTerm.hashCode());
         result = prime * result + (sorts == null ? 0 : sorts.hashCode());
         result = prime * result + startIndex;
+        result = prime * result + (searchAfter == null ? 0 : searchAfter.hashCode());
+        result = prime * result + (countSkipped ? 1231 : 1237);
         return result;
     }
 
@@ -201,6 +225,16 @@ public class SearchOptionsImpl implements SearchOptions {
         if (startIndex != other.startIndex) {
             return false;
         }
+        if (searchAfter == null) {
+            if (other.searchAfter != null) {
+                return false;
+            }
+        } else if (!searchAfter.equals(other.searchAfter)) {
+            return false;
+        }
+        if (countSkipped != other.countSkipped) {
+            return false;
+        }
         return true;
     }
 
@@ -29,10 +29,17 @@ public class SearchResultImpl<T extends Serializable> implements SearchResult<T>
 
     private final List<T> list;
 
+    private final List<Serializable> nextSearchAfter;
+
     public SearchResultImpl(final long count, final List<T> list) {
+        this(count, list, null);
+    }
+
+    public SearchResultImpl(final long count, final List<T> list, final List<Serializable> nextSearchAfter) {
         super();
         this.count = count;
         this.list = list;
+        this.nextSearchAfter = nextSearchAfter;
     }
 
     @Override
@@ -45,12 +52,18 @@ public class SearchResultImpl<T extends Serializable> implements SearchResult<T>
         return list;
     }
 
+    @Override
+    public List<Serializable> getNextSearchAfter() {
+        return nextSearchAfter;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + (int) (count ^ count >>> 32);
         result = prime * result + (list == null ? 0 : list.hashCode());
+        result = prime * result + (nextSearchAfter == null ? 0 : nextSearchAfter.hashCode());
         return result;
     }
 
@@ -76,6 +89,13 @@ public class SearchResultImpl<T extends Serializable> implements SearchResult<T>
         } else if (!list.equals(other.list)) {
             return false;
         }
+        if (nextSearchAfter == null) {
+            if (other.nextSearchAfter != null) {
+                return false;
+            }
+        } else if (!nextSearchAfter.equals(other.nextSearchAfter)) {
+            return false;
+        }
         return true;
     }
 
@@ -37,6 +37,13 @@ public interface TransientDataService {
      */
     void createDataInstance(SDataInstance dataInstance) throws SDataInstanceException;
 
+    /**
+     * @param dataInstance
+     * @param processDefinitionId process definition of the flow node holding the data
+     * @throws SDataInstanceException
+     */
+    void createDataInstance(SDataInstance dataInstance, long processDefinitionId) throws SDataInstanceException;
+
     /**
      * @param dataInstance
      * @param descriptor
@@ -51,6 +58,16 @@ public interface TransientDataService {
      */
     void deleteDataInstance(SDataInstance dataInstance) throws SDataInstanceException;
 
+    /**
+     * Deletes all the transient data of a container, e.g. when its flow node is completed. When called in a
+     * transaction, they are deleted once it is committed.
+     *
+     * @param containerId
+     * @param containerType
+     * @throws SDataInstanceException
+     */
+    void deleteDataInstances(long containerId, String containerType) throws SDataInstanceException;
+
     /**
      * @param dataInstanceId
      * @return
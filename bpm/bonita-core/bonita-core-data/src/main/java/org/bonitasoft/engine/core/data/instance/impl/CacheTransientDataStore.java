@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.data.instance.impl;
+
+import static org.bonitasoft.engine.core.data.instance.impl.TransientDataServiceImpl.TRANSIENT_DATA_CACHE_NAME;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bonitasoft.engine.cache.CacheService;
+import org.bonitasoft.engine.cache.SCacheException;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+
+/**
+ * Stores the transient data instances on heap, in the <code>transient_data</code> cache
+ */
+class CacheTransientDataStore implements TransientDataStore {
+
+    private final CacheService cacheService;
+
+    CacheTransientDataStore(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public void put(String key, SDataInstance dataInstance, long processDefinitionId) throws SCacheException {
+        cacheService.store(TRANSIENT_DATA_CACHE_NAME, key, dataInstance);
+    }
+
+    @Override
+    public void update(String key, SDataInstance dataInstance) throws SCacheException {
+        cacheService.store(TRANSIENT_DATA_CACHE_NAME, key, dataInstance);
+    }
+
+    @Override
+    public SDataInstance get(String key) throws SCacheException {
+        return (SDataInstance) cacheService.get(TRANSIENT_DATA_CACHE_NAME, key);
+    }
+
+    @Override
+    public boolean contains(String key) throws SCacheException {
+        return getKeys().contains(key);
+    }
+
+    @Override
+    public List<String> getKeys() throws SCacheException {
+        if (!cacheService.getCachesNames().contains(TRANSIENT_DATA_CACHE_NAME)) {
+            return Collections.emptyList();
+        }
+        return cacheService.getKeys(TRANSIENT_DATA_CACHE_NAME).stream().map(String.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void remove(String key) throws SCacheException {
+        cacheService.remove(TRANSIENT_DATA_CACHE_NAME, key);
+    }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.data.instance.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.bonitasoft.engine.cache.SCacheException;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+
+/**
+ * Stores the transient data instances outside of the java heap, each one in a direct {@link ByteBuffer} holding its
+ * compact binary form, so that large values kept during the whole life of a flow node do not fill the old generation.
+ * <p>
+ * Only the keys and the buffer references stay on heap. A data instance is read again from its buffer on each access:
+ * changes done on a returned data instance must be stored using {@link #update(String, SDataInstance)}. The memory
+ * used is reported by process definition, by a gauge that is removed as soon as the process definition has no more
+ * transient data, so that gauges of definitions that are no longer executed (or undeployed) do not accumulate.
+ */
+class OffHeapTransientDataStore implements TransientDataStore {
+
+    static final String TRANSIENT_DATA_MEMORY = "bonita.bpmengine.transientdata.memory";
+
+    private final TransientDataSerializer serializer = new TransientDataSerializer();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, DefinitionMemory> memoryByProcessDefinition = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Long tenantId;
+
+    OffHeapTransientDataStore(MeterRegistry meterRegistry, Long tenantId) {
+        this.meterRegistry = meterRegistry;
+        this.tenantId = tenantId;
+    }
+
+    @Override
+    public void put(String key, SDataInstance dataInstance, long processDefinitionId) throws SCacheException {
+        final byte[] content;
+        try {
+            content = serializer.write(dataInstance);
+        } catch (final IOException e) {
+            throw new SCacheException("Unable to serialize transient data " + key, e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+        Entry entry = new Entry(buffer, processDefinitionId);
+        addMemory(processDefinitionId, content.length);
+        release(entries.put(key, entry));
+    }
+
+    @Override
+    public void update(String key, SDataInstance dataInstance) throws SCacheException {
+        Entry entry = entries.get(key);
+        put(key, dataInstance, entry != null ? entry.processDefinitionId : UNKNOWN_PROCESS_DEFINITION);
+    }
+
+    @Override
+    public SDataInstance get(String key) throws SCacheException {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer buffer = entry.buffer.duplicate();
+        byte[] content = new byte[buffer.remaining()];
+        buffer.get(content);
+        try {
+            return serializer.read(content);
+        } catch (final IOException e) {
+            throw new SCacheException("Unable to read transient data " + key, e);
+        }
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public List<String> getKeys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    @Override
+    public void remove(String key) {
+        release(entries.remove(key));
+    }
+
+    /**
+     * @return the number of bytes used by the transient data of the process definition
+     */
+    long getMemoryUsage(long processDefinitionId) {
+        DefinitionMemory memory = memoryByProcessDefinition.get(processDefinitionId);
+        return memory != null ? memory.bytes : 0;
+    }
+
+    private void release(Entry entry) {
+        // the direct buffer itself is freed once garbage collected
+        if (entry != null) {
+            addMemory(entry.processDefinitionId, -entry.buffer.capacity());
+        }
+    }
+
+    private void addMemory(long processDefinitionId, long bytes) {
+        // compute is atomic for a given process definition: the gauge cannot be removed while another thread adds
+        // memory to it
+        memoryByProcessDefinition.compute(processDefinitionId, (id, memory) -> {
+            if (memory == null) {
+                memory = new DefinitionMemory(id);
+            }
+            memory.bytes += bytes;
+            if (memory.bytes <= 0) {
+                meterRegistry.remove(memory.gauge);
+                return null;
+            }
+            return memory;
+        });
+    }
+
+    private final class DefinitionMemory {
+
+        private final Gauge gauge;
+        private volatile long bytes;
+
+        private DefinitionMemory(long processDefinitionId) {
+            gauge = Gauge.builder(TRANSIENT_DATA_MEMORY, this, memory -> memory.bytes)
+                    .tags(Tags.of("tenant", String.valueOf(tenantId), "processDefinition",
+                            String.valueOf(processDefinitionId)))
+                    .baseUnit("bytes")
+                    .description("Off-heap memory used by the transient data of the process definition")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Entry {
+
+        private final ByteBuffer buffer;
+        private final long processDefinitionId;
+
+        private Entry(ByteBuffer buffer, long processDefinitionId) {
+            this.buffer = buffer;
+            this.processDefinitionId = processDefinitionId;
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.data.instance.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.function.Supplier;
+
+import org.bonitasoft.engine.data.instance.model.SBlobDataInstance;
+import org.bonitasoft.engine.data.instance.model.SBooleanDataInstance;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+import org.bonitasoft.engine.data.instance.model.SDateDataInstance;
+import org.bonitasoft.engine.data.instance.model.SDoubleDataInstance;
+import org.bonitasoft.engine.data.instance.model.SFloatDataInstance;
+import org.bonitasoft.engine.data.instance.model.SIntegerDataInstance;
+import org.bonitasoft.engine.data.instance.model.SLongDataInstance;
+import org.bonitasoft.engine.data.instance.model.SLongTextDataInstance;
+import org.bonitasoft.engine.data.instance.model.SShortTextDataInstance;
+import org.bonitasoft.engine.data.instance.model.SXMLDataInstance;
+
+/**
+ * Compact binary form of the transient data instances.
+ * <p>
+ * Data instances of the simple types are written field by field, with their value in its primitive form. Other data
+ * instances, e.g. holding any serializable object, are written using java serialization.
+ */
+class TransientDataSerializer {
+
+    private static final int NULL_LENGTH = -1;
+
+    private enum Format {
+        SERIALIZED(null, null),
+        SHORT_TEXT(SShortTextDataInstance.class, SShortTextDataInstance::new),
+        LONG_TEXT(SLongTextDataInstance.class, SLongTextDataInstance::new),
+        XML(SXMLDataInstance.class, SXMLDataInstance::new),
+        BOOLEAN(SBooleanDataInstance.class, SBooleanDataInstance::new),
+        INTEGER(SIntegerDataInstance.class, SIntegerDataInstance::new),
+        LONG(SLongDataInstance.class, SLongDataInstance::new),
+        FLOAT(SFloatDataInstance.class, SFloatDataInstance::new),
+        DOUBLE(SDoubleDataInstance.class, SDoubleDataInstance::new),
+        DATE(SDateDataInstance.class, SDateDataInstance::new),
+        BLOB(SBlobDataInstance.class, SBlobDataInstance::new);
+
+        private final Class<? extends SDataInstance> type;
+        private final Supplier<SDataInstance> factory;
+
+        Format(Class<? extends SDataInstance> type, Supplier<SDataInstance> factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        static Format of(SDataInstance dataInstance) {
+            for (Format format : values()) {
+                if (format.type == dataInstance.getClass()) {
+                    return format;
+                }
+            }
+            return SERIALIZED;
+        }
+    }
+
+    byte[] write(SDataInstance dataInstance) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            Format format = Format.of(dataInstance);
+            output.writeByte(format.ordinal());
+            if (format == Format.SERIALIZED) {
+                try (ObjectOutputStream objectOutput = new ObjectOutputStream(output)) {
+                    objectOutput.writeObject(dataInstance);
+                }
+                return bytes.toByteArray();
+            }
+            output.writeLong(dataInstance.getTenantId());
+            output.writeLong(dataInstance.getId());
+            writeString(output, dataInstance.getName());
+            writeString(output, dataInstance.getDescription());
+            output.writeBoolean(dataInstance.isTransientData());
+            writeString(output, dataInstance.getClassName());
+            output.writeLong(dataInstance.getContainerId());
+            writeString(output, dataInstance.getContainerType());
+            writeValue(output, format, dataInstance);
+        }
+        return bytes.toByteArray();
+    }
+
+    SDataInstance read(byte[] content) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            Format format = Format.values()[input.readByte()];
+            if (format == Format.SERIALIZED) {
+                try (ObjectInputStream objectInput = new ObjectInputStream(input)) {
+                    return (SDataInstance) objectInput.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+            SDataInstance dataInstance = format.factory.get();
+            dataInstance.setTenantId(input.readLong());
+            dataInstance.setId(input.readLong());
+            dataInstance.setName(readString(input));
+            dataInstance.setDescription(readString(input));
+            dataInstance.setTransientData(input.readBoolean());
+            dataInstance.setClassName(readString(input));
+            dataInstance.setContainerId(input.readLong());
+            dataInstance.setContainerType(readString(input));
+            readValue(input, format, dataInstance);
+            return dataInstance;
+        }
+    }
+
+    private void writeValue(DataOutputStream output, Format format, SDataInstance dataInstance) throws IOException {
+        Object value = dataInstance.getValue();
+        if (format == Format.XML) {
+            writeString(output, ((SXMLDataInstance) dataInstance).getNamespace());
+            writeString(output, ((SXMLDataInstance) dataInstance).getElement());
+        }
+        if (format == Format.SHORT_TEXT || format == Format.LONG_TEXT || format == Format.XML) {
+            writeString(output, (String) value);
+            return;
+        }
+        if (format == Format.BLOB) {
+            writeBytes(output, (byte[]) value);
+            return;
+        }
+        output.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+        switch (format) {
+            case BOOLEAN:
+                output.writeBoolean((Boolean) value);
+                break;
+            case INTEGER:
+                output.writeInt((Integer) value);
+                break;
+            case LONG:
+                output.writeLong((Long) value);
+                break;
+            case FLOAT:
+                output.writeFloat((Float) value);
+                break;
+            case DOUBLE:
+                output.writeDouble((Double) value);
+                break;
+            case DATE:
+                output.writeLong(((Date) value).getTime());
+                break;
+            default:
+                throw new IllegalStateException("Unexpected format " + format);
+        }
+    }
+
+    private void readValue(DataInputStream input, Format format, SDataInstance dataInstance) throws IOException {
+        if (format == Format.XML) {
+            ((SXMLDataInstance) dataInstance).setNamespace(readString(input));
+            ((SXMLDataInstance) dataInstance).setElement(readString(input));
+        }
+        if (format == Format.SHORT_TEXT || format == Format.LONG_TEXT || format == Format.XML) {
+            dataInstance.setValue(readString(input));
+            return;
+        }
+        if (format == Format.BLOB) {
+            dataInstance.setValue(readBytes(input));
+            return;
+        }
+        if (!input.readBoolean()) {
+            return;
+        }
+        switch (format) {
+            case BOOLEAN:
+                dataInstance.setValue(input.readBoolean());
+                break;
+            case INTEGER:
+                dataInstance.setValue(input.readInt());
+                break;
+            case LONG:
+                dataInstance.setValue(input.readLong());
+                break;
+            case FLOAT:
+                dataInstance.setValue(input.readFloat());
+                break;
+            case DOUBLE:
+                dataInstance.setValue(input.readDouble());
+                break;
+            case DATE:
+                dataInstance.setValue(new Date(input.readLong()));
+                break;
+            default:
+                throw new IllegalStateException("Unexpected format " + format);
+        }
+    }
+
+    // DataOutput#writeUTF is limited to 64KB, which is too small for text or XML values
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        byte[] bytes = readBytes(input);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        if (value == null) {
+            output.writeInt(NULL_LENGTH);
+            return;
+        }
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    private byte[] readBytes(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+}
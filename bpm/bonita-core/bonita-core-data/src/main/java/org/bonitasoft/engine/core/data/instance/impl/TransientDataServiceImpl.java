@@ -22,9 +22,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.lang3.text.WordUtils;
 import org.bonitasoft.engine.cache.CacheService;
 import org.bonitasoft.engine.cache.SCacheException;
@@ -55,6 +60,9 @@ import org.bonitasoft.engine.expression.exception.SExpressionException;
 import org.bonitasoft.engine.expression.model.SExpression;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,17 +75,27 @@ public class TransientDataServiceImpl implements TransientDataService {
     private static final Logger log = LoggerFactory.getLogger(TransientDataServiceImpl.class);
     static final String TRANSIENT_DATA_CACHE_NAME = "transient_data";
 
-    private final CacheService cacheService;
+    private final TransientDataStore store;
+    // keys of the stored data instances, by container, to delete them without going through all the keys of the store
+    private final Map<String, Set<String>> keysByContainer = new ConcurrentHashMap<>();
     private final ExpressionResolverService expressionResolverService;
 
     private final FlowNodeInstanceService flowNodeInstanceService;
     private final ProcessDefinitionService processDefinitionService;
+    private final UserTransactionService transactionService;
 
+    /**
+     * @param offHeap true to store the transient data outside of the java heap instead of in the
+     *        <code>transient_data</code> cache
+     */
     public TransientDataServiceImpl(final CacheService cacheService,
             ExpressionResolverService expressionResolverService,
             FlowNodeInstanceService flowNodeInstanceService,
-            ProcessDefinitionService processDefinitionService) {
-        this.cacheService = cacheService;
+            ProcessDefinitionService processDefinitionService, UserTransactionService transactionService,
+            boolean offHeap, MeterRegistry meterRegistry, Long tenantId) {
+        this.store = offHeap ? new OffHeapTransientDataStore(meterRegistry, tenantId)
+                : new CacheTransientDataStore(cacheService);
+        this.transactionService = transactionService;
         this.expressionResolverService = expressionResolverService;
         this.flowNodeInstanceService = flowNodeInstanceService;
         this.processDefinitionService = processDefinitionService;
@@ -101,12 +119,25 @@ public class TransientDataServiceImpl implements TransientDataService {
         return getKey(dataInstance.getName(), dataInstance.getContainerId(), dataInstance.getContainerType());
     }
 
+    private static String getContainerKey(final long containerId, final String containerType) {
+        return containerId + ":" + containerType;
+    }
+
     @Override
     public void createDataInstance(final SDataInstance dataInstance) throws SDataInstanceException {
+        createDataInstance(dataInstance, TransientDataStore.UNKNOWN_PROCESS_DEFINITION);
+    }
+
+    @Override
+    public void createDataInstance(final SDataInstance dataInstance, final long processDefinitionId)
+            throws SDataInstanceException {
         try {
             final String dataInstanceKey = getKey(dataInstance);
             setId(dataInstance);
-            cacheService.store(TRANSIENT_DATA_CACHE_NAME, dataInstanceKey, dataInstance);
+            store.put(dataInstanceKey, dataInstance, processDefinitionId);
+            keysByContainer.computeIfAbsent(
+                    getContainerKey(dataInstance.getContainerId(), dataInstance.getContainerType()),
+                    k -> ConcurrentHashMap.newKeySet()).add(dataInstanceKey);
         } catch (final Exception e) {
             throw new SDataInstanceException("Impossible to store transient data", e);
         }
@@ -134,7 +165,7 @@ public class TransientDataServiceImpl implements TransientDataService {
                             + " with id: " + dataInstance.getId() + " in TransientDataInstanceDataSource.", e);
                 }
             }
-            cacheService.store(TRANSIENT_DATA_CACHE_NAME, key, dataInstance);
+            store.update(key, dataInstance);
         } catch (final SCacheException e) {
             throw new SDataInstanceException("Impossible to update transient data", e);
         }
@@ -144,18 +175,51 @@ public class TransientDataServiceImpl implements TransientDataService {
     public void deleteDataInstance(final SDataInstance dataInstance) throws SDataInstanceException {
         try {
             final String key = getKey(dataInstance);
-            cacheService.remove(TRANSIENT_DATA_CACHE_NAME, key);
+            store.remove(key);
+            final Set<String> containerKeys = keysByContainer
+                    .get(getContainerKey(dataInstance.getContainerId(), dataInstance.getContainerType()));
+            if (containerKeys != null) {
+                containerKeys.remove(key);
+            }
         } catch (final SCacheException e) {
             throw new SDataInstanceException("Impossible to delete transient data", e);
         }
     }
 
+    @Override
+    public void deleteDataInstances(final long containerId, final String containerType)
+            throws SDataInstanceException {
+        try {
+            // values set by the transaction are still needed if it is rolled back and its work executed again
+            transactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) txState -> {
+                if (txState == Status.STATUS_COMMITTED) {
+                    removeContainerData(containerId, containerType);
+                }
+            });
+        } catch (final STransactionNotFoundException e) {
+            removeContainerData(containerId, containerType);
+        }
+    }
+
+    private void removeContainerData(final long containerId, final String containerType) {
+        final Set<String> containerKeys = keysByContainer.remove(getContainerKey(containerId, containerType));
+        if (containerKeys == null) {
+            return;
+        }
+        try {
+            for (final String key : containerKeys) {
+                store.remove(key);
+            }
+        } catch (final SCacheException e) {
+            log.warn("Unable to delete transient data of {} {}", containerType, containerId, e);
+        }
+    }
+
     @Override
     public SDataInstance getDataInstance(final long dataInstanceId) throws SDataInstanceException {
         try {
-            final List<?> cacheKeys = getCacheKeys(TRANSIENT_DATA_CACHE_NAME);
-            for (final Object key : cacheKeys) {
-                final SDataInstance dataInstance = (SDataInstance) cacheService.get(TRANSIENT_DATA_CACHE_NAME, key);
+            for (final String key : store.getKeys()) {
+                final SDataInstance dataInstance = store.get(key);
                 if (dataInstance != null && dataInstance.getId() == dataInstanceId) {
                     return dataInstance;
                 }
@@ -170,28 +234,19 @@ public class TransientDataServiceImpl implements TransientDataService {
     public SDataInstance getDataInstance(final String dataName, final long containerId, final String containerType)
             throws SDataInstanceException {
         try {
-            final List<?> cacheKeys = getCacheKeys(TRANSIENT_DATA_CACHE_NAME);
             final String key = getKey(dataName, containerId, containerType);
 
-            if (!cacheKeys.contains(key)) {
+            if (!store.contains(key)) {
                 reevaluateTransientData(dataName, containerId, containerType);
             }
 
-            return (SDataInstance) cacheService.get(TRANSIENT_DATA_CACHE_NAME, key);
+            return store.get(key);
         } catch (final SCacheException | SProcessDefinitionNotFoundException | SBonitaReadException
                 | SFlowNodeNotFoundException | SFlowNodeReadException | SExpressionException e) {
             throw new SDataInstanceException("Impossible to get transient data: ", e);
         }
     }
 
-    private List<?> getCacheKeys(final String cacheName) throws SCacheException {
-        List<?> cacheKeys = Collections.emptyList();
-        if (cacheService.getCachesNames().contains(cacheName)) {
-            cacheKeys = cacheService.getKeys(cacheName);
-        }
-        return cacheKeys;
-    }
-
     private void reevaluateTransientData(final String name, final long containerId, final String containerType)
             throws SProcessDefinitionNotFoundException, SBonitaReadException, SFlowNodeNotFoundException,
             SFlowNodeReadException, SDataInstanceException, SExpressionException {
@@ -245,7 +300,7 @@ public class TransientDataServiceImpl implements TransientDataService {
 
         try {
             createDataInstance(SDataInstanceBuilder.createNewInstance(dataDefinition, containerId, containerType.name(),
-                    dataValue));
+                    dataValue), expressionContext.getProcessDefinitionId());
         } catch (final SDataInstanceNotWellFormedException e) {
             throw new SDataInstanceReadException(e);
         }
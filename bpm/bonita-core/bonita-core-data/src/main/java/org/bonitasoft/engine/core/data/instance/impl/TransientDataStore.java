@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.data.instance.impl;
+
+import java.util.List;
+
+import org.bonitasoft.engine.cache.SCacheException;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+
+/**
+ * Storage of the transient data instances, by key
+ */
+interface TransientDataStore {
+
+    /**
+     * Process definition of the data instances created without one
+     */
+    long UNKNOWN_PROCESS_DEFINITION = -1;
+
+    /**
+     * Stores a data instance, replacing the one having the same key if any
+     *
+     * @param processDefinitionId process definition of the flow node holding the data
+     */
+    void put(String key, SDataInstance dataInstance, long processDefinitionId) throws SCacheException;
+
+    /**
+     * Stores again a data instance that was changed, keeping the process definition it was created for
+     */
+    void update(String key, SDataInstance dataInstance) throws SCacheException;
+
+    SDataInstance get(String key) throws SCacheException;
+
+    boolean contains(String key) throws SCacheException;
+
+    List<String> getKeys() throws SCacheException;
+
+    void remove(String key) throws SCacheException;
+
+}
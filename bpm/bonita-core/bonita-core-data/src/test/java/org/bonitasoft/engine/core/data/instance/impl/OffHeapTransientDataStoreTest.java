@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.data.instance.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+import org.bonitasoft.engine.data.instance.model.SShortTextDataInstance;
+import org.junit.Test;
+
+public class OffHeapTransientDataStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OffHeapTransientDataStore store = new OffHeapTransientDataStore(meterRegistry, 1L);
+
+    private SShortTextDataInstance data(String name, String value) {
+        SShortTextDataInstance dataInstance = new SShortTextDataInstance();
+        dataInstance.setName(name);
+        dataInstance.setContainerId(42L);
+        dataInstance.setContainerType("ACTIVITY_INSTANCE");
+        dataInstance.setValue(value);
+        return dataInstance;
+    }
+
+    private Gauge reportedMemory(long processDefinitionId) {
+        return meterRegistry.find(OffHeapTransientDataStore.TRANSIENT_DATA_MEMORY)
+                .tag("processDefinition", String.valueOf(processDefinitionId)).gauge();
+    }
+
+    @Test
+    public void should_return_a_copy_of_the_stored_data() throws Exception {
+        SShortTextDataInstance dataInstance = data("name", "value");
+        store.put("key", dataInstance, 5L);
+
+        SDataInstance read = store.get("key");
+        read.setValue("changed");
+
+        assertThat(read).isNotSameAs(dataInstance);
+        assertThat(store.get("key").getValue()).isEqualTo("value");
+        assertThat(store.contains("key")).isTrue();
+        assertThat(store.getKeys()).containsExactly("key");
+    }
+
+    @Test
+    public void should_return_null_when_data_is_not_stored() throws Exception {
+        assertThat(store.get("unknown")).isNull();
+        assertThat(store.contains("unknown")).isFalse();
+    }
+
+    @Test
+    public void should_report_memory_used_by_process_definition() throws Exception {
+        store.put("key1", data("name1", "value"), 5L);
+        long memoryOfOneData = store.getMemoryUsage(5L);
+        store.put("key2", data("name2", "value"), 5L);
+        store.put("key3", data("name3", "a longer value"), 6L);
+
+        assertThat(memoryOfOneData).isPositive();
+        assertThat(store.getMemoryUsage(5L)).isEqualTo(2 * memoryOfOneData);
+        assertThat(reportedMemory(5L).value()).isEqualTo(2 * memoryOfOneData);
+        assertThat(store.getMemoryUsage(6L)).isGreaterThan(memoryOfOneData);
+    }
+
+    @Test
+    public void should_keep_process_definition_when_data_is_updated() throws Exception {
+        store.put("key", data("name", "value"), 5L);
+        long memoryOfOneData = store.getMemoryUsage(5L);
+
+        store.update("key", data("name", "a longer value"));
+
+        assertThat(store.get("key").getValue()).isEqualTo("a longer value");
+        assertThat(store.getMemoryUsage(5L)).isGreaterThan(memoryOfOneData).isLessThan(2 * memoryOfOneData);
+        assertThat(store.getMemoryUsage(TransientDataStore.UNKNOWN_PROCESS_DEFINITION)).isZero();
+    }
+
+    @Test
+    public void should_remove_gauge_of_process_definition_without_data() throws Exception {
+        store.put("key1", data("name1", "value"), 5L);
+        store.put("key2", data("name2", "value"), 6L);
+
+        store.remove("key1");
+
+        assertThat(store.get("key1")).isNull();
+        assertThat(store.getMemoryUsage(5L)).isZero();
+        assertThat(reportedMemory(5L)).isNull();
+        assertThat(reportedMemory(6L)).isNotNull();
+    }
+
+    @Test
+    public void should_register_gauge_again_when_process_definition_has_data_again() throws Exception {
+        store.put("key", data("name", "value"), 5L);
+        store.remove("key");
+
+        store.put("key", data("name", "value"), 5L);
+
+        assertThat(reportedMemory(5L).value()).isEqualTo(store.getMemoryUsage(5L)).isPositive();
+        assertThat(meterRegistry.find(OffHeapTransientDataStore.TRANSIENT_DATA_MEMORY).gauges()).hasSize(1);
+    }
+
+}
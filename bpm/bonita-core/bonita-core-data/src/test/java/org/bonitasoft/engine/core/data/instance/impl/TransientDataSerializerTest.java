@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.data.instance.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.bonitasoft.engine.data.instance.model.SBlobDataInstance;
+import org.bonitasoft.engine.data.instance.model.SBooleanDataInstance;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+import org.bonitasoft.engine.data.instance.model.SDateDataInstance;
+import org.bonitasoft.engine.data.instance.model.SDoubleDataInstance;
+import org.bonitasoft.engine.data.instance.model.SIntegerDataInstance;
+import org.bonitasoft.engine.data.instance.model.SLongTextDataInstance;
+import org.bonitasoft.engine.data.instance.model.SShortTextDataInstance;
+import org.bonitasoft.engine.data.instance.model.SXMLDataInstance;
+import org.bonitasoft.engine.data.instance.model.SXMLObjectDataInstance;
+import org.junit.Test;
+
+public class TransientDataSerializerTest {
+
+    private final TransientDataSerializer serializer = new TransientDataSerializer();
+
+    private <T extends SDataInstance> T data(T dataInstance, Object value) {
+        dataInstance.setTenantId(1L);
+        dataInstance.setId(12L);
+        dataInstance.setName("data");
+        dataInstance.setDescription("a transient data");
+        dataInstance.setTransientData(true);
+        dataInstance.setClassName(value != null ? value.getClass().getName() : String.class.getName());
+        dataInstance.setContainerId(42L);
+        dataInstance.setContainerType("ACTIVITY_INSTANCE");
+        dataInstance.setValue((Serializable) value);
+        return dataInstance;
+    }
+
+    private SDataInstance writeAndRead(SDataInstance dataInstance) throws Exception {
+        return serializer.read(serializer.write(dataInstance));
+    }
+
+    @Test
+    public void should_write_and_read_data_of_simple_types() throws Exception {
+        for (SDataInstance dataInstance : Arrays.asList(
+                data(new SShortTextDataInstance(), "short text"),
+                data(new SBooleanDataInstance(), true),
+                data(new SIntegerDataInstance(), 123),
+                data(new SDoubleDataInstance(), 12.5),
+                data(new SDateDataInstance(), new Date(1234567L)))) {
+            assertThat(writeAndRead(dataInstance)).isEqualTo(dataInstance);
+        }
+    }
+
+    @Test
+    public void should_write_and_read_null_values() throws Exception {
+        SIntegerDataInstance dataInstance = data(new SIntegerDataInstance(), null);
+        dataInstance.setDescription(null);
+
+        assertThat(writeAndRead(dataInstance)).isEqualTo(dataInstance);
+    }
+
+    @Test
+    public void should_write_and_read_text_longer_than_64KB() throws Exception {
+        char[] text = new char[100_000];
+        Arrays.fill(text, 'é');
+        SLongTextDataInstance dataInstance = data(new SLongTextDataInstance(), new String(text));
+
+        assertThat(writeAndRead(dataInstance)).isEqualTo(dataInstance);
+    }
+
+    @Test
+    public void should_write_and_read_xml_data_with_its_namespace() throws Exception {
+        SXMLDataInstance dataInstance = data(new SXMLDataInstance(), "<a>content</a>");
+        dataInstance.setNamespace("http://bonitasoft.org");
+        dataInstance.setElement("a");
+
+        assertThat(writeAndRead(dataInstance)).isEqualTo(dataInstance);
+    }
+
+    @Test
+    public void should_write_and_read_blob_data() throws Exception {
+        SBlobDataInstance dataInstance = data(new SBlobDataInstance(), new byte[] { 1, 2, 3 });
+
+        assertThat(writeAndRead(dataInstance).getValue()).isEqualTo(new byte[] { 1, 2, 3 });
+    }
+
+    @Test
+    public void should_write_and_read_data_holding_any_serializable_object() throws Exception {
+        SXMLObjectDataInstance dataInstance = data(new SXMLObjectDataInstance(),
+                new ArrayList<>(Arrays.asList("a", "b")));
+
+        SDataInstance read = writeAndRead(dataInstance);
+
+        assertThat(read).isInstanceOf(SXMLObjectDataInstance.class);
+        assertThat(read.getValue()).isEqualTo(Arrays.asList("a", "b"));
+        assertThat(read.getName()).isEqualTo("data");
+    }
+
+    @Test
+    public void should_write_simple_types_in_less_bytes_than_java_serialization() throws Exception {
+        SIntegerDataInstance dataInstance = data(new SIntegerDataInstance(), 123);
+        ByteArrayOutputStream javaSerialization = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(javaSerialization)) {
+            output.writeObject(dataInstance);
+        }
+
+        assertThat(serializer.write(dataInstance).length).isLessThan(javaSerialization.size() / 4);
+    }
+
+}
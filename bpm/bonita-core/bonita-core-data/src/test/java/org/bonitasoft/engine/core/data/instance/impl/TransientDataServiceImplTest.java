@@ -17,6 +17,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,6 +27,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.cache.CacheService;
 import org.bonitasoft.engine.cache.SCacheException;
 import org.bonitasoft.engine.core.expression.control.api.ExpressionResolverService;
@@ -41,15 +46,15 @@ import org.bonitasoft.engine.data.instance.model.SDataInstance;
 import org.bonitasoft.engine.data.instance.model.SShortTextDataInstance;
 import org.bonitasoft.engine.expression.model.SExpression;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -67,8 +72,9 @@ public class TransientDataServiceImplTest {
     @Mock
     private ProcessDefinitionService processDefinitionService;
 
-    @InjectMocks
-    @Spy
+    @Mock
+    private UserTransactionService transactionService;
+
     private TransientDataServiceImpl transientDataServiceImpl;
 
     @Rule
@@ -76,6 +82,9 @@ public class TransientDataServiceImplTest {
 
     @Before
     public void before() {
+        transientDataServiceImpl = spy(new TransientDataServiceImpl(cacheService, expressionResolverService,
+                flowNodeInstanceService, processDefinitionService, transactionService, false,
+                new SimpleMeterRegistry(), 1L));
         when(cacheService.getCachesNames()).thenReturn(Arrays.asList("transient_data"));
     }
 
@@ -130,6 +139,48 @@ public class TransientDataServiceImplTest {
         verify(cacheService).remove("transient_data", "name:42:ctype");
     }
 
+    @Test
+    public void should_delete_data_instances_of_a_container_once_transaction_is_committed() throws Exception {
+        transientDataServiceImpl.createDataInstance(data("name", 42, "ctype"));
+        transientDataServiceImpl.createDataInstance(data("name1", 42, "ctype"));
+        transientDataServiceImpl.createDataInstance(data("name", 142, "ctype"));
+        transientDataServiceImpl.createDataInstance(data("name", 42, "other"));
+
+        transientDataServiceImpl.deleteDataInstances(42, "ctype");
+
+        ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        verify(cacheService, never()).remove(eq("transient_data"), notNull());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        verify(cacheService).remove("transient_data", "name:42:ctype");
+        verify(cacheService).remove("transient_data", "name1:42:ctype");
+        verify(cacheService, times(2)).remove(eq("transient_data"), notNull());
+        // only the keys of the container are used, not all the keys of the cache
+        verify(cacheService, never()).getKeys("transient_data");
+    }
+
+    private static SShortTextDataInstance data(final String name, final long containerId,
+            final String containerType) {
+        SShortTextDataInstance data = new SShortTextDataInstance();
+        data.setName(name);
+        data.setTransientData(true);
+        data.setContainerId(containerId);
+        data.setContainerType(containerType);
+        return data;
+    }
+
+    @Test
+    public void should_keep_data_instances_of_a_container_when_transaction_is_rolled_back() throws Exception {
+        transientDataServiceImpl.deleteDataInstances(42, "ctype");
+
+        ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        verify(cacheService, never()).remove(eq("transient_data"), notNull());
+    }
+
     @Test
     public void should_getDataInstanceById_return_the_data() throws Exception {
         // given
@@ -243,7 +294,7 @@ public class TransientDataServiceImplTest {
         // then
         verify(expressionResolverService).evaluate(eq(defaultValueExpression), notNull());
         ArgumentCaptor<SDataInstance> argumentCaptor = ArgumentCaptor.forClass(SDataInstance.class);
-        verify(transientDataServiceImpl).createDataInstance(argumentCaptor.capture());
+        verify(transientDataServiceImpl).createDataInstance(argumentCaptor.capture(), eq(1L));
         SDataInstance dataInstance = argumentCaptor.getValue();
         verify(cacheService).store(TransientDataServiceImpl.TRANSIENT_DATA_CACHE_NAME,
                 TransientDataServiceImpl.getKey(dataInstance), dataInstance);
@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.expression.control.api.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bonitasoft.engine.expression.ContainerState;
+import org.bonitasoft.engine.expression.ExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.ExpressionService;
+import org.bonitasoft.engine.expression.exception.SExpressionDependencyMissingException;
+import org.bonitasoft.engine.expression.exception.SExpressionEvaluationException;
+import org.bonitasoft.engine.expression.exception.SExpressionTypeUnknownException;
+import org.bonitasoft.engine.expression.exception.SInvalidExpressionException;
+import org.bonitasoft.engine.expression.model.ExpressionKind;
+import org.bonitasoft.engine.expression.model.SExpression;
+
+/**
+ * Order in which the expressions of a tree are evaluated, computed once per tree:
+ * <ul>
+ * <li>expressions of kinds having no dependencies are evaluated first, in batches, one per kind, following
+ * {@link ExpressionExecutorStrategy#NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER}</li>
+ * <li>then the other expressions are evaluated one by one, each after its dependencies</li>
+ * </ul>
+ * Each expression is evaluated only once, even if it is a dependency of several expressions. Discriminants are
+ * computed when the plan is built, they are not computed again on each evaluation.
+ */
+class ExpressionEvaluationPlan {
+
+    private static final ExpressionKind KIND_VARIABLE = ExpressionExecutorStrategy.KIND_VARIABLE;
+
+    private final ExpressionKind[] batchKinds;
+    private final List<List<SExpression>> batches;
+    private final int[][] batchKeys;
+    private final SExpression[] steps;
+    private final int[] stepKeys;
+    private final SExpression[] expressions;
+    private final int[] resultKeys;
+    private final List<SExpression> variableExpressions;
+
+    private ExpressionEvaluationPlan(Map<ExpressionKind, List<SExpression>> batchesByKind, List<SExpression> steps,
+            List<SExpression> expressions) {
+        batchKinds = batchesByKind.keySet().toArray(new ExpressionKind[0]);
+        batches = new ArrayList<>(batchesByKind.values());
+        batchKeys = new int[batchKinds.length][];
+        for (int i = 0; i < batchKinds.length; i++) {
+            batchKeys[i] = discriminants(batches.get(i));
+        }
+        this.steps = steps.toArray(new SExpression[0]);
+        stepKeys = discriminants(steps);
+        this.expressions = expressions.toArray(new SExpression[0]);
+        resultKeys = discriminants(expressions);
+        final List<SExpression> variables = batchesByKind.get(KIND_VARIABLE);
+        variableExpressions = variables != null ? variables : new ArrayList<>();
+    }
+
+    static ExpressionEvaluationPlan compile(List<SExpression> expressions) {
+        final Map<ExpressionKind, List<SExpression>> noDependencyExpressions = new HashMap<>();
+        final Set<Integer> plannedKeys = new HashSet<>();
+        collectExpressionsWithNoDependency(expressions, noDependencyExpressions, plannedKeys);
+        // batches are evaluated in the order of NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER
+        final Map<ExpressionKind, List<SExpression>> batches = new LinkedHashMap<>();
+        for (final ExpressionKind kind : ExpressionExecutorStrategy.NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER) {
+            final List<SExpression> expressionsOfKind = noDependencyExpressions.get(kind);
+            if (expressionsOfKind != null) {
+                batches.put(kind, expressionsOfKind);
+            }
+        }
+        final List<SExpression> steps = new ArrayList<>();
+        for (final SExpression expression : expressions) {
+            addStepsInDependencyOrder(expression, steps, plannedKeys);
+        }
+        return new ExpressionEvaluationPlan(batches, steps, expressions);
+    }
+
+    private static void collectExpressionsWithNoDependency(Collection<SExpression> expressions,
+            Map<ExpressionKind, List<SExpression>> expressionsByKind, Set<Integer> plannedKeys) {
+        for (final SExpression expression : expressions) {
+            if (expression == null) {
+                continue;
+            }
+            final ExpressionKind kind = expression.getExpressionKind();
+            if (ExpressionExecutorStrategy.NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER.contains(kind)
+                    && plannedKeys.add(expression.getDiscriminant())) {
+                expressionsByKind.computeIfAbsent(kind, k -> new ArrayList<>()).add(expression);
+            }
+            collectExpressionsWithNoDependency(expression.getDependencies(), expressionsByKind, plannedKeys);
+        }
+    }
+
+    private static void addStepsInDependencyOrder(SExpression expression, List<SExpression> steps,
+            Set<Integer> plannedKeys) {
+        if (expression == null) {
+            return;
+        }
+        for (final SExpression dependency : expression.getDependencies()) {
+            addStepsInDependencyOrder(dependency, steps, plannedKeys);
+        }
+        if (plannedKeys.add(expression.getDiscriminant())) {
+            steps.add(expression);
+        }
+    }
+
+    private static int[] discriminants(List<SExpression> expressions) {
+        final int[] keys = new int[expressions.size()];
+        for (int i = 0; i < keys.length; i++) {
+            final SExpression expression = expressions.get(i);
+            keys[i] = expression != null ? expression.getDiscriminant() : 0;
+        }
+        return keys;
+    }
+
+    /**
+     * @return the expressions of type VARIABLE of the tree
+     */
+    List<SExpression> getVariableExpressions() {
+        return variableExpressions;
+    }
+
+    /**
+     * @return the results of the evaluation of the expressions the plan was built for, in the same order
+     */
+    List<Object> evaluate(ExpressionService expressionService, Map<String, Object> dependencyValues,
+            ContainerState containerState) throws SExpressionTypeUnknownException, SExpressionEvaluationException,
+            SExpressionDependencyMissingException, SInvalidExpressionException {
+        final Map<Integer, Object> resolvedExpressions = new HashMap<>((stepKeys.length + batchKinds.length) * 2);
+        for (int i = 0; i < batchKinds.length; i++) {
+            final List<SExpression> batch = batches.get(i);
+            final List<Object> results = expressionService.evaluate(batchKinds[i], batch, dependencyValues,
+                    resolvedExpressions, containerState);
+            final boolean putInContext = expressionService.mustPutEvaluatedExpressionInContext(batchKinds[i]);
+            for (int j = 0; j < results.size(); j++) {
+                addResult(resolvedExpressions, dependencyValues, batch.get(j), batchKeys[i][j], results.get(j),
+                        putInContext);
+            }
+        }
+        for (int i = 0; i < steps.length; i++) {
+            final SExpression step = steps[i];
+            final Object result = expressionService.evaluate(step, dependencyValues, resolvedExpressions,
+                    containerState);
+            addResult(resolvedExpressions, dependencyValues, step, stepKeys[i], result,
+                    expressionService.mustPutEvaluatedExpressionInContext(step.getExpressionKind()));
+        }
+        final List<Object> results = new ArrayList<>(expressions.length);
+        for (int i = 0; i < expressions.length; i++) {
+            final SExpression expression = expressions[i];
+            if (expression == null) {
+                results.add(null);
+                continue;
+            }
+            final Object result = resolvedExpressions.get(resultKeys[i]);
+            if (result == null && !resolvedExpressions.containsKey(resultKeys[i])) {
+                throw new SExpressionEvaluationException("No result found for the expression " + expression,
+                        expression.getName());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void addResult(Map<Integer, Object> resolvedExpressions, Map<String, Object> dependencyValues,
+            SExpression expression, int key, Object result, boolean putInContext) {
+        resolvedExpressions.put(key, result);
+        if (putInContext) {
+            dependencyValues.put(expression.getContent(), result);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.expression.control.api.impl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bonitasoft.engine.expression.model.SExpression;
+
+/**
+ * Evaluation plans of the expressions evaluated alone, by expression content.
+ * <p>
+ * Expressions are compared by content, so that expressions given through the API, which are new instances on each
+ * call, reuse the plan of an equal expression. Expressions compute their hash once, so a lookup of an expression of a
+ * process definition does not go through its whole tree. Lookups take no lock. Once the maximum size is reached,
+ * arbitrary plans are evicted, so that plans of expressions that are not used anymore do not pile up.
+ */
+class ExpressionEvaluationPlanCache {
+
+    private final Map<SExpression, ExpressionEvaluationPlan> plans = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    ExpressionEvaluationPlanCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    ExpressionEvaluationPlan get(SExpression expression) {
+        if (maxSize <= 0) {
+            return ExpressionEvaluationPlan.compile(Collections.singletonList(expression));
+        }
+        ExpressionEvaluationPlan plan = plans.get(expression);
+        if (plan == null) {
+            // compiled without blocking other lookups: at worst the plan of an expression is built twice
+            plan = ExpressionEvaluationPlan.compile(Collections.singletonList(expression));
+            plans.put(expression, plan);
+            evictIfFull(expression);
+        }
+        return plan;
+    }
+
+    private void evictIfFull(SExpression added) {
+        Iterator<SExpression> expressions = plans.keySet().iterator();
+        while (plans.size() > maxSize && expressions.hasNext()) {
+            if (expressions.next() != added) {
+                expressions.remove();
+            }
+        }
+    }
+
+    int size() {
+        return plans.size();
+    }
+
+}
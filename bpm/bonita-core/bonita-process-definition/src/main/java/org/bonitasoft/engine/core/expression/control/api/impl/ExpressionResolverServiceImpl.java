@@ -15,8 +15,6 @@ package org.bonitasoft.engine.core.expression.control.api.impl;
 
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -32,15 +30,11 @@ import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
 import org.bonitasoft.engine.core.process.definition.exception.SProcessDefinitionNotFoundException;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.dependency.model.ScopeType;
-import org.bonitasoft.engine.expression.ContainerState;
-import org.bonitasoft.engine.expression.ExpressionExecutorStrategy;
 import org.bonitasoft.engine.expression.ExpressionService;
-import org.bonitasoft.engine.expression.ExpressionType;
 import org.bonitasoft.engine.expression.exception.SExpressionDependencyMissingException;
 import org.bonitasoft.engine.expression.exception.SExpressionEvaluationException;
 import org.bonitasoft.engine.expression.exception.SExpressionTypeUnknownException;
 import org.bonitasoft.engine.expression.exception.SInvalidExpressionException;
-import org.bonitasoft.engine.expression.model.ExpressionKind;
 import org.bonitasoft.engine.expression.model.SExpression;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
 import org.bonitasoft.engine.tracking.TimeTracker;
@@ -64,13 +58,17 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
 
     private final TimeTracker timeTracker;
 
+    private final ExpressionEvaluationPlanCache evaluationPlans;
+
     public ExpressionResolverServiceImpl(final ExpressionService expressionService,
             final ProcessDefinitionService processDefinitionService,
-            final ClassLoaderService classLoaderService, final TimeTracker timeTracker) {
+            final ClassLoaderService classLoaderService, final TimeTracker timeTracker,
+            final int evaluationPlanCacheSize) {
         this.expressionService = expressionService;
         this.processDefinitionService = processDefinitionService;
         this.classLoaderService = classLoaderService;
         this.timeTracker = timeTracker;
+        evaluationPlans = new ExpressionEvaluationPlanCache(evaluationPlanCacheSize);
     }
 
     @Override
@@ -106,6 +104,12 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
             final SExpressionContext evaluationContext)
             throws SInvalidExpressionException, SExpressionTypeUnknownException, SExpressionEvaluationException,
             SExpressionDependencyMissingException {
+        final ExpressionEvaluationPlan evaluationPlan;
+        if (expressions.size() == 1 && expressions.get(0) != null) {
+            evaluationPlan = evaluationPlans.get(expressions.get(0));
+        } else {
+            evaluationPlan = ExpressionEvaluationPlan.compile(expressions);
+        }
         final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
         SExpressionContext newEvaluationContext = EMPTY_CONTEXT;
         try {
@@ -117,36 +121,19 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
 
             loadProcessClassLoader(newEvaluationContext);
 
-            final Map<SExpression, SExpression> dataReplacement = new HashMap<>();
-            // We incrementally build the Map of already resolved expressions:
-            final Map<Integer, Object> resolvedExpressions = new HashMap<>();
-            // Let's evaluate all expressions with no dependencies first:
-            resolvedExpressions.putAll(evaluateAllExpressionsWithNoDependencies(dependencyValues, dataReplacement,
-                    expressions, newEvaluationContext));
-
-            for (final SExpression sExpression : expressions) {
-                if (sExpression != null) {
-                    // Then evaluate recursively all remaining expressions:
-                    resolvedExpressions.putAll(evaluateExpressionWithResolvedDependencies(sExpression, dependencyValues,
-                            dataReplacement, resolvedExpressions,
-                            newEvaluationContext.getContainerState()));
-                }
-            }
-            final List<Object> results = new ArrayList<>(expressions.size());
-            for (final SExpression sExpression : expressions) {
-                if (sExpression != null) {
-                    final int key = sExpression.getDiscriminant();
-                    final Object res = resolvedExpressions.get(key);
-                    if (res == null && !resolvedExpressions.containsKey(key)) {
-                        throw new SExpressionEvaluationException("No result found for the expression " + sExpression,
-                                sExpression.getName());
-                    }
-                    results.add(res);
-                } else {
-                    results.add(null);
+            final List<SExpression> variableExpressions = evaluationPlan.getVariableExpressions();
+            if (newEvaluationContext.isEvaluateInDefinition() && !variableExpressions.isEmpty()) {
+                final SExpression expressionNotProvided = variablesAreAllProvided(variableExpressions,
+                        newEvaluationContext);
+                if (expressionNotProvided != null) {
+                    // We forbid the evaluation of expressions of type VARIABLE at process definition level:
+                    throw new SExpressionEvaluationException(
+                            "Evaluation of expressions of type VARIABLE is forbidden at process definition level.",
+                            expressionNotProvided.getName());
                 }
             }
-            return results;
+            return evaluationPlan.evaluate(expressionService, dependencyValues,
+                    newEvaluationContext.getContainerState());
         } catch (final SProcessDefinitionNotFoundException | SBonitaReadException e) {
             throw buildSExpressionEvaluationExceptionWhenNotFindProcess(newEvaluationContext, e);
         } catch (final SClassLoaderException e) {
@@ -178,35 +165,6 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
         return exception;
     }
 
-    private Map<Integer, Object> evaluateAllExpressionsWithNoDependencies(final Map<String, Object> dependencyValues,
-            final Map<SExpression, SExpression> dataReplacement, final List<SExpression> expressions,
-            final SExpressionContext evaluationContext)
-            throws SExpressionTypeUnknownException, SExpressionEvaluationException,
-            SExpressionDependencyMissingException, SInvalidExpressionException {
-        final Map<Integer, Object> resolvedExpressions = new HashMap<>();
-        final Map<ExpressionKind, List<SExpression>> expressionMapByKind = flattenDependencies(expressions);
-        final List<SExpression> variableExpressions = expressionMapByKind
-                .get(new ExpressionKind(ExpressionType.TYPE_VARIABLE.name()));
-
-        if (evaluationContext.isEvaluateInDefinition() && variableExpressions != null
-                && !variableExpressions.isEmpty()) {
-            final SExpression expressionNotProvided = variablesAreAllProvided(variableExpressions, evaluationContext);
-            if (expressionNotProvided != null) {
-                // We forbid the evaluation of expressions of type VARIABLE at process definition level:
-                throw new SExpressionEvaluationException(
-                        "Evaluation of expressions of type VARIABLE is forbidden at process definition level.",
-                        expressionNotProvided.getName());
-            }
-        }
-        for (final ExpressionKind kind : ExpressionExecutorStrategy.NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER) {
-            resolvedExpressions.putAll(evaluateExpressionsOfKind(dependencyValues, expressionMapByKind.get(kind), kind,
-                    dataReplacement, resolvedExpressions,
-                    evaluationContext.getContainerState()));
-            expressionMapByKind.remove(kind);
-        }
-        return resolvedExpressions;
-    }
-
     private SExpression variablesAreAllProvided(final List<SExpression> variableExpressions,
             final SExpressionContext evaluationContext) {
         final Iterator<SExpression> iterator = variableExpressions.iterator();
@@ -220,89 +178,6 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
         return null;
     }
 
-    private Map<? extends Integer, ? extends Object> evaluateExpressionWithResolvedDependencies(
-            final SExpression sExpression,
-            final Map<String, Object> dependencyValues, final Map<SExpression, SExpression> dataReplacement,
-            final Map<Integer, Object> alreadyResolvedExpressions, final ContainerState containerState)
-            throws SExpressionTypeUnknownException,
-            SExpressionEvaluationException, SExpressionDependencyMissingException, SInvalidExpressionException {
-        final Map<Integer, Object> resolvedExpressions = new HashMap<>(alreadyResolvedExpressions);
-        // Evaluate the dependencies first:
-        for (final SExpression dep : sExpression.getDependencies()) {
-            resolvedExpressions.putAll(evaluateExpressionWithResolvedDependencies(dep, dependencyValues,
-                    dataReplacement, resolvedExpressions, containerState));
-        }
-        // Then evaluate the expression itself:
-        if (!resolvedExpressions.containsKey(sExpression.getDiscriminant())) {
-            // Let's evaluate the expression only if it is not already in the list of resolved dependencies:
-            final Object exprResult = expressionService.evaluate(sExpression, dependencyValues, resolvedExpressions,
-                    containerState);
-            addResultToMap(resolvedExpressions, dataReplacement, sExpression, exprResult, dependencyValues);
-        }
-        return resolvedExpressions;
-    }
-
-    private Map<Integer, Object> evaluateExpressionsOfKind(final Map<String, Object> dependencyValues,
-            final List<SExpression> expressionsOfKind,
-            final ExpressionKind kind, final Map<SExpression, SExpression> dataReplacement,
-            final Map<Integer, Object> alreadyResolvedExpressions,
-            final ContainerState containerState) throws SExpressionTypeUnknownException, SExpressionEvaluationException,
-            SExpressionDependencyMissingException, SInvalidExpressionException {
-        final Map<Integer, Object> resolvedExpressions = new HashMap<>();
-        if (expressionsOfKind != null) {
-            final List<Object> evaluationResults = expressionService.evaluate(kind, expressionsOfKind, dependencyValues,
-                    alreadyResolvedExpressions,
-                    containerState);
-            final Iterator<SExpression> variableIterator = expressionsOfKind.iterator();
-            for (final Object evaluationResult : evaluationResults) {
-                final SExpression expression = variableIterator.next();
-                addResultToMap(resolvedExpressions, dataReplacement, expression, evaluationResult, dependencyValues);
-            }
-        }
-        return resolvedExpressions;
-    }
-
-    private void addResultToMap(final Map<Integer, Object> resolvedExpressions,
-            final Map<SExpression, SExpression> dataReplacement,
-            final SExpression expression, final Object expressionResult, final Map<String, Object> dependencyValues) {
-        resolvedExpressions.put(expression.getDiscriminant(), expressionResult);
-        if (expressionService.mustPutEvaluatedExpressionInContext(expression.getExpressionKind())) {
-            dependencyValues.put(expression.getContent(), expressionResult);
-        }
-        final SExpression replacement = dataReplacement.get(expression);
-        if (replacement != null) {
-            resolvedExpressions.put(replacement.getDiscriminant(), expressionResult);
-            if (expressionService.mustPutEvaluatedExpressionInContext(expression.getExpressionKind())) {
-                dependencyValues.put(replacement.getContent(), expressionResult);
-            }
-        }
-    }
-
-    private Map<ExpressionKind, List<SExpression>> flattenDependencies(final Collection<SExpression> collection) {
-        final Map<ExpressionKind, List<SExpression>> expressionMapByKind = new HashMap<>();
-        for (final SExpression sExpression : collection) {
-            if (sExpression == null) {
-                continue;
-            }
-            final ExpressionKind expressionKind = sExpression.getExpressionKind();
-            // Get from the map the list of expressions of given ExpressionKind
-            List<SExpression> exprList = expressionMapByKind.get(expressionKind);
-
-            // If no present, put it in the map
-            if (exprList == null) {
-                exprList = new ArrayList<>();
-                expressionMapByKind.put(expressionKind, exprList);
-            }
-            if (!exprList.contains(sExpression)) {
-                exprList.add(sExpression);
-            }
-            if (sExpression.getDependencies() != null) {
-                expressionMapByKind.putAll(flattenDependencies(sExpression.getDependencies()));
-            }
-        }
-        return expressionMapByKind;
-    }
-
     private void fillContext(final SExpressionContext evaluationContext, final Map<String, Object> dependencyValues)
             throws SProcessDefinitionNotFoundException, SBonitaReadException {
         if (evaluationContext.getContainerId() == null && evaluationContext.getProcessDefinitionId() != null) {
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+
+/**
+ * Binary form of the server model of a process definition, stored next to its XML design at deploy time.
+ * <p>
+ * Reading it restores the {@link SProcessDefinition} with its lookup tables (flow nodes, transitions, boundary
+ * events...) already built, instead of parsing the XML design and converting it again.
+ * Content written by another version of the engine is ignored, the XML design must then be used.
+ * Only classes of the process definition model can be read from the content, any other class is rejected.
+ */
+public class ProcessDefinitionBinaryFormat {
+
+    private static final int MAGIC_NUMBER = 0x42504446;
+    private static final ObjectInputFilter DEFINITION_MODEL_FILTER = ObjectInputFilter.Config.createFilter(
+            "org.bonitasoft.engine.core.process.definition.model.**;"
+                    + "org.bonitasoft.engine.core.operation.model.**;"
+                    + "org.bonitasoft.engine.data.definition.model.**;"
+                    + "org.bonitasoft.engine.expression.**;"
+                    + "org.bonitasoft.engine.operation.**;"
+                    + "org.bonitasoft.engine.bpm.**;"
+                    + "java.lang.*;java.util.**;java.math.*;java.time.*;"
+                    + "!*");
+
+    private final String engineVersion;
+
+    public ProcessDefinitionBinaryFormat(String engineVersion) {
+        this.engineVersion = String.valueOf(engineVersion);
+    }
+
+    public byte[] write(SProcessDefinition processDefinition) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeUTF(engineVersion);
+            output.writeObject(processDefinition);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the process definition, or null if the content was written by another version of the engine
+     */
+    public SProcessDefinition read(byte[] content) throws IOException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(content))) {
+            input.setObjectInputFilter(DEFINITION_MODEL_FILTER);
+            if (input.readInt() != MAGIC_NUMBER || !engineVersion.equals(input.readUTF())) {
+                return null;
+            }
+            return (SProcessDefinition) input.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unable to read the binary content of the process definition", e);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Map;
 import org.bonitasoft.engine.bpm.process.ActivationState;
 import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
 import org.bonitasoft.engine.bpm.process.ProcessDeploymentInfoCriterion;
+import org.bonitasoft.engine.cache.SCacheException;
 import org.bonitasoft.engine.commons.exceptions.SObjectModificationException;
 import org.bonitasoft.engine.core.process.definition.exception.SDeletingEnabledProcessException;
 import org.bonitasoft.engine.core.process.definition.exception.SProcessDefinitionException;
@@ -101,6 +102,16 @@ public interface ProcessDefinitionService {
     SProcessDefinition getProcessDefinition(long processDefinitionId)
             throws SProcessDefinitionNotFoundException, SBonitaReadException;
 
+    /**
+     * Remove the processDefinition from the cache, now and once the current transaction is committed, so that it is
+     * read again from the database on next access
+     *
+     * @param processDefinitionId
+     *        identifier of processDefinition
+     * @throws SCacheException
+     */
+    void invalidateProcessDefinitionInCache(long processDefinitionId) throws SCacheException;
+
     /**
      * Get processDefinition by its id, if it is enabled. Throws SProcessDefinitionException otherwise.
      *
@@ -21,7 +21,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PreDestroy;
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.bpm.bar.ProcessDefinitionBARContribution;
 import org.bonitasoft.engine.bpm.process.ActivationState;
 import org.bonitasoft.engine.bpm.process.ConfigurationState;
@@ -29,8 +37,11 @@ import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
 import org.bonitasoft.engine.bpm.process.ProcessDeploymentInfoCriterion;
 import org.bonitasoft.engine.bpm.process.impl.internal.ExpressionFinder;
 import org.bonitasoft.engine.builder.BuilderFactory;
+import org.bonitasoft.engine.cache.Cache;
 import org.bonitasoft.engine.cache.CacheService;
 import org.bonitasoft.engine.cache.SCacheException;
+import org.bonitasoft.engine.cache.invalidation.CacheInvalidationBus;
+import org.bonitasoft.engine.cache.invalidation.CacheInvalidationListener;
 import org.bonitasoft.engine.commons.ClassReflector;
 import org.bonitasoft.engine.commons.NullCheckingUtil;
 import org.bonitasoft.engine.commons.Pair;
@@ -46,6 +57,7 @@ import org.bonitasoft.engine.core.process.definition.exception.SProcessEnablemen
 import org.bonitasoft.engine.core.process.definition.model.SFlowElementContainerDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SFlowNodeDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionBinaryContent;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDeployInfo;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDesignContent;
 import org.bonitasoft.engine.core.process.definition.model.STransitionDefinition;
@@ -62,6 +74,7 @@ import org.bonitasoft.engine.persistence.OrderByType;
 import org.bonitasoft.engine.persistence.QueryOptions;
 import org.bonitasoft.engine.persistence.ReadPersistenceService;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.persistence.SelectByIdDescriptor;
 import org.bonitasoft.engine.persistence.SelectListDescriptor;
 import org.bonitasoft.engine.persistence.SelectOneDescriptor;
 import org.bonitasoft.engine.queriablelogger.model.SQueriableLog;
@@ -79,6 +92,9 @@ import org.bonitasoft.engine.recorder.model.UpdateRecord;
 import org.bonitasoft.engine.services.QueriableLoggerService;
 import org.bonitasoft.engine.session.SessionService;
 import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 
 /**
  * @author Baptiste Mesta
@@ -89,27 +105,69 @@ import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
  * @author Celine Souchet
  * @author Arthur Freycon
  */
+@Slf4j
 public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
 
+    public static final String PROCESS_DEFINITION_CACHE_ACCESS = "bonita.bpmengine.processdefinition.cache";
+
     private final Recorder recorder;
     private final ReadPersistenceService persistenceService;
     private final SessionService sessionService;
     private final ReadSessionAccessor sessionAccessor;
     private final QueriableLoggerService queriableLoggerService;
-    private final CacheService cacheService;
+    private final Cache<Long, Pair<Long, SProcessDefinition>> processDefinitionCache;
+    private final ProcessDefinitionBinaryFormat binaryFormat;
+    private final UserTransactionService transactionService;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheInvalidationListener invalidationListener = this::evictFromCache;
+    private final long revalidationDelay;
+    private final long tenantId;
+    // last time the version of the cached definitions was checked against the database
+    private final Map<Long, Long> lastValidations = new ConcurrentHashMap<>();
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
     protected ProcessDefinitionBARContribution processDefinitionBARContribution;
 
+    /**
+     * @param revalidationDelay delay in milliseconds after which the version of a cached definition is checked again
+     *        against the database: 0 to check it on each access, a negative value to rely only on the invalidation
+     *        done when definitions are updated or deleted, which is propagated to the other nodes by the
+     *        invalidation bus.
+     */
     public ProcessDefinitionServiceImpl(final Recorder recorder, final ReadPersistenceService persistenceService,
             final SessionService sessionService,
             final ReadSessionAccessor sessionAccessor, final QueriableLoggerService queriableLoggerService,
-            CacheService cacheService) {
+            CacheService cacheService, ProcessDefinitionBinaryFormat binaryFormat,
+            UserTransactionService transactionService, CacheInvalidationBus invalidationBus, long revalidationDelay,
+            MeterRegistry meterRegistry, Long tenantId) {
         this.recorder = recorder;
         this.persistenceService = persistenceService;
         this.sessionService = sessionService;
         this.sessionAccessor = sessionAccessor;
         this.queriableLoggerService = queriableLoggerService;
-        this.cacheService = cacheService;
+        this.processDefinitionCache = cacheService.getCache(PROCESS_CACHE_NAME);
+        this.binaryFormat = binaryFormat;
+        this.transactionService = transactionService;
+        this.invalidationBus = invalidationBus;
+        this.revalidationDelay = revalidationDelay;
+        this.tenantId = tenantId;
         processDefinitionBARContribution = new ProcessDefinitionBARContribution();
+        cacheHitCounter = Counter.builder(PROCESS_DEFINITION_CACHE_ACCESS)
+                .tags(Tags.of("tenant", String.valueOf(tenantId), "result", "hit"))
+                .baseUnit("accesses")
+                .description("Process definitions served from the cache")
+                .register(meterRegistry);
+        cacheMissCounter = Counter.builder(PROCESS_DEFINITION_CACHE_ACCESS)
+                .tags(Tags.of("tenant", String.valueOf(tenantId), "result", "miss"))
+                .baseUnit("accesses")
+                .description("Process definitions read from the database")
+                .register(meterRegistry);
+        invalidationBus.subscribe(tenantId, PROCESS_CACHE_NAME, invalidationListener);
+    }
+
+    @PreDestroy
+    public void stop() {
+        invalidationBus.unsubscribe(tenantId, PROCESS_CACHE_NAME, invalidationListener);
     }
 
     @Override
@@ -130,8 +188,10 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
 
         try {
             recorder.recordDelete(new DeleteRecord(processDefinitionDeployInfo), PROCESSDEFINITION);
+            storeBinaryContent(processId, null);
+            invalidateProcessDefinitionInCache(processId);
             log(processId, SQueriableLog.STATUS_OK, logBuilder, "delete");
-        } catch (final SRecorderException e) {
+        } catch (final SRecorderException | SBonitaReadException | SCacheException e) {
             log(processId, SQueriableLog.STATUS_FAIL, logBuilder, "delete");
             throw new SProcessDeletionException(e, processDefinitionDeployInfo);
         }
@@ -250,14 +310,21 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
     public SProcessDefinition getProcessDefinition(final long processId)
             throws SProcessDefinitionNotFoundException, SBonitaReadException {
         try {
-            //get from database
-            final SProcessDefinitionDeployInfo processDeploymentInfo = getProcessDeploymentInfo(processId);
             //get from cache
             final Pair<Long, SProcessDefinition> processWithTimestamp = getSProcessDefinitionFromCache(processId);
+            if (processWithTimestamp != null && !isRevalidationNeeded(processId)) {
+                cacheHitCounter.increment();
+                return processWithTimestamp.getValue();
+            }
+            //get from database
+            final SProcessDefinitionDeployInfo processDeploymentInfo = getProcessDeploymentInfo(processId);
             //read SProcessDefinition if needed
             if (isSProcessDefinitionUpToDate(processDeploymentInfo, processWithTimestamp)) {
+                cacheMissCounter.increment();
                 return readSProcessDefinitionFromDatabase(processId, processDeploymentInfo);
             } else {
+                cacheHitCounter.increment();
+                lastValidations.put(processId, System.currentTimeMillis());
                 return processWithTimestamp.getValue();
             }
         } catch (IOException | SReflectException | SCacheException e) {
@@ -265,26 +332,94 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
         }
     }
 
+    private boolean isRevalidationNeeded(long processId) {
+        if (revalidationDelay < 0) {
+            return false;
+        }
+        final Long lastValidation = lastValidations.get(processId);
+        return lastValidation == null || System.currentTimeMillis() - lastValidation >= revalidationDelay;
+    }
+
     SProcessDefinition readSProcessDefinitionFromDatabase(long processId,
-            SProcessDefinitionDeployInfo processDeploymentInfo) throws IOException, SReflectException, SCacheException {
-        final DesignProcessDefinition objectFromXML = processDefinitionBARContribution
-                .convertXmlToProcess(processDeploymentInfo.getDesignContent()
-                        .getContent());
-        SProcessDefinition sProcessDefinition = convertDesignProcessDefinition(objectFromXML);
-        setIdOnProcessDefinition(sProcessDefinition, processId);
+            SProcessDefinitionDeployInfo processDeploymentInfo)
+            throws IOException, SReflectException, SCacheException, SBonitaReadException {
+        SProcessDefinition sProcessDefinition = readBinaryContent(processId);
+        if (sProcessDefinition == null) {
+            final DesignProcessDefinition objectFromXML = processDefinitionBARContribution
+                    .convertXmlToProcess(processDeploymentInfo.getDesignContent()
+                            .getContent());
+            sProcessDefinition = convertDesignProcessDefinition(objectFromXML);
+            setIdOnProcessDefinition(sProcessDefinition, processId);
+        }
         storeProcessDefinitionInCache(sProcessDefinition, processDeploymentInfo.getLastUpdateDate());
+        lastValidations.put(processId, System.currentTimeMillis());
         return sProcessDefinition;
     }
 
+    private SProcessDefinition readBinaryContent(long processId) throws SBonitaReadException {
+        final SProcessDefinitionBinaryContent binaryContent = getBinaryContent(processId, true);
+        if (binaryContent == null) {
+            return null;
+        }
+        try {
+            return binaryFormat.read(binaryContent.getContent());
+        } catch (final IOException e) {
+            log.warn("Unable to read the binary content of process definition {}, its XML content is used instead",
+                    processId, e);
+            return null;
+        }
+    }
+
+    private SProcessDefinitionBinaryContent getBinaryContent(long processId, boolean readOnly)
+            throws SBonitaReadException {
+        // only loaded here, the deploy infos do not reference it
+        return persistenceService
+                .selectById(new SelectByIdDescriptor<>(SProcessDefinitionBinaryContent.class, processId, readOnly));
+    }
+
+    /**
+     * Replace the binary content of the process definition by the given one, or delete it when the given one is null:
+     * the XML content is then used to read it
+     */
+    void storeBinaryContent(long processId, byte[] content) throws SBonitaReadException, SRecorderException {
+        final SProcessDefinitionBinaryContent binaryContent = getBinaryContent(processId, false);
+        if (binaryContent == null) {
+            if (content != null) {
+                recorder.recordInsert(new InsertRecord(
+                        SProcessDefinitionBinaryContent.builder().id(processId).content(content).build()),
+                        PROCESSDEFINITION_CONTENT);
+            }
+        } else if (content == null) {
+            recorder.recordDelete(new DeleteRecord(binaryContent), PROCESSDEFINITION_CONTENT);
+        } else {
+            final EntityUpdateDescriptor descriptor = new EntityUpdateDescriptor();
+            descriptor.addField(SProcessDefinitionBinaryContent.CONTENT, content);
+            recorder.recordUpdate(UpdateRecord.buildSetFields(binaryContent, descriptor), PROCESSDEFINITION_CONTENT);
+        }
+    }
+
+    /**
+     * @return the binary content of the process definition, or null if it cannot be serialized: its XML content is
+     *         then used to read it
+     */
+    byte[] toBinaryContent(SProcessDefinition definition) {
+        try {
+            return binaryFormat.write(definition);
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Unable to serialize process definition {}, its XML content will be used to read it",
+                    definition.getId(), e);
+            return null;
+        }
+    }
+
     boolean isSProcessDefinitionUpToDate(SProcessDefinitionDeployInfo processDeploymentInfo,
             Pair<Long, SProcessDefinition> processWithTimestamp) {
         return processWithTimestamp == null
                 || processWithTimestamp.getKey() != processDeploymentInfo.getLastUpdateDate();
     }
 
-    @SuppressWarnings("unchecked")
     Pair<Long, SProcessDefinition> getSProcessDefinitionFromCache(long processId) throws SCacheException {
-        return (Pair<Long, SProcessDefinition>) cacheService.get(PROCESS_CACHE_NAME, processId);
+        return processDefinitionCache.get(processId);
     }
 
     @Override
@@ -340,18 +475,24 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
                 "Creating a new Process definition");
         try {
             final String processDefinitionContent = getProcessContent(designProcessDefinition);
+            final long processId = generateId();
+            setIdOnProcessDefinition(definition, processId);
             final SProcessDefinitionDesignContent sProcessDefinitionDesignContent = new SProcessDefinitionDesignContent();
             sProcessDefinitionDesignContent.setContent(processDefinitionContent);
 
             recorder.recordInsert(new InsertRecord(sProcessDefinitionDesignContent), PROCESSDEFINITION_CONTENT);
 
-            final long processId = generateId();
-            setIdOnProcessDefinition(definition, processId);
             final SProcessDefinitionDeployInfo sProcessDefinitionDeployInfo = createProcessDefinitionDeployInfo(
                     designProcessDefinition, definition,
                     sProcessDefinitionDesignContent, processId);
 
             recorder.recordInsert(new InsertRecord(sProcessDefinitionDeployInfo), PROCESSDEFINITION);
+            final byte[] binaryContent = toBinaryContent(definition);
+            if (binaryContent != null) {
+                recorder.recordInsert(new InsertRecord(
+                        SProcessDefinitionBinaryContent.builder().id(processId).content(binaryContent).build()),
+                        PROCESSDEFINITION_CONTENT);
+            }
             //storeProcessDefinitionInCache(definition, sProcessDefinitionDeployInfo.getLastUpdateDate());
             log(definition.getId(), SQueriableLog.STATUS_OK, logBuilder, "store");
         } catch (final Exception e) {
@@ -388,7 +529,47 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
     }
 
     void storeProcessDefinitionInCache(SProcessDefinition definition, Long lastUpdateDate) throws SCacheException {
-        cacheService.store(PROCESS_CACHE_NAME, definition.getId(), Pair.of(lastUpdateDate, definition));
+        processDefinitionCache.put(definition.getId(), Pair.of(lastUpdateDate, definition));
+    }
+
+    @Override
+    public void invalidateProcessDefinitionInCache(long processId) throws SCacheException {
+        processDefinitionCache.remove(processId);
+        lastValidations.remove(processId);
+        if (transactionService == null) {
+            invalidationBus.publish(tenantId, PROCESS_CACHE_NAME, String.valueOf(processId));
+            return;
+        }
+        try {
+            // published once committed: a definition read by another transaction or another node before this one is
+            // committed might have been cached again
+            transactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) txState -> {
+                if (txState != Status.STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    invalidationBus.publish(tenantId, PROCESS_CACHE_NAME, String.valueOf(processId));
+                } catch (final SCacheException e) {
+                    log.warn("Unable to invalidate process definition {} in the caches", processId, e);
+                }
+            });
+        } catch (final STransactionNotFoundException e) {
+            invalidationBus.publish(tenantId, PROCESS_CACHE_NAME, String.valueOf(processId));
+        }
+    }
+
+    private void evictFromCache(String key) {
+        try {
+            if (key == null) {
+                processDefinitionCache.clear();
+                lastValidations.clear();
+            } else {
+                processDefinitionCache.remove(Long.valueOf(key));
+                lastValidations.remove(Long.valueOf(key));
+            }
+        } catch (final SCacheException e) {
+            log.warn("Unable to remove process definition {} from the cache", key, e);
+        }
     }
 
     String getProcessContent(DesignProcessDefinition designProcessDefinition) throws IOException {
@@ -584,7 +765,9 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
             String eventType)
             throws SRecorderException, SCacheException {
         recorder.recordUpdate(updateRecord, eventType);
-        if (!updateRecord.getFields().containsKey(SProcessDefinitionDeployInfo.DESIGN_CONTENT)) {
+        if (updateRecord.getFields().containsKey(SProcessDefinitionDeployInfo.DESIGN_CONTENT)) {
+            invalidateProcessDefinitionInCache(processId);
+        } else {
             updateSProcessDefinitionTimestampInCache(processId, processDefinitionDeployInfo);
         }
     }
@@ -1070,13 +1253,27 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
                     .createNewInstance().updateDesignContent(processDefinitionAsXMLString).done();
             updateProcessDefinitionDeployInfo(processDefinitionId, updateDescriptor,
                     "Update expression <" + expressionDefinitionId + ">, old content is <" + oldContent + ">");
+            storeBinaryContent(processDefinitionId, toBinaryContent(processDefinitionId, designProcessDefinition));
         } catch (IOException e) {
             throw new SProcessDefinitionNotFoundException(e, processDefinitionId);
-        } catch (SBonitaReadException | SProcessDeploymentInfoUpdateException e) {
+        } catch (SBonitaReadException | SProcessDeploymentInfoUpdateException | SRecorderException e) {
             throw new SObjectModificationException(e);
         }
     }
 
+    private byte[] toBinaryContent(long processDefinitionId, DesignProcessDefinition designProcessDefinition) {
+        final SProcessDefinition definition;
+        try {
+            definition = convertDesignProcessDefinition(designProcessDefinition);
+            setIdOnProcessDefinition(definition, processDefinitionId);
+        } catch (final SReflectException | RuntimeException e) {
+            log.warn("Unable to convert process definition {}, its XML content will be used to read it",
+                    processDefinitionId, e);
+            return null;
+        }
+        return toBinaryContent(definition);
+    }
+
     String truncate(String logMessage) {
         return logMessage.substring(0, Math.min(255, logMessage.length()));
     }
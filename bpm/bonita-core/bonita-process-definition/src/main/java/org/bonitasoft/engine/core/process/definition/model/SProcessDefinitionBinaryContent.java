@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition.model;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.PersistentObjectId;
+import org.hibernate.annotations.Type;
+
+/**
+ * The server model of a process serialized with
+ * {@link org.bonitasoft.engine.core.process.definition.ProcessDefinitionBinaryFormat}, identified by the id of the
+ * process definition. It is kept apart from the {@link SProcessDefinitionDesignContent} so that it is only loaded
+ * when the process definition is read, not with each {@link SProcessDefinitionDeployInfo}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(PersistentObjectId.class)
+@Table(name = "process_binary_content")
+@Cacheable(false)
+@Builder
+@ToString(exclude = "content")
+public class SProcessDefinitionBinaryContent implements PersistentObject {
+
+    public static final String CONTENT = "content";
+
+    @Id
+    private long tenantId;
+    @Id
+    private long id;
+    @Type(type = "materialized_blob")
+    private byte[] content;
+}
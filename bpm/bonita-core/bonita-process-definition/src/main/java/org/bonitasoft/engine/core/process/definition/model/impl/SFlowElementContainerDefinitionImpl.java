@@ -111,6 +111,8 @@ public class SFlowElementContainerDefinitionImpl extends SBaseElementImpl implem
 
     private final List<SBoundaryEventDefinition> sBoundaryEvents;
 
+    private final Map<String, SBoundaryEventDefinition> boundaryEventsMap;
+
     private final List<SEndEventDefinition> sEndEvents;
 
     private final List<SIntermediateThrowEventDefinition> sIntermediateThrowEvents;
@@ -149,6 +151,7 @@ public class SFlowElementContainerDefinitionImpl extends SBaseElementImpl implem
         sDocumentDefinitions = new ArrayList<>();
         sDocumentListDefinitions = new ArrayList<>();
         sBoundaryEvents = new ArrayList<>();
+        boundaryEventsMap = new HashMap<>();
     }
 
     public SFlowElementContainerDefinitionImpl(final FlowElementContainerDefinition container) {
@@ -164,6 +167,7 @@ public class SFlowElementContainerDefinitionImpl extends SBaseElementImpl implem
         allElementsMapString = new HashMap<>();
         final List<ActivityDefinition> activities2 = container.getActivities();
         sBoundaryEvents = new ArrayList<>();
+        boundaryEventsMap = new HashMap<>();
         activities = new HashSet<>(activities2.size());
         subProcessDefinitions = new HashSet<>(0);
         initializeActivities(activities2);
@@ -331,6 +335,7 @@ public class SFlowElementContainerDefinitionImpl extends SBaseElementImpl implem
         sBoundaryEvents.addAll(activity.getBoundaryEventDefinitions());
         for (final SBoundaryEventDefinition boundary : activity.getBoundaryEventDefinitions()) {
             sBoundaryEvents.add(boundary);
+            boundaryEventsMap.putIfAbsent(boundary.getName(), boundary);
             allElements.add(boundary);
             allElementsMap.put(boundary.getId(), boundary);
         }
@@ -571,17 +576,7 @@ public class SFlowElementContainerDefinitionImpl extends SBaseElementImpl implem
 
     @Override
     public SBoundaryEventDefinition getBoundaryEvent(final String name) {
-        boolean found = false;
-        SBoundaryEventDefinition boundaryEvent = null;
-        final Iterator<SBoundaryEventDefinition> iterator = sBoundaryEvents.iterator();
-        while (iterator.hasNext() && !found) {
-            final SBoundaryEventDefinition currentBoundaryEvent = iterator.next();
-            if (currentBoundaryEvent.getName().equals(name)) {
-                found = true;
-                boundaryEvent = currentBoundaryEvent;
-            }
-        }
-        return boundaryEvent;
+        return boundaryEventsMap.get(name);
     }
 
     @Override
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.expression.control.api.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.engine.expression.ExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.ExpressionService;
+import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpressionEvaluationPlanTest {
+
+    @Mock
+    private ExpressionService expressionService;
+
+    private final SExpression variable = expression("var", "TYPE_VARIABLE", null);
+    private final SExpression constant = expression("12", "TYPE_CONSTANT", null);
+    private final SExpression script = expression("var + 12", "TYPE_READ_ONLY_SCRIPT", "GROOVY", variable,
+            constant);
+    private final SExpression condition = expression("script > 0", "TYPE_READ_ONLY_SCRIPT", "GROOVY", script,
+            variable);
+
+    @Before
+    public void before() throws Exception {
+        // batches and single expressions evaluate to their content
+        lenient().doAnswer(invocation -> {
+            final List<Object> results = new ArrayList<>();
+            for (final SExpression expression : invocation.<List<SExpression>> getArgument(1)) {
+                results.add(expression.getContent());
+            }
+            return results;
+        }).when(expressionService).evaluate(any(), anyList(), anyMap(), anyMap(), any());
+        lenient().doAnswer(invocation -> invocation.<SExpression> getArgument(0).getContent()).when(expressionService)
+                .evaluate(any(SExpression.class), anyMap(), anyMap(), any());
+    }
+
+    private static SExpression expression(String content, String type, String interpreter,
+            SExpression... dependencies) {
+        return new SExpressionImpl(content, content, type, String.class.getName(), interpreter,
+                asList(dependencies));
+    }
+
+    @Test
+    public void should_evaluate_expressions_without_dependencies_in_batches_first_then_dependencies_first()
+            throws Exception {
+        final ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.compile(singletonList(condition));
+
+        final List<Object> results = plan.evaluate(expressionService, new HashMap<>(), null);
+
+        assertThat(results).containsExactly("script > 0");
+        final InOrder inOrder = inOrder(expressionService);
+        inOrder.verify(expressionService).evaluate(eq(ExpressionExecutorStrategy.KIND_VARIABLE),
+                eq(singletonList(variable)), anyMap(), anyMap(), any());
+        inOrder.verify(expressionService).evaluate(eq(ExpressionExecutorStrategy.KIND_CONSTANT),
+                eq(singletonList(constant)), anyMap(), anyMap(), any());
+        inOrder.verify(expressionService).evaluate(eq(script), anyMap(), anyMap(), any());
+        inOrder.verify(expressionService).evaluate(eq(condition), anyMap(), anyMap(), any());
+    }
+
+    @Test
+    public void should_give_results_of_dependencies_to_expressions() throws Exception {
+        final ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.compile(singletonList(condition));
+        final List<Map<Integer, Object>> resolvedExpressionsOfCondition = new ArrayList<>();
+        doAnswer(invocation -> {
+            resolvedExpressionsOfCondition.add(new HashMap<>(invocation.getArgument(2)));
+            return true;
+        }).when(expressionService).evaluate(eq(condition), anyMap(), anyMap(), any());
+
+        plan.evaluate(expressionService, new HashMap<>(), null);
+
+        assertThat(resolvedExpressionsOfCondition.get(0)).containsEntry(script.getDiscriminant(), "var + 12")
+                .containsEntry(variable.getDiscriminant(), "var");
+    }
+
+    @Test
+    public void should_evaluate_shared_dependencies_once() throws Exception {
+        final SExpression otherScript = expression("script * 2", "TYPE_READ_ONLY_SCRIPT", "GROOVY", script);
+        final ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.compile(asList(condition, otherScript, null));
+
+        final List<Object> results = plan.evaluate(expressionService, new HashMap<>(), null);
+
+        assertThat(results).containsExactly("script > 0", "script * 2", null);
+        verify(expressionService, times(1)).evaluate(eq(script), anyMap(), anyMap(), any());
+    }
+
+    @Test
+    public void should_list_variable_expressions() {
+        final ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.compile(singletonList(condition));
+
+        assertThat(plan.getVariableExpressions()).containsExactly(variable);
+        assertThat(ExpressionEvaluationPlan.compile(singletonList(constant)).getVariableExpressions()).isEmpty();
+    }
+
+    @Test
+    public void cache_should_build_plan_once_per_expression_content() {
+        final ExpressionEvaluationPlanCache cache = new ExpressionEvaluationPlanCache(10);
+
+        final ExpressionEvaluationPlan plan = cache.get(condition);
+
+        assertThat(cache.get(condition)).isSameAs(plan);
+        assertThat(cache.get(expression("script > 0", "TYPE_READ_ONLY_SCRIPT", "GROOVY", script, variable)))
+                .isSameAs(plan);
+        assertThat(cache.get(script)).isNotSameAs(plan);
+    }
+
+    @Test
+    public void cache_should_evict_plans_when_full() {
+        final ExpressionEvaluationPlanCache cache = new ExpressionEvaluationPlanCache(2);
+        cache.get(variable);
+        cache.get(constant);
+
+        final ExpressionEvaluationPlan scriptPlan = cache.get(script);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(script)).isSameAs(scriptPlan);
+    }
+}
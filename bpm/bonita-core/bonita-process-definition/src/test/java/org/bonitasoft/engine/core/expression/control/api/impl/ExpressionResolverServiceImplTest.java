@@ -25,9 +25,9 @@ import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.expression.ExpressionService;
 import org.bonitasoft.engine.expression.model.SExpression;
 import org.bonitasoft.engine.tracking.TimeTracker;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -46,12 +46,17 @@ public class ExpressionResolverServiceImplTest {
     @Mock
     private TimeTracker timeTracker;
 
-    @InjectMocks
     private ExpressionResolverServiceImpl resolverService;
 
     @Mock
     private SExpression expression;
 
+    @Before
+    public void before() {
+        resolverService = new ExpressionResolverServiceImpl(expressionService, processDefinitionService,
+                classLoaderService, timeTracker, 100);
+    }
+
     @Test
     public void evaluate_should_load_class_loader_of_process_definition() throws Exception {
         final long processDefinitionId = 83L;
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import org.bonitasoft.engine.bpm.flownode.TimerType;
+import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
+import org.bonitasoft.engine.bpm.process.impl.ProcessDefinitionBuilder;
+import org.bonitasoft.engine.core.process.definition.model.SFlowElementContainerDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.impl.SProcessDefinitionImpl;
+import org.bonitasoft.engine.expression.ExpressionBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessDefinitionBinaryFormatTest {
+
+    private final ProcessDefinitionBinaryFormat binaryFormat = new ProcessDefinitionBinaryFormat("7.12.0");
+    private SProcessDefinitionImpl processDefinition;
+
+    @Before
+    public void before() throws Exception {
+        final ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder().createNewInstance("process", "1.0");
+        builder.addActor("actor");
+        builder.addStartEvent("start");
+        builder.addUserTask("step1", "actor").addBoundaryEvent("timer")
+                .addTimerEventTriggerDefinition(TimerType.DURATION,
+                        new ExpressionBuilder().createConstantLongExpression(1000));
+        builder.addAutomaticTask("step2");
+        builder.addAutomaticTask("onTimer");
+        builder.addEndEvent("end");
+        builder.addTransition("start", "step1");
+        builder.addTransition("step1", "step2");
+        builder.addTransition("step2", "end");
+        builder.addTransition("timer", "onTimer");
+        final DesignProcessDefinition designProcessDefinition = builder.done();
+        processDefinition = new SProcessDefinitionImpl(designProcessDefinition);
+        processDefinition.setId(42L);
+    }
+
+    @Test
+    public void should_read_the_process_definition_written() throws Exception {
+        final SProcessDefinition read = binaryFormat.read(binaryFormat.write(processDefinition));
+
+        assertThat(read).isEqualTo(processDefinition);
+        assertThat(read.getId()).isEqualTo(42L);
+        final SFlowElementContainerDefinition container = read.getProcessContainer();
+        assertThat(container.getFlowNode("step2")).isNotNull();
+        assertThat(container.getFlowNode(container.getFlowNode("step2").getId())).isNotNull();
+        assertThat(container.getBoundaryEvent("timer")).isNotNull();
+        assertThat(container.getFlowNode("step1").getOutgoingTransitions()).hasSize(1);
+    }
+
+    @Test
+    public void should_ignore_content_written_by_another_engine_version() throws Exception {
+        final byte[] content = new ProcessDefinitionBinaryFormat("7.11.0").write(processDefinition);
+
+        assertThat(binaryFormat.read(content)).isNull();
+    }
+
+    @Test
+    public void should_reject_classes_outside_of_the_process_definition_model() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeInt(0x42504446);
+            output.writeUTF("7.12.0");
+            output.writeObject(new NotInTheModel());
+        }
+
+        assertThatThrownBy(() -> binaryFormat.read(bytes.toByteArray())).isInstanceOf(InvalidClassException.class);
+    }
+
+    private static class NotInTheModel implements Serializable {
+    }
+}
@@ -19,7 +19,6 @@ import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -27,19 +26,25 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.bpm.bar.ProcessDefinitionBARContribution;
 import org.bonitasoft.engine.bpm.process.ActivationState;
 import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
 import org.bonitasoft.engine.bpm.process.ProcessDeploymentInfoCriterion;
 import org.bonitasoft.engine.bpm.process.impl.internal.DesignProcessDefinitionImpl;
 import org.bonitasoft.engine.builder.BuilderFactory;
+import org.bonitasoft.engine.cache.Cache;
 import org.bonitasoft.engine.cache.CacheService;
+import org.bonitasoft.engine.cache.invalidation.CacheInvalidationBus;
+import org.bonitasoft.engine.cache.invalidation.LocalCacheInvalidationBus;
 import org.bonitasoft.engine.commons.Pair;
 import org.bonitasoft.engine.commons.exceptions.SObjectModificationException;
 import org.bonitasoft.engine.core.process.definition.exception.SProcessDefinitionNotFoundException;
 import org.bonitasoft.engine.core.process.definition.exception.SProcessDeploymentInfoUpdateException;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDeployInfo;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionBinaryContent;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDesignContent;
 import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionDeployInfoUpdateBuilder;
 import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionDeployInfoUpdateBuilderFactory;
@@ -52,25 +57,27 @@ import org.bonitasoft.engine.persistence.OrderByType;
 import org.bonitasoft.engine.persistence.QueryOptions;
 import org.bonitasoft.engine.persistence.ReadPersistenceService;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.persistence.SelectByIdDescriptor;
 import org.bonitasoft.engine.persistence.SelectListDescriptor;
 import org.bonitasoft.engine.persistence.SelectOneDescriptor;
 import org.bonitasoft.engine.queriablelogger.model.SQueriableLog;
 import org.bonitasoft.engine.queriablelogger.model.SQueriableLogSeverity;
 import org.bonitasoft.engine.recorder.Recorder;
 import org.bonitasoft.engine.recorder.SRecorderException;
+import org.bonitasoft.engine.recorder.model.DeleteRecord;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
 import org.bonitasoft.engine.recorder.model.UpdateRecord;
 import org.bonitasoft.engine.services.QueriableLoggerService;
 import org.bonitasoft.engine.session.SessionService;
 import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 /**
@@ -82,10 +89,13 @@ public class ProcessDefinitionServiceImplTest {
 
     private static final long PROCESS_DEFINITION_DEPLOY_ID = 3L;
     private static final long PROCESS_ID = 42L;
+    private static final long TENANT_ID = 1L;
     private static final String THE_PROCESS_XML_CONTENT = "THE PROCESS XML CONTENT";
     @Mock
     private CacheService cacheService;
     @Mock
+    private Cache<Long, Pair<Long, SProcessDefinition>> processDefinitionCache;
+    @Mock
     private ReadPersistenceService persistenceService;
     @Mock
     private QueriableLoggerService queriableLoggerService;
@@ -96,15 +106,23 @@ public class ProcessDefinitionServiceImplTest {
     @Mock
     private SessionService sessionService;
     @Mock
+    private UserTransactionService transactionService;
+    @Mock
+    private ProcessDefinitionBinaryFormat binaryFormat;
+    @Mock
     private ProcessDefinitionBARContribution processDefinitionBARContribution;
-    @InjectMocks
-    @Spy
+    private MeterRegistry meterRegistry;
+    private CacheInvalidationBus invalidationBus;
     private ProcessDefinitionServiceImpl processDefinitionServiceImpl;
     private SProcessDefinitionDeployInfo sProcessDefinitionDeployInfo;
     private DesignProcessDefinition designProcessDefinition;
 
     @Before
     public void before() throws SProcessDefinitionNotFoundException, SBonitaReadException, IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        invalidationBus = new LocalCacheInvalidationBus();
+        doReturn(processDefinitionCache).when(cacheService).getCache(ProcessDefinitionService.PROCESS_CACHE_NAME);
+        processDefinitionServiceImpl = createProcessDefinitionService(0);
         sProcessDefinitionDeployInfo = new SProcessDefinitionDeployInfo();
         sProcessDefinitionDeployInfo.setId(PROCESS_DEFINITION_DEPLOY_ID);
         final SProcessDefinitionDesignContent designContent = new SProcessDefinitionDesignContent();
@@ -117,6 +135,17 @@ public class ProcessDefinitionServiceImplTest {
         processDefinitionServiceImpl.processDefinitionBARContribution = processDefinitionBARContribution;
     }
 
+    private ProcessDefinitionServiceImpl createProcessDefinitionService(long revalidationDelay) {
+        return spy(new ProcessDefinitionServiceImpl(recorder, persistenceService, sessionService, sessionAccessor,
+                queriableLoggerService, cacheService, binaryFormat, transactionService, invalidationBus, revalidationDelay,
+                meterRegistry, TENANT_ID));
+    }
+
+    private double cacheAccesses(String result) {
+        return meterRegistry.find(ProcessDefinitionServiceImpl.PROCESS_DEFINITION_CACHE_ACCESS)
+                .tag("result", result).counter().count();
+    }
+
     /**
      * Test method for
      * {@link org.bonitasoft.engine.core.process.definition.ProcessDefinitionServiceImpl#getProcessDeploymentInfos(int, int, java.lang.String, org.bonitasoft.engine.persistence.OrderByType)}
@@ -389,7 +418,7 @@ public class ProcessDefinitionServiceImplTest {
         final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
 
         assertThat(processDefinition).as("returned process definition from cache").isEqualTo(sProcessDefinition);
-        verify(cacheService, times(0)).store(anyString(), any(Serializable.class), any());
+        verify(processDefinitionCache, never()).put(any(), any());
     }
 
     @Test
@@ -402,7 +431,53 @@ public class ProcessDefinitionServiceImplTest {
         final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
 
         assertThat(processDefinition).as("returned process definition from database").isEqualTo(sProcessDefinition);
-        verify(cacheService, times(1)).store(anyString(), any(Serializable.class), any());
+        verify(processDefinitionCache, times(1)).put(any(), any());
+    }
+
+    @Test
+    public void getProcessDefinition_from_database_should_use_binary_content_when_available() throws Exception {
+        final byte[] binaryContent = { 1, 2, 3 };
+        doReturn(new SProcessDefinitionBinaryContent(1L, PROCESS_ID, binaryContent)).when(persistenceService)
+                .selectById(new SelectByIdDescriptor<>(SProcessDefinitionBinaryContent.class, PROCESS_ID, true));
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        doReturn(sProcessDefinition).when(binaryFormat).read(binaryContent);
+
+        final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        assertThat(processDefinition).isEqualTo(sProcessDefinition);
+        verify(processDefinitionBARContribution, never()).convertXmlToProcess(anyString());
+        verify(processDefinitionCache).put(sProcessDefinition.getId(),
+                Pair.of(sProcessDefinitionDeployInfo.getLastUpdateDate(), sProcessDefinition));
+    }
+
+    @Test
+    public void getProcessDefinition_from_database_should_use_xml_content_when_binary_content_is_outdated()
+            throws Exception {
+        final byte[] binaryContent = { 1, 2, 3 };
+        doReturn(new SProcessDefinitionBinaryContent(1L, PROCESS_ID, binaryContent)).when(persistenceService)
+                .selectById(new SelectByIdDescriptor<>(SProcessDefinitionBinaryContent.class, PROCESS_ID, true));
+        doReturn(null).when(binaryFormat).read(binaryContent);
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        doReturn(sProcessDefinition).when(processDefinitionServiceImpl)
+                .convertDesignProcessDefinition(designProcessDefinition);
+
+        final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        assertThat(processDefinition).isEqualTo(sProcessDefinition);
+        verify(processDefinitionBARContribution).convertXmlToProcess(THE_PROCESS_XML_CONTENT);
+    }
+
+    @Test
+    public void storeBinaryContent_should_delete_the_binary_content_when_there_is_no_new_one() throws Exception {
+        final SProcessDefinitionBinaryContent binaryContent = new SProcessDefinitionBinaryContent(1L, PROCESS_ID,
+                new byte[] { 1, 2, 3 });
+        doReturn(binaryContent).when(persistenceService)
+                .selectById(new SelectByIdDescriptor<>(SProcessDefinitionBinaryContent.class, PROCESS_ID, false));
+
+        processDefinitionServiceImpl.storeBinaryContent(PROCESS_ID, null);
+
+        verify(recorder).recordDelete(new DeleteRecord(binaryContent),
+                ProcessDefinitionService.PROCESSDEFINITION_CONTENT);
     }
 
     @Test
@@ -417,7 +492,82 @@ public class ProcessDefinitionServiceImplTest {
         final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
 
         assertThat(processDefinition).as("returned process definition from cache").isEqualTo(processDefinitionC);
-        verify(cacheService, times(1)).store(anyString(), any(Serializable.class), any());
+        verify(processDefinitionCache, times(1)).put(any(), any());
+        assertThat(cacheAccesses("miss")).isEqualTo(1);
+    }
+
+    @Test
+    public void getProcessDefinition_from_cache_should_not_read_deploy_info_when_revalidation_is_disabled()
+            throws Exception {
+        processDefinitionServiceImpl = createProcessDefinitionService(-1);
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        doReturn(new Pair<Long, SProcessDefinition>(5478L, sProcessDefinition)).when(processDefinitionServiceImpl)
+                .getSProcessDefinitionFromCache(PROCESS_ID);
+
+        final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        assertThat(processDefinition).isEqualTo(sProcessDefinition);
+        verify(processDefinitionServiceImpl, never()).getProcessDeploymentInfo(PROCESS_ID);
+        assertThat(cacheAccesses("hit")).isEqualTo(1);
+    }
+
+    @Test
+    public void getProcessDefinition_from_cache_should_read_deploy_info_only_once_during_revalidation_delay()
+            throws Exception {
+        processDefinitionServiceImpl = createProcessDefinitionService(60_000);
+        sProcessDefinitionDeployInfo.setLastUpdateDate(5478L);
+        doReturn(sProcessDefinitionDeployInfo).when(processDefinitionServiceImpl).getProcessDeploymentInfo(PROCESS_ID);
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        doReturn(new Pair<Long, SProcessDefinition>(5478L, sProcessDefinition)).when(processDefinitionServiceImpl)
+                .getSProcessDefinitionFromCache(PROCESS_ID);
+
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        verify(processDefinitionServiceImpl, times(1)).getProcessDeploymentInfo(PROCESS_ID);
+        assertThat(cacheAccesses("hit")).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateProcessDefinitionInCache_should_remove_definition_now_and_after_commit() throws Exception {
+        processDefinitionServiceImpl.invalidateProcessDefinitionInCache(PROCESS_ID);
+
+        ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        verify(processDefinitionCache, times(1)).remove(PROCESS_ID);
+        synchronization.getValue().afterCompletion(javax.transaction.Status.STATUS_COMMITTED);
+        verify(processDefinitionCache, times(2)).remove(PROCESS_ID);
+    }
+
+    @Test
+    public void should_remove_definition_invalidated_by_another_node() throws Exception {
+        invalidationBus.publish(TENANT_ID, ProcessDefinitionService.PROCESS_CACHE_NAME, String.valueOf(PROCESS_ID));
+
+        verify(processDefinitionCache).remove(PROCESS_ID);
+    }
+
+    @Test
+    public void should_clear_cache_when_all_definitions_are_invalidated() throws Exception {
+        invalidationBus.publish(TENANT_ID, ProcessDefinitionService.PROCESS_CACHE_NAME, null);
+
+        verify(processDefinitionCache).clear();
+    }
+
+    @Test
+    public void should_not_remove_definition_invalidated_in_another_tenant() throws Exception {
+        invalidationBus.publish(TENANT_ID + 1, ProcessDefinitionService.PROCESS_CACHE_NAME, String.valueOf(PROCESS_ID));
+
+        verify(processDefinitionCache, never()).remove(PROCESS_ID);
+    }
+
+    @Test
+    public void should_not_receive_invalidations_once_stopped() throws Exception {
+        processDefinitionServiceImpl.stop();
+
+        invalidationBus.publish(TENANT_ID, ProcessDefinitionService.PROCESS_CACHE_NAME, String.valueOf(PROCESS_ID));
+
+        verify(processDefinitionCache, never()).remove(PROCESS_ID);
     }
 
     /**
@@ -495,13 +645,11 @@ public class ProcessDefinitionServiceImplTest {
         doReturn(5478L).when(sProcessDefinitionDeployInfo).getLastUpdateDate();
         final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
         sProcessDefinition.setId(56L);
-        doReturn(new Pair<Long, SProcessDefinition>(541L, sProcessDefinition)).when(cacheService).get(anyString(),
-                any());
+        doReturn(new Pair<Long, SProcessDefinition>(541L, sProcessDefinition)).when(processDefinitionCache).get(56L);
         // When
         processDefinitionServiceImpl.updateSProcessDefinitionTimestampInCache(56L, sProcessDefinitionDeployInfo);
         // Then
-        verify(cacheService).store(ProcessDefinitionService.PROCESS_CACHE_NAME, 56L,
-                new Pair<Long, SProcessDefinition>(5478L, sProcessDefinition));
+        verify(processDefinitionCache).put(56L, new Pair<Long, SProcessDefinition>(5478L, sProcessDefinition));
     }
 
     @Test
@@ -511,7 +659,7 @@ public class ProcessDefinitionServiceImplTest {
         // When
         processDefinitionServiceImpl.updateSProcessDefinitionTimestampInCache(3L, sProcessDefinitionDeployInfo);
         // Then
-        verify(cacheService, times(0)).store(anyString(), any(Serializable.class), any());
+        verify(processDefinitionCache, never()).put(any(), any());
     }
 
     @Test(expected = SProcessDefinitionNotFoundException.class)
@@ -18,7 +18,6 @@ import java.util.Properties;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.Data;
-import org.bonitasoft.engine.events.EventService;
 import org.bonitasoft.engine.events.impl.EventServiceImpl;
 import org.bonitasoft.engine.monitoring.ExecutorServiceMetricsProvider;
 import org.bonitasoft.engine.monitoring.NoOpExecutorServiceMetricsProvider;
@@ -28,6 +27,7 @@ import org.bonitasoft.engine.persistence.HibernatePersistenceService;
 import org.bonitasoft.engine.persistence.QueryBuilderFactory;
 import org.bonitasoft.engine.sequence.SequenceManager;
 import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
@@ -49,8 +49,9 @@ public class EngineConfiguration {
 
     @Bean("platformEventService")
     @ConditionalOnMissingBean(name = "platformEventService")
-    EventService platformEventService() {
-        return new EventServiceImpl();
+    EventServiceImpl platformEventService(UserTransactionService transactionService, MeterRegistry meterRegistry,
+            @Value("${bonita.platform.event.asynchronous.queueCapacity:10000}") int asynchronousQueueCapacity) {
+        return new EventServiceImpl(transactionService, meterRegistry, asynchronousQueueCapacity);
     }
 
     @Bean
@@ -172,6 +172,7 @@ public class LoginAPIImpl implements LoginAPI {
         final ServiceAccessor serviceAccessor = getServiceAccessor();
         try {
             serviceAccessor.getLoginService().logout(session.getId());
+            serviceAccessor.getPermissionService().invalidateCachedAuthorizations(session.getId());
         } catch (final SSessionNotFoundException sbe) {
             throw new SessionNotFoundException(sbe);
         } catch (final SLoginException sbe) {
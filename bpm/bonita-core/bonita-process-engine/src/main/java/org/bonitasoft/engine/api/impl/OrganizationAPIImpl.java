@@ -82,6 +82,8 @@ public class OrganizationAPIImpl {
         actorMappingService.deleteAllActorMembers();
         profileService.deleteAllProfileMembers();
         activityInstanceService.deleteAllPendingMappings();
+        // deletions above do not fire events: the pending task inbox cannot follow them
+        serviceAccessor.getPendingTaskInbox().clear();
         supervisorService.deleteAllProcessSupervisors();
         externalIdentityMappingService.deleteAllExternalIdentityMappings();
         identityService.deleteAllUserMemberships();
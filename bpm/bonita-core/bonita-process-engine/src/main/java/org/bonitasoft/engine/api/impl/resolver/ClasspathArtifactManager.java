@@ -57,6 +57,10 @@ public class ClasspathArtifactManager implements BusinessArchiveArtifactManager
         final Map<String, byte[]> resourcesWithRealName = new HashMap<>(resources.size());
         for (final Map.Entry<String, byte[]> resource : resources.entrySet()) {
             final String name = resource.getKey().substring(10);
+            if (GroovyScriptArtifactManager.SCRIPTS_JAR_NAME.equals(name)) {
+                // built again by the GroovyScriptArtifactManager
+                continue;
+            }
             final byte[] jarContent = resource.getValue();
             resourcesWithRealName.put(name, jarContent);
         }
@@ -90,6 +94,9 @@ public class ClasspathArtifactManager implements BusinessArchiveArtifactManager
                 .getDependencyMappings(new QueryOptions(0, Integer.MAX_VALUE, null, filters, null));
         for (SDependencyMapping dependencyMapping : dependencyMappings) {
             final AbstractSDependency dependency = dependencyService.getDependency(dependencyMapping.getDependencyId());
+            if (GroovyScriptArtifactManager.SCRIPTS_JAR_NAME.equals(dependency.getFileName())) {
+                continue;
+            }
             businessArchiveBuilder
                     .addClasspathResource(new BarResource(dependency.getFileName(), dependency.getValue()));
         }
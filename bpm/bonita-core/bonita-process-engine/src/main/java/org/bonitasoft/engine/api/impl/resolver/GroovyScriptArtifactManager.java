@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.api.impl.resolver;
+
+import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.bpm.bar.BusinessArchive;
+import org.bonitasoft.engine.bpm.bar.BusinessArchiveBuilder;
+import org.bonitasoft.engine.bpm.process.Problem;
+import org.bonitasoft.engine.classloader.ClassLoaderService;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.dependency.DependencyService;
+import org.bonitasoft.engine.dependency.model.ScopeType;
+import org.bonitasoft.engine.expression.ExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.impl.GroovyScriptCompiler;
+import org.bonitasoft.engine.expression.model.SExpression;
+
+/**
+ * Compiles the Groovy scripts of the process when it is deployed and stores their classes in a jar added to the
+ * process classpath, so that they are not compiled when they are first evaluated.
+ * <p>
+ * Scripts that cannot be compiled at deployment, e.g. because they use classes that are not available yet, are
+ * compiled when they are first evaluated, as before.
+ */
+@Slf4j
+public class GroovyScriptArtifactManager implements BusinessArchiveArtifactManager {
+
+    public static final String SCRIPTS_JAR_NAME = "bonita-groovy-scripts.jar";
+
+    private final DependencyService dependencyService;
+    private final ClassLoaderService classLoaderService;
+    private final GroovyScriptCompiler groovyScriptCompiler;
+    private final boolean enabled;
+    private final long tenantId;
+
+    public GroovyScriptArtifactManager(DependencyService dependencyService, ClassLoaderService classLoaderService,
+            GroovyScriptCompiler groovyScriptCompiler, boolean enabled, long tenantId) {
+        this.dependencyService = dependencyService;
+        this.classLoaderService = classLoaderService;
+        this.groovyScriptCompiler = groovyScriptCompiler;
+        this.enabled = enabled;
+        this.tenantId = tenantId;
+    }
+
+    @Override
+    public boolean deploy(BusinessArchive businessArchive, SProcessDefinition processDefinition)
+            throws SBonitaException {
+        if (!enabled) {
+            return true;
+        }
+        final Set<String> scripts = getGroovyScripts(processDefinition);
+        if (scripts.isEmpty()) {
+            return true;
+        }
+        final List<byte[]> libraries = new ArrayList<>();
+        for (final Map.Entry<String, byte[]> resource : businessArchive.getResources("^classpath/.*\\.jar$")
+                .entrySet()) {
+            if (!resource.getKey().endsWith("/" + SCRIPTS_JAR_NAME)) {
+                libraries.add(resource.getValue());
+            }
+        }
+        final byte[] scriptsJar;
+        try {
+            scriptsJar = groovyScriptCompiler.compile(scripts,
+                    classLoaderService.getClassLoader(identifier(ScopeType.TENANT, tenantId)), libraries);
+        } catch (final IOException e) {
+            log.warn("Unable to compile the Groovy scripts of process {}, they will be compiled when evaluated: {}",
+                    processDefinition.getId(), e.getMessage());
+            return true;
+        }
+        if (scriptsJar != null) {
+            dependencyService.createMappedDependency(SCRIPTS_JAR_NAME, scriptsJar, SCRIPTS_JAR_NAME,
+                    processDefinition.getId(), ScopeType.PROCESS);
+        }
+        return true;
+    }
+
+    /**
+     * The server model has no visitor: expressions are collected by walking the fields of the definition objects.
+     */
+    Set<String> getGroovyScripts(SProcessDefinition processDefinition) {
+        final Set<String> scripts = new LinkedHashSet<>();
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Object> toVisit = new ArrayDeque<>();
+        toVisit.push(processDefinition);
+        while (!toVisit.isEmpty()) {
+            final Object object = toVisit.pop();
+            if (!visited.add(object)) {
+                continue;
+            }
+            if (object instanceof SExpression) {
+                final SExpression expression = (SExpression) object;
+                if (isGroovyScript(expression)) {
+                    scripts.add(expression.getContent());
+                }
+                pushAll(toVisit, expression.getDependencies());
+            } else if (object instanceof Collection) {
+                pushAll(toVisit, (Collection<?>) object);
+            } else if (object instanceof Map) {
+                pushAll(toVisit, ((Map<?, ?>) object).values());
+            } else if (object instanceof Object[]) {
+                for (final Object element : (Object[]) object) {
+                    push(toVisit, element);
+                }
+            } else if (object.getClass().getName().startsWith("org.bonitasoft.engine.")) {
+                pushFields(toVisit, object);
+            }
+        }
+        return scripts;
+    }
+
+    private static boolean isGroovyScript(SExpression expression) {
+        return ExpressionExecutorStrategy.KIND_READ_ONLY_SCRIPT_GROOVY.equals(expression.getExpressionKind())
+                || ExpressionExecutorStrategy.KIND_READ_ONLY_CONDITION_SCRIPT_GROOVY
+                        .equals(expression.getExpressionKind());
+    }
+
+    private static void pushFields(Deque<Object> toVisit, Object object) {
+        for (Class<?> type = object.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (final Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    push(toVisit, field.get(object));
+                } catch (final RuntimeException | IllegalAccessException e) {
+                    log.debug("Unable to read field {} of {}: {}", field.getName(), type.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void pushAll(Deque<Object> toVisit, Collection<?> objects) {
+        if (objects != null) {
+            for (final Object object : objects) {
+                push(toVisit, object);
+            }
+        }
+    }
+
+    private static void push(Deque<Object> toVisit, Object object) {
+        if (object != null && !(object instanceof String) && !(object instanceof Number)
+                && !(object instanceof Enum)) {
+            toVisit.push(object);
+        }
+    }
+
+    @Override
+    public List<Problem> checkResolution(SProcessDefinition processDefinition) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void delete(SProcessDefinition processDefinition) {
+        // the jar is a dependency of the process, deleted by the ClasspathArtifactManager
+    }
+
+    @Override
+    public void exportToBusinessArchive(long processDefinitionId, BusinessArchiveBuilder businessArchiveBuilder) {
+        // the jar is built again when the exported archive is deployed
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.authorization;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import lombok.Value;
+import org.bonitasoft.engine.api.permission.APICallContext;
+
+/**
+ * Results of the permission rules (scripts of dynamic permissions), by session and REST API call.
+ * <p>
+ * Only the results of GET calls are kept: the other calls have a body that the rule may check. A result is reused
+ * during its time to live, or until it is invalidated, e.g. when the session is closed or the rules are reloaded. The
+ * cache is cleared when it reaches its maximum size, so that results of closed sessions do not pile up.
+ */
+class PermissionRuleResultCache {
+
+    private final Map<Key, Result> results = new ConcurrentHashMap<>();
+    private final long timeToLiveMillis;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    PermissionRuleResultCache(long timeToLiveSeconds, int maxSize) {
+        this(timeToLiveSeconds, maxSize, System::currentTimeMillis);
+    }
+
+    PermissionRuleResultCache(long timeToLiveSeconds, int maxSize, LongSupplier clock) {
+        this.timeToLiveMillis = timeToLiveSeconds * 1000;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    boolean isCacheable(APICallContext apiCallContext) {
+        return timeToLiveMillis > 0 && maxSize > 0 && apiCallContext.isGET();
+    }
+
+    /**
+     * @return the result of the rule for this call, or null if it is not known or expired
+     */
+    Boolean get(long sessionId, String className, APICallContext apiCallContext) {
+        final Key key = Key.of(sessionId, className, apiCallContext);
+        final Result result = results.get(key);
+        if (result == null) {
+            return null;
+        }
+        if (result.getExpirationTime() <= clock.getAsLong()) {
+            results.remove(key, result);
+            return null;
+        }
+        return result.isAllowed();
+    }
+
+    void put(long sessionId, String className, APICallContext apiCallContext, boolean allowed) {
+        if (results.size() >= maxSize) {
+            results.clear();
+        }
+        results.put(Key.of(sessionId, className, apiCallContext),
+                new Result(allowed, clock.getAsLong() + timeToLiveMillis));
+    }
+
+    void invalidate(long sessionId) {
+        results.keySet().removeIf(key -> key.getSessionId() == sessionId);
+    }
+
+    void invalidateAll() {
+        results.clear();
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    @Value
+    private static class Key {
+
+        long sessionId;
+        String className;
+        String apiName;
+        String resourceName;
+        String resourceId;
+        String queryString;
+
+        private static Key of(long sessionId, String className, APICallContext apiCallContext) {
+            return new Key(sessionId, className, apiCallContext.getApiName(), apiCallContext.getResourceName(),
+                    apiCallContext.getResourceId(), apiCallContext.getQueryString());
+        }
+    }
+
+    @Value
+    private static class Result {
+
+        boolean allowed;
+        long expirationTime;
+    }
+}
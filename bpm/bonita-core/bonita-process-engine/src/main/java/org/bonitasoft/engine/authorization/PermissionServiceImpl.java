@@ -17,6 +17,7 @@ import static java.lang.String.format;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import groovy.lang.GroovyClassLoader;
@@ -65,6 +66,9 @@ public class PermissionServiceImpl implements PermissionService {
     public static final String RESOURCE_PERMISSION_VALUE = "[%s]";
     public static final String EXTENSION_SEPARATOR = ",";
 
+    private static final Pattern RESOURCE_AUTHORIZATION_SYNTAX = Pattern.compile("(" + USER_TYPE_AUTHORIZATION_PREFIX
+            + "|" + PROFILE_TYPE_AUTHORIZATION_PREFIX + "|" + SCRIPT_TYPE_AUTHORIZATION_PREFIX + ")\\|.+");
+
     private final ClassLoaderService classLoaderService;
     private final SessionAccessor sessionAccessor;
     private final SessionService sessionService;
@@ -74,6 +78,7 @@ public class PermissionServiceImpl implements PermissionService {
     private final CustomPermissionsMapping customPermissionsMapping;
     protected final DynamicPermissionsChecks dynamicPermissionsChecks;
     protected final BooleanProperty dynamicPermissionCheck;
+    private final PermissionRuleResultCache ruleResultCache;
 
     protected final long tenantId;
 
@@ -84,7 +89,9 @@ public class PermissionServiceImpl implements PermissionService {
             ResourcesPermissionsMapping resourcesPermissionsMapping,
             CustomPermissionsMapping customPermissionsMapping,
             DynamicPermissionsChecks dynamicPermissionsChecks,
-            @Value("${bonita.runtime.authorization.dynamic-check.enabled:true}") boolean dynamicPermissionCheck) {
+            @Value("${bonita.runtime.authorization.dynamic-check.enabled:true}") boolean dynamicPermissionCheck,
+            @Value("${bonita.runtime.authorization.dynamic-check.cache.ttl:0}") long ruleResultCacheTimeToLive,
+            @Value("${bonita.runtime.authorization.dynamic-check.cache.max-size:10000}") int ruleResultCacheMaxSize) {
         this.classLoaderService = classLoaderService;
         this.sessionAccessor = sessionAccessor;
         this.sessionService = sessionService;
@@ -94,6 +101,7 @@ public class PermissionServiceImpl implements PermissionService {
         this.customPermissionsMapping = customPermissionsMapping;
         this.dynamicPermissionsChecks = dynamicPermissionsChecks;
         this.dynamicPermissionCheck = initDynamicPermissionsEnabledProperty(dynamicPermissionCheck);
+        this.ruleResultCache = new PermissionRuleResultCache(ruleResultCacheTimeToLive, ruleResultCacheMaxSize);
     }
 
     BooleanProperty initDynamicPermissionsEnabledProperty(boolean dynamicPermissionsEnabled) {
@@ -161,12 +169,19 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     public void stop() {
+        // rules may be modified before the next start
+        ruleResultCache.invalidateAll();
         if (groovyClassLoader != null) {
             groovyClassLoader.clearCache();
             groovyClassLoader = null;
         }
     }
 
+    @Override
+    public void invalidateCachedAuthorizations(long sessionId) {
+        ruleResultCache.invalidate(sessionId);
+    }
+
     @Override
     public boolean isAuthorized(APICallContext apiCallContext) throws SExecutionException {
         if (dynamicPermissionCheck.isEnabled()) {
@@ -234,8 +249,7 @@ public class PermissionServiceImpl implements PermissionService {
 
     protected void checkResourceAuthorizationsSyntax(final Set<String> resourceAuthorizations) {
         for (final String resourceAuthorization : resourceAuthorizations) {
-            if (!resourceAuthorization.matches("(" + USER_TYPE_AUTHORIZATION_PREFIX + "|"
-                    + PROFILE_TYPE_AUTHORIZATION_PREFIX + "|" + SCRIPT_TYPE_AUTHORIZATION_PREFIX + ")\\|.+")) {
+            if (!RESOURCE_AUTHORIZATION_SYNTAX.matcher(resourceAuthorization).matches()) {
                 if (log.isWarnEnabled()) {
                     log.warn("Error while getting dynamic authorizations. Unknown syntax: " + resourceAuthorization
                             + " defined in dynamic-permissions-checks.properties");
@@ -261,7 +275,7 @@ public class PermissionServiceImpl implements PermissionService {
 
     protected boolean checkDynamicPermissionsWithScript(final APICallContext apiCallContext,
             final String resourceClassName) throws SExecutionException, ClassNotFoundException {
-        final boolean authorized = checkAPICallWithScript(resourceClassName, apiCallContext);
+        final boolean authorized = checkAPICallWithCachedScript(resourceClassName, apiCallContext);
         if (!authorized) {
             if (log.isDebugEnabled()) {
                 StringBuilder msg = new StringBuilder().append("Unauthorized access to ")
@@ -277,6 +291,21 @@ public class PermissionServiceImpl implements PermissionService {
         return authorized;
     }
 
+    private boolean checkAPICallWithCachedScript(final String resourceClassName, final APICallContext apiCallContext)
+            throws SExecutionException, ClassNotFoundException {
+        if (!ruleResultCache.isCacheable(apiCallContext)) {
+            return checkAPICallWithScript(resourceClassName, apiCallContext);
+        }
+        final long sessionId = getSession().getId();
+        final Boolean cachedResult = ruleResultCache.get(sessionId, resourceClassName, apiCallContext);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+        final boolean authorized = checkAPICallWithScript(resourceClassName, apiCallContext);
+        ruleResultCache.put(sessionId, resourceClassName, apiCallContext, authorized);
+        return authorized;
+    }
+
     protected String getResourceClassName(final Set<String> resourcePermissions) {
         String className = null;
         for (final String resourcePermission : resourcePermissions) {
@@ -836,7 +836,9 @@ public class BPMInstancesCreator {
             } catch (final SDataInstanceNotWellFormedException e) {
                 throw new SDataInstanceReadException(e);
             }
-            if (dataInstance.isTransientData()) {
+            if (dataInstance.isTransientData() && expressionContext.getProcessDefinitionId() != null) {
+                transientDataService.createDataInstance(dataInstance, expressionContext.getProcessDefinitionId());
+            } else if (dataInstance.isTransientData()) {
                 transientDataService.createDataInstance(dataInstance);
             } else {
                 dataInstanceService.createDataInstance(dataInstance);
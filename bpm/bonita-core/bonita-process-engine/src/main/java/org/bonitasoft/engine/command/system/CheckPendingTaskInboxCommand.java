@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.command.system;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bonitasoft.engine.command.RuntimeCommand;
+import org.bonitasoft.engine.command.SCommandExecutionException;
+import org.bonitasoft.engine.command.SCommandParameterizationException;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.inbox.PendingTaskInbox;
+import org.bonitasoft.engine.service.ServiceAccessor;
+
+/**
+ * Check the pending task inbox against the pending mappings, and optionally rebuild it
+ * Parameters ->
+ * userId: the user to check, all users when missing
+ * repair: true to fix the differences found, false when missing
+ * Returns a map with the number of checked users, inconsistent users, missing, extra and duplicated entries
+ */
+public class CheckPendingTaskInboxCommand extends RuntimeCommand {
+
+    public static final String USER_ID_KEY = "userId";
+    public static final String REPAIR_KEY = "repair";
+
+    @Override
+    public Serializable execute(final Map<String, Serializable> parameters, final ServiceAccessor serviceAccessor)
+            throws SCommandParameterizationException, SCommandExecutionException {
+        final PendingTaskInbox pendingTaskInbox = serviceAccessor.getPendingTaskInbox();
+        if (!pendingTaskInbox.isEnabled()) {
+            throw new SCommandExecutionException(
+                    "The pending task inbox is disabled, set bonita.tenant.task.inbox.enabled to true to use it");
+        }
+        final Long userId = getParameter(parameters, USER_ID_KEY);
+        final Boolean repair = getParameter(parameters, REPAIR_KEY);
+        try {
+            final PendingTaskInbox.CheckResult result = pendingTaskInbox.check(userId, Boolean.TRUE.equals(repair));
+            final HashMap<String, Long> report = new HashMap<>();
+            report.put("checkedUsers", result.getCheckedUsers());
+            report.put("inconsistentUsers", result.getInconsistentUsers());
+            report.put("missingEntries", result.getMissingEntries());
+            report.put("extraEntries", result.getExtraEntries());
+            report.put("duplicatedEntries", result.getDuplicatedEntries());
+            return report;
+        } catch (final SBonitaException e) {
+            throw new SCommandExecutionException(e);
+        }
+    }
+
+}
@@ -75,6 +75,7 @@ public class FlowNodeExecutorImpl implements FlowNodeExecutor {
     private final BPMWorkFactory workFactory;
     private final ProcessInstanceInterruptor processInstanceInterruptor;
     private final BPMArchiverService bpmArchiverService;
+    private final StraightThroughExecution straightThroughExecution;
 
     public FlowNodeExecutorImpl(final FlowNodeStateManager flowNodeStateManager,
             final ActivityInstanceService activityInstanceManager,
@@ -84,7 +85,8 @@ public class FlowNodeExecutorImpl implements FlowNodeExecutor {
             final ClassLoaderService classLoaderService,
             final WorkService workService, BPMWorkFactory workFactory,
             final ProcessInstanceInterruptor processInstanceInterruptor,
-            final BPMArchiverService bpmArchiverService) {
+            final BPMArchiverService bpmArchiverService,
+            final StraightThroughExecution straightThroughExecution) {
         this.flowNodeStateManager = flowNodeStateManager;
         activityInstanceService = activityInstanceManager;
         this.containerRegistry = containerRegistry;
@@ -96,7 +98,7 @@ public class FlowNodeExecutorImpl implements FlowNodeExecutor {
         this.processDefinitionService = processDefinitionService;
         this.commentService = commentService;
         this.bpmArchiverService = bpmArchiverService;
-
+        this.straightThroughExecution = straightThroughExecution;
     }
 
     @Override
@@ -202,11 +204,15 @@ public class FlowNodeExecutorImpl implements FlowNodeExecutor {
             return;
         }
         if (!nextState.isStable()) {
-            registerExecuteFlowNodeWork(flowNodeInstance);
+            if (!straightThroughExecution.defer(flowNodeInstance, f -> stepForward(f, null, null))) {
+                registerExecuteFlowNodeWork(flowNodeInstance);
+            }
             return;
         }
         if (nextState.isTerminal()) {
-            registerNotifyFinishWork(flowNodeInstance);
+            if (!straightThroughExecution.defer(flowNodeInstance, this::notifyNodeReachedState)) {
+                registerNotifyFinishWork(flowNodeInstance);
+            }
             return;
         }
         // State is stable, nothing to do.
@@ -217,6 +223,24 @@ public class FlowNodeExecutorImpl implements FlowNodeExecutor {
         workService.registerWork(workFactory.createExecuteFlowNodeWorkDescriptor(sFlowNodeInstance));
     }
 
+    /**
+     * Does, straight-through, what the NotifyChildFinishedWork registered for the flow node would have done.
+     */
+    private void notifyNodeReachedState(SFlowNodeInstance sFlowNodeInstance) throws SBonitaException {
+        if (!sFlowNodeInstance.isTerminal()) {
+            LOG.debug("Flow node {} is not yet completed, its parent is not notified", sFlowNodeInstance);
+            return;
+        }
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(classLoaderService.getClassLoader(
+                    identifier(ScopeType.PROCESS, sFlowNodeInstance.getProcessDefinitionId())));
+            containerRegistry.nodeReachedState(sFlowNodeInstance);
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+
     private void setExecutedBySubstitute(final Long executerSubstituteId, final SFlowNodeInstance sFlowNodeInstance)
             throws SFlowNodeModificationException {
         if (isNotNullOrEmptyAndDifferentOf(sFlowNodeInstance.getExecutedBySubstitute(), executerSubstituteId)) {
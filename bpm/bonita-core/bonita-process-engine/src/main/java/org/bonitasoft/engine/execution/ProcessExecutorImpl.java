@@ -158,6 +158,7 @@ public class ProcessExecutorImpl implements ProcessExecutor {
     private final BPMWorkFactory workFactory;
     private final BPMArchiverService bpmArchiverService;
     private final ProcessStarterVerifier processStarterVerifier;
+    private final StraightThroughExecution straightThroughExecution;
 
     public ProcessExecutorImpl(final ActivityInstanceService activityInstanceService,
             final ProcessInstanceService processInstanceService, final FlowNodeExecutor flowNodeExecutor,
@@ -175,7 +176,8 @@ public class ProcessExecutorImpl implements ProcessExecutor {
             final BusinessDataRepository businessDataRepository,
             final RefBusinessDataService refBusinessDataService, final TransitionEvaluator transitionEvaluator,
             final ContractDataService contractDataService, BPMWorkFactory workFactory,
-            BPMArchiverService bpmArchiverService, final ProcessStarterVerifier processStarterVerifier) {
+            BPMArchiverService bpmArchiverService, final ProcessStarterVerifier processStarterVerifier,
+            final StraightThroughExecution straightThroughExecution) {
         super();
         this.activityInstanceService = activityInstanceService;
         this.processInstanceService = processInstanceService;
@@ -199,6 +201,7 @@ public class ProcessExecutorImpl implements ProcessExecutor {
         this.workFactory = workFactory;
         this.bpmArchiverService = bpmArchiverService;
         this.processStarterVerifier = processStarterVerifier;
+        this.straightThroughExecution = straightThroughExecution;
         documentHelper = new DocumentHelper(documentService, processDefinitionService, processInstanceService);
         //FIXME There is responsibility issue the circular dependencies must be fixed next time.
         eventsHandler.setProcessExecutor(this);
@@ -1132,6 +1135,9 @@ public class ProcessExecutorImpl implements ProcessExecutor {
     }
 
     private void registerExecuteFlowNodeWork(SFlowNodeInstance sFlowNodeInstance) throws SWorkRegisterException {
+        if (straightThroughExecution.defer(sFlowNodeInstance, f -> flowNodeExecutor.executeFlowNode(f, null, null))) {
+            return;
+        }
         workService
                 .registerWork(workFactory.createExecuteFlowNodeWorkDescriptor(sFlowNodeInstance));
     }
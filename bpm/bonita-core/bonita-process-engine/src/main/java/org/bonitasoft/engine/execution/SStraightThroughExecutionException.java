@@ -0,0 +1,30 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.execution;
+
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+
+/**
+ * Thrown when a step deferred by {@link StraightThroughExecution} fails: the whole chain is rolled back and must be
+ * executed again one work per step.
+ */
+public class SStraightThroughExecutionException extends SBonitaException {
+
+    private static final long serialVersionUID = 4213370526143417522L;
+
+    public SStraightThroughExecutionException(final long flowNodeInstanceId, final Throwable cause) {
+        super("Straight-through execution failed on a step of flow node " + flowNodeInstanceId, cause);
+    }
+
+}
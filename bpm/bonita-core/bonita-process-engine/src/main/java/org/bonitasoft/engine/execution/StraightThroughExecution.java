@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.execution;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.exceptions.SFlowNodeNotFoundException;
+import org.bonitasoft.engine.core.process.instance.model.SFlowNodeInstance;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes, in the work that executes a flow node, the steps that would otherwise each be executed by a new work:
+ * the next non-stable states of the flow node, the notification of its completion and the execution of the flow
+ * nodes that follow it.
+ * <p>
+ * A chain is started by {@link #execute(SFlowNodeInstance, Step)}, from a work holding the lock of the process
+ * instance of the flow node. While it runs, executors {@link #defer(SFlowNodeInstance, Step) defer} the steps of the
+ * flow nodes of the same process instance instead of registering works, up to {@code maxSteps} steps. Deferred steps
+ * are executed one after the other, in the same transaction, and only if their flow node is still in the state it had
+ * when the step was deferred, like the work would have checked.
+ * <p>
+ * When a deferred step fails, the whole chain is rolled back and a {@link SStraightThroughExecutionException} is
+ * thrown so that the chain can be executed again one work per step.
+ */
+@Slf4j
+@Component
+public class StraightThroughExecution {
+
+    public static final String WORKS_SAVED = "bonita.bpmengine.execution.straightthrough.works.saved";
+    public static final String CHAIN_STEPS = "bonita.bpmengine.execution.straightthrough.chain.steps";
+
+    private final ThreadLocal<Chain> currentChain = new ThreadLocal<>();
+    private final ActivityInstanceService activityInstanceService;
+    private final boolean enabled;
+    private final int maxSteps;
+    private final Counter worksSaved;
+    private final DistributionSummary chainSteps;
+
+    public StraightThroughExecution(ActivityInstanceService activityInstanceService,
+            @Value("${bonita.tenant.execution.straightThrough.enabled:false}") boolean enabled,
+            @Value("${bonita.tenant.execution.straightThrough.maxSteps:20}") int maxSteps,
+            @Value("${tenantId}") long tenantId, MeterRegistry meterRegistry) {
+        this.activityInstanceService = activityInstanceService;
+        this.enabled = enabled;
+        this.maxSteps = maxSteps;
+        Tags tags = Tags.of("tenant", String.valueOf(tenantId));
+        worksSaved = Counter.builder(WORKS_SAVED).tags(tags).baseUnit("works")
+                .description("Works, and so transactions, saved by executing flow node steps straight-through")
+                .register(meterRegistry);
+        chainSteps = DistributionSummary.builder(CHAIN_STEPS).tags(tags).baseUnit("steps")
+                .description("Steps executed straight-through by a single work, for a single process instance")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Executes the given step of the flow node, then all the steps deferred while executing it.
+     * Steps are simply executed when straight-through execution is disabled or when a chain is already running.
+     */
+    public void execute(SFlowNodeInstance flowNodeInstance, Step step) throws SBonitaException {
+        if (!enabled || currentChain.get() != null) {
+            step.execute(flowNodeInstance);
+            return;
+        }
+        Chain chain = new Chain(flowNodeInstance.getParentProcessInstanceId());
+        currentChain.set(chain);
+        try {
+            step.execute(flowNodeInstance);
+            executeDeferredSteps(chain);
+        } finally {
+            currentChain.remove();
+        }
+        if (chain.executedSteps > 0) {
+            worksSaved.increment(chain.executedSteps);
+            chainSteps.record(chain.executedSteps);
+            log.debug("{} steps of process instance {} executed straight-through", chain.executedSteps,
+                    chain.processInstanceId);
+        }
+    }
+
+    private void executeDeferredSteps(Chain chain) throws SStraightThroughExecutionException {
+        DeferredStep deferredStep;
+        while ((deferredStep = chain.deferredSteps.poll()) != null) {
+            try {
+                if (deferredStep.execute()) {
+                    chain.executedSteps++;
+                }
+            } catch (SBonitaException | RuntimeException e) {
+                throw new SStraightThroughExecutionException(deferredStep.flowNodeInstanceId, e);
+            }
+        }
+    }
+
+    /**
+     * Defers the given step of the flow node to the end of the running chain.
+     *
+     * @return false when the step cannot be deferred (no chain running on this thread, flow node of another process
+     *         instance or budget of the chain exhausted), the caller must then register a work as usual
+     */
+    public boolean defer(SFlowNodeInstance flowNodeInstance, Step step) {
+        Chain chain = currentChain.get();
+        if (chain == null || chain.processInstanceId != flowNodeInstance.getParentProcessInstanceId()
+                || chain.deferredCount >= maxSteps) {
+            return false;
+        }
+        chain.deferredCount++;
+        chain.deferredSteps.add(new DeferredStep(flowNodeInstance, step));
+        return true;
+    }
+
+    @FunctionalInterface
+    public interface Step {
+
+        void execute(SFlowNodeInstance flowNodeInstance) throws SBonitaException;
+    }
+
+    private static class Chain {
+
+        private final long processInstanceId;
+        private final Deque<DeferredStep> deferredSteps = new ArrayDeque<>();
+        private int deferredCount;
+        private int executedSteps;
+
+        private Chain(long processInstanceId) {
+            this.processInstanceId = processInstanceId;
+        }
+    }
+
+    private class DeferredStep {
+
+        private final long flowNodeInstanceId;
+        private final int stateId;
+        private final boolean executing;
+        private final boolean aborting;
+        private final boolean canceling;
+        private final Step step;
+
+        private DeferredStep(SFlowNodeInstance flowNodeInstance, Step step) {
+            flowNodeInstanceId = flowNodeInstance.getId();
+            stateId = flowNodeInstance.getStateId();
+            executing = flowNodeInstance.isStateExecuting();
+            aborting = flowNodeInstance.isAborting();
+            canceling = flowNodeInstance.isCanceling();
+            this.step = step;
+        }
+
+        private boolean execute() throws SBonitaException {
+            SFlowNodeInstance flowNodeInstance;
+            try {
+                flowNodeInstance = activityInstanceService.getFlowNodeInstance(flowNodeInstanceId);
+            } catch (SFlowNodeNotFoundException e) {
+                log.debug("Flow node {} does not exist anymore, its deferred step is not executed",
+                        flowNodeInstanceId);
+                return false;
+            }
+            if (stateId != flowNodeInstance.getStateId()
+                    || executing != flowNodeInstance.isStateExecuting()
+                    || aborting != flowNodeInstance.isAborting()
+                    || canceling != flowNodeInstance.isCanceling()) {
+                log.debug("Flow node {} is not in the expected state anymore, its deferred step is not executed",
+                        flowNodeInstanceId);
+                return false;
+            }
+            step.execute(flowNodeInstance);
+            return true;
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import org.bonitasoft.engine.classloader.SClassLoaderException;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.core.connector.ConnectorInstanceService;
 import org.bonitasoft.engine.core.contract.data.ContractDataService;
+import org.bonitasoft.engine.core.data.instance.TransientDataService;
 import org.bonitasoft.engine.core.document.api.DocumentService;
 import org.bonitasoft.engine.core.document.model.SMappedDocument;
 import org.bonitasoft.engine.core.process.comment.api.SCommentService;
@@ -45,6 +46,7 @@ import org.bonitasoft.engine.core.process.instance.model.archive.SAFlowNodeInsta
 import org.bonitasoft.engine.core.process.instance.model.archive.SAProcessInstance;
 import org.bonitasoft.engine.core.process.instance.model.archive.builder.*;
 import org.bonitasoft.engine.core.process.instance.model.business.data.SRefBusinessDataInstance;
+import org.bonitasoft.engine.data.definition.model.SDataDefinition;
 import org.bonitasoft.engine.data.instance.api.DataInstanceContainer;
 import org.bonitasoft.engine.data.instance.api.DataInstanceService;
 import org.bonitasoft.engine.data.instance.exception.SDataInstanceException;
@@ -72,6 +74,7 @@ public class BPMArchiverService {
     private final RefBusinessDataService refBusinessDataService;
     private final ContractDataService contractDataService;
     private final DataInstanceService dataInstanceService;
+    private final TransientDataService transientDataService;
     private final ActivityInstanceService activityInstanceService;
 
     private final int BATCH_SIZE = 100;
@@ -86,6 +89,7 @@ public class BPMArchiverService {
             RefBusinessDataService refBusinessDataService,
             ContractDataService contractDataService,
             DataInstanceService dataInstanceService,
+            TransientDataService transientDataService,
             ActivityInstanceService activityInstanceService) {
         this.archiveService = archiveService;
         this.processInstanceService = processInstanceService;
@@ -97,6 +101,7 @@ public class BPMArchiverService {
         this.refBusinessDataService = refBusinessDataService;
         this.contractDataService = contractDataService;
         this.dataInstanceService = dataInstanceService;
+        this.transientDataService = transientDataService;
         this.activityInstanceService = activityInstanceService;
     }
 
@@ -289,6 +294,10 @@ public class BPMArchiverService {
                  * We do not archive because it's done after update not before update
                  */
                 deleteLocalDataInstancesFromActivityInstance(flowNodeInstance);
+                if (activityDef.getSDataDefinitions().stream().anyMatch(SDataDefinition::isTransientData)) {
+                    transientDataService.deleteDataInstances(flowNodeInstance.getId(),
+                            DataInstanceContainer.ACTIVITY_INSTANCE.name());
+                }
             }
 
             if (activityDef != null && !activityDef.getConnectors().isEmpty()) {
@@ -51,6 +51,7 @@ import org.bonitasoft.engine.core.process.instance.model.event.SThrowEventInstan
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingEvent;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
 import org.bonitasoft.engine.data.instance.api.DataInstanceContainer;
 import org.bonitasoft.engine.data.instance.exception.SDataInstanceException;
 import org.bonitasoft.engine.expression.exception.SExpressionDependencyMissingException;
@@ -134,8 +135,10 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
                 throw new SWaitingEventCreationException(eventDefinition.getType() + " is not a catch event.");
         }
         fillCorrelation(builder, messageTrigger.getCorrelations(), expressionContext);
-        getEventInstanceService().createWaitingEvent(builder.done());
-        messagesHandlingService.triggerMatchingOfMessages();
+        final SWaitingMessageEvent waitingMessageEvent = builder.done();
+        getEventInstanceService().createWaitingEvent(waitingMessageEvent);
+        messagesHandlingService.triggerMatchingOfMessages(waitingMessageEvent.getMessageName(),
+                waitingMessageEvent.getCorrelation1());
 
     }
 
@@ -159,8 +162,10 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
                 processDefinition.getId());
 
         fillCorrelation(builder, messageTrigger.getCorrelations(), expressionContext);
-        getEventInstanceService().createWaitingEvent(builder.done());
-        messagesHandlingService.triggerMatchingOfMessages();
+        final SWaitingMessageEvent waitingMessageEvent = builder.done();
+        getEventInstanceService().createWaitingEvent(waitingMessageEvent);
+        messagesHandlingService.triggerMatchingOfMessages(waitingMessageEvent.getMessageName(),
+                waitingMessageEvent.getCorrelation1());
     }
 
     @Override
@@ -208,7 +213,7 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
         final SMessageInstance messageInstance = builder.done();
         // evaluate and add correlations
         getEventInstanceService().createMessageInstance(messageInstance);
-        messagesHandlingService.triggerMatchingOfMessages();
+        messagesHandlingService.triggerMatchingOfMessage(messageInstance);
 
         // create data
         if (!messageTrigger.getDataDefinitions().isEmpty()) {
@@ -310,7 +315,9 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
                 DataInstanceContainer.PROCESS_INSTANCE.name(),
                 processDefinition.getId());
         fillCorrelation(builder, messageEventTriggerDefinition.getCorrelations(), expressionContext);
-        getEventInstanceService().createWaitingEvent(builder.done());
-        messagesHandlingService.triggerMatchingOfMessages();
+        final SWaitingMessageEvent waitingMessageEvent = builder.done();
+        getEventInstanceService().createWaitingEvent(waitingMessageEvent);
+        messagesHandlingService.triggerMatchingOfMessages(waitingMessageEvent.getMessageName(),
+                waitingMessageEvent.getCorrelation1());
     }
 }
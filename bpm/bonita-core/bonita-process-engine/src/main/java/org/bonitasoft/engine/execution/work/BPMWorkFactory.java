@@ -65,6 +65,7 @@ public class BPMWorkFactory implements WorkFactory {
     private static final String STATE_EXECUTING = "stateExecuting";
     private static final String STATE_ABORTING = "stateAborting";
     private static final String STATE_CANCELING = "stateCanceling";
+    private static final String STRAIGHT_THROUGH = "straightThrough";
     private static final String ACTIVATION_EVENT = "activationEvent";
     private static final String SUB_PROCESS_DEFINITION_ID = "subProcessDefinitionId";
     private static final String FLOW_NODE_DEFINITIONS_FILTER = "flowNodeDefinitionsFilter";
@@ -183,6 +184,14 @@ public class BPMWorkFactory implements WorkFactory {
                 .withParameter(STATE_CANCELING, flowNodeInstance.isCanceling());
     }
 
+    /**
+     * Same as {@link #createExecuteFlowNodeWorkDescriptor(SFlowNodeInstance)} but the work executes only the current
+     * step of the flow node, even if straight-through execution is enabled.
+     */
+    public WorkDescriptor createExecuteFlowNodeStepByStepWorkDescriptor(SFlowNodeInstance flowNodeInstance) {
+        return createExecuteFlowNodeWorkDescriptor(flowNodeInstance).withParameter(STRAIGHT_THROUGH, false);
+    }
+
     private BonitaWork createExecuteFlowNodeWork(WorkDescriptor workDescriptor) {
         final long processInstanceId = workDescriptor.getLong(PROCESS_INSTANCE_ID);
         final long flowNodeInstanceId = workDescriptor.getLong(FLOW_NODE_INSTANCE_ID);
@@ -195,7 +204,8 @@ public class BPMWorkFactory implements WorkFactory {
                 workDescriptor.getInteger(STATE_ID),
                 workDescriptor.getBoolean(STATE_EXECUTING),
                 workDescriptor.getBoolean(STATE_ABORTING),
-                workDescriptor.getBoolean(STATE_CANCELING));
+                workDescriptor.getBoolean(STATE_CANCELING),
+                !workDescriptor.hasParameter(STRAIGHT_THROUGH) || workDescriptor.getBoolean(STRAIGHT_THROUGH));
         wrappedWork = withLock(processInstanceId, withTx(wrappedWork));
         wrappedWork = withFlowNodeContext(workDescriptor.getLong(PROCESS_DEFINITION_ID), processInstanceId,
                 flowNodeInstanceId, wrappedWork);
@@ -19,6 +19,8 @@ import java.util.concurrent.CompletableFuture;
 import org.bonitasoft.engine.core.process.instance.api.exceptions.SFlowNodeNotFoundException;
 import org.bonitasoft.engine.core.process.instance.api.exceptions.SFlowNodeReadException;
 import org.bonitasoft.engine.core.process.instance.model.SFlowNodeInstance;
+import org.bonitasoft.engine.execution.FlowNodeExecutor;
+import org.bonitasoft.engine.execution.SStraightThroughExecutionException;
 import org.bonitasoft.engine.execution.WaitingEventsInterrupter;
 import org.bonitasoft.engine.service.ServiceAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
@@ -39,14 +41,16 @@ public class ExecuteFlowNodeWork extends TenantAwareBonitaWork {
     private final Boolean executing;
     private final Boolean aborting;
     private final Boolean canceling;
+    private final boolean straightThrough;
 
     ExecuteFlowNodeWork(final long flowNodeInstanceId, Integer stateId, Boolean executing, Boolean aborting,
-            Boolean canceling) {
+            Boolean canceling, boolean straightThrough) {
         this.flowNodeInstanceId = flowNodeInstanceId;
         this.stateId = stateId;
         this.executing = executing;
         this.aborting = aborting;
         this.canceling = canceling;
+        this.straightThrough = straightThrough;
     }
 
     @Override
@@ -59,7 +63,13 @@ public class ExecuteFlowNodeWork extends TenantAwareBonitaWork {
     public CompletableFuture<Void> work(final Map<String, Object> context) throws Exception {
         final ServiceAccessor serviceAccessor = getServiceAccessor(context);
         SFlowNodeInstance flowNodeInstance = retrieveAndVerifyFlowNodeInstance(serviceAccessor);
-        serviceAccessor.getFlowNodeExecutor().executeFlowNode(flowNodeInstance, null, null);
+        final FlowNodeExecutor flowNodeExecutor = serviceAccessor.getFlowNodeExecutor();
+        if (straightThrough) {
+            serviceAccessor.getStraightThroughExecution().execute(flowNodeInstance,
+                    f -> flowNodeExecutor.executeFlowNode(f, null, null));
+        } else {
+            flowNodeExecutor.executeFlowNode(flowNodeInstance, null, null);
+        }
         return CompletableFuture.completedFuture(null);
     }
 
@@ -92,6 +102,16 @@ public class ExecuteFlowNodeWork extends TenantAwareBonitaWork {
     public void handleFailure(final Throwable e, final Map<String, Object> context) throws Exception {
         ServiceAccessor serviceAccessor = getServiceAccessor(context);
         final UserTransactionService userTransactionService = serviceAccessor.getUserTransactionService();
+        if (e instanceof SStraightThroughExecutionException) {
+            // the flow node that failed is one of the following ones, execute them again one work per step
+            userTransactionService.executeInTransaction(() -> {
+                serviceAccessor.getWorkService().registerWork(serviceAccessor.getBPMWorkFactory()
+                        .createExecuteFlowNodeStepByStepWorkDescriptor(
+                                serviceAccessor.getActivityInstanceService().getFlowNodeInstance(flowNodeInstanceId)));
+                return null;
+            });
+            return;
+        }
         WaitingEventsInterrupter waitingEventsInterrupter = new WaitingEventsInterrupter(
                 serviceAccessor.getEventInstanceService(),
                 serviceAccessor.getSchedulerService());
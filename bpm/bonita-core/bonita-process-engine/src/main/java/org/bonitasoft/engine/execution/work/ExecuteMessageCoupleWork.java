@@ -51,7 +51,8 @@ public class ExecuteMessageCoupleWork extends TenantAwareBonitaWork {
                 + waitingMessageId;
     }
 
-    private void resetWaitingMessage(final long waitingMessageId, final EventInstanceService eventInstanceService)
+    private SWaitingMessageEvent resetWaitingMessage(final long waitingMessageId,
+            final EventInstanceService eventInstanceService)
             throws SWaitingEventModificationException,
             SWaitingEventReadException {
         final SWaitingMessageEvent waitingMsg = eventInstanceService.getWaitingMessage(waitingMessageId);
@@ -60,6 +61,7 @@ public class ExecuteMessageCoupleWork extends TenantAwareBonitaWork {
                 .addField(BuilderFactory.get(SWaitingMessageEventBuilderFactory.class).getProgressKey(),
                         SWaitingMessageEventBuilderFactory.PROGRESS_FREE_KEY);
         eventInstanceService.updateWaitingMessage(waitingMsg, descriptor);
+        return waitingMsg;
     }
 
     @Override
@@ -88,7 +90,14 @@ public class ExecuteMessageCoupleWork extends TenantAwareBonitaWork {
     public void handleFailure(final Throwable e, final Map<String, Object> context) throws Exception {
         final ServiceAccessor serviceAccessor = getServiceAccessor(context);
         serviceAccessor.getUserTransactionService().executeInTransaction(() -> {
-            resetWaitingMessage(waitingMessageId, serviceAccessor.getEventInstanceService());
+            SWaitingMessageEvent waitingMsg = resetWaitingMessage(waitingMessageId,
+                    serviceAccessor.getEventInstanceService());
+            if (waitingMsg != null) {
+                // messages are matched by key: without this, the waiting message is only matched again when another
+                // message with the same key is sent
+                serviceAccessor.getMessagesHandlingService().triggerMatchingOfMessages(waitingMsg.getMessageName(),
+                        waitingMsg.getCorrelation1());
+            }
             return null;
         });
         log.warn(
@@ -0,0 +1,471 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.inbox;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.bonitasoft.engine.actor.mapping.ActorMappingService.ACTOR_MEMBER;
+import static org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService.PENDINGACTIVITYMAPPING;
+import static org.bonitasoft.engine.identity.IdentityService.USER;
+import static org.bonitasoft.engine.identity.IdentityService.USERMEMBERSHIP;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.actor.mapping.model.SActorMember;
+import org.bonitasoft.engine.commons.TenantLifecycleService;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.core.process.instance.api.PendingTaskInboxRepository;
+import org.bonitasoft.engine.core.process.instance.model.SPendingActivityMapping;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SHandlerExecutionException;
+import org.bonitasoft.engine.identity.model.SUser;
+import org.bonitasoft.engine.identity.model.SUserMembership;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+
+/**
+ * Maintains the pending task inbox: for each user, the human tasks made pending for this user by the pending mappings,
+ * resolved against the actor members and the memberships.
+ * <p>
+ * Handlers on the pending mappings, actor members, memberships and users collect the users and tasks impacted by a
+ * transaction. Just before the transaction commits, the inbox of each of them is compared to what the pending mappings
+ * resolve to, and fixed. This is done from the snapshot of the transaction: a concurrent transaction changing a related
+ * mapping or membership is not seen. Once the transaction is committed, the same users and tasks are checked again by a
+ * dedicated thread, in a new transaction that sees the changes committed meanwhile: of two concurrent transactions, the
+ * check of the one committing last sees both. When the node stops between a commit and this check, or when the check
+ * fails, entries stay wrong until the next periodic check of the whole inbox, if enabled. The inbox is rebuilt when the tenant starts if it is empty while pending mappings exist, and
+ * emptied when the tenant starts with the inbox disabled, so that enabling it again rebuilds it.
+ * <p>
+ * Organization changes done without events (deletion of the whole organization) are not followed: the inbox is then
+ * emptied explicitly, see {@link #clear()}. {@link #check(Long, boolean)} compares the inbox to the pending mappings
+ * and can fix it.
+ */
+@Slf4j
+public class PendingTaskInbox implements TenantLifecycleService {
+
+    public static final String INBOX_ENTRIES = "bonita.bpmengine.task.inbox.entries";
+    private static final int REBUILD_PAGE_SIZE = 100;
+    private static final int MAX_PENDING_CHECKS = 10000;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final EventService eventService;
+    private final PendingTaskInboxRepository repository;
+    private final UserTransactionService userTransactionService;
+    private final SessionAccessor sessionAccessor;
+    private final Long tenantId;
+    private final boolean enabled;
+    private final long checkIntervalMillis;
+    private final BlockingQueue<InboxChanges> committedChanges = new LinkedBlockingQueue<>(MAX_PENDING_CHECKS);
+    private volatile boolean running;
+    private volatile boolean fullCheckRequested;
+    private Thread checkerThread;
+    private final ThreadLocal<InboxChanges> currentChanges = new ThreadLocal<>();
+    private final PendingTaskInboxHandler handler = new PendingTaskInboxHandler();
+
+    private final Counter addedCounter;
+    private final Counter removedCounter;
+
+    public PendingTaskInbox(EventService eventService, PendingTaskInboxRepository repository,
+            UserTransactionService userTransactionService, SessionAccessor sessionAccessor, Long tenantId,
+            boolean enabled, long checkInterval, MeterRegistry meterRegistry) {
+        this.eventService = eventService;
+        this.repository = repository;
+        this.userTransactionService = userTransactionService;
+        this.sessionAccessor = sessionAccessor;
+        this.tenantId = tenantId;
+        this.enabled = enabled;
+        this.checkIntervalMillis = SECONDS.toMillis(checkInterval);
+        addedCounter = Counter.builder(INBOX_ENTRIES)
+                .tags(Tags.of("tenant", String.valueOf(tenantId), "operation", "added"))
+                .baseUnit("entries")
+                .description("Entries added to the pending task inbox")
+                .register(meterRegistry);
+        removedCounter = Counter.builder(INBOX_ENTRIES)
+                .tags(Tags.of("tenant", String.valueOf(tenantId), "operation", "removed"))
+                .baseUnit("entries")
+                .description("Entries removed from the pending task inbox")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() throws SBonitaException {
+        if (!enabled) {
+            if (repository.getNumberOfEntries() > 0) {
+                log.info("Pending task inbox of tenant {} is disabled, removing its entries", tenantId);
+                repository.deleteAllEntries();
+            }
+            return;
+        }
+        eventService.addHandler(PENDINGACTIVITYMAPPING + SEvent.CREATED, handler);
+        eventService.addHandler(PENDINGACTIVITYMAPPING + SEvent.DELETED, handler);
+        eventService.addHandler(ACTOR_MEMBER + SEvent.CREATED, handler);
+        eventService.addHandler(ACTOR_MEMBER + SEvent.DELETED, handler);
+        eventService.addHandler(USERMEMBERSHIP + SEvent.CREATED, handler);
+        eventService.addHandler(USERMEMBERSHIP + SEvent.UPDATED, handler);
+        eventService.addHandler(USERMEMBERSHIP + SEvent.DELETED, handler);
+        eventService.addHandler(USER + SEvent.DELETED, handler);
+        if (repository.getNumberOfEntries() == 0 && repository.getNumberOfPendingActivityMappings() > 0) {
+            log.info("Building the pending task inbox of tenant {}", tenantId);
+            CheckResult result = check(null, true);
+            log.info("Pending task inbox of tenant {} built for {} users with {} entries", tenantId,
+                    result.getCheckedUsers(), result.getMissingEntries());
+        }
+        startChecker();
+    }
+
+    private synchronized void startChecker() {
+        if (running) {
+            return;
+        }
+        running = true;
+        checkerThread = new Thread(this::checkLoop, "Bonita-Task-Inbox-" + tenantId);
+        checkerThread.setDaemon(true);
+        checkerThread.start();
+    }
+
+    @Override
+    public void stop() throws SBonitaException {
+        if (!enabled) {
+            return;
+        }
+        eventService.removeAllHandlers(handler);
+        stopChecker();
+    }
+
+    private synchronized void stopChecker() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            checkerThread.join(SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkerThread = null;
+        // checks still pending are lost, entries they would have fixed are fixed by the next periodic check
+        committedChanges.clear();
+    }
+
+    @Override
+    public void pause() throws SBonitaException {
+        stop();
+    }
+
+    @Override
+    public void resume() throws SBonitaException {
+        start();
+    }
+
+    /**
+     * Remove all entries of the inbox, used when the organization is deleted without firing events.
+     */
+    public void clear() throws SBonitaException {
+        repository.deleteAllEntries();
+    }
+
+    /**
+     * Compare the inbox of one user, or of all users, to what the pending mappings resolve to.
+     *
+     * @param userId the user to check, or null to check all users
+     * @param repair true to fix the differences found
+     * @return the differences found
+     */
+    public CheckResult check(Long userId, boolean repair) throws SBonitaException {
+        CheckResult result = new CheckResult();
+        if (userId != null) {
+            checkUser(userId, null, repair, result);
+            return result;
+        }
+        List<Long> userIds;
+        long lastUserId = 0;
+        do {
+            userIds = repository.getUserIds(lastUserId, REBUILD_PAGE_SIZE);
+            for (Long id : userIds) {
+                checkUser(id, null, repair, result);
+                lastUserId = id;
+            }
+        } while (userIds.size() == REBUILD_PAGE_SIZE);
+        return result;
+    }
+
+    private void checkUser(long userId, Long actorId, boolean repair, CheckResult result) throws SBonitaException {
+        List<Long> actual = actorId == null ? repository.getActivityIdsOfUser(userId)
+                : repository.getActivityIdsOfUser(userId, actorId);
+        List<Long> expected = actorId == null ? repository.getExpectedActivityIdsOfUser(userId)
+                : repository.getExpectedActivityIdsOfUser(userId, actorId);
+        Difference difference = new Difference(expected, actual);
+        result.add(difference);
+        if (repair && !difference.isEmpty()) {
+            repository.deleteEntries(userId, difference.toRemove);
+            repository.addEntries(userId, difference.toAdd);
+            count(difference);
+        }
+    }
+
+    private void checkActivity(long activityId) throws SBonitaException {
+        List<Long> expected = repository.getExpectedUserIdsOfActivity(activityId);
+        if (expected.isEmpty()) {
+            repository.deleteEntriesOfActivity(activityId);
+            return;
+        }
+        Difference difference = new Difference(expected, repository.getUserIdsOfActivity(activityId));
+        if (!difference.isEmpty()) {
+            repository.deleteEntries(difference.toRemove, activityId);
+            repository.addEntries(difference.toAdd, activityId);
+            count(difference);
+        }
+    }
+
+    private void count(Difference difference) {
+        addedCounter.increment(difference.missing);
+        removedCounter.increment(difference.extra + difference.duplicates);
+    }
+
+    void apply(InboxChanges changes) throws SBonitaException {
+        for (Long activityId : changes.activityIds) {
+            checkActivity(activityId);
+        }
+        for (Map.Entry<Long, Set<Long>> usersOfActor : changes.userIdsByActorId.entrySet()) {
+            for (Long userId : usersOfActor.getValue()) {
+                if (!changes.userIds.contains(userId)) {
+                    checkUser(userId, usersOfActor.getKey(), true, new CheckResult());
+                }
+            }
+        }
+        for (Long userId : changes.userIds) {
+            checkUser(userId, null, true, new CheckResult());
+        }
+    }
+
+    private InboxChanges currentChanges() throws STransactionNotFoundException {
+        InboxChanges changes = currentChanges.get();
+        if (changes == null) {
+            InboxChanges newChanges = new InboxChanges();
+            // applied once per transaction, after all the changes of the organization and of the mappings are done
+            userTransactionService.registerBeforeCommitCallable(() -> {
+                apply(newChanges);
+                return null;
+            });
+            userTransactionService.registerBonitaSynchronization(
+                    (BonitaTransactionSynchronization) status -> {
+                        currentChanges.remove();
+                        if (status == Status.STATUS_COMMITTED) {
+                            checkAgain(newChanges);
+                        }
+                    });
+            currentChanges.set(newChanges);
+            changes = newChanges;
+        }
+        return changes;
+    }
+
+    private void checkAgain(InboxChanges changes) {
+        if (running && !committedChanges.offer(changes)) {
+            log.warn("Too many changes of the pending task inbox of tenant {} to check, checking the whole inbox",
+                    tenantId);
+            fullCheckRequested = true;
+        }
+    }
+
+    private void checkLoop() {
+        sessionAccessor.setTenantId(tenantId);
+        long nextFullCheck = nextFullCheck();
+        while (running) {
+            try {
+                if (fullCheckRequested || System.currentTimeMillis() >= nextFullCheck) {
+                    fullCheckRequested = false;
+                    nextFullCheck = nextFullCheck();
+                    committedChanges.clear();
+                    CheckResult result = userTransactionService.executeInTransaction(() -> check(null, true));
+                    if (result.getInconsistentUsers() > 0) {
+                        log.info("Pending task inbox of tenant {} fixed for {} users", tenantId,
+                                result.getInconsistentUsers());
+                    }
+                    continue;
+                }
+                InboxChanges changes = committedChanges.poll(POLL_TIMEOUT_MILLIS, MILLISECONDS);
+                if (changes != null) {
+                    InboxChanges merged = new InboxChanges();
+                    merged.add(changes);
+                    InboxChanges next;
+                    while ((next = committedChanges.poll()) != null) {
+                        merged.add(next);
+                    }
+                    userTransactionService.executeInTransaction(() -> {
+                        apply(merged);
+                        return null;
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Unable to check the pending task inbox of tenant {}: {}", tenantId, e.getMessage());
+                log.debug("Cause", e);
+            }
+        }
+    }
+
+    private long nextFullCheck() {
+        return checkIntervalMillis > 0 ? System.currentTimeMillis() + checkIntervalMillis : Long.MAX_VALUE;
+    }
+
+    /**
+     * Users and tasks whose inbox entries must be checked when the current transaction commits
+     */
+    static class InboxChanges {
+
+        final Set<Long> activityIds = new LinkedHashSet<>();
+        final Set<Long> userIds = new LinkedHashSet<>();
+        final Map<Long, Set<Long>> userIdsByActorId = new HashMap<>();
+
+        void add(InboxChanges other) {
+            activityIds.addAll(other.activityIds);
+            userIds.addAll(other.userIds);
+            other.userIdsByActorId.forEach((actorId, users) -> userIdsByActorId
+                    .computeIfAbsent(actorId, k -> new LinkedHashSet<>()).addAll(users));
+        }
+    }
+
+    private static class Difference {
+
+        private final Set<Long> toAdd;
+        private final Set<Long> toRemove;
+        private final int missing;
+        private final int extra;
+        private final int duplicates;
+
+        private Difference(List<Long> expected, List<Long> actual) {
+            Set<Long> expectedIds = new HashSet<>(expected);
+            Set<Long> actualIds = new HashSet<>();
+            Set<Long> duplicated = new HashSet<>();
+            for (Long id : actual) {
+                if (!actualIds.add(id)) {
+                    duplicated.add(id);
+                }
+            }
+            toAdd = new HashSet<>(expectedIds);
+            toAdd.removeAll(actualIds);
+            missing = toAdd.size();
+            toRemove = new HashSet<>(actualIds);
+            toRemove.removeAll(expectedIds);
+            extra = toRemove.size();
+            // duplicated entries still expected are removed then added again once
+            for (Long id : duplicated) {
+                if (expectedIds.contains(id)) {
+                    toRemove.add(id);
+                    toAdd.add(id);
+                }
+            }
+            duplicates = actual.size() - actualIds.size();
+        }
+
+        private boolean isEmpty() {
+            return toAdd.isEmpty() && toRemove.isEmpty();
+        }
+    }
+
+    /**
+     * Differences between the inbox and the pending mappings found by a check
+     */
+    @Getter
+    public static class CheckResult {
+
+        private long checkedUsers;
+        private long inconsistentUsers;
+        private long missingEntries;
+        private long extraEntries;
+        private long duplicatedEntries;
+
+        private void add(Difference difference) {
+            checkedUsers++;
+            if (difference.missing > 0 || difference.extra > 0 || difference.duplicates > 0) {
+                inconsistentUsers++;
+            }
+            missingEntries += difference.missing;
+            extraEntries += difference.extra;
+            duplicatedEntries += difference.duplicates;
+        }
+    }
+
+    private class PendingTaskInboxHandler implements SHandler<SEvent> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void execute(SEvent event) throws SHandlerExecutionException {
+            try {
+                InboxChanges changes = currentChanges();
+                Object object = event.getObject();
+                if (object instanceof SPendingActivityMapping) {
+                    changes.activityIds.add(((SPendingActivityMapping) object).getActivityId());
+                } else if (object instanceof SUserMembership) {
+                    changes.userIds.add(((SUserMembership) object).getUserId());
+                } else if (object instanceof SUser) {
+                    changes.userIds.add(((SUser) object).getId());
+                } else if (object instanceof SActorMember) {
+                    SActorMember actorMember = (SActorMember) object;
+                    // users are resolved now: memberships can be deleted later in the transaction
+                    changes.userIdsByActorId.computeIfAbsent(actorMember.getActorId(), k -> new LinkedHashSet<>())
+                            .addAll(usersOf(actorMember));
+                }
+            } catch (STransactionNotFoundException | SBonitaReadException e) {
+                throw new SHandlerExecutionException(e);
+            }
+        }
+
+        private List<Long> usersOf(SActorMember actorMember) throws SBonitaReadException {
+            if (actorMember.getUserId() > 0) {
+                return List.of(actorMember.getUserId());
+            }
+            return repository.getUserIdsOfMembership(actorMember.getGroupId(), actorMember.getRoleId());
+        }
+
+        @Override
+        public boolean isInterested(SEvent event) {
+            Object object = event.getObject();
+            return object instanceof SPendingActivityMapping || object instanceof SActorMember
+                    || object instanceof SUserMembership || object instanceof SUser;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return "PendingTaskInbox-" + tenantId;
+        }
+    }
+}
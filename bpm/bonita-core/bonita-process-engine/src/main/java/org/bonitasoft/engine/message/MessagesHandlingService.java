@@ -14,15 +14,23 @@
 package org.bonitasoft.engine.message;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.api.utils.VisibleForTesting;
 import org.bonitasoft.engine.builder.BuilderFactory;
@@ -51,17 +59,37 @@ import org.bonitasoft.engine.work.SWorkRegisterException;
 import org.bonitasoft.engine.work.WorkService;
 
 /**
+ * Matches BPMN messages with the waiting message events and triggers the execution of the matching couples.
+ * <p>
+ * Matching is partitioned on a matching key made of the message name and the first correlation of the message: a
+ * message can only match a waiting event having the same key, so partitions never compete for the same couples and are
+ * matched in parallel, each one by a single task at a time (guarded by a cluster lock per partition).
+ * Each trigger only schedules the matching of the keys it concerns, a full scan of the unhandled messages being done
+ * only when the caller does not know which key changed (e.g. at startup).
+ * When the {@link WaitingMessageEventIndex} is enabled, a message just sent is first matched using the index, the
+ * database being queried only when the index knows no waiting event for it.
+ * All cluster nodes must use the same number of matching threads, as it defines the partitions.
+ *
  * @author Baptiste Mesta
  */
 @Slf4j
 public class MessagesHandlingService implements TenantLifecycleService {
 
-    private static final int MAX_COUPLES = 100;
+    private static final int DEFAULT_MATCHING_THREADS = 4;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int MATCHING_KEYS_PAGE_SIZE = 1000;
     private static final String LOCK_TYPE = "EVENTS";
+    private static final String MATCHING_KEY_SEPARATOR = "|";
+    /**
+     * Delay before matching again a partition that is locked by another node
+     */
+    private static final long LOCKED_PARTITION_RETRY_DELAY_MILLIS = 500;
+    private static final long FAILED_MATCHING_RETRY_DELAY_MILLIS = 1000;
     public static final String NUMBER_OF_MESSAGES_EXECUTED = "bonita.bpmengine.message.executed";
     public static final String NUMBER_OF_MESSAGES_POTENTIAL_MATCHED = "bonita.bpmengine.message.potential";
     public static final String NUMBER_OF_MESSAGES_MATCHING_RETRIGGERED_TASKS = "bonita.bpmengine.message.retriggeredtasks";
-    private ThreadPoolExecutor threadPoolExecutor;
+    public static final String MESSAGES_LATENCY = "bonita.bpmengine.message.latency";
+    private ScheduledThreadPoolExecutor threadPoolExecutor;
     private EventInstanceService eventInstanceService;
     private WorkService workService;
     private LockService lockService;
@@ -69,14 +97,35 @@ public class MessagesHandlingService implements TenantLifecycleService {
     private UserTransactionService userTransactionService;
     private SessionAccessor sessionAccessor;
     private BPMWorkFactory workFactory;
+    private final int batchSize;
+    private final MatchingPartition[] partitions;
+    private final WaitingMessageEventIndex waitingMessageEventIndex;
+    private final AtomicBoolean fullScanScheduled = new AtomicBoolean();
 
     private final Counter executedMessagesCounter;
     private final Counter matchedPotentialMessagesCounter;
     private final Counter retriggeredMatchingTasksCounter;
+    private final Timer messagesLatencyTimer;
 
     public MessagesHandlingService(EventInstanceService eventInstanceService, WorkService workService,
             LockService lockService, Long tenantId, UserTransactionService userTransactionService,
             SessionAccessor sessionAccessor, BPMWorkFactory workFactory, MeterRegistry meterRegistry) {
+        this(eventInstanceService, workService, lockService, tenantId, userTransactionService, sessionAccessor,
+                workFactory, meterRegistry, DEFAULT_MATCHING_THREADS, DEFAULT_BATCH_SIZE);
+    }
+
+    public MessagesHandlingService(EventInstanceService eventInstanceService, WorkService workService,
+            LockService lockService, Long tenantId, UserTransactionService userTransactionService,
+            SessionAccessor sessionAccessor, BPMWorkFactory workFactory, MeterRegistry meterRegistry,
+            int matchingThreads, int batchSize) {
+        this(eventInstanceService, workService, lockService, tenantId, userTransactionService, sessionAccessor,
+                workFactory, meterRegistry, matchingThreads, batchSize, null);
+    }
+
+    public MessagesHandlingService(EventInstanceService eventInstanceService, WorkService workService,
+            LockService lockService, Long tenantId, UserTransactionService userTransactionService,
+            SessionAccessor sessionAccessor, BPMWorkFactory workFactory, MeterRegistry meterRegistry,
+            int matchingThreads, int batchSize, WaitingMessageEventIndex waitingMessageEventIndex) {
         this.eventInstanceService = eventInstanceService;
         this.workService = workService;
         this.lockService = lockService;
@@ -84,6 +133,12 @@ public class MessagesHandlingService implements TenantLifecycleService {
         this.userTransactionService = userTransactionService;
         this.sessionAccessor = sessionAccessor;
         this.workFactory = workFactory;
+        this.batchSize = Math.max(1, batchSize);
+        this.waitingMessageEventIndex = waitingMessageEventIndex;
+        partitions = new MatchingPartition[Math.max(1, matchingThreads)];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new MatchingPartition(i);
+        }
         executedMessagesCounter = Counter.builder(NUMBER_OF_MESSAGES_EXECUTED)
                 .tags(Tags.of("tenant", String.valueOf(tenantId)))
                 .baseUnit("messages")
@@ -99,36 +154,50 @@ public class MessagesHandlingService implements TenantLifecycleService {
                 .baseUnit("messages matching tasks")
                 .description("BPMN message matching tasks retriggered")
                 .register(meterRegistry);
+        messagesLatencyTimer = Timer.builder(MESSAGES_LATENCY)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .description("Time between the sending of a BPMN message and the execution of its couple")
+                .register(meterRegistry);
     }
 
     @Override
     public void start() {
-        log.info("Starting BPMN messages matcher thread");
-        threadPoolExecutor = new ThreadPoolExecutor(1, 1, 1L, TimeUnit.HOURS,
-                new ArrayBlockingQueue<>(5),
-                r -> new Thread(r, "Bonita-Message-Matching"),
-                (r, executor) -> log.debug("Message matching queue capacity reached"));
-        log.info("Thread that handle messages matching successfully started");
+        log.info("Starting {} BPMN messages matcher threads", partitions.length);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // each partition has at most one task queued, plus the full scan task: the queue is naturally bounded
+        threadPoolExecutor = new ScheduledThreadPoolExecutor(partitions.length,
+                r -> new Thread(r, "Bonita-Message-Matching-" + threadNumber.incrementAndGet()));
+        // partitions waiting for the lock of another node are matched again when the service starts
+        threadPoolExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        // keys registered while the service was paused are matched now
+        for (MatchingPartition partition : partitions) {
+            partition.scheduled.set(false);
+            if (partition.hasPendingWork()) {
+                schedule(partition);
+            }
+        }
+        log.info("Threads that handle messages matching successfully started");
     }
 
     @Override
     public void stop() {
-        log.info("Stopping BPMN messages matcher thread");
+        log.info("Stopping BPMN messages matcher threads");
         if (threadPoolExecutor == null) {
-            log.info("BPMN messages matcher thread is already stopped");
+            log.info("BPMN messages matcher threads are already stopped");
             return;
         }
         threadPoolExecutor.shutdown();
         try {
             boolean termination = threadPoolExecutor.awaitTermination(5000, TimeUnit.MILLISECONDS);
             if (!termination) {
-                log.warn("Failed to terminate the BPMN messages matcher thread." +
+                log.warn("Failed to terminate the BPMN messages matcher threads." +
                         " This will not have functional impacts but it might produce warnings on server shutdown");
             }
         } catch (InterruptedException ignored) {
         }
         threadPoolExecutor = null;
-        log.info("BPMN messages matcher thread successfully stopped");
+        fullScanScheduled.set(false);
+        log.info("BPMN messages matcher threads successfully stopped");
     }
 
     @Override
@@ -141,37 +210,168 @@ public class MessagesHandlingService implements TenantLifecycleService {
         start();
     }
 
+    /**
+     * Trigger, after the current transaction completes, the matching of all messages not yet handled.
+     * Prefer {@link #triggerMatchingOfMessages(String, String)} when the message name and correlation are known.
+     */
     public void triggerMatchingOfMessages() throws STransactionNotFoundException {
         if (threadPoolExecutor == null) {
             log.warn("Cannot match messages when service is stopped. Maybe the engine is not yet started");
             return;
         }
-        userTransactionService.registerBonitaSynchronization(new RegisterMessagesMatchingSynchronization());
+        userTransactionService
+                .registerBonitaSynchronization(new RegisterMessagesMatchingSynchronization(null, null));
+    }
+
+    /**
+     * Trigger, after the current transaction completes, the matching of the messages and waiting message events having
+     * the given message name and first correlation.
+     */
+    public void triggerMatchingOfMessages(String messageName, String correlation1)
+            throws STransactionNotFoundException {
+        if (threadPoolExecutor == null) {
+            log.warn("Cannot match messages when service is stopped. Maybe the engine is not yet started");
+            return;
+        }
+        userTransactionService.registerBonitaSynchronization(
+                new RegisterMessagesMatchingSynchronization(matchingKey(messageName, correlation1), null));
     }
 
+    /**
+     * Trigger, after the current transaction completes, the matching of the given message that was just sent.
+     */
+    public void triggerMatchingOfMessage(SMessageInstance messageInstance) throws STransactionNotFoundException {
+        if (threadPoolExecutor == null) {
+            log.warn("Cannot match messages when service is stopped. Maybe the engine is not yet started");
+            return;
+        }
+        userTransactionService.registerBonitaSynchronization(new RegisterMessagesMatchingSynchronization(
+                matchingKey(messageInstance.getMessageName(), messageInstance.getCorrelation1()),
+                messageInstance.getId()));
+    }
+
+    static String matchingKey(String messageName, String correlation1) {
+        // must be consistent with the matching key computed in the queries on message instances
+        return messageName + MATCHING_KEY_SEPARATOR + correlation1;
+    }
+
+    @VisibleForTesting
+    MatchingPartition getPartition(String matchingKey) {
+        return partitions[Math.floorMod(matchingKey.hashCode(), partitions.length)];
+    }
+
+    private void registerMatchingKey(String matchingKey, Long messageInstanceId) {
+        MatchingPartition partition = getPartition(matchingKey);
+        if (messageInstanceId != null && isIndexUsable()) {
+            partition.pendingMessages.add(messageInstanceId);
+        } else {
+            partition.pendingKeys.add(matchingKey);
+        }
+        schedule(partition);
+    }
+
+    private boolean isIndexUsable() {
+        return waitingMessageEventIndex != null && waitingMessageEventIndex.isReady();
+    }
+
+    private void schedule(MatchingPartition partition) {
+        schedule(partition, 0);
+    }
+
+    private void schedule(MatchingPartition partition, long delayMillis) {
+        ScheduledThreadPoolExecutor executor = threadPoolExecutor;
+        if (executor != null && partition.scheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(new MessagesMatchingTask(partition), delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // service is stopping, pending keys are kept and matched when it starts again
+                partition.scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Register the matching keys of all the messages not yet handled in their partitions.
+     */
     @VisibleForTesting
-    void matchEventCoupleAndTriggerExecution() throws Exception {
-        userTransactionService.executeInTransaction(() -> {
-            final List<SMessageEventCouple> potentialMessageCouples = eventInstanceService.getMessageEventCouples(0,
-                    MAX_COUPLES);
+    void registerUnhandledMessages() throws Exception {
+        List<String> matchingKeys = userTransactionService.executeInTransaction(() -> {
+            List<String> keys = new ArrayList<>();
+            List<String> page;
+            do {
+                page = eventInstanceService.getUnhandledMessageMatchingKeys(keys.size(), MATCHING_KEYS_PAGE_SIZE);
+                keys.addAll(page);
+            } while (page.size() == MATCHING_KEYS_PAGE_SIZE);
+            return keys;
+        });
+        log.debug("Found {} distinct matching keys in messages not yet handled", matchingKeys.size());
+        for (String matchingKey : matchingKeys) {
+            getPartition(matchingKey).pendingKeys.add(matchingKey);
+        }
+        for (MatchingPartition partition : partitions) {
+            if (partition.hasPendingWork()) {
+                schedule(partition);
+            }
+        }
+    }
+
+    /**
+     * Match the given messages with the waiting events found in the {@link WaitingMessageEventIndex} and trigger the
+     * execution of the couples.
+     *
+     * @return the matching keys of the messages for which the index had no waiting event, they must be matched by
+     *         querying the database
+     */
+    @VisibleForTesting
+    List<String> matchMessagesUsingIndex(Collection<Long> messageInstanceIds) throws Exception {
+        return userTransactionService.executeInTransaction(() -> {
+            List<String> unmatchedKeys = new ArrayList<>();
+            for (Long messageInstanceId : messageInstanceIds) {
+                SMessageInstance messageInstance = eventInstanceService.getMessageInstance(messageInstanceId);
+                if (messageInstance == null || messageInstance.isHandled() || messageInstance.isLocked()) {
+                    continue;
+                }
+                SWaitingMessageEvent waitingMessage = waitingMessageEventIndex.findWaitingEvent(messageInstance);
+                if (waitingMessage != null) {
+                    matchedPotentialMessagesCounter.increment();
+                    executeMessageCouple(messageInstanceId, waitingMessage.getId());
+                } else {
+                    unmatchedKeys.add(matchingKey(messageInstance.getMessageName(),
+                            messageInstance.getCorrelation1()));
+                }
+            }
+            return unmatchedKeys;
+        });
+    }
+
+    /**
+     * Match the couples of the given matching keys and trigger their execution.
+     *
+     * @return true if there are potentially more couples to match for these keys
+     */
+    @VisibleForTesting
+    boolean matchEventCoupleAndTriggerExecution(Collection<String> matchingKeys) throws Exception {
+        return userTransactionService.executeInTransaction(() -> {
+            final List<SMessageEventCouple> potentialMessageCouples = eventInstanceService
+                    .getMessageEventCouples(matchingKeys, 0, batchSize);
             final int potentialMessagesCount = potentialMessageCouples.size();
-            log.info("Found {} potential message/event couples", potentialMessagesCount);
+            log.debug("Found {} potential message/event couples", potentialMessagesCount);
             matchedPotentialMessagesCounter.increment(potentialMessagesCount);
             final List<SMessageEventCouple> uniqueCouples = getMessageUniqueCouples(potentialMessageCouples);
             if (!uniqueCouples.isEmpty()) {
-                log.info("Triggering execution of unique {} message/event couples", uniqueCouples.size());
+                log.debug("Triggering execution of unique {} message/event couples", uniqueCouples.size());
                 executeUniqueMessageCouplesWork(uniqueCouples);
-                log.info("Execution of message/event couples triggered");
+                log.debug("Execution of message/event couples triggered");
             } else {
                 log.debug("No message/event couples to be executed");
             }
-            if (potentialMessagesCount == MAX_COUPLES) {
+            if (potentialMessagesCount == batchSize) {
                 log.debug("There are more than {} message/event couples to match. " +
-                        "Will trigger the execution again now, to match more couples", MAX_COUPLES);
-                triggerMatchingOfMessages();
+                        "Will trigger the execution again now, to match more couples", batchSize);
                 retriggeredMatchingTasksCounter.increment();
+                return true;
             }
-            return null;
+            return false;
         });
     }
 
@@ -199,6 +399,10 @@ public class MessagesHandlingService implements TenantLifecycleService {
             markWaitingMessageAsInProgress(waitingMsg);
         }
         executedMessagesCounter.increment();
+        if (messageInstance.getCreationDate() > 0) {
+            messagesLatencyTimer.record(System.currentTimeMillis() - messageInstance.getCreationDate(),
+                    TimeUnit.MILLISECONDS);
+        }
         workService.registerWork(workFactory.createExecuteMessageCoupleWorkDescriptor(messageInstance, waitingMsg));
     }
 
@@ -286,28 +490,118 @@ public class MessagesHandlingService implements TenantLifecycleService {
         eventInstanceService.updateWaitingMessage(waitingMsg, descriptor);
     }
 
+    @VisibleForTesting
+    static class MatchingPartition {
+
+        private final int index;
+        private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+        private final Set<Long> pendingMessages = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        MatchingPartition(int index) {
+            this.index = index;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        Set<String> getPendingKeys() {
+            return pendingKeys;
+        }
+
+        Set<Long> getPendingMessages() {
+            return pendingMessages;
+        }
+
+        private boolean hasPendingWork() {
+            return !pendingKeys.isEmpty() || !pendingMessages.isEmpty();
+        }
+
+        private static <T> List<T> drain(Set<T> pending, int max) {
+            List<T> drained = new ArrayList<>(Math.min(max, pending.size()));
+            Iterator<T> iterator = pending.iterator();
+            while (iterator.hasNext() && drained.size() < max) {
+                drained.add(iterator.next());
+                iterator.remove();
+            }
+            return drained;
+        }
+    }
+
     private class MessagesMatchingTask implements Callable<Void> {
 
+        private final MatchingPartition partition;
+
+        private MessagesMatchingTask(MatchingPartition partition) {
+            this.partition = partition;
+        }
+
         @Override
         public Void call() throws Exception {
+            partition.scheduled.set(false);
+            if (!partition.running.compareAndSet(false, true)) {
+                // the task currently matching this partition will reschedule it when done
+                return null;
+            }
+            long rescheduleDelay = 0;
+            List<Long> messageInstanceIds = Collections.emptyList();
+            List<String> matchingKeys = Collections.emptyList();
             try {
-                log.debug("Starting messages matching");
-                // we use a lock in order to have only one execution at a time even in cluster
-                BonitaLock eventLock = lockService.tryLock(1L, LOCK_TYPE, 1L, TimeUnit.MILLISECONDS, tenantId);
+                log.debug("Starting messages matching of partition {}", partition.index);
+                // we use a lock in order to have only one execution per partition at a time even in cluster
+                BonitaLock eventLock = lockService.tryLock(partition.index + 1L, LOCK_TYPE, 1L,
+                        TimeUnit.MILLISECONDS, tenantId);
                 if (eventLock == null) {
-                    // It could happen that some messages were still not triggered because the work that is currently
-                    // executing was started after the last message execution
-                    log.debug(
-                            "The task that matches BPMN messages is already running, this execution will be ignored");
+                    // pending keys are kept and matched again once the other node had time to release the lock
+                    log.debug("The task that matches BPMN messages of partition {} is already running on another" +
+                            " node, this execution will be retried in {} ms", partition.index,
+                            LOCKED_PARTITION_RETRY_DELAY_MILLIS);
+                    rescheduleDelay = LOCKED_PARTITION_RETRY_DELAY_MILLIS;
                     return null;
                 }
                 try {
                     sessionAccessor.setTenantId(tenantId);
-                    matchEventCoupleAndTriggerExecution();
+                    messageInstanceIds = MatchingPartition.drain(partition.pendingMessages, batchSize);
+                    if (!messageInstanceIds.isEmpty()) {
+                        partition.pendingKeys.addAll(matchMessagesUsingIndex(messageInstanceIds));
+                    }
+                    matchingKeys = MatchingPartition.drain(partition.pendingKeys, batchSize);
+                    if (!matchingKeys.isEmpty() && matchEventCoupleAndTriggerExecution(matchingKeys)) {
+                        partition.pendingKeys.addAll(matchingKeys);
+                    }
                 } finally {
                     lockService.unlock(eventLock, tenantId);
                 }
-                log.debug("Messages matching completed");
+                log.debug("Messages matching of partition {} completed", partition.index);
+            } catch (Exception e) {
+                // transactions of the batch were rolled back: put it back so that it is matched again, messages
+                // already handled are skipped
+                partition.pendingMessages.addAll(messageInstanceIds);
+                partition.pendingKeys.addAll(matchingKeys);
+                rescheduleDelay = FAILED_MATCHING_RETRY_DELAY_MILLIS;
+                log.error("Error while matching messages, they will be matched again in {} ms",
+                        FAILED_MATCHING_RETRY_DELAY_MILLIS, e);
+                throw e;
+            } finally {
+                partition.running.set(false);
+                if (partition.hasPendingWork()) {
+                    schedule(partition, rescheduleDelay);
+                }
+            }
+            return null;
+        }
+    }
+
+    private class FullScanTask implements Callable<Void> {
+
+        @Override
+        public Void call() throws Exception {
+            fullScanScheduled.set(false);
+            try {
+                sessionAccessor.setTenantId(tenantId);
+                registerUnhandledMessages();
             } catch (Exception e) {
                 log.error("Error while matching messages", e);
                 throw e;
@@ -318,9 +612,24 @@ public class MessagesHandlingService implements TenantLifecycleService {
 
     private class RegisterMessagesMatchingSynchronization implements BonitaTransactionSynchronization {
 
+        private final String matchingKey;
+        private final Long messageInstanceId;
+
+        private RegisterMessagesMatchingSynchronization(String matchingKey, Long messageInstanceId) {
+            this.matchingKey = matchingKey;
+            this.messageInstanceId = messageInstanceId;
+        }
+
         @Override
         public void afterCompletion(final int txState) {
-            threadPoolExecutor.submit(new MessagesMatchingTask());
+            if (matchingKey != null) {
+                registerMatchingKey(matchingKey, messageInstanceId);
+            } else {
+                ScheduledThreadPoolExecutor executor = threadPoolExecutor;
+                if (executor != null && fullScanScheduled.compareAndSet(false, true)) {
+                    executor.submit(new FullScanTask());
+                }
+            }
             log.debug("Messages matching task registered");
         }
     }
@@ -0,0 +1,337 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.message;
+
+import static org.bonitasoft.engine.core.process.instance.api.event.EventInstanceRepository.EVENT_TRIGGER_INSTANCE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.commons.TenantLifecycleService;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.core.process.instance.api.event.EventInstanceService;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SHandlerExecutionException;
+import org.bonitasoft.engine.persistence.OrderByType;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+
+/**
+ * In-memory index of the waiting message events, by message name, process name and correlations, used to find the
+ * waiting event matching a message without joining messages and waiting events in database.
+ * <p>
+ * The index is kept up to date by handlers on the creation and deletion of waiting message events, applied when their
+ * transaction commits, and is rebuilt from the database when the tenant starts. The database stays the source of truth:
+ * candidates returned by the index are read again from the database and checked before being used, stale entries are
+ * removed and a message without candidate must still be matched by querying the database (waiting events created by
+ * other nodes of a cluster are not in this index).
+ */
+@Slf4j
+public class WaitingMessageEventIndex implements TenantLifecycleService {
+
+    public static final String INDEX_LOOKUPS = "bonita.bpmengine.message.index.lookup";
+    public static final String INDEX_SIZE = "bonita.bpmengine.message.index.size";
+    public static final String INDEX_MEMORY = "bonita.bpmengine.message.index.memory";
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // rough estimates of the memory used by the structures of the index, in bytes
+    private static final int KEY_OVERHEAD = 128;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final EventService eventService;
+    private final EventInstanceService eventInstanceService;
+    private final UserTransactionService userTransactionService;
+    private final Long tenantId;
+    private final boolean enabled;
+    private final Map<IndexKey, Set<Long>> waitingEvents = new ConcurrentHashMap<>();
+    private final AtomicLong numberOfEntries = new AtomicLong();
+    private final AtomicLong estimatedMemory = new AtomicLong();
+    private final WaitingMessageEventHandler handler = new WaitingMessageEventHandler();
+    private volatile boolean ready;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public WaitingMessageEventIndex(EventService eventService, EventInstanceService eventInstanceService,
+            UserTransactionService userTransactionService, Long tenantId, boolean enabled,
+            MeterRegistry meterRegistry) {
+        this.eventService = eventService;
+        this.eventInstanceService = eventInstanceService;
+        this.userTransactionService = userTransactionService;
+        this.tenantId = tenantId;
+        this.enabled = enabled;
+        hitCounter = Counter.builder(INDEX_LOOKUPS)
+                .tags(Tags.of("tenant", String.valueOf(tenantId), "result", "hit"))
+                .baseUnit("lookups")
+                .description("Messages for which the index found a matching waiting event")
+                .register(meterRegistry);
+        missCounter = Counter.builder(INDEX_LOOKUPS)
+                .tags(Tags.of("tenant", String.valueOf(tenantId), "result", "miss"))
+                .baseUnit("lookups")
+                .description("Messages for which the index found no matching waiting event")
+                .register(meterRegistry);
+        Gauge.builder(INDEX_SIZE, numberOfEntries, AtomicLong::get)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .baseUnit("waiting events")
+                .description("Waiting message events in the index")
+                .register(meterRegistry);
+        Gauge.builder(INDEX_MEMORY, estimatedMemory, AtomicLong::get)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .baseUnit("bytes")
+                .description("Estimated memory used by the index of waiting message events")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true when the index was rebuilt and is kept up to date
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void start() throws SBonitaException {
+        if (!enabled) {
+            return;
+        }
+        // register handlers first: waiting events created during the rebuild are not missed
+        eventService.addHandler(EVENT_TRIGGER_INSTANCE + SEvent.CREATED, handler);
+        eventService.addHandler(EVENT_TRIGGER_INSTANCE + SEvent.DELETED, handler);
+        rebuild();
+        ready = true;
+    }
+
+    private void rebuild() throws SBonitaException {
+        log.info("Building the index of waiting message events of tenant {}", tenantId);
+        List<SWaitingMessageEvent> page;
+        int fromIndex = 0;
+        do {
+            page = eventInstanceService.searchWaitingEvents(SWaitingMessageEvent.class,
+                    new QueryOptions(fromIndex, REBUILD_PAGE_SIZE, SWaitingMessageEvent.class, "id",
+                            OrderByType.ASC));
+            for (SWaitingMessageEvent waitingEvent : page) {
+                add(waitingEvent);
+            }
+            fromIndex += page.size();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Index of waiting message events of tenant {} built with {} waiting events", tenantId,
+                numberOfEntries.get());
+    }
+
+    @Override
+    public void stop() throws SBonitaException {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        eventService.removeAllHandlers(handler);
+        waitingEvents.clear();
+        numberOfEntries.set(0);
+        estimatedMemory.set(0);
+    }
+
+    @Override
+    public void pause() throws SBonitaException {
+        stop();
+    }
+
+    @Override
+    public void resume() throws SBonitaException {
+        start();
+    }
+
+    /**
+     * Find a waiting message event matching the given message, using the index. The waiting event returned is read
+     * from the database, in the current transaction, and is free to be executed with this message.
+     *
+     * @return the matching waiting event or null if the index does not know any
+     */
+    public SWaitingMessageEvent findWaitingEvent(SMessageInstance message) throws SBonitaException {
+        IndexKey key = new IndexKey(message.getMessageName(), message.getTargetProcess(), message.getCorrelation1(),
+                message.getCorrelation2(), message.getCorrelation3(), message.getCorrelation4(),
+                message.getCorrelation5());
+        Set<Long> candidates = waitingEvents.getOrDefault(key, Collections.emptySet());
+        for (Long candidateId : new ArrayList<>(candidates)) {
+            SWaitingMessageEvent waitingEvent = eventInstanceService.getWaitingMessage(candidateId);
+            if (waitingEvent == null) {
+                log.debug("Removing waiting message event {} from the index, it does not exist anymore",
+                        candidateId);
+                remove(key, candidateId);
+            } else if (isFreeFor(waitingEvent, message)) {
+                hitCounter.increment();
+                return waitingEvent;
+            }
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    private boolean isFreeFor(SWaitingMessageEvent waitingEvent, SMessageInstance message) {
+        return waitingEvent.isActive() && !waitingEvent.isLocked()
+                && waitingEvent.getProgress() == 0
+                && (message.getTargetFlowNode() == null
+                        || message.getTargetFlowNode().equals(waitingEvent.getFlowNodeName()));
+    }
+
+    void add(SWaitingMessageEvent waitingEvent) {
+        IndexKey key = IndexKey.of(waitingEvent);
+        boolean[] newKey = new boolean[1];
+        Set<Long> ids = waitingEvents.computeIfAbsent(key, k -> {
+            newKey[0] = true;
+            return ConcurrentHashMap.newKeySet();
+        });
+        if (ids.add(waitingEvent.getId())) {
+            numberOfEntries.incrementAndGet();
+            estimatedMemory.addAndGet(ENTRY_OVERHEAD + (newKey[0] ? key.estimatedSize() : 0));
+        }
+    }
+
+    void remove(SWaitingMessageEvent waitingEvent) {
+        remove(IndexKey.of(waitingEvent), waitingEvent.getId());
+    }
+
+    private void remove(IndexKey key, long waitingEventId) {
+        waitingEvents.computeIfPresent(key, (k, ids) -> {
+            if (ids.remove(waitingEventId)) {
+                numberOfEntries.decrementAndGet();
+                estimatedMemory.addAndGet(-ENTRY_OVERHEAD);
+            }
+            if (ids.isEmpty()) {
+                estimatedMemory.addAndGet(-key.estimatedSize());
+                return null;
+            }
+            return ids;
+        });
+    }
+
+    private static final class IndexKey {
+
+        private final String messageName;
+        private final String processName;
+        private final String correlation1;
+        private final String correlation2;
+        private final String correlation3;
+        private final String correlation4;
+        private final String correlation5;
+
+        private IndexKey(String messageName, String processName, String correlation1, String correlation2,
+                String correlation3, String correlation4, String correlation5) {
+            this.messageName = messageName;
+            this.processName = processName;
+            this.correlation1 = correlation1;
+            this.correlation2 = correlation2;
+            this.correlation3 = correlation3;
+            this.correlation4 = correlation4;
+            this.correlation5 = correlation5;
+        }
+
+        private static IndexKey of(SWaitingMessageEvent waitingEvent) {
+            return new IndexKey(waitingEvent.getMessageName(), waitingEvent.getProcessName(),
+                    waitingEvent.getCorrelation1(), waitingEvent.getCorrelation2(), waitingEvent.getCorrelation3(),
+                    waitingEvent.getCorrelation4(), waitingEvent.getCorrelation5());
+        }
+
+        private long estimatedSize() {
+            return KEY_OVERHEAD + sizeOf(messageName) + sizeOf(processName) + sizeOf(correlation1)
+                    + sizeOf(correlation2) + sizeOf(correlation3) + sizeOf(correlation4) + sizeOf(correlation5);
+        }
+
+        private static long sizeOf(String value) {
+            return value == null ? 0 : STRING_OVERHEAD + value.length();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IndexKey)) {
+                return false;
+            }
+            IndexKey that = (IndexKey) o;
+            return Objects.equals(messageName, that.messageName)
+                    && Objects.equals(processName, that.processName)
+                    && Objects.equals(correlation1, that.correlation1)
+                    && Objects.equals(correlation2, that.correlation2)
+                    && Objects.equals(correlation3, that.correlation3)
+                    && Objects.equals(correlation4, that.correlation4)
+                    && Objects.equals(correlation5, that.correlation5);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(messageName, processName, correlation1, correlation2, correlation3, correlation4,
+                    correlation5);
+        }
+    }
+
+    private class WaitingMessageEventHandler implements SHandler<SEvent> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void execute(SEvent event) throws SHandlerExecutionException {
+            SWaitingMessageEvent waitingEvent = (SWaitingMessageEvent) event.getObject();
+            boolean created = event.getType().endsWith(SEvent.CREATED);
+            try {
+                // the index only reflects committed waiting events
+                userTransactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) txState -> {
+                    if (txState != Status.STATUS_COMMITTED) {
+                        return;
+                    }
+                    if (created) {
+                        add(waitingEvent);
+                    } else {
+                        remove(waitingEvent);
+                    }
+                });
+            } catch (STransactionNotFoundException e) {
+                throw new SHandlerExecutionException(e);
+            }
+        }
+
+        @Override
+        public boolean isInterested(SEvent event) {
+            return event.getObject() instanceof SWaitingMessageEvent;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return "WaitingMessageEventIndex-" + tenantId;
+        }
+    }
+}
@@ -55,6 +55,8 @@ public abstract class AbstractSearchEntity<C extends Serializable, S extends Per
 
     private List<C> clientObjects;
 
+    private List<Serializable> nextSearchAfter;
+
     /**
      * @param searchDescriptor
      *        The search descriptor of the searched entity
@@ -103,14 +105,43 @@ public abstract class AbstractSearchEntity<C extends Serializable, S extends Per
         }
         final QueryOptions countOptions = new QueryOptions(0, QueryOptions.UNLIMITED_NUMBER_OF_RESULTS, null,
                 filterOptions, userSearchTerm);
-        count = executeCount(countOptions);
-        if (count > 0 && numberOfResults != 0) {
-            final QueryOptions searchOptions = new QueryOptions(fromIndex, numberOfResults, orderOptions, filterOptions,
-                    userSearchTerm);
+        final List<Serializable> searchAfter = options.getSearchAfter();
+        final boolean countSkipped = options.isCountSkipped();
+        if (!countSkipped) {
+            count = executeCount(countOptions);
+        }
+        nextSearchAfter = null;
+        if ((countSkipped || count > 0) && numberOfResults != 0) {
+            // without the count, or when seeking, one more result tells whether there is a next page
+            final boolean fetchOneMore = (countSkipped || searchAfter != null)
+                    && numberOfResults != QueryOptions.UNLIMITED_NUMBER_OF_RESULTS;
+            // the fromIndex is kept: it is used instead of the search after values when sorting on nullable fields
+            final QueryOptions searchOptions = new QueryOptions(fromIndex,
+                    fetchOneMore ? numberOfResults + 1 : numberOfResults, orderOptions, filterOptions,
+                    userSearchTerm, searchAfter);
             serverObjects = executeSearch(searchOptions);
-            detectPotentialTransactionIsolationIssue(serverObjects, numberOfResults, countOptions);
+            final boolean hasMoreResults;
+            if (fetchOneMore) {
+                hasMoreResults = serverObjects.size() > numberOfResults;
+                if (hasMoreResults) {
+                    serverObjects = new ArrayList<>(serverObjects.subList(0, numberOfResults));
+                }
+            } else {
+                hasMoreResults = fromIndex + serverObjects.size() < count;
+            }
+            if (countSkipped) {
+                count = (long) fromIndex + serverObjects.size() + (hasMoreResults ? 1 : 0);
+            } else if (searchAfter == null) {
+                detectPotentialTransactionIsolationIssue(serverObjects, numberOfResults, countOptions);
+            }
+            if (hasMoreResults && !serverObjects.isEmpty()) {
+                nextSearchAfter = searchOptions.getSearchAfterOf(serverObjects.get(serverObjects.size() - 1));
+            }
         } else {
             serverObjects = Collections.emptyList();
+            if (countSkipped) {
+                count = fromIndex;
+            }
         }
         clientObjects = convertToClientObjects(serverObjects);
     }
@@ -177,7 +208,7 @@ public abstract class AbstractSearchEntity<C extends Serializable, S extends Per
 
     @Override
     public SearchResult<C> getResult() {
-        return new SearchResultImpl<>(count, clientObjects);
+        return new SearchResultImpl<>(count, clientObjects, nextSearchAfter);
     }
 
     protected SearchFilter getSearchFilter(final SearchOptions searchOptions, final String searchedKey) {
@@ -60,6 +60,7 @@ import org.bonitasoft.engine.execution.FlowNodeExecutor;
 import org.bonitasoft.engine.execution.ProcessExecutor;
 import org.bonitasoft.engine.execution.ProcessInstanceInterruptor;
 import org.bonitasoft.engine.execution.ProcessStarterVerifier;
+import org.bonitasoft.engine.execution.StraightThroughExecution;
 import org.bonitasoft.engine.execution.archive.BPMArchiverService;
 import org.bonitasoft.engine.execution.event.EventsHandler;
 import org.bonitasoft.engine.execution.state.FlowNodeStateManager;
@@ -68,6 +69,7 @@ import org.bonitasoft.engine.expression.ExpressionService;
 import org.bonitasoft.engine.external.identity.mapping.ExternalIdentityMappingService;
 import org.bonitasoft.engine.identity.IconService;
 import org.bonitasoft.engine.identity.IdentityService;
+import org.bonitasoft.engine.inbox.PendingTaskInbox;
 import org.bonitasoft.engine.incident.IncidentService;
 import org.bonitasoft.engine.lock.LockService;
 import org.bonitasoft.engine.message.MessagesHandlingService;
@@ -194,6 +196,10 @@ public interface ServiceAccessor {
 
     ContainerRegistry getContainerRegistry();
 
+    StraightThroughExecution getStraightThroughExecution();
+
+    PendingTaskInbox getPendingTaskInbox();
+
     LockService getLockService();
 
     EventsHandler getEventsHandler();
@@ -61,6 +61,7 @@ import org.bonitasoft.engine.execution.FlowNodeExecutor;
 import org.bonitasoft.engine.execution.ProcessExecutor;
 import org.bonitasoft.engine.execution.ProcessInstanceInterruptor;
 import org.bonitasoft.engine.execution.ProcessStarterVerifier;
+import org.bonitasoft.engine.execution.StraightThroughExecution;
 import org.bonitasoft.engine.execution.archive.BPMArchiverService;
 import org.bonitasoft.engine.execution.event.EventsHandler;
 import org.bonitasoft.engine.execution.state.FlowNodeStateManager;
@@ -69,6 +70,7 @@ import org.bonitasoft.engine.expression.ExpressionService;
 import org.bonitasoft.engine.external.identity.mapping.ExternalIdentityMappingService;
 import org.bonitasoft.engine.identity.IconService;
 import org.bonitasoft.engine.identity.IdentityService;
+import org.bonitasoft.engine.inbox.PendingTaskInbox;
 import org.bonitasoft.engine.incident.IncidentService;
 import org.bonitasoft.engine.lock.LockService;
 import org.bonitasoft.engine.message.MessagesHandlingService;
@@ -345,6 +347,16 @@ public class SpringServiceAccessor
         return beanAccessor.getService(ContainerRegistry.class);
     }
 
+    @Override
+    public StraightThroughExecution getStraightThroughExecution() {
+        return beanAccessor.getService(StraightThroughExecution.class);
+    }
+
+    @Override
+    public PendingTaskInbox getPendingTaskInbox() {
+        return beanAccessor.getService(PendingTaskInbox.class);
+    }
+
     @Override
     public ExternalIdentityMappingService getExternalIdentityMappingService() {
         return beanAccessor.getService(ExternalIdentityMappingService.class);
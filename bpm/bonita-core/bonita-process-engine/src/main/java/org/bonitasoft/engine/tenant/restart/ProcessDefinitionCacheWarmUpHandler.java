@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tenant.restart;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.bpm.process.ActivationState;
+import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the enabled process definitions in the cache when the tenant starts, so that the first instances started after
+ * a restart do not have to parse them.
+ */
+@Slf4j
+@Component
+public class ProcessDefinitionCacheWarmUpHandler implements TenantRestartHandler {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final ProcessDefinitionService processDefinitionService;
+    private final UserTransactionService userTransactionService;
+    private final boolean enabled;
+
+    public ProcessDefinitionCacheWarmUpHandler(ProcessDefinitionService processDefinitionService,
+            UserTransactionService userTransactionService,
+            @Value("${bonita.tenant.cache.processdef.warmUp:false}") boolean enabled) {
+        this.processDefinitionService = processDefinitionService;
+        this.userTransactionService = userTransactionService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void beforeServicesStart() {
+        // nothing to do
+    }
+
+    @Override
+    public void afterServicesStart() {
+        if (!enabled) {
+            return;
+        }
+        int loaded = 0;
+        try {
+            List<Long> ids;
+            int fromIndex = 0;
+            do {
+                final int from = fromIndex;
+                ids = userTransactionService.executeInTransaction(() -> {
+                    List<Long> processDefinitionIds = processDefinitionService
+                            .getProcessDefinitionIds(ActivationState.ENABLED, from, BATCH_SIZE);
+                    for (Long processDefinitionId : processDefinitionIds) {
+                        processDefinitionService.getProcessDefinition(processDefinitionId);
+                    }
+                    return processDefinitionIds;
+                });
+                loaded += ids.size();
+                fromIndex += BATCH_SIZE;
+            } while (ids.size() == BATCH_SIZE);
+            log.info("{} enabled process definitions loaded in the cache", loaded);
+        } catch (Exception e) {
+            log.warn("Unable to load all enabled process definitions in the cache, {} were loaded. "
+                    + "The others will be loaded on first access", loaded, e);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
 import org.bonitasoft.engine.external.identity.mapping.ExternalIdentityMappingService;
 import org.bonitasoft.engine.identity.IdentityService;
 import org.bonitasoft.engine.identity.model.SCustomUserInfoDefinition;
+import org.bonitasoft.engine.inbox.PendingTaskInbox;
 import org.bonitasoft.engine.profile.ProfileService;
 import org.bonitasoft.engine.service.ServiceAccessor;
 import org.bonitasoft.engine.supervisor.mapping.SupervisorMappingService;
@@ -75,6 +76,9 @@ public class OrganizationAPIImplTest {
     @Mock
     private ProcessDefinitionService processDefinitionService;
 
+    @Mock
+    private PendingTaskInbox pendingTaskInbox;
+
     @Mock
     private SCustomUserInfoDefinition userInfoDef1;
 
@@ -96,6 +100,7 @@ public class OrganizationAPIImplTest {
         given(serviceAccessor.getSupervisorService()).willReturn(supervisorService);
         given(serviceAccessor.getExternalIdentityMappingService()).willReturn(externalIdentityMappingService);
         given(serviceAccessor.getProcessDefinitionService()).willReturn(processDefinitionService);
+        given(serviceAccessor.getPendingTaskInbox()).willReturn(pendingTaskInbox);
 
         given(userInfoDef1.getId()).willReturn(CUSTOM_USER_INFO_DEF_ID1);
         given(userInfoDef2.getId()).willReturn(CUSTOM_USER_INFO_DEF_ID2);
@@ -118,6 +123,7 @@ public class OrganizationAPIImplTest {
         verify(actorMappingService, times(1)).deleteAllActorMembers();
         verify(profileService, times(1)).deleteAllProfileMembers();
         verify(activityInstanceService, times(1)).deleteAllPendingMappings();
+        verify(pendingTaskInbox, times(1)).clear();
         verify(supervisorService, times(1)).deleteAllProcessSupervisors();
         verify(externalIdentityMappingService, times(1)).deleteAllExternalIdentityMappings();
         verify(identityService, times(1)).deleteAllUserMemberships();
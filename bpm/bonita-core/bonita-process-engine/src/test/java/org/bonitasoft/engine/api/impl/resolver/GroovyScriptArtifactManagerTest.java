@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.api.impl.resolver;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+
+import org.bonitasoft.engine.bpm.bar.BusinessArchive;
+import org.bonitasoft.engine.classloader.ClassLoaderService;
+import org.bonitasoft.engine.core.process.definition.model.impl.SFlowElementContainerDefinitionImpl;
+import org.bonitasoft.engine.core.process.definition.model.impl.SProcessDefinitionImpl;
+import org.bonitasoft.engine.core.process.definition.model.impl.STransitionDefinitionImpl;
+import org.bonitasoft.engine.dependency.DependencyService;
+import org.bonitasoft.engine.dependency.model.ScopeType;
+import org.bonitasoft.engine.expression.impl.GroovyScriptCompiler;
+import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GroovyScriptArtifactManagerTest {
+
+    @Mock
+    private DependencyService dependencyService;
+    @Mock
+    private ClassLoaderService classLoaderService;
+
+    private final BusinessArchive businessArchive = mock(BusinessArchive.class);
+    private SProcessDefinitionImpl processDefinition;
+
+    @Before
+    public void before() {
+        processDefinition = new SProcessDefinitionImpl("process", "1.0");
+        processDefinition.setId(123L);
+        final SFlowElementContainerDefinitionImpl processContainer = new SFlowElementContainerDefinitionImpl();
+        final STransitionDefinitionImpl transition1 = new STransitionDefinitionImpl("t1", 1, 2);
+        transition1.setId(10L);
+        transition1.setCondition(expression("amount > limit", "TYPE_READ_ONLY_CONDITION_SCRIPT", "GROOVY",
+                expression("limit * 2", "TYPE_READ_ONLY_SCRIPT", "GROOVY",
+                        expression("limit", "TYPE_VARIABLE", null))));
+        processContainer.addTransition(transition1);
+        final STransitionDefinitionImpl transition2 = new STransitionDefinitionImpl("t2", 1, 3);
+        transition2.setId(11L);
+        transition2.setCondition(expression("true", "TYPE_CONSTANT", null));
+        processContainer.addTransition(transition2);
+        processDefinition.setProcessContainer(processContainer);
+    }
+
+    private static SExpression expression(String content, String type, String interpreter,
+            SExpression... dependencies) {
+        return new SExpressionImpl(content, content, type, Object.class.getName(), interpreter,
+                asList(dependencies));
+    }
+
+    private GroovyScriptArtifactManager artifactManager(boolean enabled) {
+        return new GroovyScriptArtifactManager(dependencyService, classLoaderService, new GroovyScriptCompiler(),
+                enabled, 1L);
+    }
+
+    @Test
+    public void should_find_groovy_scripts_of_the_process() {
+        assertThat(artifactManager(true).getGroovyScripts(processDefinition))
+                .containsExactlyInAnyOrder("amount > limit", "limit * 2");
+    }
+
+    @Test
+    public void should_add_compiled_scripts_to_the_process_classpath() throws Exception {
+        doReturn(GroovyScriptArtifactManagerTest.class.getClassLoader()).when(classLoaderService)
+                .getClassLoader(any());
+        doReturn(Collections.emptyMap()).when(businessArchive).getResources(anyString());
+
+        final boolean resolved = artifactManager(true).deploy(businessArchive, processDefinition);
+
+        assertThat(resolved).isTrue();
+        verify(dependencyService).createMappedDependency(eq(GroovyScriptArtifactManager.SCRIPTS_JAR_NAME),
+                any(byte[].class), eq(GroovyScriptArtifactManager.SCRIPTS_JAR_NAME), eq(123L),
+                eq(ScopeType.PROCESS));
+    }
+
+    @Test
+    public void should_not_compile_scripts_when_disabled() throws Exception {
+        final boolean resolved = artifactManager(false).deploy(businessArchive, processDefinition);
+
+        assertThat(resolved).isTrue();
+        verify(dependencyService, never()).createMappedDependency(anyString(), any(), anyString(), anyLong(), any());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bonitasoft.engine.api.permission.APICallContext;
+import org.junit.Test;
+
+public class PermissionRuleResultCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final APICallContext getCase = new APICallContext("GET", "bpm", "case", "12", "", "");
+
+    @Test
+    public void should_return_the_result_until_it_expires() {
+        PermissionRuleResultCache cache = new PermissionRuleResultCache(60, 100, now::get);
+        cache.put(1L, "CaseRule", getCase, true);
+
+        now.addAndGet(59_000);
+        assertThat(cache.get(1L, "CaseRule", getCase)).isTrue();
+        now.addAndGet(1_000);
+        assertThat(cache.get(1L, "CaseRule", getCase)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void should_identify_results_by_session_and_call() {
+        PermissionRuleResultCache cache = new PermissionRuleResultCache(60, 100, now::get);
+        cache.put(1L, "CaseRule", getCase, false);
+
+        assertThat(cache.get(1L, "CaseRule", getCase)).isFalse();
+        assertThat(cache.get(2L, "CaseRule", getCase)).isNull();
+        assertThat(cache.get(1L, "CaseRule", new APICallContext("GET", "bpm", "case", "13", "", ""))).isNull();
+        assertThat(cache.get(1L, "CaseRule", new APICallContext("GET", "bpm", "case", "12", "d=processId", "")))
+                .isNull();
+    }
+
+    @Test
+    public void should_invalidate_the_results_of_a_session() {
+        PermissionRuleResultCache cache = new PermissionRuleResultCache(60, 100, now::get);
+        cache.put(1L, "CaseRule", getCase, true);
+        cache.put(2L, "CaseRule", getCase, true);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, "CaseRule", getCase)).isNull();
+        assertThat(cache.get(2L, "CaseRule", getCase)).isTrue();
+    }
+
+    @Test
+    public void should_be_cleared_when_reaching_its_maximum_size() {
+        PermissionRuleResultCache cache = new PermissionRuleResultCache(60, 2, now::get);
+        cache.put(1L, "CaseRule", getCase, true);
+        cache.put(2L, "CaseRule", getCase, true);
+
+        cache.put(3L, "CaseRule", getCase, true);
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_only_cache_get_calls_when_enabled() {
+        assertThat(new PermissionRuleResultCache(60, 100).isCacheable(getCase)).isTrue();
+        assertThat(new PermissionRuleResultCache(60, 100)
+                .isCacheable(new APICallContext("PUT", "bpm", "case", "12", "", "{}"))).isFalse();
+        assertThat(new PermissionRuleResultCache(0, 100).isCacheable(getCase)).isFalse();
+    }
+}
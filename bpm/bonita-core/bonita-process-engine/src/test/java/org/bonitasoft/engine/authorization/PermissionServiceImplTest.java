@@ -91,7 +91,7 @@ public class PermissionServiceImplTest {
         permissionService = spy(
                 new PermissionServiceImpl(classLoaderService, sessionAccessor, sessionService, TENANT_ID,
                         compoundPermissionsMapping, resourcesPermissionsMapping, customPermissionsMapping,
-                        dynamicPermissionsChecks, true));
+                        dynamicPermissionsChecks, true, 0, 10000));
         doReturn(session).when(sessionService).getSession(anyLong());
     }
 
@@ -250,6 +250,47 @@ public class PermissionServiceImplTest {
         verify(permissionService).checkAPICallWithScript("className", apiCallContext);
     }
 
+    @Test
+    public void isAuthorized_should_reuse_the_result_of_the_script_when_the_cache_is_enabled() throws Exception {
+        permissionService = withRuleResultCache();
+        returnDynamicPermissionsFor("GET", "bpm", "case", null, List.of("check|className"));
+        final APICallContext apiCallContext = new APICallContext("GET", "bpm", "case", null, "f=user_id=3", "");
+        doReturn(true).when(permissionService).checkAPICallWithScript("className", apiCallContext);
+
+        assertThat(permissionService.isAuthorized(apiCallContext)).isTrue();
+        assertThat(permissionService.isAuthorized(apiCallContext)).isTrue();
+
+        verify(permissionService, times(1)).checkAPICallWithScript("className", apiCallContext);
+    }
+
+    @Test
+    public void isAuthorized_should_call_the_script_again_when_the_session_authorizations_are_invalidated()
+            throws Exception {
+        permissionService = withRuleResultCache();
+        returnDynamicPermissionsFor("GET", "bpm", "case", null, List.of("check|className"));
+        final APICallContext apiCallContext = new APICallContext("GET", "bpm", "case", null, "", "");
+        doReturn(true).when(permissionService).checkAPICallWithScript("className", apiCallContext);
+
+        permissionService.isAuthorized(apiCallContext);
+        permissionService.invalidateCachedAuthorizations(session.getId());
+        permissionService.isAuthorized(apiCallContext);
+
+        verify(permissionService, times(2)).checkAPICallWithScript("className", apiCallContext);
+    }
+
+    @Test
+    public void isAuthorized_should_not_reuse_the_result_of_the_script_for_calls_other_than_get() throws Exception {
+        permissionService = withRuleResultCache();
+        returnDynamicPermissionsFor("PUT", "bpm", "case", null, List.of("check|className"));
+        final APICallContext apiCallContext = new APICallContext("PUT", "bpm", "case", null, "", "{}");
+        doReturn(true).when(permissionService).checkAPICallWithScript("className", apiCallContext);
+
+        permissionService.isAuthorized(apiCallContext);
+        permissionService.isAuthorized(apiCallContext);
+
+        verify(permissionService, times(2)).checkAPICallWithScript("className", apiCallContext);
+    }
+
     @Test
     public void isAuthorized_should_return_false_when_script_returns_false() throws Exception {
         returnDynamicPermissionsFor("GET", "bpm", "case", null, List.of("check|className"));
@@ -621,6 +662,12 @@ public class PermissionServiceImplTest {
                 resourcesPermissionsMapping);
     }
 
+    private PermissionServiceImpl withRuleResultCache() {
+        return spy(new PermissionServiceImpl(classLoaderService, sessionAccessor, sessionService, TENANT_ID,
+                compoundPermissionsMapping, resourcesPermissionsMapping, customPermissionsMapping,
+                dynamicPermissionsChecks, true, 60, 10000));
+    }
+
     private void returnDynamicPermissionsFor(final String method, final String apiName, final String resourceName,
             final List<String> resourceQualifiers,
             final List<String> toBeReturned) {
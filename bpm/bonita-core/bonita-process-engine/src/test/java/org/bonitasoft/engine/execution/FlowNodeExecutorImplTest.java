@@ -63,6 +63,8 @@ public class FlowNodeExecutorImplTest {
     private StateBehaviors stateBehaviors;
     @Mock
     BPMArchiverService bpmArchiverService;
+    @Mock
+    private StraightThroughExecution straightThroughExecution;
     @Captor
     private ArgumentCaptor<WorkDescriptor> workDescriptorArgumentCaptor;
     private FlowNodeExecutorImpl flowNodeExecutor;
@@ -72,7 +74,7 @@ public class FlowNodeExecutorImplTest {
     public void before() throws Exception {
         flowNodeExecutor = new FlowNodeExecutorImpl(flowNodeStateManager, activityInstanceService,
                 containerRegistry, processDefinitionService, null, null, workService, workFactory,
-                processInstanceInterruptor, bpmArchiverService);
+                processInstanceInterruptor, bpmArchiverService, straightThroughExecution);
         skippedFlowNodeState = new SkippedFlowNodeState();
         doReturn(skippedFlowNodeState).when(flowNodeStateManager).getState(SkippedFlowNodeState.ID);
         doReturn(stateBehaviors).when(flowNodeStateManager).getStateBehaviors();
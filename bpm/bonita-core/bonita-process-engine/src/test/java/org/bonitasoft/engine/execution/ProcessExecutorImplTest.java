@@ -176,6 +176,9 @@ public class ProcessExecutorImplTest {
     @Mock
     private ProcessStarterVerifier processStarterVerifier;
 
+    @Mock
+    private StraightThroughExecution straightThroughExecution;
+
     @InjectMocks
     private ProcessExecutorImpl processExecutorImpl;
 
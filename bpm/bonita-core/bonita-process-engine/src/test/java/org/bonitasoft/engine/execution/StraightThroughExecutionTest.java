@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.exceptions.SFlowNodeExecutionException;
+import org.bonitasoft.engine.core.process.instance.model.SAutomaticTaskInstance;
+import org.bonitasoft.engine.core.process.instance.model.SFlowNodeInstance;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StraightThroughExecutionTest {
+
+    private static final long TENANT_ID = 1L;
+    private static final long PROCESS_INSTANCE_ID = 456L;
+
+    @Mock
+    private ActivityInstanceService activityInstanceService;
+    private MeterRegistry meterRegistry;
+    private StraightThroughExecution straightThroughExecution;
+    private final List<Long> executedSteps = new ArrayList<>();
+
+    @Before
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        straightThroughExecution = new StraightThroughExecution(activityInstanceService, true, 3, TENANT_ID,
+                meterRegistry);
+    }
+
+    @Test
+    public void should_execute_steps_deferred_by_the_first_step_in_the_same_call() throws Exception {
+        SFlowNodeInstance task1 = aFlowNode(1L, PROCESS_INSTANCE_ID);
+        SFlowNodeInstance task2 = aFlowNode(2L, PROCESS_INSTANCE_ID);
+
+        straightThroughExecution.execute(task1, f -> {
+            executedSteps.add(f.getId());
+            assertThat(straightThroughExecution.defer(f, this::record)).isTrue();
+            assertThat(straightThroughExecution.defer(task2, this::record)).isTrue();
+        });
+
+        assertThat(executedSteps).containsExactly(1L, 1L, 2L);
+        assertThat(meterRegistry.find(StraightThroughExecution.WORKS_SAVED).counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.find(StraightThroughExecution.CHAIN_STEPS).summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_defer_steps_outside_of_a_chain() {
+        assertThat(straightThroughExecution.defer(aFlowNode(1L, PROCESS_INSTANCE_ID), this::record)).isFalse();
+    }
+
+    @Test
+    public void should_not_defer_steps_of_another_process_instance() throws Exception {
+        SFlowNodeInstance otherProcessTask = aFlowNode(2L, PROCESS_INSTANCE_ID + 1);
+
+        straightThroughExecution.execute(aFlowNode(1L, PROCESS_INSTANCE_ID),
+                f -> assertThat(straightThroughExecution.defer(otherProcessTask, this::record)).isFalse());
+
+        assertThat(executedSteps).isEmpty();
+    }
+
+    @Test
+    public void should_not_defer_more_steps_than_the_budget() throws Exception {
+        SFlowNodeInstance task = aFlowNode(1L, PROCESS_INSTANCE_ID);
+        List<Boolean> deferred = new ArrayList<>();
+
+        straightThroughExecution.execute(task, f -> {
+            for (int i = 0; i < 4; i++) {
+                deferred.add(straightThroughExecution.defer(f, this::record));
+            }
+        });
+
+        assertThat(deferred).containsExactly(true, true, true, false);
+        assertThat(executedSteps).hasSize(3);
+    }
+
+    @Test
+    public void should_skip_deferred_step_when_flow_node_changed_of_state() throws Exception {
+        SFlowNodeInstance task = aFlowNode(1L, PROCESS_INSTANCE_ID);
+
+        straightThroughExecution.execute(task, f -> {
+            straightThroughExecution.defer(f, this::record);
+            f.setStateId(5);
+        });
+
+        assertThat(executedSteps).isEmpty();
+        assertThat(meterRegistry.find(StraightThroughExecution.WORKS_SAVED).counter().count()).isZero();
+    }
+
+    @Test
+    public void should_throw_straight_through_exception_when_a_deferred_step_fails() throws Exception {
+        SFlowNodeInstance task = aFlowNode(1L, PROCESS_INSTANCE_ID);
+
+        assertThatThrownBy(() -> straightThroughExecution.execute(task,
+                f -> straightThroughExecution.defer(f, failing -> {
+                    throw new SFlowNodeExecutionException("failure");
+                })))
+                .isInstanceOf(SStraightThroughExecutionException.class)
+                .hasCauseInstanceOf(SFlowNodeExecutionException.class);
+        assertThat(straightThroughExecution.defer(task, this::record)).isFalse();
+    }
+
+    @Test
+    public void should_simply_execute_the_step_when_disabled() throws Exception {
+        straightThroughExecution = new StraightThroughExecution(activityInstanceService, false, 3, TENANT_ID,
+                meterRegistry);
+        SFlowNodeInstance task = aFlowNode(1L, PROCESS_INSTANCE_ID);
+
+        straightThroughExecution.execute(task, f -> {
+            record(f);
+            assertThat(straightThroughExecution.defer(f, this::record)).isFalse();
+        });
+
+        assertThat(executedSteps).containsExactly(1L);
+    }
+
+    private void record(SFlowNodeInstance flowNodeInstance) {
+        executedSteps.add(flowNodeInstance.getId());
+    }
+
+    private SFlowNodeInstance aFlowNode(long id, long processInstanceId) {
+        SAutomaticTaskInstance flowNodeInstance = new SAutomaticTaskInstance();
+        flowNodeInstance.setId(id);
+        flowNodeInstance.setStateId(2);
+        flowNodeInstance.setLogicalGroup(3, processInstanceId);
+        try {
+            lenient().doReturn(flowNodeInstance).when(activityInstanceService).getFlowNodeInstance(id);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return flowNodeInstance;
+    }
+
+}
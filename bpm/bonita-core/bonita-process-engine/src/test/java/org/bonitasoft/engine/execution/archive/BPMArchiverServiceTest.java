@@ -24,18 +24,23 @@ import org.bonitasoft.engine.archive.ArchiveService;
 import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.core.connector.ConnectorInstanceService;
 import org.bonitasoft.engine.core.contract.data.ContractDataService;
+import org.bonitasoft.engine.core.data.instance.TransientDataService;
 import org.bonitasoft.engine.core.document.api.DocumentService;
 import org.bonitasoft.engine.core.process.comment.api.SCommentService;
 import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
+import org.bonitasoft.engine.core.process.definition.model.SActivityDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SFlowElementContainerDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.RefBusinessDataService;
+import org.bonitasoft.engine.core.process.instance.model.SAutomaticTaskInstance;
 import org.bonitasoft.engine.core.process.instance.model.SProcessInstance;
 import org.bonitasoft.engine.core.process.instance.model.archive.SAProcessInstance;
 import org.bonitasoft.engine.core.process.instance.model.business.data.SProcessMultiRefBusinessDataInstance;
 import org.bonitasoft.engine.core.process.instance.model.business.data.SProcessSimpleRefBusinessDataInstance;
 import org.bonitasoft.engine.core.process.instance.model.business.data.SRefBusinessDataInstance;
+import org.bonitasoft.engine.data.definition.model.SDataDefinition;
 import org.bonitasoft.engine.data.instance.api.DataInstanceService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -71,6 +76,8 @@ public class BPMArchiverServiceTest {
     @Mock
     private DataInstanceService dataInstanceService;
     @Mock
+    private TransientDataService transientDataService;
+    @Mock
     private ActivityInstanceService activityInstanceService;
     @Spy
     @InjectMocks
@@ -104,4 +111,25 @@ public class BPMArchiverServiceTest {
         verify(refBusinessDataService).archiveRefBusinessDataInstance(ref3);
     }
 
+    @Test
+    public void archiveAndDeleteFlowNodeInstance_should_delete_transient_data_of_the_activity() throws Exception {
+        SAutomaticTaskInstance flowNodeInstance = new SAutomaticTaskInstance();
+        flowNodeInstance.setId(12L);
+        flowNodeInstance.setFlowNodeDefinitionId(5L);
+        SDataDefinition transientData = mock(SDataDefinition.class);
+        doReturn(true).when(transientData).isTransientData();
+        SActivityDefinition activityDefinition = mock(SActivityDefinition.class);
+        doReturn(List.of(transientData)).when(activityDefinition).getSDataDefinitions();
+        SFlowElementContainerDefinition container = mock(SFlowElementContainerDefinition.class);
+        doReturn(activityDefinition).when(container).getFlowNode(5L);
+        SProcessDefinition processDefinition = mock(SProcessDefinition.class);
+        doReturn(container).when(processDefinition).getProcessContainer();
+        doReturn(processDefinition).when(processDefinitionService).getProcessDefinition(3L);
+        doReturn(flowNodeInstance).when(activityInstanceService).getFlowNodeInstance(12L);
+
+        bpmArchiverService.archiveAndDeleteFlowNodeInstance(flowNodeInstance, 3L);
+
+        verify(transientDataService).deleteDataInstances(12L, "ACTIVITY_INSTANCE");
+    }
+
 }
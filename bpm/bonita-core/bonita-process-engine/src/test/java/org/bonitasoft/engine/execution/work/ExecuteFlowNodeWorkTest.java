@@ -13,6 +13,8 @@
  **/
 package org.bonitasoft.engine.execution.work;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 
@@ -22,6 +24,7 @@ import java.util.Map;
 import org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService;
 import org.bonitasoft.engine.core.process.instance.model.SUserTaskInstance;
 import org.bonitasoft.engine.execution.FlowNodeExecutor;
+import org.bonitasoft.engine.execution.StraightThroughExecution;
 import org.bonitasoft.engine.service.ServiceAccessor;
 import org.bonitasoft.engine.work.SWorkPreconditionException;
 import org.junit.Before;
@@ -46,6 +49,8 @@ public class ExecuteFlowNodeWorkTest {
     private ActivityInstanceService activityInstanceService;
     @Mock
     private FlowNodeExecutor flowNodeExecutor;
+    @Mock
+    private StraightThroughExecution straightThroughExecution;
     private SUserTaskInstance sHumanTaskInstance;
     private Map<String, Object> context;
 
@@ -67,7 +72,7 @@ public class ExecuteFlowNodeWorkTest {
             throws Exception {
         //given
         ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 4, false, false,
-                false);
+                false, false);
         sHumanTaskInstance.setStateId(2);
         //when
         expectedException.expect(SWorkPreconditionException.class);
@@ -82,7 +87,8 @@ public class ExecuteFlowNodeWorkTest {
     @Test
     public void should_throw_exception_if_executing_flow_node_not_in_expected_state() throws Exception {
         //given
-        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 4, false, false, true);
+        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 4, false, false, true,
+                false);
         sHumanTaskInstance.setStateId(4);
         sHumanTaskInstance.setStateExecuting(false);
         //when
@@ -94,7 +100,8 @@ public class ExecuteFlowNodeWorkTest {
     @Test
     public void should_execute_human_task_in_ready_and_executing_if_isReadyHumanTask_flag_is_true() throws Exception {
         //given
-        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 4, true, false, false);
+        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 4, true, false, false,
+                false);
         sHumanTaskInstance.setStateId(4);
         sHumanTaskInstance.setStateExecuting(true);
         //when
@@ -106,7 +113,8 @@ public class ExecuteFlowNodeWorkTest {
     @Test
     public void should_execute_flow_node_in_any_state_if_isReadyHumanTask_flag_is_false() throws Exception {
         //given
-        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 2, true, false, false);
+        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 2, true, false, false,
+                false);
         sHumanTaskInstance.setStateId(2);
         sHumanTaskInstance.setStateExecuting(true);
         //when
@@ -114,4 +122,17 @@ public class ExecuteFlowNodeWorkTest {
         //then
         verify(flowNodeExecutor).executeFlowNode(sHumanTaskInstance, null, null);
     }
+
+    @Test
+    public void should_execute_flow_node_straight_through_when_allowed() throws Exception {
+        //given
+        doReturn(straightThroughExecution).when(serviceAccessor).getStraightThroughExecution();
+        ExecuteFlowNodeWork executeFlowNodeWork = new ExecuteFlowNodeWork(FLOW_NODE_INSTANCE_ID, 2, false, false, false,
+                true);
+        sHumanTaskInstance.setStateId(2);
+        //when
+        executeFlowNodeWork.work(context);
+        //then
+        verify(straightThroughExecution).execute(eq(sHumanTaskInstance), any());
+    }
 }
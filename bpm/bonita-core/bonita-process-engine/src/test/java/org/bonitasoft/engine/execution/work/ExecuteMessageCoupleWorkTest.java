@@ -27,6 +27,7 @@ import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaiting
 import org.bonitasoft.engine.data.instance.api.DataInstanceContainer;
 import org.bonitasoft.engine.data.instance.api.DataInstanceService;
 import org.bonitasoft.engine.execution.event.EventsHandler;
+import org.bonitasoft.engine.message.MessagesHandlingService;
 import org.bonitasoft.engine.service.ServiceAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
@@ -54,6 +55,8 @@ public class ExecuteMessageCoupleWorkTest {
     private DataInstanceService dataInstanceService;
     @Mock
     private UserTransactionService userTransactionService;
+    @Mock
+    private MessagesHandlingService messagesHandlingService;
     @Captor
     private ArgumentCaptor<Callable<?>> callableArgumentCaptor;
     private final Map<String, Object> context = new HashMap<>();
@@ -75,6 +78,7 @@ public class ExecuteMessageCoupleWorkTest {
         doReturn(eventInstanceService).when(serviceAccessor).getEventInstanceService();
         doReturn(dataInstanceService).when(serviceAccessor).getDataInstanceService();
         doReturn(userTransactionService).when(serviceAccessor).getUserTransactionService();
+        doReturn(messagesHandlingService).when(serviceAccessor).getMessagesHandlingService();
     }
 
     @Test
@@ -130,4 +134,16 @@ public class ExecuteMessageCoupleWorkTest {
                         arg.getFields().get("progress").equals(0)));
     }
 
+    @Test
+    public void should_trigger_matching_of_reset_waiting_message_on_failure() throws Exception {
+        waitingMessageEvent.setCorrelation1("key1-value1");
+        doReturn(waitingMessageEvent).when(eventInstanceService).getWaitingMessage(WAITING_MESSAGE_ID);
+        doReturn(null).when(userTransactionService).executeInTransaction(callableArgumentCaptor.capture());
+
+        executeMessageCoupleWork.handleFailure(new Exception("something happened during the coupling"), context);
+
+        callableArgumentCaptor.getValue().call();
+        verify(messagesHandlingService).triggerMatchingOfMessages("message", "key1-value1");
+    }
+
 }
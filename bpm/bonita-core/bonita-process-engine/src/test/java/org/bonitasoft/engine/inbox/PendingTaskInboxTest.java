@@ -0,0 +1,256 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.inbox;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.inbox.PendingTaskInbox.INBOX_ENTRIES;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.actor.mapping.model.SActorMember;
+import org.bonitasoft.engine.core.process.instance.api.PendingTaskInboxRepository;
+import org.bonitasoft.engine.core.process.instance.model.SPendingActivityMapping;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.SDeleteEvent;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SInsertEvent;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PendingTaskInboxTest {
+
+    private static final long TENANT_ID = 1L;
+    @Mock
+    private EventService eventService;
+    @Mock
+    private PendingTaskInboxRepository repository;
+    @Mock
+    private UserTransactionService userTransactionService;
+    @Mock
+    private SessionAccessor sessionAccessor;
+
+    private MeterRegistry meterRegistry;
+    private PendingTaskInbox inbox;
+
+    @Before
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        inbox = new PendingTaskInbox(eventService, repository, userTransactionService, sessionAccessor, TENANT_ID,
+                true, 0, meterRegistry);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        inbox.stop();
+    }
+
+    @Test
+    public void start_should_remove_entries_when_inbox_is_disabled() throws Exception {
+        inbox = new PendingTaskInbox(eventService, repository, userTransactionService, sessionAccessor, TENANT_ID,
+                false, 0, meterRegistry);
+        doReturn(3L).when(repository).getNumberOfEntries();
+
+        inbox.start();
+
+        verify(repository).deleteAllEntries();
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    public void start_should_build_the_inbox_when_it_is_empty_and_pending_mappings_exist() throws Exception {
+        doReturn(0L).when(repository).getNumberOfEntries();
+        doReturn(2L).when(repository).getNumberOfPendingActivityMappings();
+        doReturn(asList(1L, 2L)).when(repository).getUserIds(0L, 100);
+        doReturn(emptyList()).when(repository).getActivityIdsOfUser(anyLong());
+        doReturn(asList(10L, 11L)).when(repository).getExpectedActivityIdsOfUser(1L);
+        doReturn(emptyList()).when(repository).getExpectedActivityIdsOfUser(2L);
+
+        inbox.start();
+
+        verify(eventService).addHandler(eq("PENDINGACTIVITYMAPPING_CREATED"), any());
+        verify(eventService).addHandler(eq("USERMEMBERSHIP_DELETED"), any());
+        verify(repository).addEntries(1L, new HashSet<>(asList(10L, 11L)));
+        verify(repository, never()).addEntries(eq(2L), any());
+        assertThat(entries("added")).isEqualTo(2);
+    }
+
+    @Test
+    public void start_should_not_build_the_inbox_when_it_has_entries() throws Exception {
+        doReturn(5L).when(repository).getNumberOfEntries();
+
+        inbox.start();
+
+        verify(repository, never()).getUserIds(anyLong(), anyInt());
+    }
+
+    @Test
+    public void should_fix_entries_of_a_task_when_its_pending_mappings_change_once_per_transaction() throws Exception {
+        SHandler<SEvent> handler = startAndGetHandler("PENDINGACTIVITYMAPPING_CREATED");
+        SPendingActivityMapping mapping = SPendingActivityMapping.builder().activityId(10L).actorId(3L).build();
+
+        handler.execute(insertEvent("PENDINGACTIVITYMAPPING_CREATED", mapping));
+        handler.execute(insertEvent("PENDINGACTIVITYMAPPING_CREATED", mapping));
+
+        doReturn(asList(1L, 2L)).when(repository).getExpectedUserIdsOfActivity(10L);
+        doReturn(asList(2L, 3L)).when(repository).getUserIdsOfActivity(10L);
+        beforeCommitCallable().call();
+
+        verify(repository).addEntries(new HashSet<>(singletonList(1L)), 10L);
+        verify(repository).deleteEntries(new HashSet<>(singletonList(3L)), 10L);
+        verify(userTransactionService, times(1)).registerBeforeCommitCallable(any());
+    }
+
+    @Test
+    public void should_check_entries_of_a_task_again_in_a_new_transaction_once_committed() throws Exception {
+        doAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call()).when(userTransactionService)
+                .executeInTransaction(any());
+        SHandler<SEvent> handler = startAndGetHandler("PENDINGACTIVITYMAPPING_CREATED");
+        handler.execute(insertEvent("PENDINGACTIVITYMAPPING_CREATED",
+                SPendingActivityMapping.builder().activityId(10L).actorId(3L).build()));
+        // a user added concurrently to the actor is only seen once both transactions are committed
+        doReturn(asList(1L, 2L)).when(repository).getExpectedUserIdsOfActivity(10L);
+        doReturn(singletonList(1L)).when(repository).getUserIdsOfActivity(10L);
+
+        synchronization().afterCompletion(Status.STATUS_COMMITTED);
+
+        verify(repository, timeout(2000)).addEntries(new HashSet<>(singletonList(2L)), 10L);
+        verify(userTransactionService).executeInTransaction(any());
+    }
+
+    @Test
+    public void should_not_check_entries_again_when_transaction_is_rolled_back() throws Exception {
+        SHandler<SEvent> handler = startAndGetHandler("PENDINGACTIVITYMAPPING_CREATED");
+        handler.execute(insertEvent("PENDINGACTIVITYMAPPING_CREATED",
+                SPendingActivityMapping.builder().activityId(10L).actorId(3L).build()));
+
+        synchronization().afterCompletion(Status.STATUS_ROLLEDBACK);
+        inbox.stop();
+
+        verify(userTransactionService, never()).executeInTransaction(any());
+    }
+
+    @Test
+    public void should_remove_entries_of_a_task_having_no_pending_mapping_anymore() throws Exception {
+        SHandler<SEvent> handler = startAndGetHandler("PENDINGACTIVITYMAPPING_DELETED");
+        SDeleteEvent event = new SDeleteEvent("PENDINGACTIVITYMAPPING_DELETED");
+        event.setObject(SPendingActivityMapping.builder().activityId(10L).userId(1L).build());
+
+        handler.execute(event);
+        doReturn(emptyList()).when(repository).getExpectedUserIdsOfActivity(10L);
+        beforeCommitCallable().call();
+
+        verify(repository).deleteEntriesOfActivity(10L);
+    }
+
+    @Test
+    public void should_fix_entries_of_users_matching_an_actor_member_on_the_tasks_of_its_actor() throws Exception {
+        SHandler<SEvent> handler = startAndGetHandler("ACTOR_MEMBER_DELETED");
+        SActorMember actorMember = new SActorMember();
+        actorMember.setActorId(3L);
+        actorMember.setGroupId(20L);
+        doReturn(singletonList(1L)).when(repository).getUserIdsOfMembership(20L, -1L);
+        SDeleteEvent event = new SDeleteEvent("ACTOR_MEMBER_DELETED");
+        event.setObject(actorMember);
+
+        handler.execute(event);
+        doReturn(asList(10L, 11L)).when(repository).getActivityIdsOfUser(1L, 3L);
+        doReturn(singletonList(11L)).when(repository).getExpectedActivityIdsOfUser(1L, 3L);
+        beforeCommitCallable().call();
+
+        verify(repository).deleteEntries(1L, new HashSet<>(singletonList(10L)));
+        assertThat(entries("removed")).isEqualTo(1);
+    }
+
+    @Test
+    public void check_should_report_differences_without_fixing_them() throws Exception {
+        doReturn(asList(10L, 10L, 12L)).when(repository).getActivityIdsOfUser(1L);
+        doReturn(asList(10L, 11L)).when(repository).getExpectedActivityIdsOfUser(1L);
+
+        PendingTaskInbox.CheckResult result = inbox.check(1L, false);
+
+        assertThat(result.getCheckedUsers()).isEqualTo(1);
+        assertThat(result.getInconsistentUsers()).isEqualTo(1);
+        assertThat(result.getMissingEntries()).isEqualTo(1);
+        assertThat(result.getExtraEntries()).isEqualTo(1);
+        assertThat(result.getDuplicatedEntries()).isEqualTo(1);
+        verify(repository, never()).addEntries(anyLong(), any());
+        verify(repository, never()).deleteEntries(anyLong(), any());
+    }
+
+    @Test
+    public void check_should_repair_duplicated_entries() throws Exception {
+        doReturn(asList(10L, 10L)).when(repository).getActivityIdsOfUser(1L);
+        doReturn(singletonList(10L)).when(repository).getExpectedActivityIdsOfUser(1L);
+
+        inbox.check(1L, true);
+
+        verify(repository).deleteEntries(1L, new HashSet<>(singletonList(10L)));
+        verify(repository).addEntries(1L, new HashSet<>(singletonList(10L)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SHandler<SEvent> startAndGetHandler(String eventType) throws Exception {
+        doReturn(1L).when(repository).getNumberOfEntries();
+        inbox.start();
+        ArgumentCaptor<SHandler<SEvent>> handler = ArgumentCaptor.forClass(SHandler.class);
+        verify(eventService).addHandler(eq(eventType), handler.capture());
+        return handler.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Callable<Void> beforeCommitCallable() throws Exception {
+        ArgumentCaptor<Callable<Void>> callable = ArgumentCaptor.forClass(Callable.class);
+        verify(userTransactionService).registerBeforeCommitCallable(callable.capture());
+        return callable.getValue();
+    }
+
+    private BonitaTransactionSynchronization synchronization() throws Exception {
+        ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(userTransactionService).registerBonitaSynchronization(synchronization.capture());
+        return synchronization.getValue();
+    }
+
+    private static SInsertEvent insertEvent(String type, Object object) {
+        SInsertEvent event = new SInsertEvent(type);
+        event.setObject(object);
+        return event;
+    }
+
+    private double entries(String operation) {
+        return meterRegistry.find(INBOX_ENTRIES).tag("operation", operation).counter().count();
+    }
+}
@@ -14,6 +14,8 @@
 package org.bonitasoft.engine.message;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Stream.iterate;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,17 +28,21 @@ import static org.mockito.Mockito.*;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.core.process.instance.api.event.EventInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.exceptions.event.trigger.SEventTriggerInstanceReadException;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageEventCouple;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
 import org.bonitasoft.engine.execution.work.BPMWorkFactory;
+import org.bonitasoft.engine.lock.BonitaLock;
 import org.bonitasoft.engine.lock.LockService;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
@@ -194,9 +200,11 @@ public class MessagesHandlingServiceTest {
                 new SMessageEventCouple(52, INTERMEDIATE_CATCH_EVENT, 62),
                 new SMessageEventCouple(53, INTERMEDIATE_CATCH_EVENT, 63),
                 new SMessageEventCouple(53, INTERMEDIATE_CATCH_EVENT, 64)// waiting event already matched
-        )).when(eventInstanceService).getMessageEventCouples(anyInt(), anyInt());
+        )).when(eventInstanceService).getMessageEventCouples(anyCollection(), anyInt(), anyInt());
 
-        messagesHandlingService.matchEventCoupleAndTriggerExecution();
+        boolean moreToMatch = messagesHandlingService.matchEventCoupleAndTriggerExecution(singletonList("msg|NONE"));
+
+        assertThat(moreToMatch).isFalse();
 
         assertThat(counterValue(NUMBER_OF_MESSAGES_EXECUTED)).isEqualTo(3);
         assertThat(counterValue(NUMBER_OF_MESSAGES_POTENTIAL_MATCHED)).isEqualTo(4);
@@ -208,16 +216,133 @@ public class MessagesHandlingServiceTest {
             throws Exception {
         doReturn(new SWaitingMessageEvent()).when(eventInstanceService).getWaitingMessage(anyLong());
         doReturn(new SMessageInstance()).when(eventInstanceService).getMessageInstance(anyLong());
-        List<SMessageEventCouple> couples = iterate(1, i -> i + 1).limit(100) // 100 == MAX_COUPLES
+        List<SMessageEventCouple> couples = iterate(1, i -> i + 1).limit(100) // 100 == default batch size
                 .map(i -> msgEventCouple(i, i))
                 .collect(toList());
-        doReturn(couples).when(eventInstanceService).getMessageEventCouples(anyInt(), anyInt());
+        doReturn(couples).when(eventInstanceService).getMessageEventCouples(anyCollection(), anyInt(), anyInt());
 
-        messagesHandlingService.matchEventCoupleAndTriggerExecution();
+        boolean moreToMatch = messagesHandlingService.matchEventCoupleAndTriggerExecution(singletonList("msg|NONE"));
 
+        assertThat(moreToMatch).isTrue();
         assertThat(counterValue(NUMBER_OF_MESSAGES_MATCHING_RETRIGGERED_TASKS)).isEqualTo(1);
     }
 
+    @Test
+    public void should_only_match_couples_of_the_given_matching_keys_using_the_configured_batch_size()
+            throws Exception {
+        messagesHandlingService = new MessagesHandlingService(eventInstanceService, workService, lockService,
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, 2, 30);
+
+        messagesHandlingService.matchEventCoupleAndTriggerExecution(asList("msg1|NONE", "msg2|NONE"));
+
+        verify(eventInstanceService).getMessageEventCouples(asList("msg1|NONE", "msg2|NONE"), 0, 30);
+    }
+
+    @Test
+    public void should_always_put_a_matching_key_in_the_same_partition() {
+        messagesHandlingService = new MessagesHandlingService(eventInstanceService, workService, lockService,
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, 4, 100);
+
+        String matchingKey = MessagesHandlingService.matchingKey("myMessage", "orderId-$-42");
+
+        assertThat(matchingKey).isEqualTo("myMessage|orderId-$-42");
+        assertThat(messagesHandlingService.getPartition(matchingKey))
+                .isSameAs(messagesHandlingService.getPartition(MessagesHandlingService.matchingKey("myMessage",
+                        "orderId-$-42")));
+        assertThat(messagesHandlingService.getPartition(matchingKey).getIndex()).isBetween(0, 3);
+    }
+
+    @Test
+    public void should_register_keys_of_unhandled_messages_in_their_partition() throws Exception {
+        messagesHandlingService = new MessagesHandlingService(eventInstanceService, workService, lockService,
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, 4, 100);
+        doReturn(asList("msg1|NONE", "msg2|NONE", "msg3|NONE")).when(eventInstanceService)
+                .getUnhandledMessageMatchingKeys(0, 1000);
+
+        messagesHandlingService.registerUnhandledMessages();
+
+        assertThat(messagesHandlingService.getPartition("msg1|NONE").getPendingKeys()).contains("msg1|NONE");
+        assertThat(messagesHandlingService.getPartition("msg2|NONE").getPendingKeys()).contains("msg2|NONE");
+        assertThat(messagesHandlingService.getPartition("msg3|NONE").getPendingKeys()).contains("msg3|NONE");
+    }
+
+    @Test
+    public void should_match_a_partition_again_when_it_was_locked_by_another_node() throws Exception {
+        messagesHandlingService = new MessagesHandlingService(eventInstanceService, workService, lockService,
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, 1, 100);
+        doReturn(singletonList("msg1|NONE")).when(eventInstanceService).getUnhandledMessageMatchingKeys(0, 1000);
+        when(lockService.tryLock(1L, "EVENTS", 1L, TimeUnit.MILLISECONDS, TENANT_ID))
+                .thenReturn(null, new BonitaLock("EVENTS", 1L));
+        messagesHandlingService.start();
+        try {
+            messagesHandlingService.registerUnhandledMessages();
+
+            verify(eventInstanceService, timeout(5000)).getMessageEventCouples(singletonList("msg1|NONE"), 0, 100);
+            verify(lockService, times(2)).tryLock(1L, "EVENTS", 1L, TimeUnit.MILLISECONDS, TENANT_ID);
+        } finally {
+            messagesHandlingService.stop();
+        }
+    }
+
+    @Test
+    public void should_match_keys_again_when_matching_failed() throws Exception {
+        messagesHandlingService = new MessagesHandlingService(eventInstanceService, workService, lockService,
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, 1, 100);
+        doReturn(singletonList("msg1|NONE")).when(eventInstanceService).getUnhandledMessageMatchingKeys(0, 1000);
+        when(lockService.tryLock(1L, "EVENTS", 1L, TimeUnit.MILLISECONDS, TENANT_ID))
+                .thenReturn(new BonitaLock("EVENTS", 1L));
+        when(eventInstanceService.getMessageEventCouples(singletonList("msg1|NONE"), 0, 100))
+                .thenThrow(new SEventTriggerInstanceReadException(new IllegalStateException("database unavailable")))
+                .thenReturn(emptyList());
+        messagesHandlingService.start();
+        try {
+            messagesHandlingService.registerUnhandledMessages();
+
+            verify(eventInstanceService, timeout(5000).times(2)).getMessageEventCouples(singletonList("msg1|NONE"),
+                    0, 100);
+        } finally {
+            messagesHandlingService.stop();
+        }
+    }
+
+    @Test
+    public void executeMessageCouple_should_record_latency_since_message_creation() throws Exception {
+        doReturn(new SWaitingMessageEvent()).when(eventInstanceService).getWaitingMessage(2L);
+        SMessageInstance messageInstance = new SMessageInstance();
+        messageInstance.setCreationDate(System.currentTimeMillis() - 500);
+        doReturn(messageInstance).when(eventInstanceService).getMessageInstance(1L);
+
+        messagesHandlingService.executeMessageCouple(1L, 2L);
+
+        Timer timer = meterRegistry.find(MESSAGES_LATENCY).tag("tenant", String.valueOf(TENANT_ID)).timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(500);
+    }
+
+    @Test
+    public void should_execute_couple_found_in_index_and_return_keys_of_messages_not_found() throws Exception {
+        WaitingMessageEventIndex index = mock(WaitingMessageEventIndex.class);
+        messagesHandlingService = new MessagesHandlingService(eventInstanceService, workService, lockService,
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, 4, 100, index);
+        SMessageInstance matchedMessage = new SMessageInstance("msg1", "process", null, 1L, "throw");
+        matchedMessage.setCorrelation1("NONE");
+        SMessageInstance unmatchedMessage = new SMessageInstance("msg2", "process", null, 1L, "throw");
+        unmatchedMessage.setCorrelation1("NONE");
+        SWaitingMessageEvent waitingMessageEvent = new SWaitingMessageEvent();
+        waitingMessageEvent.setId(20L);
+        doReturn(matchedMessage).when(eventInstanceService).getMessageInstance(1L);
+        doReturn(unmatchedMessage).when(eventInstanceService).getMessageInstance(2L);
+        doReturn(waitingMessageEvent).when(eventInstanceService).getWaitingMessage(20L);
+        doReturn(waitingMessageEvent).when(index).findWaitingEvent(matchedMessage);
+
+        List<String> unmatchedKeys = messagesHandlingService.matchMessagesUsingIndex(asList(1L, 2L));
+
+        assertThat(unmatchedKeys).containsExactly("msg2|NONE");
+        verify(workFactory).createExecuteMessageCoupleWorkDescriptor(matchedMessage, waitingMessageEvent);
+        assertThat(counterValue(NUMBER_OF_MESSAGES_EXECUTED)).isEqualTo(1);
+        verify(eventInstanceService, never()).getMessageEventCouples(anyCollection(), anyInt(), anyInt());
+    }
+
     // =================================================================================================================
     // UTILS
     // =================================================================================================================
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.message;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType.INTERMEDIATE_CATCH_EVENT;
+import static org.bonitasoft.engine.message.WaitingMessageEventIndex.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.core.process.instance.api.event.EventInstanceService;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SInsertEvent;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WaitingMessageEventIndexTest {
+
+    private static final long TENANT_ID = 1L;
+    @Mock
+    private EventService eventService;
+    @Mock
+    private EventInstanceService eventInstanceService;
+    @Mock
+    private UserTransactionService userTransactionService;
+
+    private MeterRegistry meterRegistry;
+    private WaitingMessageEventIndex index;
+
+    @Before
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new WaitingMessageEventIndex(eventService, eventInstanceService, userTransactionService, TENANT_ID,
+                true, meterRegistry);
+    }
+
+    @Test
+    public void should_find_waiting_event_having_same_name_process_and_correlations() throws Exception {
+        SWaitingMessageEvent waitingEvent = waitingEvent(12L, "myMessage", "orderId-$-42");
+        index.add(waitingEvent);
+        doReturn(waitingEvent).when(eventInstanceService).getWaitingMessage(12L);
+
+        assertThat(index.findWaitingEvent(message("myMessage", "orderId-$-42"))).isEqualTo(waitingEvent);
+        assertThat(index.findWaitingEvent(message("myMessage", "orderId-$-43"))).isNull();
+
+        assertThat(lookups("hit")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_return_waiting_event_already_in_progress() throws Exception {
+        SWaitingMessageEvent waitingEvent = waitingEvent(12L, "myMessage", "orderId-$-42");
+        index.add(waitingEvent);
+        SWaitingMessageEvent inDatabase = waitingEvent(12L, "myMessage", "orderId-$-42");
+        inDatabase.setProgress(1);
+        doReturn(inDatabase).when(eventInstanceService).getWaitingMessage(12L);
+
+        assertThat(index.findWaitingEvent(message("myMessage", "orderId-$-42"))).isNull();
+    }
+
+    @Test
+    public void should_remove_waiting_events_that_do_not_exist_anymore() throws Exception {
+        index.add(waitingEvent(12L, "myMessage", "orderId-$-42"));
+
+        assertThat(index.findWaitingEvent(message("myMessage", "orderId-$-42"))).isNull();
+
+        assertThat(meterRegistry.find(INDEX_SIZE).gauge().value()).isEqualTo(0);
+        assertThat(meterRegistry.find(INDEX_MEMORY).gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_report_size_and_memory_of_the_index() {
+        index.add(waitingEvent(12L, "myMessage", "orderId-$-42"));
+        index.add(waitingEvent(13L, "myMessage", "orderId-$-42"));
+        index.add(waitingEvent(14L, "otherMessage", "orderId-$-42"));
+
+        assertThat(meterRegistry.find(INDEX_SIZE).gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.find(INDEX_MEMORY).gauge().value()).isGreaterThan(0);
+
+        index.remove(waitingEvent(12L, "myMessage", "orderId-$-42"));
+        index.remove(waitingEvent(13L, "myMessage", "orderId-$-42"));
+        index.remove(waitingEvent(14L, "otherMessage", "orderId-$-42"));
+
+        assertThat(meterRegistry.find(INDEX_SIZE).gauge().value()).isEqualTo(0);
+        assertThat(meterRegistry.find(INDEX_MEMORY).gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    public void start_should_rebuild_index_from_database() throws Exception {
+        SWaitingMessageEvent waitingEvent = waitingEvent(12L, "myMessage", "orderId-$-42");
+        doReturn(asList(waitingEvent)).when(eventInstanceService).searchWaitingEvents(eq(SWaitingMessageEvent.class),
+                any(QueryOptions.class));
+        doReturn(waitingEvent).when(eventInstanceService).getWaitingMessage(12L);
+
+        index.start();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.findWaitingEvent(message("myMessage", "orderId-$-42"))).isEqualTo(waitingEvent);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_add_created_waiting_event_only_when_transaction_is_committed() throws Exception {
+        doReturn(emptyList()).when(eventInstanceService).searchWaitingEvents(eq(SWaitingMessageEvent.class),
+                any(QueryOptions.class));
+        index.start();
+        ArgumentCaptor<SHandler<SEvent>> handler = ArgumentCaptor.forClass(SHandler.class);
+        verify(eventService).addHandler(eq("EVENT_TRIGGER_INSTANCE_CREATED"), handler.capture());
+        SInsertEvent event = new SInsertEvent("EVENT_TRIGGER_INSTANCE_CREATED");
+        event.setObject(waitingEvent(12L, "myMessage", "orderId-$-42"));
+
+        handler.getValue().execute(event);
+        handler.getValue().execute(event);
+
+        ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(userTransactionService, times(2)).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getAllValues().get(0).afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertThat(meterRegistry.find(INDEX_SIZE).gauge().value()).isEqualTo(0);
+        synchronization.getAllValues().get(1).afterCompletion(Status.STATUS_COMMITTED);
+        assertThat(meterRegistry.find(INDEX_SIZE).gauge().value()).isEqualTo(1);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.find(INDEX_LOOKUPS).tag("result", result).counter().count();
+    }
+
+    private static SWaitingMessageEvent waitingEvent(long id, String messageName, String correlation) {
+        SWaitingMessageEvent waitingEvent = new SWaitingMessageEvent(INTERMEDIATE_CATCH_EVENT, 5L, "myProcess", 6L,
+                "catchMessage", messageName);
+        waitingEvent.setId(id);
+        waitingEvent.setCorrelation1(correlation);
+        waitingEvent.setCorrelation2("NONE");
+        waitingEvent.setCorrelation3("NONE");
+        waitingEvent.setCorrelation4("NONE");
+        waitingEvent.setCorrelation5("NONE");
+        return waitingEvent;
+    }
+
+    private static SMessageInstance message(String messageName, String correlation) {
+        SMessageInstance message = new SMessageInstance(messageName, "myProcess", null, 3L, "throwMessage");
+        message.setCorrelation1(correlation);
+        message.setCorrelation2("NONE");
+        message.setCorrelation3("NONE");
+        message.setCorrelation4("NONE");
+        message.setCorrelation5("NONE");
+        return message;
+    }
+}
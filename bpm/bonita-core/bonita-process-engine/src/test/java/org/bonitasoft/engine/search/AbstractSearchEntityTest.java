@@ -20,6 +20,8 @@ import static org.mockito.Mockito.*;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.bonitasoft.engine.persistence.PersistentObject;
@@ -27,6 +29,7 @@ import org.bonitasoft.engine.persistence.QueryOptions;
 import org.bonitasoft.engine.search.impl.SearchOptionsImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -80,6 +83,46 @@ class AbstractSearchEntityTest {
         assertThat(log).doesNotContain("Double checking the same query");
     }
 
+    @Test
+    void should_not_count_results_when_count_is_skipped() throws Exception {
+        // given
+        final MySearchEntity searchEntity = spy(new MySearchEntity(new SearchOptionsBuilder(0, 10).skipCount().done()));
+
+        // when
+        final SearchResult<Serializable> result = searchEntity.search();
+
+        // then
+        verify(searchEntity, never()).executeCount(any());
+        final ArgumentCaptor<QueryOptions> queryOptions = ArgumentCaptor.forClass(QueryOptions.class);
+        verify(searchEntity).executeSearch(queryOptions.capture());
+        assertThat(queryOptions.getValue().getNumberOfResults()).isEqualTo(11);
+        assertThat(result.getCount()).isEqualTo(1);
+        assertThat(result.getNextSearchAfter()).isNull();
+    }
+
+    @Test
+    void should_seek_after_the_given_sort_values_instead_of_skipping_results() throws Exception {
+        // given
+        final MySearchEntity searchEntity = spy(new MySearchEntity(new SearchOptionsBuilder(20, 1)
+                .searchAfter(Collections.singletonList(5L)).skipCount().done()));
+        doReturn(Arrays.asList(new MySearchEntity.TestEntity(), new MySearchEntity.TestEntity())).when(searchEntity)
+                .executeSearch(any());
+
+        // when
+        final SearchResult<Serializable> result = searchEntity.search();
+
+        // then
+        final ArgumentCaptor<QueryOptions> queryOptions = ArgumentCaptor.forClass(QueryOptions.class);
+        verify(searchEntity).executeSearch(queryOptions.capture());
+        // kept for the offset fallback, ignored by the persistence when seeking
+        assertThat(queryOptions.getValue().getFromIndex()).isEqualTo(20);
+        assertThat(queryOptions.getValue().getNumberOfResults()).isEqualTo(2);
+        assertThat(queryOptions.getValue().getSearchAfter()).containsExactly(5L);
+        // the count is a lower bound: the start index, plus the returned result, plus one for the next page
+        assertThat(result.getCount()).isEqualTo(22);
+        assertThat(result.getNextSearchAfter()).containsExactly(0L);
+    }
+
     static class MySearchEntity extends AbstractSearchEntity<Serializable, PersistentObject> {
 
         public MySearchEntity(SearchOptions searchOptions) {
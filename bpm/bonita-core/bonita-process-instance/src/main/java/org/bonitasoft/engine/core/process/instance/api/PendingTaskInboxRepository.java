@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.api;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.bonitasoft.engine.core.process.instance.api.exceptions.SActivityModificationException;
+import org.bonitasoft.engine.core.process.instance.model.SPendingTaskInboxEntry;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+
+/**
+ * Access to the entries of the pending task inbox, see {@link SPendingTaskInboxEntry}.
+ * <p>
+ * "Expected" methods resolve the pending mappings against the actor members and the memberships, like the legacy
+ * search of pending tasks for a user does: they tell what the inbox should contain. The other ones read what the inbox
+ * contains.
+ */
+public interface PendingTaskInboxRepository {
+
+    int IN_REQUEST_SIZE = 100;
+
+    List<Long> getActivityIdsOfUser(long userId) throws SBonitaReadException;
+
+    List<Long> getExpectedActivityIdsOfUser(long userId) throws SBonitaReadException;
+
+    /**
+     * @return the ids of the activities in the inbox of the user that are mapped to the given actor
+     */
+    List<Long> getActivityIdsOfUser(long userId, long actorId) throws SBonitaReadException;
+
+    /**
+     * @return the ids of the activities mapped to the given actor that should be in the inbox of the user, through
+     *         this actor or any other mapping
+     */
+    List<Long> getExpectedActivityIdsOfUser(long userId, long actorId) throws SBonitaReadException;
+
+    List<Long> getUserIdsOfActivity(long activityId) throws SBonitaReadException;
+
+    List<Long> getExpectedUserIdsOfActivity(long activityId) throws SBonitaReadException;
+
+    /**
+     * @return the ids of the users having a membership matching an actor member on a group, a role or both. -1 is
+     *         used for the group or the role when the actor member is not defined on it.
+     */
+    List<Long> getUserIdsOfMembership(long groupId, long roleId) throws SBonitaReadException;
+
+    /**
+     * @return the ids of the users having an id greater than lastUserId, in ascending order
+     */
+    List<Long> getUserIds(long lastUserId, int maxResults) throws SBonitaReadException;
+
+    long getNumberOfEntries() throws SBonitaReadException;
+
+    long getNumberOfPendingActivityMappings() throws SBonitaReadException;
+
+    void addEntries(long userId, Collection<Long> activityIds) throws SActivityModificationException;
+
+    void addEntries(Collection<Long> userIds, long activityId) throws SActivityModificationException;
+
+    void deleteEntries(long userId, Collection<Long> activityIds) throws SActivityModificationException;
+
+    void deleteEntries(Collection<Long> userIds, long activityId) throws SActivityModificationException;
+
+    void deleteEntriesOfActivity(long activityId) throws SActivityModificationException;
+
+    void deleteAllEntries() throws SActivityModificationException;
+
+}
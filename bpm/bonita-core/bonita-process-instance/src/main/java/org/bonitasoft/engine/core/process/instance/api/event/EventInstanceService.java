@@ -13,6 +13,7 @@
  **/
 package org.bonitasoft.engine.core.process.instance.api.event;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -124,6 +125,19 @@ public interface EventInstanceService {
     List<SMessageEventCouple> getMessageEventCouples(int fromIndex, int maxResults)
             throws SEventTriggerInstanceReadException;
 
+    /**
+     * Get the potential message/event couples of messages having one of the given matching keys, a matching key being
+     * the message name and the first correlation of the message, separated by a <code>|</code>
+     */
+    List<SMessageEventCouple> getMessageEventCouples(Collection<String> matchingKeys, int fromIndex, int maxResults)
+            throws SEventTriggerInstanceReadException;
+
+    /**
+     * Get the distinct matching keys of messages not yet handled
+     */
+    List<String> getUnhandledMessageMatchingKeys(int fromIndex, int maxResults)
+            throws SMessageInstanceReadException;
+
     SWaitingMessageEvent getWaitingMessage(long waitingMessageId) throws SWaitingEventReadException;
 
     SMessageInstance getMessageInstance(long messageInstanceId) throws SMessageInstanceReadException;
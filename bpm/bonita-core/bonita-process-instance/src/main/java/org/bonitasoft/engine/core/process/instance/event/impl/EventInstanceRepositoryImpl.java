@@ -55,6 +55,8 @@ public class EventInstanceRepositoryImpl implements EventInstanceRepository {
 
     private static final String QUERY_RESET_PROGRESS_MESSAGE_INSTANCES = "resetProgressMessageInstances";
 
+    private static final String MATCHING_KEY_SEPARATOR = "|";
+
     private final EventService eventService;
 
     private final Recorder recorder;
@@ -247,6 +249,48 @@ public class EventInstanceRepositoryImpl implements EventInstanceRepository {
         }
     }
 
+    @Override
+    public List<SMessageEventCouple> getMessageEventCouples(final Collection<String> matchingKeys,
+            final int fromIndex, final int maxResults) throws SEventTriggerInstanceReadException {
+        // one query per message name, filtering directly the indexed message name and first correlation columns
+        final Map<String, List<String>> correlations1ByMessageName = new LinkedHashMap<>();
+        for (final String matchingKey : matchingKeys) {
+            // the separator may also appear in the message name or the correlation: every split is a candidate
+            int separator = matchingKey.indexOf(MATCHING_KEY_SEPARATOR);
+            while (separator >= 0) {
+                correlations1ByMessageName.computeIfAbsent(matchingKey.substring(0, separator),
+                        k -> new ArrayList<>()).add(matchingKey.substring(separator + 1));
+                separator = matchingKey.indexOf(MATCHING_KEY_SEPARATOR, separator + 1);
+            }
+        }
+        final int maxCouples = fromIndex + maxResults;
+        final List<SMessageEventCouple> couples = new ArrayList<>();
+        try {
+            for (final Map.Entry<String, List<String>> entry : correlations1ByMessageName.entrySet()) {
+                if (couples.size() >= maxCouples) {
+                    break;
+                }
+                couples.addAll(persistenceService.selectList(SelectDescriptorBuilder.getMessageEventCouples(
+                        entry.getKey(), entry.getValue(), 0, maxCouples - couples.size())));
+            }
+        } catch (final SBonitaReadException e) {
+            throw new SEventTriggerInstanceReadException(e);
+        }
+        return fromIndex < couples.size() ? couples.subList(fromIndex, couples.size()) : Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getUnhandledMessageMatchingKeys(final int fromIndex, final int maxResults)
+            throws SMessageInstanceReadException {
+        final SelectListDescriptor<String> selectDescriptor = SelectDescriptorBuilder
+                .getUnhandledMessageMatchingKeys(fromIndex, maxResults);
+        try {
+            return persistenceService.selectList(selectDescriptor);
+        } catch (final SBonitaReadException e) {
+            throw new SMessageInstanceReadException(e);
+        }
+    }
+
     @Override
     public SMessageInstance getMessageInstance(final long messageInstanceId) throws SMessageInstanceReadException {
         try {
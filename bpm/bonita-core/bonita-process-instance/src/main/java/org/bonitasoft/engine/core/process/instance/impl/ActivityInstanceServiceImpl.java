@@ -92,6 +92,8 @@ public class ActivityInstanceServiceImpl extends FlowNodeInstancesServiceImpl im
 
     private static final String PENDING_FOR_USER = "PendingForUser";
 
+    private static final String PENDING_FOR_USER_FROM_INBOX = "PendingForUserFromInbox";
+
     private static final String PENDING_OR_ASSIGNED = "PendingOrAssigned";
 
     private static final String PENDING_OR_ASSIGNED_OR_ASSIGNED_TO_OTHERS = "PendingOrAssignedOrAssignedToOthers";
@@ -110,6 +112,8 @@ public class ActivityInstanceServiceImpl extends FlowNodeInstancesServiceImpl im
 
     private final SMultiInstanceActivityInstanceBuilderFactory sMultiInstanceActivityInstanceBuilder;
 
+    private boolean pendingTaskInboxEnabled;
+
     public ActivityInstanceServiceImpl(final Recorder recorder, final PersistenceService persistenceService,
             final ArchiveService archiveService) {
         super(recorder, persistenceService, archiveService);
@@ -117,6 +121,18 @@ public class ActivityInstanceServiceImpl extends FlowNodeInstancesServiceImpl im
         sMultiInstanceActivityInstanceBuilder = BuilderFactory.get(SMultiInstanceActivityInstanceBuilderFactory.class);
     }
 
+    /**
+     * When enabled, pending tasks of a user are read from the pending task inbox, kept up to date by the engine,
+     * instead of resolving the pending mappings against the actor members and memberships on each search.
+     */
+    public void setPendingTaskInboxEnabled(final boolean pendingTaskInboxEnabled) {
+        this.pendingTaskInboxEnabled = pendingTaskInboxEnabled;
+    }
+
+    private String pendingForUserSuffix() {
+        return pendingTaskInboxEnabled ? PENDING_FOR_USER_FROM_INBOX : PENDING_FOR_USER;
+    }
+
     @Override
     public void createActivityInstance(final SActivityInstance activityInstance) throws SActivityCreationException {
         try {
@@ -795,15 +811,15 @@ public class ActivityInstanceServiceImpl extends FlowNodeInstancesServiceImpl im
     public long getNumberOfPendingTasksForUser(final long userId, final QueryOptions searchOptions)
             throws SBonitaReadException {
         final Map<String, Object> parameters = Collections.singletonMap("userId", userId);
-        return getPersistenceService().getNumberOfEntities(SHumanTaskInstance.class, PENDING_FOR_USER, searchOptions,
-                parameters);
+        return getPersistenceService().getNumberOfEntities(SHumanTaskInstance.class, pendingForUserSuffix(),
+                searchOptions, parameters);
     }
 
     @Override
     public List<SHumanTaskInstance> searchPendingTasksForUser(final long userId, final QueryOptions searchOptions)
             throws SBonitaReadException {
         final Map<String, Object> parameters = Collections.singletonMap("userId", userId);
-        return getPersistenceService().searchEntity(SHumanTaskInstance.class, PENDING_FOR_USER, searchOptions,
+        return getPersistenceService().searchEntity(SHumanTaskInstance.class, pendingForUserSuffix(), searchOptions,
                 parameters);
     }
 
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.ListUtils;
+import org.bonitasoft.engine.core.process.instance.api.PendingTaskInboxRepository;
+import org.bonitasoft.engine.core.process.instance.api.exceptions.SActivityModificationException;
+import org.bonitasoft.engine.core.process.instance.model.SPendingTaskInboxEntry;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.persistence.SelectListDescriptor;
+import org.bonitasoft.engine.persistence.SelectOneDescriptor;
+import org.bonitasoft.engine.services.PersistenceService;
+import org.bonitasoft.engine.services.SPersistenceException;
+
+/**
+ * Entries of the pending task inbox are written directly through the persistence service: the inbox is a projection
+ * maintained from the events of the other services, it does not fire events itself.
+ */
+public class PendingTaskInboxRepositoryImpl implements PendingTaskInboxRepository {
+
+    private final PersistenceService persistenceService;
+
+    public PendingTaskInboxRepositoryImpl(final PersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    @Override
+    public List<Long> getActivityIdsOfUser(final long userId) throws SBonitaReadException {
+        return selectIds("getPendingTaskInboxActivityIdsOfUser", userParameters(userId));
+    }
+
+    @Override
+    public List<Long> getExpectedActivityIdsOfUser(final long userId) throws SBonitaReadException {
+        return selectIds("getPendingTaskInboxExpectedActivityIdsOfUser", userParameters(userId));
+    }
+
+    @Override
+    public List<Long> getActivityIdsOfUser(final long userId, final long actorId) throws SBonitaReadException {
+        return selectIds("getPendingTaskInboxActivityIdsOfUserForActor", userAndActorParameters(userId, actorId));
+    }
+
+    @Override
+    public List<Long> getExpectedActivityIdsOfUser(final long userId, final long actorId)
+            throws SBonitaReadException {
+        return selectIds("getPendingTaskInboxExpectedActivityIdsOfUserForActor",
+                userAndActorParameters(userId, actorId));
+    }
+
+    @Override
+    public List<Long> getUserIdsOfActivity(final long activityId) throws SBonitaReadException {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("activityId", activityId);
+        return selectIds("getPendingTaskInboxUserIdsOfActivity", parameters);
+    }
+
+    @Override
+    public List<Long> getExpectedUserIdsOfActivity(final long activityId) throws SBonitaReadException {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("humanTaskInstanceId", activityId);
+        return selectIds("getPossibleUserIdsOfPendingTasks", parameters);
+    }
+
+    @Override
+    public List<Long> getUserIdsOfMembership(final long groupId, final long roleId) throws SBonitaReadException {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("groupId", groupId);
+        parameters.put("roleId", roleId);
+        return selectIds("getPendingTaskInboxUserIdsOfMembership", parameters);
+    }
+
+    @Override
+    public List<Long> getUserIds(final long lastUserId, final int maxResults) throws SBonitaReadException {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("lastUserId", lastUserId);
+        return persistenceService.selectList(new SelectListDescriptor<>("getPendingTaskInboxUserIds", parameters,
+                SPendingTaskInboxEntry.class, Long.class, new QueryOptions(0, maxResults)));
+    }
+
+    @Override
+    public long getNumberOfEntries() throws SBonitaReadException {
+        return count("getNumberOfPendingTaskInboxEntries");
+    }
+
+    @Override
+    public long getNumberOfPendingActivityMappings() throws SBonitaReadException {
+        return count("getNumberOfPendingActivityMappings");
+    }
+
+    @Override
+    public void addEntries(final long userId, final Collection<Long> activityIds)
+            throws SActivityModificationException {
+        final List<SPendingTaskInboxEntry> entries = new ArrayList<>(activityIds.size());
+        for (final Long activityId : activityIds) {
+            entries.add(SPendingTaskInboxEntry.builder().userId(userId).activityId(activityId).build());
+        }
+        insert(entries);
+    }
+
+    @Override
+    public void addEntries(final Collection<Long> userIds, final long activityId)
+            throws SActivityModificationException {
+        final List<SPendingTaskInboxEntry> entries = new ArrayList<>(userIds.size());
+        for (final Long userId : userIds) {
+            entries.add(SPendingTaskInboxEntry.builder().userId(userId).activityId(activityId).build());
+        }
+        insert(entries);
+    }
+
+    @Override
+    public void deleteEntries(final long userId, final Collection<Long> activityIds)
+            throws SActivityModificationException {
+        for (final List<Long> fragment : ListUtils.partition(new ArrayList<>(activityIds), IN_REQUEST_SIZE)) {
+            final Map<String, Object> parameters = userParameters(userId);
+            parameters.put("activityIds", fragment);
+            update("deletePendingTaskInboxEntriesOfUserForActivities", parameters);
+        }
+    }
+
+    @Override
+    public void deleteEntries(final Collection<Long> userIds, final long activityId)
+            throws SActivityModificationException {
+        for (final List<Long> fragment : ListUtils.partition(new ArrayList<>(userIds), IN_REQUEST_SIZE)) {
+            final Map<String, Object> parameters = new HashMap<>();
+            parameters.put("activityId", activityId);
+            parameters.put("userIds", fragment);
+            update("deletePendingTaskInboxEntriesOfActivityForUsers", parameters);
+        }
+    }
+
+    @Override
+    public void deleteEntriesOfActivity(final long activityId) throws SActivityModificationException {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("activityId", activityId);
+        update("deletePendingTaskInboxEntriesOfActivity", parameters);
+    }
+
+    @Override
+    public void deleteAllEntries() throws SActivityModificationException {
+        try {
+            persistenceService.deleteAll(SPendingTaskInboxEntry.class);
+        } catch (final SPersistenceException e) {
+            throw new SActivityModificationException("Unable to delete the entries of the pending task inbox", e);
+        }
+    }
+
+    private List<Long> selectIds(final String queryName, final Map<String, Object> parameters)
+            throws SBonitaReadException {
+        return persistenceService.selectList(new SelectListDescriptor<>(queryName, parameters,
+                SPendingTaskInboxEntry.class, Long.class,
+                new QueryOptions(0, QueryOptions.UNLIMITED_NUMBER_OF_RESULTS)));
+    }
+
+    private long count(final String queryName) throws SBonitaReadException {
+        return persistenceService.selectOne(new SelectOneDescriptor<>(queryName, new HashMap<>(),
+                SPendingTaskInboxEntry.class, Long.class));
+    }
+
+    private void insert(final List<SPendingTaskInboxEntry> entries) throws SActivityModificationException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            persistenceService.insertInBatch(entries);
+        } catch (final SPersistenceException e) {
+            throw new SActivityModificationException("Unable to add entries to the pending task inbox", e);
+        }
+    }
+
+    private void update(final String queryName, final Map<String, Object> parameters)
+            throws SActivityModificationException {
+        try {
+            persistenceService.update(queryName, parameters);
+        } catch (final SPersistenceException e) {
+            throw new SActivityModificationException("Unable to delete entries of the pending task inbox", e);
+        }
+    }
+
+    private static Map<String, Object> userParameters(final long userId) {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("userId", userId);
+        return parameters;
+    }
+
+    private static Map<String, Object> userAndActorParameters(final long userId, final long actorId) {
+        final Map<String, Object> parameters = userParameters(userId);
+        parameters.put("actorId", actorId);
+        return parameters;
+    }
+
+}
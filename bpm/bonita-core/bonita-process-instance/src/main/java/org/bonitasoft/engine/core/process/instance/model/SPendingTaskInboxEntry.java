@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.PersistentObjectId;
+
+/**
+ * Entry of the pending task inbox: the human task with id {@code activityId} is pending for the user {@code userId}.
+ * <p>
+ * The inbox is a projection of the {@link SPendingActivityMapping}s resolved against the actor members and the
+ * memberships of the users. It is maintained by the engine and never written by the API. Whether the task is still
+ * pending (not assigned, not executing, not terminal) is checked when reading. Two transactions can add the same entry
+ * concurrently: duplicates are ignored by the queries and removed when the inbox is checked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "pending_task_inbox")
+@IdClass(PersistentObjectId.class)
+public class SPendingTaskInboxEntry implements PersistentObject {
+
+    public static final String ACTIVITY_ID = "activityId";
+    public static final String USER_ID = "userId";
+    @Id
+    private long id;
+    @Id
+    private long tenantId;
+    /**
+     * the id of the user for whom the task is pending
+     */
+    private long userId;
+    /**
+     * the id of the pending human task
+     */
+    private long activityId;
+
+}
@@ -13,6 +13,7 @@
  **/
 package org.bonitasoft.engine.core.process.instance.recorder;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -244,6 +245,24 @@ public class SelectDescriptorBuilder {
                 queryOptions);
     }
 
+    public static SelectListDescriptor<SMessageEventCouple> getMessageEventCouples(final String messageName,
+            final Collection<String> correlations1, final int fromIndex, final int maxResults) {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("messageName", messageName);
+        parameters.put("correlations1", correlations1);
+        final QueryOptions queryOptions = new QueryOptions(fromIndex, maxResults);
+        return new SelectListDescriptor<>("getMessageEventCouplesByMatchingKeys", parameters,
+                SMessageEventCouple.class, queryOptions);
+    }
+
+    public static SelectListDescriptor<String> getUnhandledMessageMatchingKeys(final int fromIndex,
+            final int maxResults) {
+        final Map<String, Object> parameters = Collections.emptyMap();
+        final QueryOptions queryOptions = new QueryOptions(fromIndex, maxResults);
+        return new SelectListDescriptor<>("getUnhandledMessageMatchingKeys", parameters, SMessageInstance.class,
+                String.class, queryOptions);
+    }
+
     public static SelectOneDescriptor<SAActivityInstance> getArchivedActivityInstanceWithActivityIdAndStateId(
             final long activityInstanceId,
             final int stateId) {
@@ -186,6 +186,22 @@ public class EventInstanceRepositoryImplForMessageTest {
         assertTrue("The result must be empty.", result.isEmpty());
     }
 
+    @Test
+    public final void getMessageEventCouples_should_query_couples_of_matching_keys_by_message_name()
+            throws Exception {
+        final SMessageEventCouple couple1 = new SMessageEventCouple(10L, null, 1L);
+        final SMessageEventCouple couple2 = new SMessageEventCouple(20L, null, 2L);
+        doReturn(Collections.singletonList(couple1)).when(persistenceService).selectList(
+                SelectDescriptorBuilder.getMessageEventCouples("msg1", Arrays.asList("NONE", "key-$-1"), 0, 100));
+        doReturn(Collections.singletonList(couple2)).when(persistenceService).selectList(
+                SelectDescriptorBuilder.getMessageEventCouples("msg2", Collections.singletonList("NONE"), 0, 99));
+
+        final List<SMessageEventCouple> result = eventInstanceRepository
+                .getMessageEventCouples(Arrays.asList("msg1|NONE", "msg2|NONE", "msg1|key-$-1"), 0, 100);
+
+        assertEquals(Arrays.asList(couple1, couple2), result);
+    }
+
     @Test(expected = SEventTriggerInstanceReadException.class)
     public final void getMessageEventCouples_should_throw_exception_when_there_is_error() throws Exception {
         // Given
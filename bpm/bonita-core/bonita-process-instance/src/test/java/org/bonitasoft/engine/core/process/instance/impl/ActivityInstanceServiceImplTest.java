@@ -98,6 +98,33 @@ public class ActivityInstanceServiceImplTest {
         assertEquals(Collections.emptyList(), userIds);
     }
 
+    @Test
+    public void searchPendingTasksForUser_should_resolve_pending_mappings_when_inbox_is_disabled() throws Exception {
+        final QueryOptions queryOptions = new QueryOptions(0, 10);
+
+        activityInstanceServiceImpl.searchPendingTasksForUser(5L, queryOptions);
+        activityInstanceServiceImpl.getNumberOfPendingTasksForUser(5L, queryOptions);
+
+        verify(persistenceService).searchEntity(SHumanTaskInstance.class, "PendingForUser", queryOptions,
+                Collections.singletonMap("userId", 5L));
+        verify(persistenceService).getNumberOfEntities(SHumanTaskInstance.class, "PendingForUser", queryOptions,
+                Collections.singletonMap("userId", 5L));
+    }
+
+    @Test
+    public void searchPendingTasksForUser_should_read_the_inbox_when_enabled() throws Exception {
+        final QueryOptions queryOptions = new QueryOptions(0, 10);
+        activityInstanceServiceImpl.setPendingTaskInboxEnabled(true);
+
+        activityInstanceServiceImpl.searchPendingTasksForUser(5L, queryOptions);
+        activityInstanceServiceImpl.getNumberOfPendingTasksForUser(5L, queryOptions);
+
+        verify(persistenceService).searchEntity(SHumanTaskInstance.class, "PendingForUserFromInbox", queryOptions,
+                Collections.singletonMap("userId", 5L));
+        verify(persistenceService).getNumberOfEntities(SHumanTaskInstance.class, "PendingForUserFromInbox",
+                queryOptions, Collections.singletonMap("userId", 5L));
+    }
+
     @Test
     public void updateDisplayName_should_truncate_when_display_name_is_bigger_than_75_characters() throws Exception {
         // given
@@ -62,7 +62,18 @@ public class APIArchivedCase extends ConsoleAPI<ArchivedCaseItem>
     public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
+        checkFilters(filters);
+        return getArchivedCaseDatastore().search(page, resultsByPage, search, orders, filters);
+    }
+
+    @Override
+    public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final String continuationToken) {
+        checkFilters(filters);
+        return getArchivedCaseDatastore().search(page, resultsByPage, search, orders, filters, continuationToken);
+    }
 
+    private void checkFilters(final Map<String, String> filters) {
         // Check that team manager and supervisor filters are not used together
         if (filters.containsKey(ArchivedCaseItem.FILTER_TEAM_MANAGER_ID)
                 && filters.containsKey(ArchivedCaseItem.FILTER_SUPERVISOR_ID)) {
@@ -70,8 +81,6 @@ public class APIArchivedCase extends ConsoleAPI<ArchivedCaseItem>
                     "Can't set those filters at the same time : " + ArchivedCaseItem.FILTER_TEAM_MANAGER_ID + " and "
                             + ArchivedCaseItem.FILTER_SUPERVISOR_ID);
         }
-
-        return getArchivedCaseDatastore().search(page, resultsByPage, search, orders, filters);
     }
 
     @Override
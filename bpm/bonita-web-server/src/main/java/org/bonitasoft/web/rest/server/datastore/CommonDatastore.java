@@ -22,6 +22,7 @@ import org.bonitasoft.engine.search.SearchOptionsBuilder;
 import org.bonitasoft.engine.search.SearchResult;
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
+import org.bonitasoft.web.rest.server.framework.search.ContinuationToken;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.toolkit.client.data.item.IItem;
 
@@ -100,6 +101,16 @@ public abstract class CommonDatastore<C extends IItem, E extends Serializable> e
                 convertEngineToConsoleItemsList(engineSearchResults.getResult()));
     }
 
+    protected ItemSearchResult<C> convertEngineToConsoleSearch(final ContinuationToken continuationToken,
+            final int resultsByPage, final SearchResult<E> engineSearchResults) {
+        return new ItemSearchResult<>(
+                continuationToken.getPage(),
+                resultsByPage,
+                engineSearchResults.getCount(),
+                convertEngineToConsoleItemsList(engineSearchResults.getResult()),
+                ContinuationToken.next(continuationToken.getPage(), resultsByPage, engineSearchResults));
+    }
+
     protected List<C> convertEngineToConsoleItemsList(final List<E> engineSearchResults) {
 
         final List<C> consoleSearchResults = new ArrayList<>();
@@ -31,9 +31,10 @@ import org.bonitasoft.web.rest.model.bpm.cases.ArchivedCaseDefinition;
 import org.bonitasoft.web.rest.model.bpm.cases.ArchivedCaseItem;
 import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
 import org.bonitasoft.web.rest.server.datastore.CommonDatastore;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasContinuationSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
-import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
+import org.bonitasoft.web.rest.server.framework.search.ContinuationToken;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.rest.server.framework.utils.SearchOptionsBuilderUtil;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
@@ -46,7 +47,7 @@ import org.bonitasoft.web.toolkit.client.data.APIID;
  */
 public class ArchivedCaseDatastore extends CommonDatastore<ArchivedCaseItem, ArchivedProcessInstance>
         implements DatastoreHasGet<ArchivedCaseItem>,
-        DatastoreHasSearch<ArchivedCaseItem>, DatastoreHasDelete {
+        DatastoreHasContinuationSearch<ArchivedCaseItem>, DatastoreHasDelete {
 
     public ArchivedCaseDatastore(final APISession engineSession) {
         super(engineSession);
@@ -99,6 +100,15 @@ public class ArchivedCaseDatastore extends CommonDatastore<ArchivedCaseItem, Arc
                 convertEngineToConsoleItemsList(searchResult.getResult()));
     }
 
+    @Override
+    public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final String continuationToken) {
+        final ContinuationToken token = ContinuationToken.parse(continuationToken, page);
+        final SearchOptionsBuilder builder = token
+                .applyTo(buildSearchOptions(token.getPage(), resultsByPage, search, orders, filters));
+        return convertEngineToConsoleSearch(token, resultsByPage, runSearch(filters, builder));
+    }
+
     protected SearchOptionsBuilder buildSearchOptions(final int page, final int resultsByPage, final String search,
             final String orders, final Map<String, String> filters) {
         // Build search
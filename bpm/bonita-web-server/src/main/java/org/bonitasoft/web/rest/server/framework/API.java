@@ -23,6 +23,7 @@ import javax.servlet.http.HttpSession;
 
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasAdd;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasContinuationSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
@@ -192,6 +193,16 @@ public abstract class API<ITEM extends IItem> {
     public ItemSearchResult<ITEM> runSearch(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters, final List<String> deploys, final List<String> counters) {
+        return runSearch(page, resultsByPage, search, orders, filters, deploys, counters, null);
+    }
+
+    /**
+     * @param continuationToken
+     *        when not null, the total count is not computed and the result holds the token of the next page
+     */
+    public ItemSearchResult<ITEM> runSearch(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final List<String> deploys,
+            final List<String> counters, final String continuationToken) {
 
         // FIXME Activate at end of APIs refactoring
         // if (!(this instanceof APIHasSearch)) {
@@ -211,8 +222,10 @@ public abstract class API<ITEM extends IItem> {
             }
         }
 
-        final ItemSearchResult<ITEM> searchResult = search(page, resultsByPage, search, realOrders,
-                filters != null ? filters : new HashMap<>());
+        final ItemSearchResult<ITEM> searchResult = continuationToken == null
+                ? search(page, resultsByPage, search, realOrders, filters != null ? filters : new HashMap<>())
+                : search(page, resultsByPage, search, realOrders, filters != null ? filters : new HashMap<>(),
+                        continuationToken);
 
         for (final ITEM item : searchResult.getResults()) {
             fillDeploys(item, deploys != null ? deploys : new ArrayList<>());
@@ -235,6 +248,20 @@ public abstract class API<ITEM extends IItem> {
         return ((DatastoreHasSearch<ITEM>) datastore).search(page, resultsByPage, search, orders, filters);
     }
 
+    @SuppressWarnings("unchecked")
+    public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final String continuationToken) {
+
+        final Datastore datastore = getDefaultDatastore();
+
+        if (!(datastore instanceof DatastoreHasContinuationSearch<?>)) {
+            throw new APIMethodNotAllowedException("SEARCH with a continuation token not allowed.");
+        }
+
+        return ((DatastoreHasContinuationSearch<ITEM>) datastore).search(page, resultsByPage, search, orders, filters,
+                continuationToken);
+    }
+
     /**
      * Define the default search order.
      */
@@ -63,6 +63,10 @@ public class APIServletCall extends ServletCall {
 
     public static final String PARAMETER_QUERY = "q";
 
+    public static final String PARAMETER_CONTINUATION_TOKEN = "t";
+
+    public static final String HEADER_CONTINUATION_TOKEN = "X-Bonita-Continuation-Token";
+
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // REQUEST PARSING
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -180,11 +184,22 @@ public class APIServletCall extends ServletCall {
             }
             // Search
             else {
-                final ItemSearchResult<?> result = api.runSearch(Integer.parseInt(getParameter(PARAMETER_PAGE, "0")),
-                        Integer.parseInt(getParameter(PARAMETER_LIMIT, "10")), getParameter(PARAMETER_SEARCH),
-                        getParameter(PARAMETER_ORDER), parseFilters(getParameterAsList(PARAMETER_FILTER)),
-                        getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER));
+                final int page = Integer.parseInt(getParameter(PARAMETER_PAGE, "0"));
+                final int resultsByPage = Integer.parseInt(getParameter(PARAMETER_LIMIT, "10"));
+                final String search = getParameter(PARAMETER_SEARCH);
+                final String orders = getParameter(PARAMETER_ORDER);
+                final Map<String, String> filters = parseFilters(getParameterAsList(PARAMETER_FILTER));
+                final List<String> deploys = getParameterAsList(PARAMETER_DEPLOY);
+                final List<String> counters = getParameterAsList(PARAMETER_COUNTER);
+                final String continuationToken = getParameter(PARAMETER_CONTINUATION_TOKEN);
+                final ItemSearchResult<?> result = continuationToken == null
+                        ? api.runSearch(page, resultsByPage, search, orders, filters, deploys, counters)
+                        : api.runSearch(page, resultsByPage, search, orders, filters, deploys, counters,
+                                continuationToken);
                 head("Content-Range", result.getPage() + "-" + result.getLength() + "/" + result.getTotal());
+                if (result.getContinuationToken() != null) {
+                    head(HEADER_CONTINUATION_TOKEN, result.getContinuationToken());
+                }
 
                 output(result.getResults());
             }
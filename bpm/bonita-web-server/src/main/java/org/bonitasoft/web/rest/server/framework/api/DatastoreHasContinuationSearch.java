@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.web.rest.server.framework.api;
+
+import java.util.Map;
+
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * A datastore able to page its search results with a continuation token instead of a total count
+ */
+public interface DatastoreHasContinuationSearch<C extends IItem> extends DatastoreHasSearch<C> {
+
+    /**
+     * @param continuationToken
+     *        the token returned with the previous page, or an empty one to start from the given page
+     * @return the results, with the token of the next page, if any
+     * @see org.bonitasoft.web.rest.server.framework.search.ContinuationToken
+     */
+    ItemSearchResult<C> search(final int page, final int resultsByPage, final String search, final String orders,
+            final Map<String, String> filters, final String continuationToken);
+
+}
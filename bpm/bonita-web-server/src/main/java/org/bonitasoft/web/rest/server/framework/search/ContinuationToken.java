@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.web.rest.server.framework.search;
+
+import java.io.Serializable;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.bonitasoft.engine.search.SearchOptionsBuilder;
+import org.bonitasoft.engine.search.SearchResult;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+
+/**
+ * Opaque token given to the client to get the next page of a search without counting all results, nor skipping the
+ * results of the previous pages when the sort values of the last result can be used to search after them.
+ * The token holds the next page index, followed by these typed sort values, if any.
+ */
+public class ContinuationToken {
+
+    private static final String SEPARATOR = ",";
+
+    private final int page;
+
+    private final List<Serializable> searchAfter;
+
+    ContinuationToken(final int page, final List<Serializable> searchAfter) {
+        this.page = page;
+        this.searchAfter = searchAfter;
+    }
+
+    /**
+     * @param token
+     *        the token sent by the client, an empty one starts from the given page
+     * @param page
+     *        the page requested by the client
+     */
+    public static ContinuationToken parse(final String token, final int page) {
+        if (token == null || token.isEmpty()) {
+            return new ContinuationToken(page, null);
+        }
+        try {
+            final String[] values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR);
+            final List<Serializable> searchAfter = new ArrayList<>(values.length - 1);
+            for (int i = 1; i < values.length; i++) {
+                searchAfter.add(decode(values[i]));
+            }
+            return new ContinuationToken(Integer.parseInt(values[0]), searchAfter.isEmpty() ? null : searchAfter);
+        } catch (final IllegalArgumentException e) {
+            throw new APIException("Invalid continuation token: " + token);
+        }
+    }
+
+    /**
+     * @return the token of the page following the given search result, or null when it was the last one
+     */
+    public static String next(final int page, final int resultsByPage, final SearchResult<?> searchResult) {
+        if (searchResult.getCount() <= (long) page * resultsByPage + searchResult.getResult().size()) {
+            return null;
+        }
+        final List<Serializable> searchAfter = searchResult.getNextSearchAfter();
+        final boolean encodable = searchAfter != null && searchAfter.stream().allMatch(ContinuationToken::isEncodable);
+        return new ContinuationToken(page + 1, encodable ? searchAfter : null).format();
+    }
+
+    /**
+     * Skip the count of the search and, when the token holds sort values, search after them
+     */
+    public SearchOptionsBuilder applyTo(final SearchOptionsBuilder builder) {
+        builder.skipCount();
+        if (searchAfter != null) {
+            builder.searchAfter(searchAfter);
+        }
+        return builder;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public List<Serializable> getSearchAfter() {
+        return searchAfter;
+    }
+
+    String format() {
+        final StringBuilder token = new StringBuilder().append(page);
+        if (searchAfter != null) {
+            for (final Serializable value : searchAfter) {
+                token.append(SEPARATOR).append(encode(value));
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isEncodable(final Serializable value) {
+        return value instanceof String || value instanceof Long || value instanceof Integer
+                || value instanceof Boolean || value instanceof Double;
+    }
+
+    private static String encode(final Serializable value) {
+        final String type;
+        if (value instanceof String) {
+            type = "s";
+        } else if (value instanceof Long) {
+            type = "l";
+        } else if (value instanceof Integer) {
+            type = "i";
+        } else if (value instanceof Boolean) {
+            type = "b";
+        } else {
+            type = "d";
+        }
+        return type + ":" + URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+
+    private static Serializable decode(final String value) {
+        if (value.length() < 2 || value.charAt(1) != ':') {
+            throw new IllegalArgumentException("Malformed value " + value);
+        }
+        final String decoded = URLDecoder.decode(value.substring(2), StandardCharsets.UTF_8);
+        switch (value.charAt(0)) {
+            case 's':
+                return decoded;
+            case 'l':
+                return Long.valueOf(decoded);
+            case 'i':
+                return Integer.valueOf(decoded);
+            case 'b':
+                return Boolean.valueOf(decoded);
+            case 'd':
+                return Double.valueOf(decoded);
+            default:
+                throw new IllegalArgumentException("Unknown type of value " + value);
+        }
+    }
+}
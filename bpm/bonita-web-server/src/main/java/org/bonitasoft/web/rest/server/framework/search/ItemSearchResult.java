@@ -31,11 +31,19 @@ public class ItemSearchResult<T extends IItem> {
 
     private final List<T> results;
 
+    private final String continuationToken;
+
     public ItemSearchResult(final int page, final int length, final long total, final List<T> results) {
+        this(page, length, total, results, null);
+    }
+
+    public ItemSearchResult(final int page, final int length, final long total, final List<T> results,
+            final String continuationToken) {
         this.page = page;
         this.length = length;
         this.total = total;
         this.results = results;
+        this.continuationToken = continuationToken;
 
         if (page < 0 || page > total) {
             throw new APISearchIndexOutOfRange(page);
@@ -70,4 +78,11 @@ public class ItemSearchResult<T extends IItem> {
         return this.results;
     }
 
+    /**
+     * @return the token to get the next page, or null when there is no next page or the search was not asked for one
+     */
+    public String getContinuationToken() {
+        return this.continuationToken;
+    }
+
 }
@@ -20,6 +20,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -33,14 +34,19 @@ import org.bonitasoft.engine.exception.BonitaHomeNotSetException;
 import org.bonitasoft.engine.exception.DeletionException;
 import org.bonitasoft.engine.exception.ServerAPIException;
 import org.bonitasoft.engine.exception.UnknownAPITypeException;
+import org.bonitasoft.engine.search.SearchOptionsBuilder;
 import org.bonitasoft.engine.search.SearchResult;
+import org.bonitasoft.engine.search.impl.SearchResultImpl;
 import org.bonitasoft.web.rest.model.bpm.cases.ArchivedCaseItem;
 import org.bonitasoft.web.rest.server.APITestWithMock;
+import org.bonitasoft.web.rest.server.framework.search.ContinuationToken;
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -111,6 +117,25 @@ public class ArchivedCaseDatastoreTest extends APITestWithMock {
                 eq(ArchivedProcessInstancesSearchDescriptor.SOURCE_OBJECT_ID));
     }
 
+    @Test
+    public void search_with_continuation_token_should_skip_count_and_return_the_next_token() {
+        // given:
+        doReturn(new SearchResultImpl<>(21, Collections.<ArchivedProcessInstance> emptyList(),
+                Collections.<Serializable> singletonList(42L))).when(datastore).runSearch(any(), any());
+
+        // when:
+        final ItemSearchResult<ArchivedCaseItem> result = datastore.search(2, 10, null, null, emptyMap(), "");
+
+        // then:
+        final ArgumentCaptor<SearchOptionsBuilder> builder = ArgumentCaptor.forClass(SearchOptionsBuilder.class);
+        verify(datastore).runSearch(any(), builder.capture());
+        assertThat(builder.getValue().done().isCountSkipped()).isTrue();
+        assertThat(builder.getValue().done().getStartIndex()).isEqualTo(20);
+        final ContinuationToken next = ContinuationToken.parse(result.getContinuationToken(), 0);
+        assertThat(next.getPage()).isEqualTo(3);
+        assertThat(next.getSearchAfter()).containsExactly(42L);
+    }
+
     @Test
     public void should_delete_archive_case_call_right_engine_method()
             throws DeletionException, ArchivedProcessInstanceNotFoundException {
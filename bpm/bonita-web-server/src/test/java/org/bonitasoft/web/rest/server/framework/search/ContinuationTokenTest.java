@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.web.rest.server.framework.search;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.bonitasoft.engine.search.SearchOptions;
+import org.bonitasoft.engine.search.SearchOptionsBuilder;
+import org.bonitasoft.engine.search.impl.SearchResultImpl;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.junit.Test;
+
+public class ContinuationTokenTest {
+
+    @Test
+    public void should_give_the_next_page_and_the_sort_values_of_the_last_result() {
+        String token = ContinuationToken.next(2, 2,
+                new SearchResultImpl<>(7, asList("a", "b"), asList("name, with comma", 12L, 3, true)));
+
+        ContinuationToken continuationToken = ContinuationToken.parse(token, 0);
+
+        assertThat(continuationToken.getPage()).isEqualTo(3);
+        assertThat(continuationToken.getSearchAfter()).containsExactly("name, with comma", 12L, 3, true);
+    }
+
+    @Test
+    public void should_fall_back_on_the_next_page_when_sort_values_cannot_be_encoded() {
+        String token = ContinuationToken.next(0, 2,
+                new SearchResultImpl<>(3, asList("a", "b"), singletonList(new Date())));
+
+        ContinuationToken continuationToken = ContinuationToken.parse(token, 0);
+
+        assertThat(continuationToken.getPage()).isEqualTo(1);
+        assertThat(continuationToken.getSearchAfter()).isNull();
+    }
+
+    @Test
+    public void should_not_give_a_token_after_the_last_page() {
+        assertThat(ContinuationToken.next(1, 2,
+                new SearchResultImpl<>(4, asList("a", "b"), singletonList(12L)))).isNull();
+    }
+
+    @Test
+    public void should_skip_the_count_and_search_after_the_values_of_the_token() {
+        ContinuationToken continuationToken = new ContinuationToken(3, asList((Serializable) "name", 12L));
+
+        SearchOptions options = continuationToken.applyTo(new SearchOptionsBuilder(0, 10)).done();
+
+        assertThat(options.isCountSkipped()).isTrue();
+        assertThat(options.getSearchAfter()).containsExactly("name", 12L);
+    }
+
+    @Test
+    public void should_start_from_the_requested_page_when_the_token_is_empty() {
+        ContinuationToken continuationToken = ContinuationToken.parse("", 4);
+
+        assertThat(continuationToken.getPage()).isEqualTo(4);
+        assertThat(continuationToken.getSearchAfter()).isNull();
+    }
+
+    @Test
+    public void should_reject_a_malformed_token() {
+        assertThatThrownBy(() -> ContinuationToken.parse("not a token", 0)).isInstanceOf(APIException.class);
+    }
+}
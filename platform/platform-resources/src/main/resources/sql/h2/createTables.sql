@@ -131,6 +131,12 @@ CREATE TABLE process_content (
   content MEDIUMTEXT NOT NULL,
   PRIMARY KEY (tenantid, id)
 );
+CREATE TABLE process_binary_content (
+  tenantid BIGINT NOT NULL,
+  id BIGINT NOT NULL,
+  content LONGBLOB NOT NULL,
+  PRIMARY KEY (tenantid, id)
+);
 
 CREATE TABLE arch_document_mapping (
   tenantid BIGINT NOT NULL,
@@ -440,6 +446,16 @@ CREATE TABLE pending_mapping (
 );
 CREATE UNIQUE INDEX idx_UQ_pending_mapping ON pending_mapping (tenantid, activityId, userId, actorId);
 
+CREATE TABLE pending_task_inbox (
+	tenantid BIGINT NOT NULL,
+  	id BIGINT NOT NULL,
+  	userId BIGINT NOT NULL,
+  	activityId BIGINT NOT NULL,
+  	PRIMARY KEY (tenantid, id)
+);
+CREATE INDEX idx_pending_task_inbox_user ON pending_task_inbox (tenantid, userId, activityId);
+CREATE INDEX idx_pending_task_inbox_activity ON pending_task_inbox (tenantid, activityId);
+
 CREATE TABLE ref_biz_data_inst (
 	tenantid BIGINT NOT NULL,
   	id BIGINT NOT NULL,
@@ -866,6 +882,25 @@ CREATE TABLE sequence (
   nextid BIGINT NOT NULL,
   PRIMARY KEY (tenantid, id)
 );
+CREATE TABLE cluster_lock (
+  tenantid BIGINT NOT NULL,
+  objecttype VARCHAR(50) NOT NULL,
+  objectid BIGINT NOT NULL,
+  owner VARCHAR(255) NOT NULL,
+  fencingtoken BIGINT NOT NULL,
+  expirationdate BIGINT NOT NULL,
+  PRIMARY KEY (tenantid, objecttype, objectid)
+);
+CREATE TABLE cache_invalidation (
+  id BIGINT AUTO_INCREMENT NOT NULL,
+  tenantid BIGINT NOT NULL,
+  region VARCHAR(255) NOT NULL,
+  cachekey VARCHAR(255),
+  origin VARCHAR(255) NOT NULL,
+  creationdate BIGINT NOT NULL,
+  PRIMARY KEY (id)
+);
+CREATE INDEX idx_cache_invalidation ON cache_invalidation (creationdate);
 CREATE TABLE blob_ (
     tenantId BIGINT NOT NULL,
 	id BIGINT NOT NULL,
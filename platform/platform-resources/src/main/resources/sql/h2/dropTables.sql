@@ -19,6 +19,7 @@ DROP TABLE arch_ref_biz_data_inst;
 DROP TABLE multi_biz_data;
 DROP TABLE ref_biz_data_inst;
 DROP TABLE pending_mapping;
+DROP TABLE pending_task_inbox;
 DROP TABLE connector_instance;
 DROP TABLE flownode_instance;
 DROP TABLE process_instance;
@@ -55,12 +56,15 @@ DROP TABLE job_log;
 DROP TABLE job_param;
 DROP TABLE job_desc;
 DROP TABLE sequence;
+DROP TABLE cluster_lock;
+DROP TABLE cache_invalidation;
 DROP TABLE tenant;
 DROP TABLE platform;
 DROP TABLE platformCommand;
 DROP TABLE form_mapping;
 DROP TABLE page_mapping;
 DROP TABLE process_content;
+DROP TABLE process_binary_content;
 DROP TABLE proc_parameter;
 DROP TABLE bar_resource;
 DROP TABLE temporary_content;
@@ -24,6 +24,7 @@ ALTER TABLE custom_usr_inf_def DROP CONSTRAINT fk_custom_usr_inf_def_tenantId;
 ALTER TABLE custom_usr_inf_val DROP CONSTRAINT fk_custom_usr_inf_val_tenantId;
 ALTER TABLE pending_mapping DROP CONSTRAINT fk_pending_mapping_tenantId;
 ALTER TABLE pending_mapping DROP CONSTRAINT fk_pending_mapping_flownode_instanceId;
+ALTER TABLE pending_task_inbox DROP CONSTRAINT fk_pending_task_inbox_tenantId;
 ALTER TABLE processcategorymapping DROP CONSTRAINT fk_processcategorymapping_tenantId;
 ALTER TABLE process_comment DROP CONSTRAINT fk_process_comment_tenantId;
 ALTER TABLE process_definition DROP CONSTRAINT fk_process_definition_tenantId;
@@ -7,6 +7,7 @@ DELETE FROM category;
 DELETE FROM arch_process_comment;
 DELETE FROM process_comment;
 DELETE FROM process_definition;
+DELETE FROM process_binary_content;
 DELETE FROM arch_document_mapping;
 DELETE FROM document;
 DELETE FROM document_mapping;
@@ -18,6 +19,7 @@ DELETE FROM arch_ref_biz_data_inst;
 DELETE FROM multi_biz_data;
 DELETE FROM ref_biz_data_inst;
 DELETE FROM pending_mapping;
+DELETE FROM pending_task_inbox;
 DELETE FROM message_instance;
 DELETE FROM waiting_event;
 DELETE FROM event_trigger_instance;
@@ -46,6 +48,8 @@ DELETE FROM queriablelog_p;
 DELETE FROM queriable_log;
 DELETE FROM page;
 DELETE FROM sequence WHERE tenantId <> -1;
+DELETE FROM cluster_lock;
+DELETE FROM cache_invalidation;
 DELETE FROM profilemember;
 DELETE FROM profile;
 DELETE FROM job_log;
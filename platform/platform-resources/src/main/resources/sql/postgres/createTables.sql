@@ -134,6 +134,12 @@ CREATE TABLE process_content (
   content TEXT NOT NULL,
   PRIMARY KEY (tenantid, id)
 );
+CREATE TABLE process_binary_content (
+  tenantid INT8 NOT NULL,
+  id INT8 NOT NULL,
+  content BYTEA NOT NULL,
+  PRIMARY KEY (tenantid, id)
+);
 CREATE TABLE arch_document_mapping (
   tenantid INT8 NOT NULL,
   id INT8 NOT NULL,
@@ -442,6 +448,16 @@ CREATE TABLE pending_mapping (
 );
 CREATE UNIQUE INDEX idx_UQ_pending_mapping ON pending_mapping (tenantid, activityId, userId, actorId);
 
+CREATE TABLE pending_task_inbox (
+	tenantid INT8 NOT NULL,
+  	id INT8 NOT NULL,
+  	userId INT8 NOT NULL,
+  	activityId INT8 NOT NULL,
+  	PRIMARY KEY (tenantid, id)
+);
+CREATE INDEX idx_pending_task_inbox_user ON pending_task_inbox (tenantid, userId, activityId);
+CREATE INDEX idx_pending_task_inbox_activity ON pending_task_inbox (tenantid, activityId);
+
 CREATE TABLE ref_biz_data_inst (
 	tenantid INT8 NOT NULL,
   	id INT8 NOT NULL,
@@ -868,6 +884,25 @@ CREATE TABLE sequence (
   nextid INT8 NOT NULL,
   PRIMARY KEY (tenantid, id)
 );
+CREATE TABLE cluster_lock (
+  tenantid INT8 NOT NULL,
+  objecttype VARCHAR(50) NOT NULL,
+  objectid INT8 NOT NULL,
+  owner VARCHAR(255) NOT NULL,
+  fencingtoken INT8 NOT NULL,
+  expirationdate INT8 NOT NULL,
+  PRIMARY KEY (tenantid, objecttype, objectid)
+);
+CREATE TABLE cache_invalidation (
+  id BIGSERIAL NOT NULL,
+  tenantid INT8 NOT NULL,
+  region VARCHAR(255) NOT NULL,
+  cachekey VARCHAR(255),
+  origin VARCHAR(255) NOT NULL,
+  creationdate INT8 NOT NULL,
+  PRIMARY KEY (id)
+);
+CREATE INDEX idx_cache_invalidation ON cache_invalidation (creationdate);
 CREATE TABLE blob_ (
     tenantId INT8 NOT NULL,
 	id INT8 NOT NULL,
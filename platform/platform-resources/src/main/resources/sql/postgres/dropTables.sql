@@ -19,6 +19,7 @@ DROP TABLE IF EXISTS arch_ref_biz_data_inst;
 DROP TABLE IF EXISTS multi_biz_data;
 DROP TABLE IF EXISTS ref_biz_data_inst;
 DROP TABLE IF EXISTS pending_mapping;
+DROP TABLE IF EXISTS pending_task_inbox;
 DROP TABLE IF EXISTS connector_instance;
 DROP TABLE IF EXISTS flownode_instance;
 DROP TABLE IF EXISTS process_instance;
@@ -55,12 +56,15 @@ DROP TABLE IF EXISTS job_log;
 DROP TABLE IF EXISTS job_param;
 DROP TABLE IF EXISTS job_desc;
 DROP TABLE IF EXISTS sequence;
+DROP TABLE IF EXISTS cluster_lock;
+DROP TABLE IF EXISTS cache_invalidation;
 DROP TABLE IF EXISTS tenant;
 DROP TABLE IF EXISTS platform;
 DROP TABLE IF EXISTS platformCommand;
 DROP TABLE IF EXISTS form_mapping;
 DROP TABLE IF EXISTS page_mapping;
 DROP TABLE IF EXISTS process_content;
+DROP TABLE IF EXISTS process_binary_content;
 DROP TABLE IF EXISTS proc_parameter;
 DROP TABLE IF EXISTS bar_resource;
 DROP TABLE IF EXISTS temporary_content;
@@ -31,6 +31,7 @@ INSERT INTO sequence VALUES(1, 10015, 1);
 INSERT INTO sequence VALUES(1, 10016, 1);
 INSERT INTO sequence VALUES(1, 10017, 1);
 INSERT INTO sequence VALUES(1, 10018, 1);
+INSERT INTO sequence VALUES(1, 10019, 1);
 INSERT INTO sequence VALUES(1, 10020, 1);
 INSERT INTO sequence VALUES(1, 10021, 1);
 INSERT INTO sequence VALUES(1, 10030, 1);
@@ -13,8 +13,12 @@
  **/
 package org.bonitasoft.engine.archive.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import javax.transaction.Status;
+
 import org.bonitasoft.engine.archive.ArchiveInsertRecord;
 import org.bonitasoft.engine.archive.ArchiveService;
 import org.bonitasoft.engine.archive.ArchivingStrategy;
@@ -27,6 +31,7 @@ import org.bonitasoft.engine.recorder.SRecorderException;
 import org.bonitasoft.engine.recorder.model.DeleteRecord;
 import org.bonitasoft.engine.services.PersistenceService;
 import org.bonitasoft.engine.services.SPersistenceException;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
 import org.bonitasoft.engine.transaction.STransactionNotFoundException;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.slf4j.Logger;
@@ -47,12 +52,21 @@ public class ArchiveServiceImpl implements ArchiveService {
 
     private ArchivingStrategy archivingStrategy;
 
+    private final AsyncArchiveWriter asyncArchiveWriter;
+
     public ArchiveServiceImpl(final PersistenceService definitiveArchivePersistenceService,
             final ArchivingStrategy archivingStrategy, final UserTransactionService transactionService) {
+        this(definitiveArchivePersistenceService, archivingStrategy, transactionService, null);
+    }
+
+    public ArchiveServiceImpl(final PersistenceService definitiveArchivePersistenceService,
+            final ArchivingStrategy archivingStrategy, final UserTransactionService transactionService,
+            final AsyncArchiveWriter asyncArchiveWriter) {
         super();
         this.definitiveArchivePersistenceService = definitiveArchivePersistenceService;
         this.archivingStrategy = archivingStrategy;
         this.transactionService = transactionService;
+        this.asyncArchiveWriter = asyncArchiveWriter;
     }
 
     @Override
@@ -68,6 +82,10 @@ public class ArchiveServiceImpl implements ArchiveService {
         logBeforeMethod(methodName);
         if (records != null) {
             assignArchiveDate(time, records);
+            if (asyncArchiveWriter != null && asyncArchiveWriter.isEnabled() && handOverOnCommit(records)) {
+                logAfterMethod(methodName);
+                return;
+            }
             final BatchArchiveCallable callable = buildBatchArchiveCallable(records);
 
             try {
@@ -84,6 +102,36 @@ public class ArchiveServiceImpl implements ArchiveService {
         logAfterMethod(methodName);
     }
 
+    /**
+     * Give the archived objects to the asynchronous writer once the current transaction is committed
+     *
+     * @return false if the objects must be written in the current transaction
+     */
+    private boolean handOverOnCommit(final ArchiveInsertRecord... records) {
+        final List<ArchivedPersistentObject> archivedObjects = new ArrayList<>(records.length);
+        for (final ArchiveInsertRecord record : records) {
+            if (record != null) {
+                archivedObjects.add(record.getEntity());
+            }
+        }
+        if (archivedObjects.isEmpty() || !asyncArchiveWriter.reserve(archivedObjects.size())) {
+            return false;
+        }
+        try {
+            transactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) txState -> {
+                if (txState == Status.STATUS_COMMITTED) {
+                    asyncArchiveWriter.handOver(archivedObjects);
+                } else {
+                    asyncArchiveWriter.cancelReservation(archivedObjects.size());
+                }
+            });
+            return true;
+        } catch (final STransactionNotFoundException e) {
+            asyncArchiveWriter.cancelReservation(archivedObjects.size());
+            return false;
+        }
+    }
+
     // As a protected method for test purposes.
     protected BatchArchiveCallable buildBatchArchiveCallable(final ArchiveInsertRecord... records)
             throws SRecorderException {
@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.archive.impl;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.bonitasoft.engine.commons.TenantLifecycleService;
+import org.bonitasoft.engine.persistence.ArchivedPersistentObject;
+import org.bonitasoft.engine.services.PersistenceService;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Insert archived objects outside of the transactions that archived them.
+ * <p>
+ * Archived objects are handed over to this writer once the transaction that archived them is committed. A dedicated
+ * thread accumulates them and inserts them in large batches, each batch in its own transaction. The number of
+ * archived objects waiting to be written is bounded: a transaction must reserve room in the buffer before committing,
+ * when there is none it archives its objects itself, synchronously, like when this writer is disabled.
+ * <p>
+ * Objects handed over are only removed from the buffer once written: a batch that fails is split and retried, and
+ * objects still pending when the service stops are written before it returns. Objects handed over while the writer
+ * is stopped stay in the buffer: they are written when the writer is started again or when it is stopped once more.
+ * Archived objects are however kept in memory until written and are lost if the JVM crashes in between.
+ * <p>
+ * Enabled using <code>bonita.tenant.archive.async.enabled=true</code>
+ */
+@Component
+public class AsyncArchiveWriter implements TenantLifecycleService {
+
+    public static final String ARCHIVE_PENDING = "bonita.bpmengine.archive.async.pending";
+    public static final String ARCHIVE_FLUSH = "bonita.bpmengine.archive.async.flush";
+    public static final String ARCHIVE_SYNCHRONOUS_FALLBACK = "bonita.bpmengine.archive.async.fallback";
+    public static final String ARCHIVE_FAILED = "bonita.bpmengine.archive.async.failed";
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final int MAX_JDBC_BATCH_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncArchiveWriter.class);
+
+    private final PersistenceService persistenceService;
+    private final UserTransactionService transactionService;
+    private final SessionAccessor sessionAccessor;
+    private final long tenantId;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxBatchDelayNanos;
+    private final BlockingQueue<ArchivedPersistentObject> buffer = new LinkedBlockingQueue<>();
+    private final Semaphore freeSlots;
+    private final Timer flushTimer;
+    private final Counter synchronousFallbackCounter;
+    private final Counter failedCounter;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AsyncArchiveWriter(PersistenceService persistenceService, UserTransactionService transactionService,
+            SessionAccessor sessionAccessor, @Value("${tenantId}") long tenantId,
+            @Value("${bonita.tenant.archive.async.enabled:false}") boolean enabled,
+            @Value("${bonita.tenant.archive.async.bufferCapacity:50000}") int bufferCapacity,
+            @Value("${bonita.tenant.archive.async.batchSize:500}") int batchSize,
+            @Value("${bonita.tenant.archive.async.maxBatchDelay:200}") long maxBatchDelayMillis,
+            MeterRegistry meterRegistry) {
+        this.persistenceService = persistenceService;
+        this.transactionService = transactionService;
+        this.sessionAccessor = sessionAccessor;
+        this.tenantId = tenantId;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchDelayNanos = MILLISECONDS.toNanos(maxBatchDelayMillis);
+        this.freeSlots = new Semaphore(bufferCapacity);
+        Tags tags = Tags.of("tenant", String.valueOf(tenantId));
+        Gauge.builder(ARCHIVE_PENDING, buffer, BlockingQueue::size).tags(tags)
+                .baseUnit("objects").description("Archived objects waiting to be written")
+                .register(meterRegistry);
+        flushTimer = Timer.builder(ARCHIVE_FLUSH).tags(tags)
+                .description("Time taken to write a batch of archived objects")
+                .register(meterRegistry);
+        synchronousFallbackCounter = Counter.builder(ARCHIVE_SYNCHRONOUS_FALLBACK).tags(tags)
+                .baseUnit("objects").description("Archived objects written synchronously because the buffer was full")
+                .register(meterRegistry);
+        failedCounter = Counter.builder(ARCHIVE_FAILED).tags(tags)
+                .baseUnit("objects").description("Archived objects that could not be written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserve room in the buffer for the given number of archived objects. Must be followed either by a call to
+     * {@link #handOver(List)} with these objects or by a call to {@link #cancelReservation(int)}.
+     *
+     * @return false when the buffer is full or the writer is not running: objects must then be written synchronously
+     */
+    boolean reserve(int numberOfObjects) {
+        if (running && freeSlots.tryAcquire(numberOfObjects)) {
+            return true;
+        }
+        synchronousFallbackCounter.increment(numberOfObjects);
+        return false;
+    }
+
+    void cancelReservation(int numberOfObjects) {
+        freeSlots.release(numberOfObjects);
+    }
+
+    /**
+     * Give archived objects for which room was reserved to the writer. Called after the commit of the transaction that
+     * archived them, it never writes them itself, even when the writer was stopped in between.
+     */
+    void handOver(List<ArchivedPersistentObject> archivedObjects) {
+        buffer.addAll(archivedObjects);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "Bonita-Archive-Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Asynchronous archive writer started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (running) {
+            running = false;
+            try {
+                // the writer finishes the batch it is writing, remaining objects are written by this thread
+                writerThread.join(SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+            log.info("Asynchronous archive writer stopped");
+        }
+        // also writes objects handed over after a previous stop
+        flushRemaining();
+    }
+
+    @Override
+    public void pause() {
+        stop();
+    }
+
+    @Override
+    public void resume() {
+        start();
+    }
+
+    private void writeLoop() {
+        sessionAccessor.setTenantId(tenantId);
+        while (running) {
+            List<ArchivedPersistentObject> batch = new ArrayList<>(batchSize);
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * wait for a first object, then for the batch to be full, at most the maximum batch delay
+     */
+    private void fillBatch(List<ArchivedPersistentObject> batch) throws InterruptedException {
+        ArchivedPersistentObject first = buffer.poll(POLL_TIMEOUT_MILLIS, MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxBatchDelayNanos;
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            ArchivedPersistentObject next = buffer.poll(remaining, NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flushRemaining() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        sessionAccessor.setTenantId(tenantId);
+        List<ArchivedPersistentObject> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    void write(List<ArchivedPersistentObject> batch) {
+        // consecutive inserts of the same entity are grouped in a single JDBC batch
+        batch.sort(Comparator.comparing(archivedObject -> archivedObject.getClass().getName()));
+        try {
+            writeInTransaction(batch);
+        } finally {
+            freeSlots.release(batch.size());
+        }
+    }
+
+    private void writeInTransaction(List<ArchivedPersistentObject> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionService.executeInTransaction(() -> {
+                persistenceService.insertInBatch(batch, Math.min(batch.size(), MAX_JDBC_BATCH_SIZE));
+                return null;
+            });
+            flushTimer.record(System.nanoTime() - start, NANOSECONDS);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                log.error("Unable to write archived object {}", batch.get(0), e);
+                return;
+            }
+            log.warn("Unable to write a batch of {} archived objects, retrying in smaller batches: {}", batch.size(),
+                    e.getMessage());
+            // the transaction was rolled back: ids given to the objects were not used
+            int middle = batch.size() / 2;
+            writeInTransaction(new ArrayList<>(batch.subList(0, middle)));
+            writeInTransaction(new ArrayList<>(batch.subList(middle, batch.size())));
+        }
+    }
+}
@@ -17,12 +17,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.util.Collections;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
 import org.bonitasoft.engine.archive.ArchiveInsertRecord;
 import org.bonitasoft.engine.archive.ArchivingStrategy;
 import org.bonitasoft.engine.persistence.ArchivedPersistentObject;
 import org.bonitasoft.engine.services.PersistenceService;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class ArchiveServiceImplTest {
 
@@ -51,6 +57,56 @@ public class ArchiveServiceImplTest {
         verify(transactionService, times(1)).registerBeforeCommitCallable(eq(mockBatchArchiveCallable));
     }
 
+    @Test
+    public void should_recordInserts_hand_over_archived_objects_to_async_writer_on_commit() throws Exception {
+        final UserTransactionService transactionService = mock(UserTransactionService.class);
+        final AsyncArchiveWriter asyncArchiveWriter = mock(AsyncArchiveWriter.class);
+        when(asyncArchiveWriter.isEnabled()).thenReturn(true);
+        when(asyncArchiveWriter.reserve(1)).thenReturn(true);
+        ArchiveServiceImpl archiveService = new ArchiveServiceImpl(null, null, transactionService, asyncArchiveWriter);
+        final ArchivedPersistentObjectWithSetter archivedObject = mock(ArchivedPersistentObjectWithSetter.class);
+
+        archiveService.recordInserts(3L, new ArchiveInsertRecord(archivedObject));
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        verify(transactionService, never()).registerBeforeCommitCallable(any());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        verify(asyncArchiveWriter).handOver(Collections.singletonList(archivedObject));
+    }
+
+    @Test
+    public void should_recordInserts_cancel_reservation_in_async_writer_on_rollback() throws Exception {
+        final UserTransactionService transactionService = mock(UserTransactionService.class);
+        final AsyncArchiveWriter asyncArchiveWriter = mock(AsyncArchiveWriter.class);
+        when(asyncArchiveWriter.isEnabled()).thenReturn(true);
+        when(asyncArchiveWriter.reserve(1)).thenReturn(true);
+        ArchiveServiceImpl archiveService = new ArchiveServiceImpl(null, null, transactionService, asyncArchiveWriter);
+
+        archiveService.recordInserts(3L, new ArchiveInsertRecord(mock(ArchivedPersistentObjectWithSetter.class)));
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        verify(asyncArchiveWriter).cancelReservation(1);
+        verify(asyncArchiveWriter, never()).handOver(any());
+    }
+
+    @Test
+    public void should_recordInserts_register_beforeCommitCallable_when_async_writer_buffer_is_full()
+            throws Exception {
+        final UserTransactionService transactionService = mock(UserTransactionService.class);
+        final AsyncArchiveWriter asyncArchiveWriter = mock(AsyncArchiveWriter.class);
+        when(asyncArchiveWriter.isEnabled()).thenReturn(true);
+        when(asyncArchiveWriter.reserve(1)).thenReturn(false);
+        ArchiveServiceImpl archiveService = new ArchiveServiceImpl(null, null, transactionService, asyncArchiveWriter);
+
+        archiveService.recordInserts(3L, new ArchiveInsertRecord(mock(ArchivedPersistentObjectWithSetter.class)));
+
+        verify(transactionService).registerBeforeCommitCallable(any(BatchArchiveCallable.class));
+        verify(transactionService, never()).registerBonitaSynchronization(any());
+    }
+
     // Test with exception on TxService
 
     // Seen with Nicolas C. for this "interface extension" :)
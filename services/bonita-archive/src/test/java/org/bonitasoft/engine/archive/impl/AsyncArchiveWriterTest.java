@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.archive.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.persistence.ArchivedPersistentObject;
+import org.bonitasoft.engine.services.PersistenceService;
+import org.bonitasoft.engine.services.SPersistenceException;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncArchiveWriterTest {
+
+    private final PersistenceService persistenceService = mock(PersistenceService.class);
+    private final UserTransactionService transactionService = mock(UserTransactionService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncArchiveWriter asyncArchiveWriter;
+
+    @Before
+    public void before() throws Exception {
+        doAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call()).when(transactionService)
+                .executeInTransaction(any());
+        asyncArchiveWriter = new AsyncArchiveWriter(persistenceService, transactionService,
+                mock(SessionAccessor.class), 1L, true, 3, 2, 10, meterRegistry);
+    }
+
+    @After
+    public void after() {
+        asyncArchiveWriter.stop();
+    }
+
+    @Test
+    public void should_not_reserve_room_when_not_started() {
+        assertThat(asyncArchiveWriter.reserve(1)).isFalse();
+    }
+
+    @Test
+    public void should_not_reserve_room_when_buffer_is_full() {
+        asyncArchiveWriter.start();
+
+        assertThat(asyncArchiveWriter.reserve(3)).isTrue();
+        assertThat(asyncArchiveWriter.reserve(1)).isFalse();
+        assertThat(meterRegistry.find(AsyncArchiveWriter.ARCHIVE_SYNCHRONOUS_FALLBACK).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_reserve_room_again_when_reservation_is_cancelled() {
+        asyncArchiveWriter.start();
+        asyncArchiveWriter.reserve(3);
+
+        asyncArchiveWriter.cancelReservation(2);
+
+        assertThat(asyncArchiveWriter.reserve(2)).isTrue();
+    }
+
+    @Test
+    public void should_write_handed_over_objects_in_batches() throws Exception {
+        asyncArchiveWriter.start();
+        List<ArchivedPersistentObject> archivedObjects = asList(mock(ArchivedPersistentObject.class),
+                mock(ArchivedPersistentObject.class), mock(ArchivedPersistentObject.class));
+        asyncArchiveWriter.reserve(3);
+
+        asyncArchiveWriter.handOver(archivedObjects);
+
+        verify(persistenceService, timeout(2000)).insertInBatch(argThat(batch -> batch.size() == 2), eq(2));
+        verify(persistenceService, timeout(2000)).insertInBatch(argThat(batch -> batch.size() == 1), eq(1));
+        asyncArchiveWriter.stop();
+        assertThat(asyncArchiveWriter.reserve(3)).isFalse();
+        asyncArchiveWriter.start();
+        assertThat(asyncArchiveWriter.reserve(3)).isTrue();
+    }
+
+    @Test
+    public void should_not_write_objects_handed_over_when_stopped() throws Exception {
+        ArchivedPersistentObject archivedObject = mock(ArchivedPersistentObject.class);
+
+        asyncArchiveWriter.handOver(singletonList(archivedObject));
+
+        verify(persistenceService, never()).insertInBatch(anyList(), anyInt());
+    }
+
+    @Test
+    public void should_write_objects_handed_over_when_stopped_once_started_again() throws Exception {
+        ArchivedPersistentObject archivedObject = mock(ArchivedPersistentObject.class);
+        asyncArchiveWriter.handOver(singletonList(archivedObject));
+
+        asyncArchiveWriter.start();
+
+        verify(persistenceService, timeout(2000)).insertInBatch(singletonList(archivedObject), 1);
+    }
+
+    @Test
+    public void should_write_objects_handed_over_when_stopped_once_stopped_again() throws Exception {
+        ArchivedPersistentObject archivedObject = mock(ArchivedPersistentObject.class);
+        asyncArchiveWriter.handOver(singletonList(archivedObject));
+
+        asyncArchiveWriter.stop();
+
+        verify(persistenceService).insertInBatch(singletonList(archivedObject), 1);
+    }
+
+    @Test
+    public void should_retry_failing_batch_in_smaller_batches() throws Exception {
+        ArchivedPersistentObject archivedObject1 = mock(ArchivedPersistentObject.class);
+        ArchivedPersistentObject failingObject = mock(ArchivedPersistentObject.class);
+        ArchivedPersistentObject archivedObject2 = mock(ArchivedPersistentObject.class);
+        doThrow(new SPersistenceException("unable to insert")).when(persistenceService)
+                .insertInBatch(argThat(batch -> batch.contains(failingObject)), anyInt());
+
+        asyncArchiveWriter.write(new ArrayList<>(asList(archivedObject1, failingObject, archivedObject2)));
+
+        verify(persistenceService).insertInBatch(singletonList(archivedObject1), 1);
+        verify(persistenceService).insertInBatch(singletonList(archivedObject2), 1);
+        assertThat(meterRegistry.find(AsyncArchiveWriter.ARCHIVE_FAILED).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_write_anything_when_nothing_is_handed_over() throws Exception {
+        asyncArchiveWriter.start();
+
+        asyncArchiveWriter.stop();
+
+        verify(persistenceService, never()).insertInBatch(anyList(), anyInt());
+    }
+}
@@ -36,4 +36,12 @@ public interface PermissionService extends TenantLifecycleService {
     void removePermissions(Properties pageProperties);
 
     Set<String> getResourcePermissions(String resourceKey);
+
+    /**
+     * Forget the authorizations computed for the given session, e.g. because it is closed.
+     *
+     * @param sessionId the id of the session
+     */
+    default void invalidateCachedAuthorizations(long sessionId) {
+    }
 }
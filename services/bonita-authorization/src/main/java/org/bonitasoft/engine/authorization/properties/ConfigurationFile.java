@@ -20,6 +20,7 @@ import static org.bonitasoft.engine.authorization.properties.ConfigurationFilesM
 import java.io.IOException;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.cache.CacheService;
@@ -45,6 +46,12 @@ public abstract class ConfigurationFile {
 
     ConfigurationFilesManager configurationFilesManager;
 
+    /**
+     * Incremented each time the properties are (re)stored in the cache, so that the structures built from them can
+     * detect that they must be rebuilt, even when the cached {@link Properties} instance is modified in place.
+     */
+    private final AtomicLong version = new AtomicLong();
+
     public ConfigurationFile(long tenantId, CacheService cacheService,
             ConfigurationFilesManager configurationFilesManager) {
         this(tenantId, cacheService, configurationFilesManager, false);
@@ -90,6 +97,7 @@ public abstract class ConfigurationFile {
     abstract protected boolean hasInternalVersion();
 
     void storePropertiesInCache(Properties tenantProperties) {
+        version.incrementAndGet();
         try {
             cacheService.store(CONFIGURATION_FILES_CACHE, cacheKey, tenantProperties);
             log.debug(format("Successfully stored configuration file %s (tenant %s) in dedicated cache",
@@ -100,6 +108,10 @@ public abstract class ConfigurationFile {
         }
     }
 
+    long getVersion() {
+        return version.get();
+    }
+
     Properties getProperties() {
         Properties properties;
         try {
@@ -13,10 +13,7 @@
  **/
 package org.bonitasoft.engine.authorization.properties;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import org.bonitasoft.engine.cache.CacheService;
 import org.springframework.beans.factory.annotation.Value;
@@ -43,6 +40,11 @@ public class ResourcesPermissionsMapping extends ConfigurationFile {
      */
     public static final String PROPERTIES_FILENAME = "resources-permissions-mapping.properties";
 
+    /**
+     * Permissions of each resource key, parsed once from the properties and reused until they change.
+     */
+    private volatile CompiledPermissions compiledPermissions;
+
     @Override
     protected String getPropertiesFileName() {
         return PROPERTIES_FILENAME;
@@ -56,28 +58,59 @@ public class ResourcesPermissionsMapping extends ConfigurationFile {
     public Set<String> getResourcePermissions(final String method, final String apiName, final String resourceName,
             final List<String> resourceQualifiers) {
         final String key = buildResourceKey(method, apiName, resourceName, resourceQualifiers);
-        return getPropertyAsSet(key);
+        return getCompiledPermissions().get(key);
     }
 
     public Set<String> getResourcePermissionsWithWildCard(final String method, final String apiName,
             final String resourceName, final List<String> resourceQualifiers) {
+        return getResourcePermissionsWithWildCard(getCompiledPermissions(), method, apiName, resourceName,
+                resourceQualifiers);
+    }
+
+    private Set<String> getResourcePermissionsWithWildCard(final CompiledPermissions permissionsTable,
+            final String method, final String apiName, final String resourceName,
+            final List<String> resourceQualifiers) {
         if (resourceQualifiers != null && resourceQualifiers.size() > 0) {
             for (int i = resourceQualifiers.size() - 1; i >= 0; i--) {
                 final List<String> resourceQualifiersWithWildCard = getResourceQualifiersWithWildCard(
                         resourceQualifiers, i);
                 final String key = buildResourceKey(method, apiName, resourceName, resourceQualifiersWithWildCard);
-                final Set<String> permissions = getPropertyAsSet(key);
+                final Set<String> permissions = permissionsTable.get(key);
                 if (!permissions.isEmpty()) {
                     return permissions;
                 }
             }
             final List<String> reducedResourceQualifiers = new ArrayList<>(resourceQualifiers);
             reducedResourceQualifiers.remove(resourceQualifiers.size() - 1);
-            return getResourcePermissionsWithWildCard(method, apiName, resourceName, reducedResourceQualifiers);
+            return getResourcePermissionsWithWildCard(permissionsTable, method, apiName, resourceName,
+                    reducedResourceQualifiers);
         }
         return Collections.emptySet();
     }
 
+    /**
+     * Get the permissions table compiled from the current properties, compiling it again only when the properties
+     * were modified or replaced in the cache since the last compilation.
+     */
+    CompiledPermissions getCompiledPermissions() {
+        // read the version before the properties: a concurrent modification then triggers a new compilation
+        final long version = getVersion();
+        final Properties properties = getProperties();
+        final CompiledPermissions current = compiledPermissions;
+        if (current != null && current.isCompiledFrom(properties, version)) {
+            return current;
+        }
+        final CompiledPermissions compiled;
+        if (current != null && current.hasSameContentAs(properties)) {
+            // e.g. the cache returned a copy of unchanged properties: the table is still valid
+            compiled = new CompiledPermissions(properties, version, current.snapshot, current.permissions);
+        } else {
+            compiled = CompiledPermissions.compile(properties, version);
+        }
+        compiledPermissions = compiled;
+        return compiled;
+    }
+
     protected List<String> getResourceQualifiersWithWildCard(final List<String> resourceQualifiers,
             final int wildCardPosition) {
         final List<String> resourceQualifiersWithWildCard = new ArrayList<>(resourceQualifiers);
@@ -109,4 +142,42 @@ public class ResourcesPermissionsMapping extends ConfigurationFile {
     protected boolean hasInternalVersion() {
         return true;
     }
+
+    static final class CompiledPermissions {
+
+        private final Properties source;
+        private final long version;
+        private final Properties snapshot;
+        private final Map<String, Set<String>> permissions;
+
+        private CompiledPermissions(Properties source, long version, Properties snapshot,
+                Map<String, Set<String>> permissions) {
+            this.source = source;
+            this.version = version;
+            this.snapshot = snapshot;
+            this.permissions = permissions;
+        }
+
+        static CompiledPermissions compile(Properties properties, long version) {
+            final Properties snapshot = (Properties) properties.clone();
+            final Map<String, Set<String>> permissions = new HashMap<>();
+            for (final String key : snapshot.stringPropertyNames()) {
+                permissions.put(key, Collections.unmodifiableSet(
+                        PropertiesWithSet.stringToSet(snapshot.getProperty(key).trim())));
+            }
+            return new CompiledPermissions(properties, version, snapshot, permissions);
+        }
+
+        boolean isCompiledFrom(Properties properties, long version) {
+            return source == properties && this.version == version;
+        }
+
+        boolean hasSameContentAs(Properties properties) {
+            return snapshot.equals(properties);
+        }
+
+        Set<String> get(String resourceKey) {
+            return permissions.getOrDefault(resourceKey, Collections.emptySet());
+        }
+    }
 }
@@ -91,6 +91,35 @@ public class ResourcesPermissionsMappingTest {
         assertThat(putWithResourcesQualifiers).containsOnly("Expression update");
     }
 
+    @Test
+    public void should_compile_the_permissions_only_once_while_the_properties_are_unchanged() {
+        final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping(
+                "GET|bpm/case [Case visualization]");
+
+        final Set<String> first = resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "case");
+        final Set<String> second = resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "case");
+
+        assertThat(first).containsOnly("Case visualization");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void should_compile_the_permissions_again_when_a_property_is_modified() {
+        final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping(
+                "GET|bpm/case [Case visualization]\n" +
+                        "GET|bpm/process/* [Process visualization]");
+        assertThat(resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "case"))
+                .containsOnly("Case visualization");
+
+        resourcesPermissionsMapping.setInternalProperty("GET|bpm/case", "[Case management]");
+        resourcesPermissionsMapping.removeInternalProperty("GET|bpm/process/*");
+
+        assertThat(resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "case"))
+                .containsOnly("Case management");
+        assertThat(resourcesPermissionsMapping.getResourcePermissionsWithWildCard("GET", "bpm", "process",
+                singletonList("6"))).isEmpty();
+    }
+
     public ResourcesPermissionsMapping getResourcesPermissionsMapping(final String fileContent) {
         final ResourcesPermissionsMapping resourcesPermissionsMapping = spy(
                 new ResourcesPermissionsMapping(423L, cacheService, configurationFilesManager));
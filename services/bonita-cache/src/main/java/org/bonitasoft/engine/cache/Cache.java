@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache;
+
+import java.io.Serializable;
+
+/**
+ * Typed handle on one cache of the {@link CacheService}.
+ * <p>
+ * A handle is obtained once using {@link CacheService#getCache(String)} and kept by the service using it: accessing
+ * the cache through it does not look the cache up by its name nor cast the cached values on each call. It stays
+ * usable when the cache service is stopped and started again.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the cached values
+ */
+public interface Cache<K extends Serializable, V> {
+
+    /**
+     * @return the name of the cache
+     */
+    String getName();
+
+    /**
+     * @param key the key of the value
+     * @return the cached value, or null if there is no value for this key
+     * @throws SCacheException if the cache is not alive
+     */
+    V get(K key) throws SCacheException;
+
+    /**
+     * Get the cached value, loading and storing it when it is not in the cache. The time spent loading values is
+     * recorded in the metrics of the cache.
+     *
+     * @param key the key of the value
+     * @param loader called to compute the value when it is not in the cache. Null values are not stored.
+     * @return the cached or loaded value
+     * @throws SCacheException if the cache is not alive
+     * @throws E exception thrown by the loader
+     */
+    <E extends Exception> V get(K key, CacheLoader<K, V, E> loader) throws SCacheException, E;
+
+    /**
+     * Store a value, creating the cache if it does not exist yet
+     *
+     * @throws SCacheException if the cache service is not started
+     */
+    void put(K key, V value) throws SCacheException;
+
+    /**
+     * @return true if a value was removed
+     */
+    boolean remove(K key) throws SCacheException;
+
+    void clear() throws SCacheException;
+
+    int size() throws SCacheException;
+
+    /**
+     * Computes a value to store in a {@link Cache}
+     */
+    @FunctionalInterface
+    interface CacheLoader<K, V, E extends Exception> {
+
+        V load(K key) throws E;
+    }
+}
@@ -26,6 +26,8 @@ public class CacheConfiguration {
 
     private int maxElementsOnDisk = 20000;
 
+    private long maxBytesInMemory = 0;
+
     private boolean inMemoryOnly = false;
 
     private boolean eternal = false;
@@ -102,6 +104,26 @@ public class CacheConfiguration {
         return maxElementsOnDisk;
     }
 
+    /**
+     * the maximum size, in bytes, of the elements the cache will keep in memory. The size of the elements is
+     * estimated by walking their object graph when they are stored. When greater than 0, it replaces
+     * {@link #getMaxElementsInMemory()} so that a few large elements, e.g. big process definitions, do not take as
+     * much room as many small ones.
+     *
+     * @return the maxBytesInMemory, 0 to limit the cache using the number of elements
+     */
+    public long getMaxBytesInMemory() {
+        return maxBytesInMemory;
+    }
+
+    /**
+     * @param maxBytesInMemory
+     *        the maxBytesInMemory to set
+     */
+    public void setMaxBytesInMemory(final long maxBytesInMemory) {
+        this.maxBytesInMemory = maxBytesInMemory;
+    }
+
     /**
      * if true nothing is stored on disk
      *
@@ -31,6 +31,15 @@ public interface CacheService {
      */
     void store(String cacheName, Serializable key, Object value) throws SCacheException;
 
+    /**
+     * Get a typed handle on a cache. The handle is meant to be obtained once, e.g. when the service using the cache
+     * is created, and then used for all accesses to this cache.
+     *
+     * @param cacheName The name of the cache, it is created when a first value is stored in it
+     * @return the handle on the cache
+     */
+    <K extends Serializable, V> Cache<K, V> getCache(String cacheName);
+
     /**
      * Remove the element according to the cache name and the key
      *
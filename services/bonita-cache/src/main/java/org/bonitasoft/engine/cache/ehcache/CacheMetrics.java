@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.ehcache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
+
+/**
+ * Hits, misses, evictions and load time of one cache. Registered as a listener of the cache to count evictions.
+ */
+class CacheMetrics extends CacheEventListenerAdapter {
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Timer loads;
+
+    CacheMetrics(String cacheName, MeterRegistry meterRegistry) {
+        hits = Counter.builder(EhCacheCacheService.CACHE_HITS).tag("cache", cacheName)
+                .description("Values found in the cache").register(meterRegistry);
+        misses = Counter.builder(EhCacheCacheService.CACHE_MISSES).tag("cache", cacheName)
+                .description("Values not found in the cache").register(meterRegistry);
+        evictions = Counter.builder(EhCacheCacheService.CACHE_EVICTIONS).tag("cache", cacheName)
+                .description("Values evicted from the cache because it is full").register(meterRegistry);
+        loads = Timer.builder(EhCacheCacheService.CACHE_LOADS).tag("cache", cacheName)
+                .description("Time spent loading values not found in the cache").register(meterRegistry);
+    }
+
+    void recordGet(Element element) {
+        if (element != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    Timer getLoads() {
+        return loads;
+    }
+
+    @Override
+    public void notifyElementEvicted(Ehcache cache, Element element) {
+        evictions.increment();
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException("Metrics of a cache cannot be copied to another cache");
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.ehcache;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.ehcache.Element;
+import net.sf.ehcache.Status;
+import org.bonitasoft.engine.cache.Cache;
+import org.bonitasoft.engine.cache.SCacheException;
+
+/**
+ * {@link Cache} handle keeping a reference on the EhCache cache, resolved again only when the cache service was
+ * restarted.
+ */
+class EhCacheCache<K extends Serializable, V> implements Cache<K, V> {
+
+    private final EhCacheCacheService cacheService;
+    private final String name;
+    private final CacheMetrics metrics;
+    private volatile net.sf.ehcache.Cache ehCache;
+
+    EhCacheCache(EhCacheCacheService cacheService, String name) {
+        this.cacheService = cacheService;
+        this.name = name;
+        this.metrics = cacheService.getMetrics(name);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param create create the cache if it does not exist
+     * @return the EhCache cache, null if it does not exist and create is false
+     */
+    private net.sf.ehcache.Cache getEhCache(boolean create) throws SCacheException {
+        net.sf.ehcache.Cache cache = ehCache;
+        if (cache == null || cache.getStatus() != Status.STATUS_ALIVE) {
+            cache = create ? cacheService.createCache(name) : cacheService.getExistingCache(name);
+            ehCache = cache;
+        }
+        return cache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) throws SCacheException {
+        final net.sf.ehcache.Cache cache = getEhCache(false);
+        if (cache == null) {
+            // the cache does not exist = the key was not stored
+            return null;
+        }
+        try {
+            final Element element = cache.get(key);
+            metrics.recordGet(element);
+            return element != null ? (V) element.getObjectValue() : null;
+        } catch (final IllegalStateException e) {
+            throw new SCacheException("The cache '" + name + "' is not alive", e);
+        }
+    }
+
+    @Override
+    public <E extends Exception> V get(K key, CacheLoader<K, V, E> loader) throws SCacheException, E {
+        V value = get(key);
+        if (value == null) {
+            final long startTime = System.nanoTime();
+            value = loader.load(key);
+            metrics.getLoads().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) throws SCacheException {
+        try {
+            getEhCache(true).put(new Element(key, value));
+        } catch (final IllegalStateException e) {
+            throw new SCacheException("The cache '" + name + "' is not alive", e);
+        } catch (final net.sf.ehcache.CacheException ce) {
+            throw new SCacheException(ce);
+        }
+    }
+
+    @Override
+    public boolean remove(K key) throws SCacheException {
+        final net.sf.ehcache.Cache cache = getEhCache(false);
+        return cache != null && cache.remove(key);
+    }
+
+    @Override
+    public void clear() throws SCacheException {
+        final net.sf.ehcache.Cache cache = getEhCache(false);
+        if (cache != null) {
+            cache.removeAll();
+        }
+    }
+
+    @Override
+    public int size() throws SCacheException {
+        final net.sf.ehcache.Cache cache = getEhCache(false);
+        return cache != null ? cache.getSize() : 0;
+    }
+}
@@ -15,7 +15,9 @@ package org.bonitasoft.engine.cache.ehcache;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
@@ -23,6 +25,7 @@ import net.sf.ehcache.Element;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.Configuration;
 import net.sf.ehcache.config.DiskStoreConfiguration;
+import net.sf.ehcache.config.SizeOfPolicyConfiguration;
 import org.bonitasoft.engine.cache.CacheService;
 import org.bonitasoft.engine.cache.SCacheException;
 import org.bonitasoft.engine.commons.PlatformLifecycleService;
@@ -43,6 +46,17 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class EhCacheCacheService implements CacheService, PlatformLifecycleService {
 
+    public static final String CACHE_HITS = "bonita.bpmengine.cache.hits";
+    public static final String CACHE_MISSES = "bonita.bpmengine.cache.misses";
+    public static final String CACHE_EVICTIONS = "bonita.bpmengine.cache.evictions";
+    public static final String CACHE_LOADS = "bonita.bpmengine.cache.loads";
+
+    /**
+     * Maximum number of references followed when estimating the size of an element, for caches limited by size.
+     * Process definitions are large object graphs.
+     */
+    private static final int MAX_SIZE_OF_DEPTH = 100000;
+
     protected CacheManager cacheManager;
 
     protected final Map<String, CacheConfiguration> cacheConfigurations;
@@ -51,10 +65,17 @@ public class EhCacheCacheService implements CacheService, PlatformLifecycleServi
 
     private final String diskStorePath;
 
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CacheMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final Map<String, EhCacheCache<?, ?>> handles = new ConcurrentHashMap<>();
+
     public EhCacheCacheService(List<org.bonitasoft.engine.cache.CacheConfiguration> cacheConfigurations,
             @Qualifier("defaultCacheConfiguration") org.bonitasoft.engine.cache.CacheConfiguration defaultCacheConfiguration,
-            @Value("java.io.tmpdir/platform.cache") String diskStorePath) {
+            @Value("java.io.tmpdir/platform.cache") String diskStorePath, MeterRegistry meterRegistry) {
         this.diskStorePath = diskStorePath;
+        this.meterRegistry = meterRegistry;
         this.defaultCacheConfiguration = getEhCacheConfiguration(defaultCacheConfiguration);
         if (cacheConfigurations != null && cacheConfigurations.size() > 0) {
             this.cacheConfigurations = new HashMap<>(cacheConfigurations.size());
@@ -74,7 +95,18 @@ public class EhCacheCacheService implements CacheService, PlatformLifecycleServi
     protected CacheConfiguration getEhCacheConfiguration(
             final org.bonitasoft.engine.cache.CacheConfiguration cacheConfig) {
         final CacheConfiguration ehCacheConfig = new CacheConfiguration();
-        ehCacheConfig.setMaxElementsInMemory(cacheConfig.getMaxElementsInMemory());
+        if (cacheConfig.getMaxBytesInMemory() > 0) {
+            // a cache is limited either by the size or by the number of its elements
+            ehCacheConfig.setMaxBytesLocalHeap(cacheConfig.getMaxBytesInMemory());
+            final SizeOfPolicyConfiguration sizeOfPolicy = new SizeOfPolicyConfiguration();
+            sizeOfPolicy.setMaxDepth(MAX_SIZE_OF_DEPTH);
+            ehCacheConfig.addSizeOfPolicy(sizeOfPolicy);
+        } else {
+            ehCacheConfig.setMaxElementsInMemory(cacheConfig.getMaxElementsInMemory());
+        }
+        if (cacheConfig.getEvictionPolicy() != null) {
+            ehCacheConfig.setMemoryStoreEvictionPolicy(cacheConfig.getEvictionPolicy());
+        }
         ehCacheConfig.setMaxElementsOnDisk(cacheConfig.getMaxElementsOnDisk());
         ehCacheConfig.setOverflowToDisk(!cacheConfig.isInMemoryOnly());
         ehCacheConfig.setEternal(cacheConfig.isEternal());
@@ -131,10 +163,30 @@ public class EhCacheCacheService implements CacheService, PlatformLifecycleServi
             newCacheConfig.setName(cacheName);
             cache = new Cache(newCacheConfig);
             cacheManager.addCache(cache);
+            cache.getCacheEventNotificationService().registerListener(getMetrics(cacheName));
         }
         return cache;
     }
 
+    /**
+     * @return the cache with the given name, or null if it was not created yet or if the cache service is stopped
+     */
+    Cache getExistingCache(final String cacheName) {
+        final CacheManager manager = cacheManager;
+        return manager != null ? manager.getCache(cacheName) : null;
+    }
+
+    CacheMetrics getMetrics(final String cacheName) {
+        return metrics.computeIfAbsent(cacheName, name -> new CacheMetrics(name, meterRegistry));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K extends Serializable, V> org.bonitasoft.engine.cache.Cache<K, V> getCache(final String cacheName) {
+        return (org.bonitasoft.engine.cache.Cache<K, V>) handles.computeIfAbsent(cacheName,
+                name -> new EhCacheCache<>(this, name));
+    }
+
     @Override
     public void store(final String cacheName, final Serializable key, final Object value) throws SCacheException {
         if (cacheManager == null) {
@@ -169,6 +221,7 @@ public class EhCacheCacheService implements CacheService, PlatformLifecycleServi
                 return null;
             }
             final Element element = cache.get(key);
+            getMetrics(cacheName).recordGet(element);
             if (element != null) {
                 return element.getObjectValue();
             }
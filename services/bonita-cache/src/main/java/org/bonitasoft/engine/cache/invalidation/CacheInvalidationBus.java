@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.invalidation;
+
+import org.bonitasoft.engine.cache.SCacheException;
+
+/**
+ * Propagates the invalidation of cache entries to all the nodes of the platform, so that caches that are local to a
+ * node can stay coherent without checking the database on each access.
+ * <p>
+ * An invalidation is delivered to the subscribers of its region in the same tenant on all the nodes, including the one
+ * that published it. It should be published once the change it reflects is committed, otherwise another node might load the
+ * outdated value again right after evicting it.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * @param tenantId id of the tenant owning the invalidated entry
+     * @param region name of the invalidated cache region, e.g. the name of a cache
+     * @param key key of the invalidated entry, or null to invalidate the whole region
+     * @throws SCacheException if the invalidation cannot be sent to the other nodes
+     */
+    void publish(long tenantId, String region, String key) throws SCacheException;
+
+    /**
+     * Registers a listener called for each invalidation of the region of the given tenant, on any node
+     */
+    void subscribe(long tenantId, String region, CacheInvalidationListener listener);
+
+    void unsubscribe(long tenantId, String region, CacheInvalidationListener listener);
+
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.invalidation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Listeners of a {@link CacheInvalidationBus}, by tenant and region
+ */
+@Slf4j
+class CacheInvalidationSubscribers {
+
+    private final Map<String, List<CacheInvalidationListener>> listeners = new ConcurrentHashMap<>();
+
+    private static String getRegionKey(long tenantId, String region) {
+        return tenantId + ":" + region;
+    }
+
+    void add(long tenantId, String region, CacheInvalidationListener listener) {
+        listeners.computeIfAbsent(getRegionKey(tenantId, region), r -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    void remove(long tenantId, String region, CacheInvalidationListener listener) {
+        List<CacheInvalidationListener> regionListeners = listeners.get(getRegionKey(tenantId, region));
+        if (regionListeners != null) {
+            regionListeners.remove(listener);
+        }
+    }
+
+    void dispatch(long tenantId, String region, String key) {
+        List<CacheInvalidationListener> regionListeners = listeners.get(getRegionKey(tenantId, region));
+        if (regionListeners == null) {
+            return;
+        }
+        for (CacheInvalidationListener listener : regionListeners) {
+            try {
+                listener.invalidate(key);
+            } catch (RuntimeException e) {
+                // the other listeners of the region must still evict their entries
+                log.warn("Unable to invalidate entry {} of cache region {} of tenant {}", key, region, tenantId, e);
+            }
+        }
+    }
+
+}
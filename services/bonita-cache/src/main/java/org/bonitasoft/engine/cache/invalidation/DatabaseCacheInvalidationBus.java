@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.invalidation;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.sql.DataSource;
+
+import org.bonitasoft.engine.cache.SCacheException;
+import org.bonitasoft.engine.commons.PlatformLifecycleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CacheInvalidationBus} shared by all the nodes of a cluster, using the <code>cache_invalidation</code> table
+ * as a change log.
+ * <p>
+ * A published invalidation is delivered immediately to the subscribers of the node and inserted in the table. Each
+ * node polls the table in background for the rows inserted by the other nodes since its high-water mark, which is the
+ * most recent creation date it has read. Rows are read again during a safety window before the high-water mark, so
+ * that a row committed after a more recent one is not missed, and the rows already handled are skipped using their
+ * id. Rows older than the retention delay are purged.
+ * <p>
+ * Creation dates are computed using the clock of the publishing node: clocks of the nodes must be synchronized with a
+ * precision far below the safety window.
+ * <p>
+ * The background polling runs between the start and the stop of the platform. Invalidations published meanwhile are
+ * still written to the table.
+ * <p>
+ * Enabled using <code>bonita.platform.cache.invalidation.implementation=database</code>
+ */
+@Component
+@ConditionalOnProperty(name = "bonita.platform.cache.invalidation.implementation", havingValue = "database")
+public class DatabaseCacheInvalidationBus implements CacheInvalidationBus, PlatformLifecycleService {
+
+    static final String INSERT_INVALIDATION = "INSERT INTO cache_invalidation"
+            + " (tenantid, region, cachekey, origin, creationdate) VALUES (?, ?, ?, ?, ?)";
+    static final String SELECT_INVALIDATIONS = "SELECT id, tenantid, region, cachekey, origin, creationdate"
+            + " FROM cache_invalidation WHERE creationdate >= ? ORDER BY id";
+    static final String DELETE_INVALIDATIONS = "DELETE FROM cache_invalidation WHERE creationdate < ?";
+
+    private final Logger logger = LoggerFactory.getLogger(DatabaseCacheInvalidationBus.class);
+
+    private final DataSource dataSource;
+    private final long pollIntervalMillis;
+    private final long safetyWindowMillis;
+    private final long retentionMillis;
+    private final String nodeId;
+    private final CacheInvalidationSubscribers subscribers = new CacheInvalidationSubscribers();
+    private ScheduledExecutorService poller;
+    // only accessed by the poller thread
+    private final Map<Long, Long> handledRows = new HashMap<>();
+    private long highWaterMark;
+
+    public DatabaseCacheInvalidationBus(@Qualifier("bonitaNonXaDataSource") DataSource dataSource,
+            @Value("${bonita.platform.cache.invalidation.database.pollInterval:1000}") long pollIntervalMillis,
+            @Value("${bonita.platform.cache.invalidation.database.safetyWindow:10000}") long safetyWindowMillis,
+            @Value("${bonita.platform.cache.invalidation.database.retention:3600}") int retentionSeconds) {
+        this(dataSource, pollIntervalMillis, safetyWindowMillis, SECONDS.toMillis(retentionSeconds),
+                ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID());
+    }
+
+    DatabaseCacheInvalidationBus(DataSource dataSource, long pollIntervalMillis, long safetyWindowMillis,
+            long retentionMillis, String nodeId) {
+        this.dataSource = dataSource;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.safetyWindowMillis = safetyWindowMillis;
+        this.retentionMillis = Math.max(retentionMillis, 2 * safetyWindowMillis);
+        this.nodeId = nodeId;
+        highWaterMark = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        // invalidations published while the node was stopped are useless: its caches were emptied
+        highWaterMark = System.currentTimeMillis();
+        handledRows.clear();
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Bonita-Cache-Invalidation-Poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::purge, retentionMillis, retentionMillis, MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (poller == null) {
+            return;
+        }
+        poller.shutdownNow();
+        try {
+            if (!poller.awaitTermination(10, SECONDS)) {
+                logger.warn("Cache invalidation poller did not stop within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+    }
+
+    @Override
+    public void publish(long tenantId, String region, String key) throws SCacheException {
+        subscribers.dispatch(tenantId, region, key);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_INVALIDATION)) {
+                insert.setLong(1, tenantId);
+                insert.setString(2, region);
+                insert.setString(3, key);
+                insert.setString(4, nodeId);
+                insert.setLong(5, System.currentTimeMillis());
+                insert.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new SCacheException("Unable to publish the invalidation of entry " + key + " of cache region "
+                    + region + " of tenant " + tenantId + " to the other nodes", e);
+        }
+    }
+
+    @Override
+    public void subscribe(long tenantId, String region, CacheInvalidationListener listener) {
+        subscribers.add(tenantId, region, listener);
+    }
+
+    @Override
+    public void unsubscribe(long tenantId, String region, CacheInvalidationListener listener) {
+        subscribers.remove(tenantId, region, listener);
+    }
+
+    void poll() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement select = connection.prepareStatement(SELECT_INVALIDATIONS)) {
+                select.setLong(1, highWaterMark - safetyWindowMillis);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        long creationDate = rows.getLong("creationdate");
+                        highWaterMark = Math.max(highWaterMark, creationDate);
+                        if (handledRows.putIfAbsent(rows.getLong("id"), creationDate) != null
+                                || nodeId.equals(rows.getString("origin"))) {
+                            continue;
+                        }
+                        subscribers.dispatch(rows.getLong("tenantid"), rows.getString("region"),
+                                rows.getString("cachekey"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // rows will be read again on next poll, as long as they are in the safety window
+            logger.warn("Unable to read cache invalidations published by other nodes: {}", e.getMessage());
+            logger.debug("Cause", e);
+        }
+        // rows out of the safety window are not read anymore
+        handledRows.values().removeIf(creationDate -> creationDate < highWaterMark - safetyWindowMillis);
+    }
+
+    void purge() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement delete = connection.prepareStatement(DELETE_INVALIDATIONS)) {
+                delete.setLong(1, System.currentTimeMillis() - retentionMillis);
+                int deleted = delete.executeUpdate();
+                logger.debug("Purged {} cache invalidations", deleted);
+            }
+        } catch (SQLException e) {
+            logger.warn("Unable to purge cache invalidations: {}", e.getMessage());
+            logger.debug("Cause", e);
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CacheInvalidationBus} delivering the invalidations only to the subscribers of the current JVM.
+ * <p>
+ * Suited to a single node, or to tests where several services sharing the same bus simulate several nodes.
+ * <p>
+ * Enabled using <code>bonita.platform.cache.invalidation.implementation=local</code> (default)
+ */
+@Component
+@ConditionalOnProperty(name = "bonita.platform.cache.invalidation.implementation", havingValue = "local",
+        matchIfMissing = true)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final CacheInvalidationSubscribers subscribers = new CacheInvalidationSubscribers();
+
+    @Override
+    public void publish(long tenantId, String region, String key) {
+        subscribers.dispatch(tenantId, region, key);
+    }
+
+    @Override
+    public void subscribe(long tenantId, String region, CacheInvalidationListener listener) {
+        subscribers.add(tenantId, region, listener);
+    }
+
+    @Override
+    public void unsubscribe(long tenantId, String region, CacheInvalidationListener listener) {
+        subscribers.remove(tenantId, region, listener);
+    }
+
+}
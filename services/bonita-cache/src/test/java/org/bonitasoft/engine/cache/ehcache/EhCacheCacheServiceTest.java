@@ -17,6 +17,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.sf.ehcache.CacheManager;
 import org.bonitasoft.engine.cache.CacheConfiguration;
 import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
@@ -45,7 +46,8 @@ public class EhCacheCacheServiceTest {
 
     @Before
     public void setup() {
-        cacheService = new EhCacheCacheService(cacheConfigurations, defaultCacheConfiguration, null) {
+        cacheService = new EhCacheCacheService(cacheConfigurations, defaultCacheConfiguration, null,
+                new SimpleMeterRegistry()) {
 
             @Override
             public synchronized void start() {
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.ehcache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.cache.Cache;
+import org.bonitasoft.engine.cache.CacheConfiguration;
+import org.bonitasoft.engine.commons.io.IOUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EhCacheCacheTest {
+
+    private static final String ONE_ELEMENT_CACHE = "ONE_ELEMENT_CACHE";
+    private static final String LFU_CACHE = "LFU_CACHE";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EhCacheCacheService cacheService;
+
+    @Before
+    public void setUp() throws Exception {
+        final CacheConfiguration oneElementCache = new CacheConfiguration();
+        oneElementCache.setName(ONE_ELEMENT_CACHE);
+        oneElementCache.setMaxElementsInMemory(1);
+        oneElementCache.setInMemoryOnly(true);
+        final CacheConfiguration lfuCache = new CacheConfiguration();
+        lfuCache.setName(LFU_CACHE);
+        lfuCache.setEvictionPolicy("LFU");
+        lfuCache.setInMemoryOnly(true);
+        final CacheConfiguration defaultConfiguration = new CacheConfiguration();
+        defaultConfiguration.setInMemoryOnly(true);
+        cacheService = new EhCacheCacheService(Arrays.asList(oneElementCache, lfuCache), defaultConfiguration,
+                IOUtil.TMP_DIRECTORY + File.separator + EhCacheCacheTest.class.getSimpleName(), meterRegistry);
+        cacheService.start();
+    }
+
+    @After
+    public void tearDown() {
+        cacheService.stop();
+    }
+
+    @Test
+    public void should_store_and_get_typed_values() throws Exception {
+        final Cache<Long, String> cache = cacheService.getCache("typed");
+
+        cache.put(1L, "one");
+
+        assertThat(cache.get(1L)).isEqualTo("one");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cacheService.get("typed", 1L)).isEqualTo("one");
+    }
+
+    @Test
+    public void should_return_the_same_handle_for_a_cache() {
+        assertThat(cacheService.<Long, String> getCache("typed")).isSameAs(cacheService.getCache("typed"));
+    }
+
+    @Test
+    public void should_load_missing_value_only_once() throws Exception {
+        final Cache<Long, String> cache = cacheService.getCache("typed");
+        final AtomicInteger loads = new AtomicInteger();
+
+        final String first = cache.get(1L, key -> "value " + key + " " + loads.incrementAndGet());
+        final String second = cache.get(1L, key -> "value " + key + " " + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("value 1 1");
+        assertThat(second).isEqualTo(first);
+        assertThat(meterRegistry.get(EhCacheCacheService.CACHE_LOADS).tag("cache", "typed").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_hits_and_misses() throws Exception {
+        final Cache<Long, String> cache = cacheService.getCache("typed");
+        cache.put(1L, "one");
+
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        assertThat(meterRegistry.get(EhCacheCacheService.CACHE_HITS).tag("cache", "typed").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get(EhCacheCacheService.CACHE_MISSES).tag("cache", "typed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_evictions() throws Exception {
+        final Cache<Long, String> cache = cacheService.getCache(ONE_ELEMENT_CACHE);
+
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(meterRegistry.get(EhCacheCacheService.CACHE_EVICTIONS).tag("cache", ONE_ELEMENT_CACHE)
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_apply_the_eviction_policy_of_the_configuration() throws Exception {
+        cacheService.getCache(LFU_CACHE).put(1L, "one");
+
+        assertThat(cacheService.getExistingCache(LFU_CACHE).getCacheConfiguration().getMemoryStoreEvictionPolicy()
+                .toString()).isEqualTo("LFU");
+    }
+
+    @Test
+    public void should_keep_working_after_a_restart_of_the_cache_service() throws Exception {
+        final Cache<Long, String> cache = cacheService.getCache("typed");
+        cache.put(1L, "one");
+
+        cacheService.stop();
+        assertThat(cache.get(1L)).isNull();
+        cacheService.start();
+        cache.put(2L, "two");
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isEqualTo("two");
+    }
+}
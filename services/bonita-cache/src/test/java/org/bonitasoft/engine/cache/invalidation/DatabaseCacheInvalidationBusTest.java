@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.invalidation;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DatabaseCacheInvalidationBusTest {
+
+    // polls are triggered by the tests
+    private static final long POLL_INTERVAL = 3_600_000;
+    private static final long SAFETY_WINDOW = 10_000;
+    private static final long TENANT_ID = 1L;
+    private JdbcDataSource dataSource;
+    private DatabaseCacheInvalidationBus node1;
+    private DatabaseCacheInvalidationBus node2;
+    private final List<String> invalidatedOnNode1 = new ArrayList<>();
+    private final List<String> invalidatedOnNode2 = new ArrayList<>();
+
+    @Before
+    public void before() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:cache_invalidation;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute(cacheInvalidationTableCreation());
+        }
+        node1 = new DatabaseCacheInvalidationBus(dataSource, POLL_INTERVAL, SAFETY_WINDOW, 60_000, "node1");
+        node2 = new DatabaseCacheInvalidationBus(dataSource, POLL_INTERVAL, SAFETY_WINDOW, 60_000, "node2");
+        node1.subscribe(TENANT_ID, "region", invalidatedOnNode1::add);
+        node2.subscribe(TENANT_ID, "region", invalidatedOnNode2::add);
+    }
+
+    @After
+    public void after() throws Exception {
+        node1.stop();
+        node2.stop();
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE cache_invalidation");
+        }
+    }
+
+    /**
+     * use the table declared in the script of platform-resources, so that the service is tested against it
+     */
+    private String cacheInvalidationTableCreation() throws Exception {
+        try (InputStream script = getClass().getResourceAsStream("/sql/h2/createTables.sql")) {
+            String createTables = new String(script.readAllBytes(), StandardCharsets.UTF_8);
+            int start = createTables.indexOf("CREATE TABLE cache_invalidation");
+            return createTables.substring(start, createTables.indexOf(");", start) + 1);
+        }
+    }
+
+    @Test
+    public void should_deliver_invalidation_on_publishing_node_immediately() throws Exception {
+        node1.publish(TENANT_ID, "region", "12");
+
+        assertThat(invalidatedOnNode1).containsExactly("12");
+        assertThat(invalidatedOnNode2).isEmpty();
+    }
+
+    @Test
+    public void should_deliver_invalidations_to_other_nodes_when_they_poll() throws Exception {
+        node1.publish(TENANT_ID, "region", "12");
+        node1.publish(TENANT_ID, "region", null);
+
+        node2.poll();
+
+        assertThat(invalidatedOnNode2).containsExactly("12", null);
+    }
+
+    @Test
+    public void should_not_deliver_invalidations_of_a_node_to_itself_twice() throws Exception {
+        node1.publish(TENANT_ID, "region", "12");
+
+        node1.poll();
+
+        assertThat(invalidatedOnNode1).containsExactly("12");
+    }
+
+    @Test
+    public void should_deliver_each_invalidation_only_once() throws Exception {
+        node1.publish(TENANT_ID, "region", "12");
+        node2.poll();
+        node1.publish(TENANT_ID, "region", "13");
+
+        node2.poll();
+
+        assertThat(invalidatedOnNode2).containsExactly("12", "13");
+    }
+
+    @Test
+    public void should_deliver_invalidation_committed_after_a_more_recent_one() throws Exception {
+        node1.publish(TENANT_ID, "region", "12");
+        node2.poll();
+        insertInvalidation(TENANT_ID, "region", "13", "node3", System.currentTimeMillis() - SAFETY_WINDOW / 2);
+
+        node2.poll();
+
+        assertThat(invalidatedOnNode2).containsExactly("12", "13");
+    }
+
+    @Test
+    public void should_only_deliver_invalidations_of_subscribed_regions() throws Exception {
+        node1.publish(TENANT_ID, "otherRegion", "12");
+
+        node2.poll();
+
+        assertThat(invalidatedOnNode2).isEmpty();
+    }
+
+    @Test
+    public void should_only_deliver_invalidations_of_the_subscribed_tenant() throws Exception {
+        node1.publish(2L, "region", "12");
+
+        node2.poll();
+
+        assertThat(invalidatedOnNode2).isEmpty();
+    }
+
+    @Test
+    public void should_poll_in_background_once_started() throws Exception {
+        DatabaseCacheInvalidationBus node3 = new DatabaseCacheInvalidationBus(dataSource, 10, SAFETY_WINDOW, 60_000,
+                "node3");
+        List<String> invalidatedOnNode3 = new CopyOnWriteArrayList<>();
+        node3.subscribe(TENANT_ID, "region", invalidatedOnNode3::add);
+        node3.start();
+        try {
+            node1.publish(TENANT_ID, "region", "12");
+
+            await().atMost(5, SECONDS).until(() -> invalidatedOnNode3.contains("12"));
+        } finally {
+            node3.stop();
+        }
+    }
+
+    @Test
+    public void should_purge_invalidations_older_than_retention() throws Exception {
+        insertInvalidation(TENANT_ID, "region", "12", "node3", System.currentTimeMillis() - 120_000);
+        node1.publish(TENANT_ID, "region", "13");
+
+        node1.purge();
+
+        assertThat(countInvalidations()).isEqualTo(1);
+    }
+
+    private void insertInvalidation(long tenantId, String region, String key, String origin, long creationDate)
+            throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection
+                        .prepareStatement(DatabaseCacheInvalidationBus.INSERT_INVALIDATION)) {
+            insert.setLong(1, tenantId);
+            insert.setString(2, region);
+            insert.setString(3, key);
+            insert.setString(4, origin);
+            insert.setLong(5, creationDate);
+            insert.executeUpdate();
+        }
+    }
+
+    private long countInvalidations() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM cache_invalidation")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.cache.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LocalCacheInvalidationBusTest {
+
+    private static final long TENANT_ID = 1L;
+    private final LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+    private final List<String> invalidated = new ArrayList<>();
+
+    @Test
+    public void should_deliver_invalidations_to_subscribers_of_the_region() throws Exception {
+        bus.subscribe(TENANT_ID, "region1", invalidated::add);
+        bus.subscribe(TENANT_ID, "region2", key -> invalidated.add("region2:" + key));
+
+        bus.publish(TENANT_ID, "region1", "12");
+        bus.publish(TENANT_ID, "region1", null);
+
+        assertThat(invalidated).containsExactly("12", null);
+    }
+
+    @Test
+    public void should_deliver_invalidations_to_other_subscribers_when_one_fails() throws Exception {
+        bus.subscribe(TENANT_ID, "region", key -> {
+            throw new IllegalStateException("failing listener");
+        });
+        bus.subscribe(TENANT_ID, "region", invalidated::add);
+
+        bus.publish(TENANT_ID, "region", "12");
+
+        assertThat(invalidated).containsExactly("12");
+    }
+
+    @Test
+    public void should_not_deliver_invalidations_once_unsubscribed() throws Exception {
+        CacheInvalidationListener listener = invalidated::add;
+        bus.subscribe(TENANT_ID, "region", listener);
+        bus.unsubscribe(TENANT_ID, "region", listener);
+
+        bus.publish(TENANT_ID, "region", "12");
+
+        assertThat(invalidated).isEmpty();
+    }
+
+}
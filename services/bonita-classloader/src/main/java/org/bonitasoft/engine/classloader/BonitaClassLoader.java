@@ -23,12 +23,19 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -45,14 +52,34 @@ import org.bonitasoft.engine.data.instance.model.impl.XStreamFactory;
 @Slf4j
 public class BonitaClassLoader extends URLClassLoader {
 
+    /**
+     * Maximum number of class names kept in {@link #classesNotFound}, it is cleared when reached
+     */
+    static final int MAX_CLASSES_NOT_FOUND = 10_000;
+    private static final Pattern VERSIONED_ENTRY = Pattern.compile("^META-INF/versions/\\d+/");
+
     private final ClassLoaderIdentifier id;
     protected Map<String, File> nonJarResources;
-    // that directory contains the jars and resources given in the constructor
+    // that directory contains the resources given in the constructor, and the jars when they are not in the JarStore
     private final File temporaryDirectory;
     private boolean isActive = true;
     private final Instant creationTime = Instant.now();
     private final String uuid = generateUUID();
-    private final Set<BonitaClassLoader> children = new HashSet<>();
+    /**
+     * Concurrent: sibling classloaders are created and destroyed in parallel when a scope is refreshed
+     */
+    private final Set<BonitaClassLoader> children = ConcurrentHashMap.newKeySet();
+    /**
+     * Folders (e.g. <code>org/bonitasoft/engine</code>) having at least one entry in the jars of this classloader, used
+     * to not search the jars for classes and resources they do not have. It is null when the jars could not be indexed.
+     */
+    private final Set<String> indexedFolders;
+    /**
+     * Names of classes found neither in this classloader nor in its parents. Jars of a classloader never change (it is
+     * replaced when its dependencies are updated) so these lookups will always fail: e.g. the BeanInfo and Customizer
+     * classes probed by Groovy
+     */
+    private final Set<String> classesNotFound = ConcurrentHashMap.newKeySet();
 
     BonitaClassLoader(ClassLoaderIdentifier id, ClassLoader parent, Set<File> jars, Map<String, File> nonJarResources,
             File temporaryDirectory) {
@@ -62,6 +89,7 @@ public class BonitaClassLoader extends URLClassLoader {
         //TODO: These non-jar resources might be added along with jars without having to do special handling
         this.nonJarResources = new HashMap<>(nonJarResources);
         this.temporaryDirectory = temporaryDirectory;
+        this.indexedFolders = indexFolders(jars);
         if (parent instanceof BonitaClassLoader) {
             //The parent is not a BonitaClassloader when we are on the Global classloader
             ((BonitaClassLoader) parent).children.add(this);
@@ -74,6 +102,46 @@ public class BonitaClassLoader extends URLClassLoader {
         }
     }
 
+    private static Set<String> indexFolders(Set<File> jars) {
+        Set<String> folders = new HashSet<>();
+        for (File jar : jars) {
+            try (JarFile jarFile = new JarFile(jar)) {
+                Manifest manifest = jarFile.getManifest();
+                if (manifest != null && manifest.getMainAttributes().containsKey(Attributes.Name.CLASS_PATH)) {
+                    // the jar references other jars that are also searched by the URLClassLoader
+                    log.debug("Jar {} has a Class-Path, lookups will not use the index", jar);
+                    return null;
+                }
+                jarFile.stream().map(JarEntry::getName).map(BonitaClassLoader::getFolder).forEach(folders::add);
+            } catch (IOException e) {
+                log.debug("Unable to index the jar {}, lookups will not use the index: {}", jar, e.getMessage());
+                return null;
+            }
+        }
+        return folders;
+    }
+
+    /**
+     * @return the folder of a jar entry or resource, e.g. <code>org/bonitasoft</code> for
+     *         <code>org/bonitasoft/Some.class</code> or <code>org/bonitasoft/</code>
+     */
+    static String getFolder(String entryName) {
+        String name = VERSIONED_ENTRY.matcher(entryName).replaceFirst("");
+        if (name.endsWith("/")) {
+            return name.substring(0, name.length() - 1);
+        }
+        int lastSlash = name.lastIndexOf('/');
+        return lastSlash < 0 ? "" : name.substring(0, lastSlash);
+    }
+
+    private boolean mayHaveClass(String className) {
+        return mayHaveResource(className.replace('.', '/') + ".class");
+    }
+
+    private boolean mayHaveResource(String resourceName) {
+        return indexedFolders == null || indexedFolders.contains(getFolder(resourceName));
+    }
+
     private static String generateUUID() {
         return UUID.randomUUID().toString();
     }
@@ -107,11 +175,30 @@ public class BonitaClassLoader extends URLClassLoader {
         return super.getResourceAsStream(name);
     }
 
+    @Override
+    public URL findResource(String name) {
+        if (!mayHaveResource(name)) {
+            return null;
+        }
+        return super.findResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        if (!mayHaveResource(name)) {
+            return Collections.emptyEnumeration();
+        }
+        return super.findResources(name);
+    }
+
     @Override
     protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+        if (classesNotFound.contains(name)) {
+            throw new ClassNotFoundException(name);
+        }
         Class<?> c = null;
         c = findLoadedClass(name);
-        if (c == null) {
+        if (c == null && mayHaveClass(name)) {
             try {
                 c = findClass(name);
             } catch (final ClassNotFoundException e) {
@@ -126,7 +213,12 @@ public class BonitaClassLoader extends URLClassLoader {
             }
         }
         if (c == null) {
-            c = getParent().loadClass(name);
+            try {
+                c = getParent().loadClass(name);
+            } catch (final ClassNotFoundException e) {
+                rememberClassNotFound(name);
+                throw e;
+            }
         }
         if (resolve) {
             resolveClass(c);
@@ -134,6 +226,13 @@ public class BonitaClassLoader extends URLClassLoader {
         return c;
     }
 
+    private void rememberClassNotFound(String name) {
+        if (classesNotFound.size() >= MAX_CLASSES_NOT_FOUND) {
+            classesNotFound.clear();
+        }
+        classesNotFound.add(name);
+    }
+
     public void destroy() {
         XStreamFactory.remove(this);
         ClassLoader parent = getParent();
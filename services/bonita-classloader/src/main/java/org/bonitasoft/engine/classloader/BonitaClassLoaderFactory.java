@@ -33,11 +33,33 @@ public class BonitaClassLoaderFactory {
 
     private static final Pattern jarMatcher = Pattern.compile(".*\\.jar");
 
-    static BonitaClassLoader createClassLoader(Stream<BonitaResource> resources, ClassLoaderIdentifier id,
+    public static BonitaClassLoader createClassLoader(Stream<BonitaResource> resources, ClassLoaderIdentifier id,
             URI temporaryDirectoryUri,
             ClassLoader parent) throws IOException {
         File temporaryDirectory = createTemporaryDirectory(temporaryDirectoryUri);
-        Map<String, File> allFiles = writeResourcesOnFileSystem(resources, temporaryDirectory);
+        Map<String, File> allFiles = writeResourcesOnFileSystem(resources,
+                resource -> writeResource(resource, temporaryDirectory));
+        return createClassLoader(allFiles, id, temporaryDirectory, parent);
+    }
+
+    /**
+     * Create a classloader using the jars of the given {@link JarStore}: jars are only written if they are not already
+     * in the store. Other resources are written in a temporary directory deleted when the classloader is destroyed.
+     */
+    static BonitaClassLoader createClassLoader(Stream<BonitaResource> resources, ClassLoaderIdentifier id,
+            URI temporaryDirectoryUri, ClassLoader parent, JarStore jarStore) throws IOException {
+        File temporaryDirectory = createTemporaryDirectory(temporaryDirectoryUri);
+        Map<String, File> allFiles = writeResourcesOnFileSystem(resources, resource -> {
+            if (jarMatcher.matcher(resource.getName()).matches()) {
+                return Pair.of(resource.getName(), jarStore.store(resource));
+            }
+            return writeResource(resource, temporaryDirectory);
+        });
+        return createClassLoader(allFiles, id, temporaryDirectory, parent);
+    }
+
+    private static BonitaClassLoader createClassLoader(Map<String, File> allFiles, ClassLoaderIdentifier id,
+            File temporaryDirectory, ClassLoader parent) {
         Set<File> jars = allFiles.entrySet().stream().filter(u -> jarMatcher.matcher(u.getKey()).matches())
                 .map(Map.Entry::getValue).collect(Collectors.toSet());
         Map<String, File> nonJarResources = allFiles.entrySet().stream()
@@ -55,10 +77,10 @@ public class BonitaClassLoaderFactory {
     }
 
     private static Map<String, File> writeResourcesOnFileSystem(final Stream<BonitaResource> resources,
-            File temporaryDirectory) {
+            ResourceWriter resourceWriter) {
         return resources.map(resource -> {
             try {
-                return writeResource(resource, temporaryDirectory);
+                return resourceWriter.write(resource);
             } catch (final IOException e) {
                 throw new BonitaRuntimeException(e);
             }
@@ -73,4 +95,10 @@ public class BonitaClassLoaderFactory {
         IOUtil.write(file, resource.getContent());
         return Pair.of(name, file);
     }
+
+    @FunctionalInterface
+    private interface ResourceWriter {
+
+        Pair<String, File> write(BonitaResource resource) throws IOException;
+    }
 }
@@ -18,12 +18,15 @@ import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.transaction.Status;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.commons.NullCheckingUtil;
 import org.bonitasoft.engine.dependency.SDependencyException;
@@ -54,6 +57,8 @@ import org.springframework.stereotype.Component;
 @Component("classLoaderService") //id  used by RefreshClassLoaderTask and @InjectedService
 public class ClassLoaderServiceImpl implements ClassLoaderService {
 
+    public static final String CLASSLOADER_CREATION_TIMER = "bonita.bpmengine.classloader.creation";
+
     private final Object synchroLock = new Object();
     private final ThreadLocal<RefreshClassloaderSynchronization> currentRefreshTask = new ThreadLocal<>();
     private final ParentClassLoaderResolver parentClassLoaderResolver;
@@ -69,13 +74,16 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
     private final UserTransactionService userTransactionService;
     private final BroadcastService broadcastService;
     private final ClassLoaderUpdater classLoaderUpdater;
+    private final JarStore jarStore;
+    private final MeterRegistry meterRegistry;
 
     public ClassLoaderServiceImpl(final ParentClassLoaderResolver parentClassLoaderResolver,
             @Qualifier("platformEventService") EventService eventService,
             PlatformDependencyService platformDependencyService,
             SessionAccessor sessionAccessor,
             UserTransactionService userTransactionService, BroadcastService broadcastService,
-            ClassLoaderUpdater classLoaderUpdater, List<PlatformClassLoaderListener> platformClassLoaderListeners) {
+            ClassLoaderUpdater classLoaderUpdater, List<PlatformClassLoaderListener> platformClassLoaderListeners,
+            JarStore jarStore, MeterRegistry meterRegistry) {
         this.parentClassLoaderResolver = parentClassLoaderResolver;
         this.eventService = eventService;
         this.platformDependencyService = platformDependencyService;
@@ -84,6 +92,8 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
         this.broadcastService = broadcastService;
         this.classLoaderUpdater = classLoaderUpdater;
         this.platformClassLoaderListeners.addAll(platformClassLoaderListeners);
+        this.jarStore = jarStore;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -178,11 +188,19 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
     }
 
     BonitaClassLoader createClassloader(ClassLoaderIdentifier id) throws IOException, SClassLoaderException {
+        // resolve the parent first to not include its creation time in the one of this classloader
+        ClassLoader parent = getParentClassLoader(id);
         log.debug("Creating classloader {}", id);
+        long start = System.nanoTime();
         BonitaClassLoader classLoader = BonitaClassLoaderFactory.createClassLoader(getDependencies(id), id,
-                getLocalTemporaryFolder(id),
-                getParentClassLoader(id));
-        log.info("Created classloader {}: {}", id, classLoader);
+                getLocalTemporaryFolder(id), parent, jarStore);
+        long duration = System.nanoTime() - start;
+        Timer.builder(CLASSLOADER_CREATION_TIMER)
+                .tag("scope", id.getType().name())
+                .description("Time taken to create the classloaders, including the writing of their jars")
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+        log.info("Created classloader {} in {} ms: {}", id, TimeUnit.NANOSECONDS.toMillis(duration), classLoader);
         return classLoader;
     }
 
@@ -13,19 +13,26 @@
  **/
 package org.bonitasoft.engine.classloader;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.service.BonitaTaskExecutor;
 import org.bonitasoft.engine.sessionaccessor.STenantIdNotSetException;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -40,23 +47,41 @@ class ClassLoaderUpdater {
     private final BonitaTaskExecutor bonitaTaskExecutor;
     private final SessionAccessor sessionAccessor;
     private final UserTransactionService userTransactionService;
+    private final int refreshParallelism;
 
     public ClassLoaderUpdater(BonitaTaskExecutor bonitaTaskExecutor,
-            SessionAccessor sessionAccessor, UserTransactionService userTransactionService) {
+            SessionAccessor sessionAccessor, UserTransactionService userTransactionService,
+            @Value("${bonita.platform.classloader.refresh.parallelism:4}") int refreshParallelism) {
         this.bonitaTaskExecutor = bonitaTaskExecutor;
         this.sessionAccessor = sessionAccessor;
         this.userTransactionService = userTransactionService;
+        this.refreshParallelism = Math.max(1, refreshParallelism);
     }
 
+    /**
+     * Refresh the given classloaders. Parents are refreshed before their children and classloaders that do not depend
+     * on each other (e.g. the classloaders of several processes) are refreshed in parallel, by groups of
+     * <code>bonita.platform.classloader.refresh.parallelism</code>, each one in its own transaction.
+     */
     public void refreshClassloaders(ClassLoaderServiceImpl classLoaderService, Long tenantId,
             Set<ClassLoaderIdentifier> ids) {
-
-        execute(tenantId, () -> {
-            for (ClassLoaderIdentifier id : ids) {
-                classLoaderService.refreshClassLoaderImmediately(id);
+        // GLOBAL, then TENANT, then PROCESS
+        Map<ScopeType, List<ClassLoaderIdentifier>> idsByScope = ids.stream()
+                .collect(Collectors.groupingBy(ClassLoaderIdentifier::getType,
+                        () -> new TreeMap<>(Comparator.reverseOrder()), Collectors.toList()));
+        for (List<ClassLoaderIdentifier> idsOfScope : idsByScope.values()) {
+            for (int i = 0; i < idsOfScope.size(); i += refreshParallelism) {
+                List<Future<?>> refreshes = idsOfScope
+                        .subList(i, Math.min(i + refreshParallelism, idsOfScope.size())).stream()
+                        .map(id -> submit(tenantId, () -> {
+                            classLoaderService.refreshClassLoaderImmediately(id);
+                            return null;
+                        })).collect(Collectors.toList());
+                for (Future<?> refresh : refreshes) {
+                    waitFor(refresh);
+                }
             }
-            return null;
-        });
+        }
     }
 
     BonitaClassLoader initializeClassLoader(ClassLoaderServiceImpl classLoaderService,
@@ -66,8 +91,14 @@ class ClassLoaderUpdater {
     }
 
     private <T> T execute(Long tenantId, Callable<T> callable) {
-        Future<T> execute = bonitaTaskExecutor.execute(
-                inSession(tenantId, inTransaction(callable)));
+        return waitFor(submit(tenantId, callable));
+    }
+
+    private <T> Future<T> submit(Long tenantId, Callable<T> callable) {
+        return bonitaTaskExecutor.execute(inSession(tenantId, inTransaction(callable)));
+    }
+
+    private <T> T waitFor(Future<T> execute) {
         try {
             return execute.get(5, TimeUnit.MINUTES);//hard coded timeout, it should never happen
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
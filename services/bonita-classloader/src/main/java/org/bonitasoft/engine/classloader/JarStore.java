@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.classloader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.home.BonitaResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed store of the jars used by the classloaders.
+ * <p>
+ * Each jar is written once in the store, in a file named after the SHA-256 hash of its content. Classloaders having
+ * the same dependency (e.g. several versions of a process embedding the same library) share the same file, and the
+ * files are kept across restarts so that only new or modified jars are written when the classloaders are created
+ * again.
+ * Files are never modified once written: they are written to a temporary file then moved to their final name, so that
+ * several nodes or engines can share the same store.
+ * Files that were not used for more than the retention period are deleted when the store is opened.
+ */
+@Slf4j
+@Component
+class JarStore {
+
+    private static final String JAR_EXTENSION = ".jar";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path folder;
+    private final Duration retention;
+    private volatile boolean opened;
+
+    public JarStore(
+            @Value("${bonita.platform.classloader.jarstore.folder:${bonita.home:${user.dir}}/jar_store}") String folder,
+            @Value("${bonita.platform.classloader.jarstore.retention:30}") long retentionInDays) {
+        this.folder = Paths.get(folder);
+        this.retention = Duration.ofDays(retentionInDays);
+    }
+
+    /**
+     * @return the file of the store having the content of the given resource, written if not already present
+     */
+    File store(BonitaResource resource) throws IOException {
+        open();
+        Path jar = folder.resolve(hash(resource.getContent()) + JAR_EXTENSION);
+        if (Files.exists(jar) && Files.size(jar) == resource.getContent().length) {
+            log.trace("Jar {} of {} already in the store", jar, resource.getName());
+            // mark the jar as used, it is not deleted as long as it is used by a classloader:
+            Files.setLastModifiedTime(jar, FileTime.from(Instant.now()));
+            return jar.toFile();
+        }
+        log.debug("Writing jar {} of {} in the store", jar, resource.getName());
+        Path temporaryFile = Files.createTempFile(folder, "jar", ".tmp");
+        try {
+            Files.write(temporaryFile, resource.getContent());
+            move(temporaryFile, jar);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        return jar.toFile();
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void open() throws IOException {
+        if (opened) {
+            return;
+        }
+        synchronized (this) {
+            if (opened) {
+                return;
+            }
+            Files.createDirectories(folder);
+            deleteUnusedJars();
+            opened = true;
+        }
+    }
+
+    private void deleteUnusedJars() throws IOException {
+        Instant limit = Instant.now().minus(retention);
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(folder, "*" + JAR_EXTENSION)) {
+            for (Path jar : jars) {
+                if (Files.getLastModifiedTime(jar).toInstant().isBefore(limit)) {
+                    log.debug("Deleting jar {} of the store, it was not used since {}", jar, limit);
+                    deleteQuietly(jar);
+                }
+            }
+        }
+    }
+
+    private void deleteQuietly(Path jar) {
+        try {
+            Files.deleteIfExists(jar);
+        } catch (IOException e) {
+            // e.g. still opened by an other engine using the same store on Windows
+            log.debug("Unable to delete jar {} of the store: {}", jar, e.getMessage());
+        }
+    }
+
+    Path getFolder() {
+        return folder;
+    }
+
+    static String hash(byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(content);
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
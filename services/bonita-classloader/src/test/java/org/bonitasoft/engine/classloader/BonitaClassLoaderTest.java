@@ -14,6 +14,7 @@
 package org.bonitasoft.engine.classloader;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.GLOBAL;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 import static org.bonitasoft.engine.dependency.model.ScopeType.PROCESS;
@@ -22,8 +23,13 @@ import static org.bonitasoft.engine.io.IOUtil.generateJar;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -78,6 +84,26 @@ public class BonitaClassLoaderTest {
                 .doesNotExist();
     }
 
+    @Test
+    public void should_share_jars_of_the_jar_store_and_keep_them_on_destroy() throws Exception {
+        File storeFolder = temporaryFolder.newFolder();
+        JarStore jarStore = new JarStore(storeFolder.getPath(), 30);
+        BonitaClassLoader classLoader1 = BonitaClassLoaderFactory.createClassLoader(
+                Stream.of(resource("myJar.jar", "content".getBytes()), resource("myResource.txt", "txt".getBytes())),
+                identifier(PROCESS, 12L), temporaryFolder.newFolder().toURI(),
+                BonitaClassLoaderTest.class.getClassLoader(), jarStore);
+        BonitaClassLoader classLoader2 = BonitaClassLoaderFactory.createClassLoader(
+                Stream.of(resource("myJar.jar", "content".getBytes())), identifier(PROCESS, 13L),
+                temporaryFolder.newFolder().toURI(), BonitaClassLoaderTest.class.getClassLoader(), jarStore);
+
+        assertThat(classLoader1.getURLs()).containsExactly(classLoader2.getURLs());
+        assertThat(classLoader1.getResourceAsStream("myResource.txt")).hasContent("txt");
+        classLoader1.destroy();
+
+        assertThat(classLoader1.getTemporaryFolder()).doesNotExist();
+        assertThat(storeFolder.listFiles()).hasSize(1);
+    }
+
     @Test
     public void should_create_second_classloader_use_other_folder() throws Exception {
         //given
@@ -225,6 +251,110 @@ public class BonitaClassLoaderTest {
         assertThat(invoke(child2.loadClass("Child"), "getVersion")).isEqualTo("Version of the lib in parent is 2.0");
     }
 
+    @Test
+    public void should_get_folder_of_jar_entries() {
+        assertThat(BonitaClassLoader.getFolder("org/bonitasoft/Some.class")).isEqualTo("org/bonitasoft");
+        assertThat(BonitaClassLoader.getFolder("org/bonitasoft/")).isEqualTo("org/bonitasoft");
+        assertThat(BonitaClassLoader.getFolder("Some.class")).isEqualTo("");
+        assertThat(BonitaClassLoader.getFolder("META-INF/versions/11/org/bonitasoft/Some.class"))
+                .isEqualTo("org/bonitasoft");
+    }
+
+    @Test
+    public void should_load_classes_and_resources_of_indexed_jars() throws Exception {
+        Map<String, byte[]> resources = new HashMap<>();
+        resources.put("org/bonitasoft/lib/resource.txt", "content".getBytes());
+        BonitaClassLoader classLoader = createClassloader(
+                resource("lib.jar", generateJar(resources)),
+                resource("hello.jar", generateJar("Hello",
+                        "public class Hello{",
+                        "}")));
+
+        assertThat(classLoader.loadClass("Hello").getClassLoader()).isSameAs(classLoader);
+        assertThat(classLoader.getResourceAsStream("org/bonitasoft/lib/resource.txt")).hasContent("content");
+        assertThat(classLoader.findResource("org/bonitasoft/other/resource.txt")).isNull();
+        assertThat(classLoader.findResources("org/bonitasoft/other/resource.txt").hasMoreElements()).isFalse();
+        // classes of the parent are still found
+        assertThat(classLoader.loadClass(BonitaClassLoaderTest.class.getName()))
+                .isSameAs(BonitaClassLoaderTest.class);
+        classLoader.destroy();
+    }
+
+    @Test
+    public void should_not_ask_the_parent_again_for_a_class_it_did_not_find() throws Exception {
+        List<String> lookupsInParent = new ArrayList<>();
+        ClassLoader parent = new ClassLoader(testClassLoader) {
+
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                lookupsInParent.add(name);
+                return super.loadClass(name, resolve);
+            }
+        };
+        BonitaClassLoader classLoader = createClassloader(parent);
+
+        assertThatThrownBy(() -> classLoader.loadClass("org.bonitasoft.UnknownBeanInfo"))
+                .isInstanceOf(ClassNotFoundException.class);
+        assertThatThrownBy(() -> classLoader.loadClass("org.bonitasoft.UnknownBeanInfo"))
+                .isInstanceOf(ClassNotFoundException.class);
+        classLoader.loadClass(BonitaClassLoaderTest.class.getName());
+        classLoader.loadClass(BonitaClassLoaderTest.class.getName());
+
+        assertThat(lookupsInParent).containsExactly("org.bonitasoft.UnknownBeanInfo",
+                BonitaClassLoaderTest.class.getName(), BonitaClassLoaderTest.class.getName());
+        classLoader.destroy();
+    }
+
+    @Test
+    public void should_keep_children_consistent_when_siblings_are_refreshed_concurrently() throws Exception {
+        final BonitaClassLoader parent = createClassloader();
+        final int threads = 8;
+        final int refreshesPerThread = 20;
+        final List<List<URI>> folders = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            List<URI> folderOfThread = new ArrayList<>();
+            for (int j = 0; j < refreshesPerThread; j++) {
+                folderOfThread.add(temporaryFolder.newFolder().toURI());
+            }
+            folders.add(folderOfThread);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<BonitaClassLoader>> refreshes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final long processId = 1000L + i;
+                final List<URI> folderOfThread = folders.get(i);
+                // each refresh destroys the previous classloader of the process and creates a new one
+                refreshes.add(executor.submit(() -> {
+                    BonitaClassLoader current = null;
+                    for (URI folder : folderOfThread) {
+                        if (current != null) {
+                            current.destroy();
+                        }
+                        current = BonitaClassLoaderFactory.createClassLoader(Stream.empty(),
+                                identifier(PROCESS, processId), folder, parent);
+                    }
+                    return current;
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                while (refreshes.stream().anyMatch(f -> !f.isDone())) {
+                    parent.getChildren().forEach(BonitaClassLoader::getIdentifier);
+                }
+                return null;
+            });
+            final List<BonitaClassLoader> lastClassLoaders = new ArrayList<>();
+            for (Future<BonitaClassLoader> refresh : refreshes) {
+                lastClassLoaders.add(refresh.get());
+            }
+            reader.get();
+
+            assertThat(parent.getChildren()).containsExactlyInAnyOrderElementsOf(lastClassLoaders);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private BonitaClassLoader createClassloader(BonitaResource... resources) throws IOException {
         return createClassloader(testClassLoader, resources);
     }
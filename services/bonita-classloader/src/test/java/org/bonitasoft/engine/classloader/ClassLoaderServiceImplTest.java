@@ -31,6 +31,8 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.dependency.impl.PlatformDependencyService;
 import org.bonitasoft.engine.dependency.impl.TenantDependencyService;
 import org.bonitasoft.engine.events.EventService;
@@ -85,6 +87,7 @@ public class ClassLoaderServiceImplTest {
     private ClassLoader testClassLoader;
     private BonitaClassLoader processClassLoader;
     private MyClassLoaderListener myClassLoaderListener;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Rule
     public TemporaryFolder temporaryFolder = new TemporaryFolder();
@@ -96,7 +99,8 @@ public class ClassLoaderServiceImplTest {
         classLoaderService = new ClassLoaderServiceImpl(new ParentClassLoaderResolver(sessionAccessor),
                 eventService,
                 platformDependencyService, sessionAccessor, userTransactionService, broadcastService,
-                classLoaderUpdater, Arrays.asList(platformClassLoaderListener1, platformClassLoaderListener2));
+                classLoaderUpdater, Arrays.asList(platformClassLoaderListener1, platformClassLoaderListener2),
+                new JarStore(temporaryFolder.newFolder().getPath(), 30), meterRegistry);
 
         when(classLoaderUpdater.initializeClassLoader(eq(classLoaderService), any()))
                 .thenAnswer(a -> classLoaderService.createClassloader(a.getArgument(1)));
@@ -323,6 +327,16 @@ public class ClassLoaderServiceImplTest {
         assertThat(systemOutRule.getLog()).contains("No dependency service is initialized");
     }
 
+    @Test
+    public void should_record_the_creation_time_of_classloaders_by_scope() {
+        assertThat(meterRegistry.find(ClassLoaderServiceImpl.CLASSLOADER_CREATION_TIMER).tag("scope", "PROCESS")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(ClassLoaderServiceImpl.CLASSLOADER_CREATION_TIMER).tag("scope", "TENANT")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(ClassLoaderServiceImpl.CLASSLOADER_CREATION_TIMER).tag("scope", "GLOBAL")
+                .timer().count()).isEqualTo(1);
+    }
+
     @Test
     public void should_initialize_class_loader_when_getting_it() {
         classLoaderService.getClassLoader(identifier(TENANT, 43L));
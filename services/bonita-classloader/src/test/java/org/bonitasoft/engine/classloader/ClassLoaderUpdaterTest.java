@@ -15,24 +15,32 @@ package org.bonitasoft.engine.classloader;
 
 import static java.util.Collections.singleton;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 import static org.bonitasoft.engine.dependency.model.ScopeType.PROCESS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.service.BonitaTaskExecutor;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -54,9 +62,13 @@ public class ClassLoaderUpdaterTest {
     private SessionAccessor sessionAccessor;
     @Mock
     private ClassLoaderServiceImpl classLoaderService;
-    @InjectMocks
     private ClassLoaderUpdater classLoaderUpdater;
 
+    @Before
+    public void before() {
+        classLoaderUpdater = new ClassLoaderUpdater(bonitaTaskExecutor, sessionAccessor, userTransactionService, 2);
+    }
+
     @Test
     public void should_refresh_classloaders_in_session_and_in_transaction() throws Exception {
         doReturn(completedFuture(null)).when(bonitaTaskExecutor).execute(callableGivenToTheTaskExecutor.capture());
@@ -68,13 +80,41 @@ public class ClassLoaderUpdaterTest {
         ids.add(identifier(PROCESS, 45L));
         classLoaderUpdater.refreshClassloaders(classLoaderService, 12L, ids);
 
-        callableGivenToTheTaskExecutor.getValue().call();
-        callableGivenToTheTransactionService.getValue().call();
+        for (Callable<?> callable : callableGivenToTheTaskExecutor.getAllValues()) {
+            callable.call();
+        }
+        for (Callable<?> callable : callableGivenToTheTransactionService.getAllValues()) {
+            callable.call();
+        }
 
         verify(classLoaderService).refreshClassLoaderImmediately(identifier(ScopeType.TENANT, 4L));
         verify(classLoaderService).refreshClassLoaderImmediately(identifier(PROCESS, 45L));
     }
 
+    @Test
+    public void should_refresh_parent_classloaders_before_their_children_each_one_in_its_own_task() throws Exception {
+        doReturn(completedFuture(null)).when(bonitaTaskExecutor).execute(callableGivenToTheTaskExecutor.capture());
+        doAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call()).when(userTransactionService)
+                .executeInTransaction(any());
+
+        HashSet<ClassLoaderIdentifier> ids = new HashSet<>();
+        ids.add(identifier(PROCESS, 45L));
+        ids.add(identifier(PROCESS, 46L));
+        ids.add(identifier(PROCESS, 47L));
+        ids.add(identifier(ScopeType.TENANT, 4L));
+        classLoaderUpdater.refreshClassloaders(classLoaderService, 12L, ids);
+
+        List<Callable<?>> tasks = callableGivenToTheTaskExecutor.getAllValues();
+        assertThat(tasks).hasSize(4);
+        for (Callable<?> task : tasks) {
+            task.call();
+        }
+        InOrder inOrder = inOrder(classLoaderService);
+        inOrder.verify(classLoaderService).refreshClassLoaderImmediately(identifier(ScopeType.TENANT, 4L));
+        inOrder.verify(classLoaderService, times(3)).refreshClassLoaderImmediately(
+                argThat(id -> id.getType() == PROCESS));
+    }
+
     @Test
     public void should_not_create_a_session_when_there_is_no_tenant_id() throws Exception {
         doReturn(completedFuture(null)).when(bonitaTaskExecutor).execute(callableGivenToTheTaskExecutor.capture());
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.classloader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.home.BonitaResource.resource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File storeFolder;
+    private JarStore jarStore;
+
+    @Before
+    public void before() throws Exception {
+        storeFolder = temporaryFolder.newFolder();
+        jarStore = new JarStore(storeFolder.getPath(), 30);
+    }
+
+    @Test
+    public void should_store_jar_in_a_file_named_after_its_content() throws Exception {
+        File jar = jarStore.store(resource("myJar.jar", "content".getBytes()));
+
+        assertThat(jar).hasParent(storeFolder).hasBinaryContent("content".getBytes());
+        assertThat(jar.getName()).isEqualTo(JarStore.hash("content".getBytes()) + ".jar");
+    }
+
+    @Test
+    public void should_share_the_file_of_jars_having_the_same_content() throws Exception {
+        File jar1 = jarStore.store(resource("myJar1.jar", "content".getBytes()));
+        File jar2 = jarStore.store(resource("myJar2.jar", "content".getBytes()));
+        File jar3 = jarStore.store(resource("myJar1.jar", "other content".getBytes()));
+
+        assertThat(jar1).isEqualTo(jar2);
+        assertThat(jar3).isNotEqualTo(jar1);
+        assertThat(storeFolder.listFiles()).containsOnly(jar1, jar3);
+    }
+
+    @Test
+    public void should_reuse_jars_written_by_a_previous_store() throws Exception {
+        File jar = jarStore.store(resource("myJar.jar", "content".getBytes()));
+        Files.setLastModifiedTime(jar.toPath(), FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        File reused = new JarStore(storeFolder.getPath(), 30).store(resource("myJar.jar", "content".getBytes()));
+
+        assertThat(reused).isEqualTo(jar);
+        assertThat(Files.getLastModifiedTime(reused.toPath()).toInstant())
+                .isAfter(Instant.now().minus(Duration.ofHours(1)));
+    }
+
+    @Test
+    public void should_rewrite_jar_having_a_truncated_content() throws Exception {
+        Path jar = storeFolder.toPath().resolve(JarStore.hash("content".getBytes()) + ".jar");
+        Files.write(jar, "cont".getBytes());
+
+        jarStore.store(resource("myJar.jar", "content".getBytes()));
+
+        assertThat(jar).hasBinaryContent("content".getBytes());
+    }
+
+    @Test
+    public void should_delete_jars_not_used_since_the_retention_period_when_opening_the_store() throws Exception {
+        Path unused = storeFolder.toPath().resolve(JarStore.hash("unused".getBytes()) + ".jar");
+        Files.write(unused, "unused".getBytes());
+        Files.setLastModifiedTime(unused, FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+        Path recent = storeFolder.toPath().resolve(JarStore.hash("recent".getBytes()) + ".jar");
+        Files.write(recent, "recent".getBytes());
+
+        jarStore.store(resource("myJar.jar", "content".getBytes()));
+
+        assertThat(unused).doesNotExist();
+        assertThat(recent).exists();
+    }
+}
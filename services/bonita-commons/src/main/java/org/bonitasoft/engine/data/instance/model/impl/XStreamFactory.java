@@ -13,6 +13,7 @@
  **/
 package org.bonitasoft.engine.data.instance.model.impl;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -21,7 +22,8 @@ import com.thoughtworks.xstream.security.AnyTypePermission;
 
 public class XStreamFactory {
 
-    private static final Map<ClassLoader, XStream> XSTREAM_MAP = new WeakHashMap<>();
+    // synchronized: classloaders are destroyed concurrently when they are refreshed in parallel
+    private static final Map<ClassLoader, XStream> XSTREAM_MAP = Collections.synchronizedMap(new WeakHashMap<>());
 
     public static XStream getXStream() {
         final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
@@ -19,10 +19,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.archive.ArchiveInsertRecord;
 import org.bonitasoft.engine.archive.ArchiveService;
@@ -57,11 +61,17 @@ import org.bonitasoft.engine.recorder.model.DeleteRecord;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
 import org.bonitasoft.engine.recorder.model.InsertRecord;
 import org.bonitasoft.engine.recorder.model.UpdateRecord;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 
 /**
  * General mechanism for lookup is to look in specific flow node to search a data instance. When referring to "local"
  * data instance, it means the lookup is
  * performed only on the specific element, and not on inherited data for parent containers.
+ * <p>
+ * When the transaction cache is enabled, data instances looked up by name are kept until the end of the transaction,
+ * so that the container hierarchy and the data instances are not read again each time the same data is evaluated.
  *
  * @author Zhao Na
  * @author Elias Ricken de Medeiros
@@ -75,17 +85,56 @@ public class DataInstanceServiceImpl implements DataInstanceService {
 
     private static final String DATA_INSTANCE = "DATA_INSTANCE";
 
+    public static final String DATA_INSTANCE_QUERIES_AVOIDED = "bonita.bpmengine.data.queries.avoided";
+
     protected final Recorder recorder;
 
     protected final ReadPersistenceService persistenceService;
 
     protected final ArchiveService archiveService;
 
+    private final UserTransactionService transactionService;
+
+    private final boolean transactionCacheEnabled;
+
+    private final Counter queriesAvoidedCounter;
+
+    private final ThreadLocal<DataInstanceTransactionCache> transactionCaches = new ThreadLocal<>();
+
     public DataInstanceServiceImpl(final Recorder recorder, final ReadPersistenceService persistenceService,
-            final ArchiveService archiveService) {
+            final ArchiveService archiveService, final UserTransactionService transactionService,
+            final boolean transactionCacheEnabled, final MeterRegistry meterRegistry, final Long tenantId) {
         this.recorder = recorder;
         this.persistenceService = persistenceService;
         this.archiveService = archiveService;
+        this.transactionService = transactionService;
+        this.transactionCacheEnabled = transactionCacheEnabled;
+        queriesAvoidedCounter = Counter.builder(DATA_INSTANCE_QUERIES_AVOIDED)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .baseUnit("queries")
+                .description("Data instance lookups served by the transaction cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the cache of the current transaction, or null if the cache is disabled or there is no transaction
+     */
+    private DataInstanceTransactionCache getTransactionCache() {
+        if (!transactionCacheEnabled || !transactionService.isTransactionActive()) {
+            return null;
+        }
+        DataInstanceTransactionCache transactionCache = transactionCaches.get();
+        if (transactionCache == null) {
+            try {
+                transactionService.registerBonitaSynchronization(
+                        (BonitaTransactionSynchronization) txState -> transactionCaches.remove());
+            } catch (final STransactionNotFoundException e) {
+                return null;
+            }
+            transactionCache = new DataInstanceTransactionCache();
+            transactionCaches.set(transactionCache);
+        }
+        return transactionCache;
     }
 
     private void archiveDataInstance(final SDataInstance sDataInstance) throws SDataInstanceException {
@@ -106,11 +155,8 @@ public class DataInstanceServiceImpl implements DataInstanceService {
             final ParentContainerResolver parentContainerResolver) throws SDataInstanceException {
         NullCheckingUtil.checkArgsNotNull(dataName, containerType);
 
-        final String queryName = "getDataInstancesWithNames";
-        final Map<String, Object> inputParameters = new HashMap<String, Object>();
-        inputParameters.put("dataNames", Collections.singletonList(dataName));
-        final List<SDataInstance> dataInstances = getSDatainstanceOfContainers(containerId, containerType,
-                parentContainerResolver, queryName, inputParameters);
+        final List<SDataInstance> dataInstances = getDataInstances(Collections.singletonList(dataName), containerId,
+                containerType, parentContainerResolver);
         if (dataInstances.size() == 0) {
             throw new SDataInstanceNotFoundException(
                     "DataInstance with name not found: [name: " + dataName + ", container type: " + containerType
@@ -419,7 +465,35 @@ public class DataInstanceServiceImpl implements DataInstanceService {
         if (dataNames.isEmpty()) {
             return Collections.emptyList();
         }
+        final DataInstanceTransactionCache transactionCache = getTransactionCache();
+        if (transactionCache == null) {
+            return getDataInstancesWithNames(dataNames, containerId, containerType, parentContainerResolver);
+        }
+        final DataContainer container = new DataContainer(containerId, containerType);
+        final List<SDataInstance> dataInstances = new ArrayList<>(dataNames.size());
+        final List<String> dataNamesToRead = new ArrayList<>();
+        for (final String dataName : new LinkedHashSet<>(dataNames)) {
+            final SDataInstance dataInstance = transactionCache.get(container, dataName);
+            if (dataInstance != null) {
+                dataInstances.add(dataInstance);
+            } else {
+                dataNamesToRead.add(dataName);
+            }
+        }
+        if (dataNamesToRead.isEmpty()) {
+            queriesAvoidedCounter.increment();
+            return dataInstances;
+        }
+        final List<SDataInstance> readDataInstances = getDataInstancesWithNames(dataNamesToRead, containerId,
+                containerType, parentContainerResolver);
+        transactionCache.put(container, readDataInstances);
+        dataInstances.addAll(readDataInstances);
+        return dataInstances;
+    }
 
+    private List<SDataInstance> getDataInstancesWithNames(final List<String> dataNames, final long containerId,
+            final String containerType, final ParentContainerResolver parentContainerResolver)
+            throws SDataInstanceNotFoundException, SDataInstanceReadException {
         final String queryName = "getDataInstancesWithNames";
         final Map<String, Object> inputParameters = new HashMap<String, Object>();
         inputParameters.put("dataNames", dataNames);
@@ -518,6 +592,7 @@ public class DataInstanceServiceImpl implements DataInstanceService {
         } catch (final SRecorderException e) {
             throw new SCreateDataInstanceException("Impossible to create data instance.", e);
         }
+        clearTransactionCache();
         archiveDataInstance(dataInstance);
     }
 
@@ -531,6 +606,10 @@ public class DataInstanceServiceImpl implements DataInstanceService {
             throw new SUpdateDataInstanceException(
                     "Impossible to update data instance '" + dataInstance.getName() + "': " + e.getMessage(), e);
         }
+        final DataInstanceTransactionCache transactionCache = transactionCaches.get();
+        if (transactionCache != null) {
+            transactionCache.replace(dataInstance);
+        }
         archiveDataInstance(dataInstance);
     }
 
@@ -542,6 +621,14 @@ public class DataInstanceServiceImpl implements DataInstanceService {
         } catch (final SRecorderException e) {
             throw new SDeleteDataInstanceException("Impossible to delete data instance", e);
         }
+        clearTransactionCache();
+    }
+
+    private void clearTransactionCache() {
+        final DataInstanceTransactionCache transactionCache = transactionCaches.get();
+        if (transactionCache != null) {
+            transactionCache.clear();
+        }
     }
 
     @Override
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.api.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.engine.data.instance.api.DataContainer;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+
+/**
+ * Data instances read during a transaction, by the container they were looked up from and by name.
+ * <p>
+ * Creating or deleting a data instance can hide or reveal a data instance of a parent container: the cache is then
+ * cleared. Updating a data instance replaces the instances having the same id.
+ */
+class DataInstanceTransactionCache {
+
+    private final Map<DataContainer, Map<String, SDataInstance>> dataInstancesByContainer = new HashMap<>();
+
+    SDataInstance get(DataContainer container, String dataName) {
+        final Map<String, SDataInstance> dataInstances = dataInstancesByContainer.get(container);
+        return dataInstances != null ? dataInstances.get(dataName) : null;
+    }
+
+    void put(DataContainer container, List<SDataInstance> dataInstances) {
+        final Map<String, SDataInstance> cachedDataInstances = dataInstancesByContainer.computeIfAbsent(container,
+                c -> new HashMap<>());
+        for (final SDataInstance dataInstance : dataInstances) {
+            cachedDataInstances.put(dataInstance.getName(), dataInstance);
+        }
+    }
+
+    void replace(SDataInstance dataInstance) {
+        for (final Map<String, SDataInstance> dataInstances : dataInstancesByContainer.values()) {
+            dataInstances.replaceAll((name, cached) -> cached.getId() == dataInstance.getId() ? dataInstance : cached);
+        }
+    }
+
+    void clear() {
+        dataInstancesByContainer.clear();
+    }
+}
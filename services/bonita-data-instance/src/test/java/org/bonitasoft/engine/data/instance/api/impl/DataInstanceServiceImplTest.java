@@ -22,6 +22,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.archive.ArchiveInsertRecord;
 import org.bonitasoft.engine.archive.ArchiveService;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
@@ -39,13 +42,15 @@ import org.bonitasoft.engine.persistence.SBonitaReadException;
 import org.bonitasoft.engine.persistence.SelectListDescriptor;
 import org.bonitasoft.engine.recorder.Recorder;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -58,14 +63,25 @@ public class DataInstanceServiceImplTest {
     private ReadPersistenceService persistenceService;
     @Mock
     private ArchiveService archiveService;
+    @Mock
+    private UserTransactionService transactionService;
 
     @Mock
     private ParentContainerResolver parentContainerResolver;
     @Captor
     private ArgumentCaptor<ArchiveInsertRecord> archiveInsertRecordArgumentCaptor;
-    @InjectMocks
+    @Captor
+    private ArgumentCaptor<BonitaTransactionSynchronization> synchronizationCaptor;
+    private SimpleMeterRegistry meterRegistry;
     private DataInstanceServiceImpl dataInstanceServiceImpl;
 
+    @Before
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataInstanceServiceImpl = new DataInstanceServiceImpl(recorder, persistenceService, archiveService,
+                transactionService, true, meterRegistry, 1L);
+    }
+
     @Test(expected = SDataInstanceReadException.class)
     public final void should_throw_read_exception_when_persistence_service_has_read_exception()
             throws SBonitaException {
@@ -226,4 +242,113 @@ public class DataInstanceServiceImplTest {
         //then
         assertThat(dataInstance.getValue()).isEqualTo("SUBTASK_VALUE");
     }
+
+    private SLongTextDataInstance createDataInstance(long id, String name, long containerId, String containerType,
+            String value) {
+        SLongTextDataInstance dataInstance = createDataInstance(id, containerId, containerType, value);
+        dataInstance.setName(name);
+        return dataInstance;
+    }
+
+    private double queriesAvoided() {
+        return meterRegistry.find(DataInstanceServiceImpl.DATA_INSTANCE_QUERIES_AVOIDED).counter().count();
+    }
+
+    @Test
+    public void should_read_data_instances_only_once_in_a_transaction() throws Exception {
+        doReturn(true).when(transactionService).isTransactionActive();
+        doReturn(Collections.singletonList(new DataContainer(68L, "TASK"))).when(parentContainerResolver)
+                .getContainerHierarchy(new DataContainer(68L, "TASK"));
+        doReturn(new ArrayList<>(Arrays.asList(createDataInstance(1, "data1", 68L, "TASK", "value1"),
+                createDataInstance(2, "data2", 68L, "TASK", "value2")))).when(persistenceService)
+                        .selectList(any(SelectListDescriptor.class));
+        dataInstanceServiceImpl.getDataInstances(Arrays.asList("data1", "data2"), 68L, "TASK",
+                parentContainerResolver);
+
+        final List<SDataInstance> dataInstances = dataInstanceServiceImpl.getDataInstances(
+                Arrays.asList("data2", "data1"), 68L, "TASK", parentContainerResolver);
+        final SDataInstance dataInstance = dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK",
+                parentContainerResolver);
+
+        assertThat(dataInstances).extracting("value").containsExactly("value2", "value1");
+        assertThat(dataInstance.getValue()).isEqualTo("value1");
+        verify(persistenceService, times(1)).selectList(any(SelectListDescriptor.class));
+        verify(parentContainerResolver, times(1)).getContainerHierarchy(any());
+        assertThat(queriesAvoided()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_only_read_data_instances_not_already_read_in_the_transaction() throws Exception {
+        doReturn(true).when(transactionService).isTransactionActive();
+        final ArgumentCaptor<SelectListDescriptor<SDataInstance>> descriptorCaptor = ArgumentCaptor
+                .forClass(SelectListDescriptor.class);
+        doReturn(new ArrayList<>(Collections.singletonList(createDataInstance(1, "data1", 68L, "TASK", "value1"))),
+                new ArrayList<>(Collections.singletonList(createDataInstance(2, "data2", 68L, "TASK", "value2"))))
+                        .when(persistenceService).selectList(descriptorCaptor.capture());
+        dataInstanceServiceImpl.getDataInstances(Collections.singletonList("data1"), 68L, "TASK",
+                parentContainerResolver);
+
+        final List<SDataInstance> dataInstances = dataInstanceServiceImpl.getDataInstances(
+                Arrays.asList("data1", "data2"), 68L, "TASK", parentContainerResolver);
+
+        assertThat(dataInstances).extracting("value").containsExactly("value1", "value2");
+        assertThat(descriptorCaptor.getAllValues().get(1).getInputParameters().get("dataNames"))
+                .isEqualTo(Collections.singletonList("data2"));
+    }
+
+    @Test
+    public void should_keep_updated_data_instance_in_the_transaction_cache() throws Exception {
+        doReturn(true).when(transactionService).isTransactionActive();
+        final SLongTextDataInstance data = createDataInstance(1, "data1", 68L, "TASK", "value1");
+        doReturn(new ArrayList<>(Collections.singletonList(data))).when(persistenceService)
+                .selectList(any(SelectListDescriptor.class));
+        dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver);
+        final SLongTextDataInstance updatedData = createDataInstance(1, "data1", 68L, "TASK", "newValue");
+
+        dataInstanceServiceImpl.updateDataInstance(updatedData, new EntityUpdateDescriptor());
+
+        assertThat(dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver)
+                .getValue()).isEqualTo("newValue");
+        verify(persistenceService, times(1)).selectList(any(SelectListDescriptor.class));
+    }
+
+    @Test
+    public void should_read_data_instances_again_after_a_data_instance_is_created() throws Exception {
+        doReturn(true).when(transactionService).isTransactionActive();
+        doReturn(new ArrayList<>(Collections.singletonList(createDataInstance(1, "data1", 66L, "PROC", "value1"))),
+                new ArrayList<>(Collections.singletonList(createDataInstance(2, "data1", 68L, "TASK", "value2"))))
+                        .when(persistenceService).selectList(any(SelectListDescriptor.class));
+        dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver);
+
+        dataInstanceServiceImpl.createDataInstance(createDataInstance(2, "data1", 68L, "TASK", "value2"));
+
+        assertThat(dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver)
+                .getValue()).isEqualTo("value2");
+    }
+
+    @Test
+    public void should_drop_the_transaction_cache_when_the_transaction_completes() throws Exception {
+        doReturn(true).when(transactionService).isTransactionActive();
+        doReturn(new ArrayList<>(Collections.singletonList(createDataInstance(1, "data1", 68L, "TASK", "value1"))))
+                .when(persistenceService).selectList(any(SelectListDescriptor.class));
+        dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver);
+        verify(transactionService).registerBonitaSynchronization(synchronizationCaptor.capture());
+
+        synchronizationCaptor.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver);
+
+        verify(persistenceService, times(2)).selectList(any(SelectListDescriptor.class));
+    }
+
+    @Test
+    public void should_not_cache_data_instances_outside_of_a_transaction() throws Exception {
+        doReturn(new ArrayList<>(Collections.singletonList(createDataInstance(1, "data1", 68L, "TASK", "value1"))))
+                .when(persistenceService).selectList(any(SelectListDescriptor.class));
+
+        dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver);
+        dataInstanceServiceImpl.getDataInstance("data1", 68L, "TASK", parentContainerResolver);
+
+        verify(persistenceService, times(2)).selectList(any(SelectListDescriptor.class));
+        verify(transactionService, never()).registerBonitaSynchronization(any());
+    }
 }
@@ -14,58 +14,214 @@
 package org.bonitasoft.engine.events.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bonitasoft.engine.commons.ExceptionUtils;
+import org.bonitasoft.engine.commons.PlatformLifecycleService;
 import org.bonitasoft.engine.events.model.HandlerRegistrationException;
 import org.bonitasoft.engine.events.model.HandlerUnregistrationException;
+import org.bonitasoft.engine.events.model.SAsynchronousHandler;
 import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SFireEventException;
 import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Handlers are registered in {@link #registeredHandlers}. Each time they change, an immutable dispatch table is
+ * compiled from it, holding the handlers to call for each event type, so that firing an event only costs a map lookup
+ * when no handler is registered for its type.
+ * <p>
+ * {@link SAsynchronousHandler}s are executed in a single thread, in the order of the events, after the commit of the
+ * transaction that fired them. When too many executions are waiting, the handler is executed by the thread that
+ * committed the transaction instead. Pending executions are completed when the service is paused or stopped.
+ *
  * @author Christophe Havard
  * @author Matthieu Chaffotte
  * @author Laurent Vaills
  */
 
-public class EventServiceImpl extends AbstractEventServiceImpl {
+public class EventServiceImpl extends AbstractEventServiceImpl implements PlatformLifecycleService {
+
+    public static final String HANDLER_EXECUTION_TIMER = "bonita.bpmengine.event.handler.execution";
 
     private final Logger logger = LoggerFactory.getLogger(EventServiceImpl.class);
     /**
-     * Contains a list of all events type and their registered handlers
+     * Contains a list of all events type and their registered handlers, only modified while holding the lock of this
+     * service
      */
     protected Map<String, List<SHandler<SEvent>>> registeredHandlers;
+    private volatile Map<String, HandlerDispatch[]> dispatchTable = Collections.emptyMap();
+    private final UserTransactionService transactionService;
+    private final MeterRegistry meterRegistry;
+    private final int asynchronousQueueCapacity;
+    private ThreadPoolExecutor asynchronousExecutor;
 
     @Override
     protected Logger getLogger() {
         return logger;
     }
 
-    public EventServiceImpl() {
+    /**
+     * @param asynchronousQueueCapacity maximum number of executions of asynchronous handlers waiting for the
+     *        asynchronous thread
+     */
+    public EventServiceImpl(UserTransactionService transactionService, MeterRegistry meterRegistry,
+            int asynchronousQueueCapacity) {
         super();
+        this.transactionService = transactionService;
+        this.meterRegistry = meterRegistry;
+        this.asynchronousQueueCapacity = asynchronousQueueCapacity;
         registeredHandlers = new HashMap<String, List<SHandler<SEvent>>>();
     }
 
+    @Override
+    public void fireEvent(final SEvent event) throws SFireEventException {
+        if (event == null) {
+            throw new SFireEventException("Event is null");
+        }
+        final HandlerDispatch[] handlers = dispatchTable.get(event.getType());
+        if (handlers == null) {
+            return;
+        }
+        SFireEventException sFireEventException = null;
+        for (final HandlerDispatch handler : handlers) {
+            try {
+                if (handler.handler.isInterested(event)) {
+                    if (handler.asynchronous) {
+                        executeAfterCommit(handler, event);
+                    } else {
+                        handler.execute(event);
+                    }
+                }
+            } catch (final Exception e) {
+                if (sFireEventException == null) {
+                    sFireEventException = new SFireEventException("Unable to execute some handler.", e);
+                }
+                sFireEventException.addHandlerException(e);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Handler failed {}", ExceptionUtils.printLightWeightStacktrace(e));
+                }
+            }
+        }
+        if (sFireEventException != null) {
+            throw sFireEventException;
+        }
+    }
+
+    private void executeAfterCommit(HandlerDispatch handler, SEvent event) {
+        try {
+            transactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) status -> {
+                if (status == Status.STATUS_COMMITTED) {
+                    executeAsynchronously(handler, event);
+                }
+            });
+        } catch (STransactionNotFoundException e) {
+            // not in a transaction: nothing to wait for
+            executeAsynchronously(handler, event);
+        }
+    }
+
+    private void executeAsynchronously(HandlerDispatch handler, SEvent event) {
+        getAsynchronousExecutor().execute(() -> {
+            try {
+                handler.execute(event);
+            } catch (final Exception e) {
+                logger.warn("Asynchronous handler {} failed on event {}: {}", handler.handler.getIdentifier(),
+                        event.getType(), ExceptionUtils.printLightWeightStacktrace(e));
+                logger.debug("Cause", e);
+            }
+        });
+    }
+
+    private synchronized ThreadPoolExecutor getAsynchronousExecutor() {
+        if (asynchronousExecutor == null) {
+            asynchronousExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(asynchronousQueueCapacity), r -> {
+                        Thread thread = new Thread(r, "Bonita-Asynchronous-Event-Handlers");
+                        thread.setDaemon(true);
+                        return thread;
+                    }, (task, executor) -> {
+                        if (executor.isShutdown()) {
+                            logger.warn("Event service is stopping, an asynchronous handler is not executed");
+                        } else {
+                            task.run();
+                        }
+                    });
+        }
+        return asynchronousExecutor;
+    }
+
+    @Override
+    public void stop() {
+        shutdownAsynchronousExecutor();
+    }
+
+    @Override
+    public void pause() {
+        shutdownAsynchronousExecutor();
+    }
+
+    /**
+     * Wait for the pending executions of asynchronous handlers. A new executor is created if events are fired again,
+     * e.g. once resumed.
+     */
+    private synchronized void shutdownAsynchronousExecutor() {
+        if (asynchronousExecutor == null) {
+            return;
+        }
+        asynchronousExecutor.shutdown();
+        try {
+            if (!asynchronousExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Asynchronous event handlers still running after 30 seconds, interrupting them");
+                asynchronousExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            asynchronousExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        asynchronousExecutor = null;
+    }
+
     @Override
     protected boolean containsHandlerFor(final String key) {
-        return registeredHandlers.containsKey(key);
+        return dispatchTable.containsKey(key);
     }
 
     @Override
     protected Collection<SHandler<SEvent>> getHandlersFor(final String eventType) {
-        return registeredHandlers.get(eventType);
+        final HandlerDispatch[] handlers = dispatchTable.get(eventType);
+        if (handlers == null) {
+            return null;
+        }
+        final List<SHandler<SEvent>> result = new ArrayList<>(handlers.length);
+        for (final HandlerDispatch handler : handlers) {
+            result.add(handler.handler);
+        }
+        return result;
     }
 
     @Override
-    protected void addHandlerFor(final String eventType, final SHandler<SEvent> handler)
+    protected synchronized void addHandlerFor(final String eventType, final SHandler<SEvent> handler)
             throws HandlerRegistrationException {
         // check if the given event type is already registered in the Event Service
-        if (containsHandlerFor(eventType)) {
+        if (registeredHandlers.containsKey(eventType)) {
             // if the handler already exists for the same eventType, an Exception is thrown
             final List<SHandler<SEvent>> handlers = registeredHandlers.get(eventType);
 
@@ -84,10 +240,11 @@ public class EventServiceImpl extends AbstractEventServiceImpl {
             newHandlerList.add(handler);
             registeredHandlers.put(eventType, newHandlerList);
         }
+        compileDispatchTable();
     }
 
     @Override
-    protected void removeAllHandlersFor(final SHandler<SEvent> handler) {
+    protected synchronized void removeAllHandlersFor(final SHandler<SEvent> handler) {
         for (final String eventType : registeredHandlers.keySet()) {
             try {
                 removeHandler(eventType, handler);
@@ -98,10 +255,10 @@ public class EventServiceImpl extends AbstractEventServiceImpl {
     }
 
     @Override
-    protected void removeHandlerFor(final String eventType, final SHandler<SEvent> h)
+    protected synchronized void removeHandlerFor(final String eventType, final SHandler<SEvent> h)
             throws HandlerUnregistrationException {
         boolean removed = false;
-        Collection<SHandler<SEvent>> handlers = getHandlersFor(eventType);
+        Collection<SHandler<SEvent>> handlers = registeredHandlers.get(eventType);
         if (handlers != null) {
             Iterator<SHandler<SEvent>> it = handlers.iterator();
             while (!removed && it.hasNext()) {
@@ -115,5 +272,64 @@ public class EventServiceImpl extends AbstractEventServiceImpl {
         if (!removed) {
             throw new HandlerUnregistrationException("Handler did not exists");
         }
+        compileDispatchTable();
+    }
+
+    private void compileDispatchTable() {
+        final Map<String, HandlerDispatch[]> newDispatchTable = new HashMap<>();
+        for (Map.Entry<String, List<SHandler<SEvent>>> handlersOfType : registeredHandlers.entrySet()) {
+            if (!handlersOfType.getValue().isEmpty()) {
+                newDispatchTable.put(handlersOfType.getKey(), handlersOfType.getValue().stream()
+                        .map(this::toDispatch).toArray(HandlerDispatch[]::new));
+            }
+        }
+        if (logger.isTraceEnabled()) {
+            newDispatchTable.forEach((type, handlers) -> logger.trace("Handlers of event {}: {}", type,
+                    Arrays.toString(handlers)));
+        }
+        dispatchTable = Collections.unmodifiableMap(newDispatchTable);
+    }
+
+    private HandlerDispatch toDispatch(SHandler<SEvent> handler) {
+        boolean asynchronous = handler instanceof SAsynchronousHandler;
+        Timer timer = Timer.builder(HANDLER_EXECUTION_TIMER)
+                .tag("handler", getHandlerName(handler))
+                .tag("delivery", asynchronous ? "asynchronous" : "synchronous")
+                .description("Execution time of the event handlers")
+                .register(meterRegistry);
+        return new HandlerDispatch(handler, asynchronous, timer);
+    }
+
+    private static String getHandlerName(SHandler<SEvent> handler) {
+        String simpleName = handler.getClass().getSimpleName();
+        // anonymous classes and lambdas have no simple name
+        return simpleName.isEmpty() ? handler.getClass().getName() : simpleName;
+    }
+
+    private static final class HandlerDispatch {
+
+        private final SHandler<SEvent> handler;
+        private final boolean asynchronous;
+        private final Timer timer;
+
+        private HandlerDispatch(SHandler<SEvent> handler, boolean asynchronous, Timer timer) {
+            this.handler = handler;
+            this.asynchronous = asynchronous;
+            this.timer = timer;
+        }
+
+        private void execute(SEvent event) throws Exception {
+            final long start = System.nanoTime();
+            try {
+                handler.execute(event);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return handler.getIdentifier();
+        }
     }
 }
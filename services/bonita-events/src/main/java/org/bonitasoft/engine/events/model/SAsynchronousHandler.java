@@ -0,0 +1,26 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.events.model;
+
+/**
+ * Handler executed asynchronously, once the transaction in which the event was fired is committed.
+ * <p>
+ * {@link #isInterested(SEvent)} is still called when the event is fired, but {@link #execute(SEvent)} is called in
+ * another thread, without the session nor the transaction of the caller. It is not called when the transaction is
+ * rolled back, and its failures do not fail the caller.
+ * It is meant for handlers that do not need to run in the caller's transaction, e.g. to notify an external system.
+ */
+public interface SAsynchronousHandler<T extends SEvent> extends SHandler<T> {
+
+}
@@ -15,22 +15,37 @@ package org.bonitasoft.engine.events;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.events.impl.EventServiceImpl;
 import org.bonitasoft.engine.events.model.HandlerRegistrationException;
 import org.bonitasoft.engine.events.model.HandlerUnregistrationException;
 import org.bonitasoft.engine.events.model.SFireEventException;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 /**
  * @author Laurent Vaills
  */
 public class EventServiceImplTest {
 
+    private final UserTransactionService transactionService = mock(UserTransactionService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     protected EventService instantiateEventServiceImplementation() {
-        return new EventServiceImpl();
+        return new EventServiceImpl(transactionService, meterRegistry, 10);
     }
 
     private EventService eventSvc;
@@ -149,4 +164,78 @@ public class EventServiceImplTest {
         eventSvc.removeHandler(EVT_INTERESTING, h2);
     }
 
+    @Test
+    public void should_not_have_handlers_once_all_are_removed() throws Exception {
+        final TestHandler h = new TestHandler();
+        eventSvc.addHandler(EVT_INTERESTING, h);
+        assertTrue(eventSvc.hasHandlers(EVT_INTERESTING, null));
+
+        eventSvc.removeAllHandlers(h);
+
+        assertFalse(eventSvc.hasHandlers(EVT_INTERESTING, null));
+    }
+
+    @Test
+    public void should_record_execution_time_of_handlers() throws Exception {
+        eventSvc.addHandler(EVT_INTERESTING, new TestHandlerCallback());
+
+        eventSvc.fireEvent(new TestEvent(EVT_INTERESTING));
+        eventSvc.fireEvent(new TestEvent(EVT_INTERESTING));
+
+        assertEquals(2, meterRegistry.find(EventServiceImpl.HANDLER_EXECUTION_TIMER)
+                .tag("handler", "TestHandlerCallback").tag("delivery", "synchronous").timer().count());
+    }
+
+    @Test
+    public void should_execute_asynchronous_handler_in_an_other_thread_after_commit() throws Exception {
+        final TestAsynchronousHandler h = new TestAsynchronousHandler();
+        eventSvc.addHandler(EVT_INTERESTING, h);
+
+        eventSvc.fireEvent(new TestEvent(EVT_INTERESTING));
+
+        assertFalse(h.isExecuted());
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        assertTrue(h.awaitExecution());
+        assertNotSame(Thread.currentThread(), h.getExecutionThread());
+    }
+
+    @Test
+    public void should_not_execute_asynchronous_handler_when_transaction_is_rolled_back() throws Exception {
+        final TestAsynchronousHandler h = new TestAsynchronousHandler();
+        eventSvc.addHandler(EVT_INTERESTING, h);
+
+        eventSvc.fireEvent(new TestEvent(EVT_INTERESTING));
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertFalse(h.awaitExecutionFor(200));
+    }
+
+    @Test
+    public void should_execute_asynchronous_handler_immediately_when_there_is_no_transaction() throws Exception {
+        doThrow(STransactionNotFoundException.class).when(transactionService).registerBonitaSynchronization(any());
+        final TestAsynchronousHandler h = new TestAsynchronousHandler(true);
+        eventSvc.addHandler(EVT_INTERESTING, h);
+
+        // the failure of the handler is not thrown to the caller
+        eventSvc.fireEvent(new TestEvent(EVT_INTERESTING));
+
+        assertTrue(h.awaitExecution());
+    }
+
+    @Test
+    public void should_complete_pending_asynchronous_handlers_when_stopped() throws Exception {
+        doThrow(STransactionNotFoundException.class).when(transactionService).registerBonitaSynchronization(any());
+        final TestAsynchronousHandler h = new TestAsynchronousHandler();
+        eventSvc.addHandler(EVT_INTERESTING, h);
+        eventSvc.fireEvent(new TestEvent(EVT_INTERESTING));
+
+        ((EventServiceImpl) eventSvc).stop();
+
+        assertTrue(h.isExecuted());
+    }
+
 }
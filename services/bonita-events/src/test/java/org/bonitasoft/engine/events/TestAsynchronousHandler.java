@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.events;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bonitasoft.engine.events.model.SAsynchronousHandler;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandlerExecutionException;
+
+public class TestAsynchronousHandler implements SAsynchronousHandler<SEvent> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String identifier = UUID.randomUUID().toString();
+    private final transient CountDownLatch executed = new CountDownLatch(1);
+    private volatile Thread executionThread;
+    private final boolean failing;
+
+    public TestAsynchronousHandler() {
+        this(false);
+    }
+
+    public TestAsynchronousHandler(boolean failing) {
+        this.failing = failing;
+    }
+
+    @Override
+    public void execute(final SEvent event) throws SHandlerExecutionException {
+        executionThread = Thread.currentThread();
+        executed.countDown();
+        if (failing) {
+            throw new SHandlerExecutionException(new IllegalStateException("failing handler"));
+        }
+    }
+
+    public boolean awaitExecution() throws InterruptedException {
+        return awaitExecutionFor(5000);
+    }
+
+    public boolean awaitExecutionFor(long millis) throws InterruptedException {
+        return executed.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isExecuted() {
+        return executed.getCount() == 0;
+    }
+
+    public Thread getExecutionThread() {
+        return executionThread;
+    }
+
+    @Override
+    public boolean isInterested(final SEvent event) {
+        return "INTERESTING".equals(event.getType());
+    }
+
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+}
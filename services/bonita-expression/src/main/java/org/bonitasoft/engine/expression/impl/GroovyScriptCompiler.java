@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.expression.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import groovy.lang.GroovyClassLoader;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.tools.GroovyClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles Groovy scripts ahead of time, into a jar that can be added to the classloader the scripts are evaluated
+ * with.
+ * <p>
+ * The class of a script is named after a SHA-256 hash of its content, so that {@link #getScriptClassName(String)} gives
+ * the class to load for a script, whether it was compiled ahead of time or when it was first evaluated.
+ */
+public class GroovyScriptCompiler {
+
+    private static final Logger log = LoggerFactory.getLogger(GroovyScriptCompiler.class);
+
+    private static final String SCRIPT_CLASS_PREFIX = "BScript_";
+
+    public static String getScriptClassName(String scriptContent) {
+        final byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(scriptContent.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 is available on every Java platform
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder className = new StringBuilder(SCRIPT_CLASS_PREFIX.length() + hash.length * 2)
+                .append(SCRIPT_CLASS_PREFIX);
+        for (final byte b : hash) {
+            className.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return className.toString();
+    }
+
+    /**
+     * @param scripts the content of the scripts to compile
+     * @param parentClassLoader the classloader giving the classes the scripts can use
+     * @param libraries jars giving other classes the scripts can use
+     * @return a jar with the classes of the scripts that compiled, null if none compiled. Scripts that do not compile
+     *         are left out: they will be compiled, and fail, when they are evaluated.
+     */
+    public byte[] compile(Collection<String> scripts, ClassLoader parentClassLoader, Collection<byte[]> libraries)
+            throws IOException {
+        final Map<String, byte[]> classes = new TreeMap<>();
+        final List<Path> libraryFiles = new ArrayList<>(libraries.size());
+        try (GroovyClassLoader classLoader = new GroovyClassLoader(parentClassLoader)) {
+            for (final byte[] library : libraries) {
+                final Path libraryFile = Files.createTempFile("bonita-groovy-compilation", ".jar");
+                libraryFiles.add(libraryFile);
+                Files.write(libraryFile, library);
+                classLoader.addURL(libraryFile.toUri().toURL());
+            }
+            for (final String script : scripts) {
+                compile(script, classLoader, classes);
+            }
+        } finally {
+            for (final Path libraryFile : libraryFiles) {
+                Files.deleteIfExists(libraryFile);
+            }
+        }
+        if (classes.isEmpty()) {
+            return null;
+        }
+        final ByteArrayOutputStream jarContent = new ByteArrayOutputStream();
+        try (JarOutputStream jar = new JarOutputStream(jarContent)) {
+            for (final Map.Entry<String, byte[]> compiledClass : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(compiledClass.getKey().replace('.', '/') + ".class"));
+                jar.write(compiledClass.getValue());
+                jar.closeEntry();
+            }
+        }
+        return jarContent.toByteArray();
+    }
+
+    private void compile(String script, GroovyClassLoader classLoader, Map<String, byte[]> classes) {
+        final String scriptClassName = getScriptClassName(script);
+        final CompilationUnit compilationUnit = new CompilationUnit(CompilerConfiguration.DEFAULT, null, classLoader);
+        compilationUnit.addSource(scriptClassName + ".groovy", script);
+        try {
+            compilationUnit.compile(Phases.CLASS_GENERATION);
+        } catch (final CompilationFailedException e) {
+            log.debug("Script {} not compiled ahead of time: {}", scriptClassName, e.getMessage());
+            return;
+        }
+        for (final GroovyClass groovyClass : compilationUnit.getClasses()) {
+            classes.put(groovyClass.getName(), groovyClass.getBytes());
+        }
+    }
+}
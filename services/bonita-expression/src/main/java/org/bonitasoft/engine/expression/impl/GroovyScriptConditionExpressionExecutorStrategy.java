@@ -25,8 +25,8 @@ import org.bonitasoft.engine.expression.model.SExpression;
 public class GroovyScriptConditionExpressionExecutorStrategy extends GroovyScriptExpressionExecutorCacheStrategy {
 
     public GroovyScriptConditionExpressionExecutorStrategy(CacheService cacheService,
-            ClassLoaderService classLoaderService) {
-        super(cacheService, classLoaderService);
+            ClassLoaderService classLoaderService, boolean staticCompilation) {
+        super(cacheService, classLoaderService, staticCompilation);
     }
 
     @Override
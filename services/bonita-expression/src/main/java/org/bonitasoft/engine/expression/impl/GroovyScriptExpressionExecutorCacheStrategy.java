@@ -18,10 +18,12 @@ import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
 
 import groovy.lang.Binding;
 import groovy.lang.GroovyCodeSource;
@@ -29,6 +31,8 @@ import groovy.lang.GroovyRuntimeException;
 import groovy.lang.GroovyShell;
 import groovy.lang.MissingPropertyException;
 import groovy.lang.Script;
+import groovy.transform.CompileStatic;
+import org.bonitasoft.engine.cache.Cache;
 import org.bonitasoft.engine.cache.CacheService;
 import org.bonitasoft.engine.cache.SCacheException;
 import org.bonitasoft.engine.classloader.ClassLoaderService;
@@ -42,6 +46,9 @@ import org.bonitasoft.engine.expression.exception.SExpressionDependencyMissingEx
 import org.bonitasoft.engine.expression.exception.SExpressionEvaluationException;
 import org.bonitasoft.engine.expression.model.ExpressionKind;
 import org.bonitasoft.engine.expression.model.SExpression;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
 import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.runtime.typehandling.GroovyCastException;
 import org.slf4j.Logger;
@@ -56,20 +63,112 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
     public static final String SCRIPT_KEY = "SCRIPT_";
     public static final String COERCION_SCRIPT_KEY = "COERCION_SCRIPT_";
     public static final String SHELL_KEY = "SHELL_";
+    public static final String PRECOMPILED_SCRIPT_KEY = "PRECOMPILED_SCRIPT_";
+    public static final String STATIC_SCRIPT_KEY = "STATIC_SCRIPT_";
+    public static final String STATIC_SHELL_KEY = "STATIC_SHELL_";
 
-    private final CacheService cacheService;
+    /**
+     * Kinds of the dependencies put in the context of the script under their content, and whose return type is the
+     * type of the data, parameter, contract input... they read
+     */
+    private static final Set<String> TYPED_DEPENDENCY_TYPES = new HashSet<>(Arrays.asList(TYPE_VARIABLE,
+            TYPE_TRANSIENT_VARIABLE, TYPE_INPUT, TYPE_PARAMETER, TYPE_CONTRACT_INPUT, TYPE_ENGINE_CONSTANT,
+            TYPE_DOCUMENT, TYPE_DOCUMENT_LIST, TYPE_BUSINESS_DATA, TYPE_BUSINESS_OBJECT_DAO));
+
+    private final Cache<String, Object> scriptCache;
 
     private final ClassLoaderService classLoaderService;
-    private static final AtomicLong counter = new AtomicLong();
 
+    private final boolean staticCompilation;
+
+    private final ScriptInstancePool scriptInstancePool = new ScriptInstancePool();
+
+    /**
+     * @param staticCompilation compile the scripts with <code>@CompileStatic</code>, declaring their dependencies
+     *        with their return type. Scripts that cannot be statically compiled are executed dynamically.
+     */
     public GroovyScriptExpressionExecutorCacheStrategy(final CacheService cacheService,
-            final ClassLoaderService classLoaderService) {
-        this.cacheService = cacheService;
+            final ClassLoaderService classLoaderService, final boolean staticCompilation) {
+        this.scriptCache = cacheService.getCache(GROOVY_SCRIPT_CACHE_NAME);
         this.classLoaderService = classLoaderService;
+        this.staticCompilation = staticCompilation;
+    }
+
+    Class getScriptClass(final SExpression expression, final Long definitionId)
+            throws SCacheException, SClassLoaderException {
+        if (staticCompilation && definitionId != null) {
+            final Class staticScript = getStaticScriptFromCache(expression, definitionId);
+            if (staticScript != null) {
+                return staticScript;
+            }
+        }
+        return getScriptFromCache(expression.getContent(), definitionId);
+    }
+
+    /**
+     * @return the class of the script compiled with <code>@CompileStatic</code>, null if the script cannot be
+     *         statically compiled
+     */
+    Class getStaticScriptFromCache(final SExpression expression, final Long definitionId)
+            throws SCacheException, SClassLoaderException {
+        final String typedContent = getTypedDeclarations(expression) + expression.getContent();
+        final String scriptClassName = GroovyScriptCompiler.getScriptClassName(typedContent);
+        final String key = STATIC_SCRIPT_KEY + definitionId + "_" + scriptClassName;
+        Object staticScript = scriptCache.get(key);
+        if (staticScript == null) {
+            final GroovyCodeSource gcs = AccessController
+                    .doPrivileged((PrivilegedAction<GroovyCodeSource>) () -> new GroovyCodeSource(typedContent,
+                            scriptClassName + ".groovy", GroovyShell.DEFAULT_CODE_BASE));
+            try {
+                staticScript = getStaticShell(definitionId).getClassLoader().parseClass(gcs, false);
+            } catch (final CompilationFailedException e) {
+                log.debug("Script of expression {} cannot be statically compiled, it is executed dynamically: {}",
+                        expression.getName(), e.getMessage());
+                staticScript = Boolean.FALSE;
+            }
+            scriptCache.put(key, staticScript);
+        }
+        return staticScript instanceof Class ? (Class) staticScript : null;
     }
 
-    private String generateScriptName() {
-        return String.format("BScript%s.groovy", counter.incrementAndGet());
+    /**
+     * Declare the dependencies of the script as typed local variables, on the same line as the first line of the
+     * script so that line numbers of errors are unchanged.
+     */
+    static String getTypedDeclarations(final SExpression expression) {
+        final StringBuilder declarations = new StringBuilder();
+        for (final SExpression dependency : expression.getDependencies()) {
+            final String name = dependency.getContent();
+            final String type = dependency.getReturnType();
+            if (!TYPED_DEPENDENCY_TYPES.contains(dependency.getExpressionType()) || !isIdentifier(name)
+                    || type == null || type.startsWith("[") || declarations.indexOf(" " + name + " = ") >= 0) {
+                continue;
+            }
+            final String typeName = type.replace('$', '.');
+            declarations.append(typeName).append(' ').append(name).append(" = (").append(typeName)
+                    .append(") getBinding().getVariables().get('").append(name).append("'); ");
+        }
+        return declarations.toString();
+    }
+
+    private static boolean isIdentifier(final String name) {
+        if (name == null || name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private GroovyShell getStaticShell(final Long definitionId) throws SClassLoaderException, SCacheException {
+        return (GroovyShell) scriptCache.get(STATIC_SHELL_KEY + definitionId, key -> {
+            final CompilerConfiguration configuration = new CompilerConfiguration();
+            configuration.addCompilationCustomizers(new ASTTransformationCustomizer(CompileStatic.class));
+            return new GroovyShell(getClassLoaderForShell(definitionId), configuration);
+        });
     }
 
     Class getScriptFromCache(final String expressionContent, final Long definitionId)
@@ -78,36 +177,48 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
             throw new SBonitaRuntimeException("Unable to evaluate expression without a definitionId");
         }
         final GroovyShell shell = getShell(definitionId);
-
-        GroovyCodeSource gcs = getOrCreateGroovyCodeSource(SCRIPT_KEY + expressionContent.hashCode(),
+        final String scriptClassName = GroovyScriptCompiler.getScriptClassName(expressionContent);
+        final Class precompiledScript = getPrecompiledScript(shell, scriptClassName, definitionId);
+        if (precompiledScript != null) {
+            return precompiledScript;
+        }
+        GroovyCodeSource gcs = getOrCreateGroovyCodeSource(SCRIPT_KEY + scriptClassName, scriptClassName,
                 expressionContent);
         // parse the groovy source code with cache set to true
         return shell.getClassLoader().parseClass(gcs, true);
     }
 
-    private GroovyCodeSource getOrCreateGroovyCodeSource(String key, String scriptContent) throws SCacheException {
-        GroovyCodeSource gcs = (GroovyCodeSource) cacheService.get(GROOVY_SCRIPT_CACHE_NAME, key);
+    /**
+     * @return the class of the script compiled when the process was deployed, null if it was not compiled then
+     */
+    private Class getPrecompiledScript(GroovyShell shell, String scriptClassName, Long definitionId)
+            throws SCacheException {
+        final Object precompiledScript = scriptCache.get(PRECOMPILED_SCRIPT_KEY + definitionId + "_" + scriptClassName,
+                key -> {
+                    try {
+                        // the shell classloader is a child of the process classloader, holding the precompiled scripts
+                        return shell.getClassLoader().getParent().loadClass(scriptClassName);
+                    } catch (final ClassNotFoundException e) {
+                        return Boolean.FALSE;
+                    }
+                });
+        return precompiledScript instanceof Class ? (Class) precompiledScript : null;
+    }
 
-        if (gcs == null) {
-            gcs = AccessController
-                    .doPrivileged((PrivilegedAction<GroovyCodeSource>) () -> new GroovyCodeSource(scriptContent,
-                            generateScriptName(), GroovyShell.DEFAULT_CODE_BASE));
-            cacheService.store(GROOVY_SCRIPT_CACHE_NAME, key, gcs);
-        }
-        return gcs;
+    private GroovyCodeSource getOrCreateGroovyCodeSource(String key, String scriptClassName, String scriptContent)
+            throws SCacheException {
+        return (GroovyCodeSource) scriptCache.get(key, k -> AccessController
+                .doPrivileged((PrivilegedAction<GroovyCodeSource>) () -> new GroovyCodeSource(scriptContent,
+                        scriptClassName + ".groovy", GroovyShell.DEFAULT_CODE_BASE)));
     }
 
     GroovyShell getShell(final Long definitionId) throws SClassLoaderException, SCacheException {
-        String key = SHELL_KEY + definitionId;
-        GroovyShell shell = (GroovyShell) cacheService.get(GROOVY_SCRIPT_CACHE_NAME, key);
-        if (shell == null) {
+        return (GroovyShell) scriptCache.get(SHELL_KEY + definitionId, key -> {
             ClassLoader classLoader = getClassLoaderForShell(definitionId);
             log.debug("Create a new groovy classloader for {} {}", definitionId, classLoader);
 
-            shell = new GroovyShell(classLoader);
-            cacheService.store(GROOVY_SCRIPT_CACHE_NAME, key, shell);
-        }
-        return shell;
+            return new GroovyShell(classLoader);
+        });
     }
 
     private ClassLoader getClassLoaderForShell(Long definitionId) throws SClassLoaderException {
@@ -136,10 +247,15 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
         try {
             final Binding binding = new Binding(context);
             Long definitionId = (Long) context.get(DEFINITION_ID);
-            final Script script = InvokerHelper
-                    .createScript(getScriptFromCache(expressionContent, definitionId), binding);
-            script.setBinding(binding);
-            return coerceResult(getShell(definitionId), script.run(), expression.getReturnType());
+            final Class scriptClass = getScriptClass(expression, definitionId);
+            final Script script = scriptInstancePool.acquire(scriptClass, binding);
+            final Object result;
+            try {
+                result = script.run();
+            } finally {
+                scriptInstancePool.release(scriptClass, script);
+            }
+            return coerceResult(getShell(definitionId), result, expression.getReturnType());
         } catch (final MissingPropertyException e) {
             final String property = e.getProperty();
             throw new SExpressionEvaluationException("Expression " + expressionName + " with content = <"
@@ -181,8 +297,9 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
     }
 
     private void clearCache() {
+        scriptInstancePool.clear();
         try {
-            cacheService.clear(GROOVY_SCRIPT_CACHE_NAME);
+            scriptCache.clear();
         } catch (SCacheException e) {
             log.error(
                     "error while clearing the cache of the groovy script executor strategy, you might have classloading issue, restart the server if it's the case",
@@ -229,7 +346,8 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
         String scriptContent = String.format("result as %s",
                 returnType.startsWith("[") ? canonicalClassName(returnType) : returnType);
 
-        GroovyCodeSource gcs = getOrCreateGroovyCodeSource(COERCION_SCRIPT_KEY + returnType, scriptContent);
+        GroovyCodeSource gcs = getOrCreateGroovyCodeSource(COERCION_SCRIPT_KEY + returnType,
+                GroovyScriptCompiler.getScriptClassName(scriptContent), scriptContent);
         Binding binding = new Binding();
         binding.setVariable("result", result);
         Script script = InvokerHelper
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.expression.impl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+/**
+ * Keeps, for each thread, one instance of each compiled script class, so that evaluating the same script again does
+ * not instantiate it again. An instance is used by one evaluation at a time: it is removed from the pool while it
+ * runs and put back afterwards.
+ * <p>
+ * Scripts holding state in their own fields (declared with <code>@Field</code>) or that are not {@link Script}
+ * subclasses are never reused.
+ */
+class ScriptInstancePool {
+
+    static final int MAX_SCRIPTS_PER_THREAD = 1000;
+
+    private static final ClassValue<Boolean> REUSABLE = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!Script.class.isAssignableFrom(type)) {
+                return false;
+            }
+            for (final Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<ThreadScripts> threadScripts = ThreadLocal.withInitial(ThreadScripts::new);
+
+    Script acquire(Class<?> scriptClass, Binding binding) {
+        final Script script = getScripts().remove(scriptClass);
+        if (script == null) {
+            return InvokerHelper.createScript(scriptClass, binding);
+        }
+        script.setBinding(binding);
+        return script;
+    }
+
+    void release(Class<?> scriptClass, Script script) {
+        if (!REUSABLE.get(scriptClass)) {
+            return;
+        }
+        // do not keep the evaluation context referenced by an idle script
+        script.setBinding(null);
+        final Map<Class<?>, Script> scripts = getScripts();
+        if (scripts.size() < MAX_SCRIPTS_PER_THREAD) {
+            scripts.put(scriptClass, script);
+        }
+    }
+
+    /**
+     * Drop the instances kept by all threads, e.g. when the classes of the scripts are reloaded. Each thread drops
+     * its instances the next time it uses the pool.
+     */
+    void clear() {
+        generation.incrementAndGet();
+    }
+
+    private Map<Class<?>, Script> getScripts() {
+        final ThreadScripts scripts = threadScripts.get();
+        final long currentGeneration = generation.get();
+        if (scripts.generation != currentGeneration) {
+            scripts.instances.clear();
+            scripts.generation = currentGeneration;
+        }
+        return scripts.instances;
+    }
+
+    private static class ThreadScripts {
+
+        private final Map<Class<?>, Script> instances = new HashMap<>();
+        private long generation;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.expression.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+
+import org.junit.Test;
+
+public class GroovyScriptCompilerTest {
+
+    private final GroovyScriptCompiler groovyScriptCompiler = new GroovyScriptCompiler();
+
+    private static List<String> entriesOf(byte[] jar) throws Exception {
+        final List<String> entries = new ArrayList<>();
+        try (JarInputStream jarInputStream = new JarInputStream(new ByteArrayInputStream(jar))) {
+            JarEntry entry;
+            while ((entry = jarInputStream.getNextJarEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    public void should_name_script_classes_after_the_hash_of_their_content() {
+        final String className = GroovyScriptCompiler.getScriptClassName("a + b");
+
+        assertThat(className).matches("BScript_[0-9a-f]{64}");
+        assertThat(GroovyScriptCompiler.getScriptClassName("a + b")).isEqualTo(className);
+        assertThat(GroovyScriptCompiler.getScriptClassName("a + c")).isNotEqualTo(className);
+    }
+
+    @Test
+    public void should_compile_scripts_in_a_jar() throws Exception {
+        final byte[] jar = groovyScriptCompiler.compile(asList("a + b", "[1, 2].collect { it * 2 }"),
+                GroovyScriptCompilerTest.class.getClassLoader(), emptyList());
+
+        assertThat(entriesOf(jar)).contains(
+                GroovyScriptCompiler.getScriptClassName("a + b") + ".class",
+                GroovyScriptCompiler.getScriptClassName("[1, 2].collect { it * 2 }") + ".class");
+    }
+
+    @Test
+    public void should_leave_out_scripts_that_do_not_compile() throws Exception {
+        final byte[] jar = groovyScriptCompiler.compile(asList("a + b", "new org.unknown.Type()"),
+                GroovyScriptCompilerTest.class.getClassLoader(), emptyList());
+
+        assertThat(entriesOf(jar)).containsExactly(GroovyScriptCompiler.getScriptClassName("a + b") + ".class");
+    }
+
+    @Test
+    public void should_return_null_when_no_script_compiles() throws Exception {
+        assertThat(groovyScriptCompiler.compile(asList("a +"), GroovyScriptCompilerTest.class.getClassLoader(),
+                emptyList())).isNull();
+    }
+}
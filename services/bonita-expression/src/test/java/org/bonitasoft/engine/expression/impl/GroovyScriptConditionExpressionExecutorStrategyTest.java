@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.cache.CacheConfiguration;
 import org.bonitasoft.engine.cache.ehcache.EhCacheCacheService;
 import org.bonitasoft.engine.classloader.ClassLoaderService;
@@ -64,9 +65,10 @@ public class GroovyScriptConditionExpressionExecutorStrategyTest {
         final CacheConfiguration cacheConfiguration = new CacheConfiguration();
         cacheConfiguration.setName("GROOVY_SCRIPT_CACHE_NAME");
         final List<CacheConfiguration> cacheConfigurations = Collections.singletonList(cacheConfiguration);
-        cacheService = new EhCacheCacheService(cacheConfigurations, defaultCacheConfiguration, diskStorePath);
+        cacheService = new EhCacheCacheService(cacheConfigurations, defaultCacheConfiguration, diskStorePath,
+                new SimpleMeterRegistry());
         cacheService.start();
-        executorStrategy = new GroovyScriptConditionExpressionExecutorStrategy(cacheService, classLoaderService);
+        executorStrategy = new GroovyScriptConditionExpressionExecutorStrategy(cacheService, classLoaderService, false);
         doReturn(GroovyScriptExpressionExecutorCacheStrategyTest.class.getClassLoader()).when(classLoaderService)
                 .getClassLoader(any());
         context = new HashMap<>();
@@ -24,12 +24,18 @@ import static org.mockito.Mockito.doReturn;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import groovy.lang.GroovyShell;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.bpm.contract.FileInputValue;
 import org.bonitasoft.engine.bpm.document.Document;
 import org.bonitasoft.engine.bpm.document.DocumentValue;
@@ -85,10 +91,11 @@ public class GroovyScriptExpressionExecutorCacheStrategyTest {
         final CacheConfiguration cacheConfiguration = new CacheConfiguration();
         cacheConfiguration.setName("GROOVY_SCRIPT_CACHE_NAME");
         final List<CacheConfiguration> cacheConfigurations = Collections.singletonList(cacheConfiguration);
-        cacheService = new EhCacheCacheService(cacheConfigurations, defaultCacheConfiguration, diskStorePath);
+        cacheService = new EhCacheCacheService(cacheConfigurations, defaultCacheConfiguration, diskStorePath,
+                new SimpleMeterRegistry());
         cacheService.start();
         groovyScriptExpressionExecutorCacheStrategy = new GroovyScriptExpressionExecutorCacheStrategy(cacheService,
-                classLoaderService);
+                classLoaderService, false);
         doReturn(GroovyScriptExpressionExecutorCacheStrategyTest.class.getClassLoader()).when(classLoaderService)
                 .getClassLoader(any());
         context = new HashMap<>();
@@ -519,4 +526,107 @@ public class GroovyScriptExpressionExecutorCacheStrategyTest {
         groovyScriptExpressionExecutorCacheStrategy.evaluate(expression, singletonMap(DEFINITION_ID, 42L), emptyMap(),
                 null);
     }
+
+    @Test
+    public void should_use_the_script_class_compiled_at_deployment_when_available() throws Exception {
+        final String content = "firstName + ' ' + lastName";
+        final byte[] scriptsJar = new GroovyScriptCompiler().compile(Collections.singletonList(content),
+                GroovyScriptExpressionExecutorCacheStrategyTest.class.getClassLoader(), Collections.emptyList());
+        final Path scriptsJarFile = Files.createTempFile("scripts", ".jar");
+        Files.write(scriptsJarFile, scriptsJar);
+        try (URLClassLoader processClassLoader = new URLClassLoader(new URL[] { scriptsJarFile.toUri().toURL() },
+                GroovyScriptExpressionExecutorCacheStrategyTest.class.getClassLoader())) {
+            doReturn(processClassLoader).when(classLoaderService).getClassLoader(any());
+
+            final Class script = groovyScriptExpressionExecutorCacheStrategy.getScriptFromCache(content, 12L);
+            final Map<String, Object> context = new HashMap<>();
+            context.put(DEFINITION_ID, 12L);
+            context.put("firstName", "Walter");
+            context.put("lastName", "Bates");
+            final Object value = groovyScriptExpressionExecutorCacheStrategy.evaluate(
+                    expressionBuilder().setContent(content).setReturnType(String.class.getName()).done(), context,
+                    emptyMap(), null);
+
+            assertThat(script.getClassLoader()).isSameAs(processClassLoader);
+            assertThat(script.getName()).isEqualTo(GroovyScriptCompiler.getScriptClassName(content));
+            assertThat(value).isEqualTo("Walter Bates");
+        } finally {
+            Files.deleteIfExists(scriptsJarFile);
+        }
+    }
+
+    @Test
+    public void should_compile_script_not_compiled_at_deployment() throws Exception {
+        final Class script = groovyScriptExpressionExecutorCacheStrategy.getScriptFromCache("1 + 1", 12L);
+
+        assertThat(script.getName()).isEqualTo(GroovyScriptCompiler.getScriptClassName("1 + 1"));
+        assertThat(script.getClassLoader()).isNotSameAs(
+                GroovyScriptExpressionExecutorCacheStrategyTest.class.getClassLoader());
+    }
+
+    @Test
+    public void should_evaluate_script_with_static_compilation_using_the_types_of_its_dependencies()
+            throws Exception {
+        final GroovyScriptExpressionExecutorCacheStrategy strategy = new GroovyScriptExpressionExecutorCacheStrategy(
+                cacheService, classLoaderService, true);
+        final SExpression expression = amountExpression("amount > 1000 && approved");
+        context.put("amount", 2000);
+        context.put("approved", true);
+
+        final Object value = strategy.evaluate(expression, context, emptyMap(), null);
+
+        assertThat(value).isEqualTo(true);
+        assertThat(strategy.getStaticScriptFromCache(expression, 123456789L)).isNotNull();
+    }
+
+    @Test
+    public void should_evaluate_script_dynamically_when_static_compilation_fails() throws Exception {
+        final GroovyScriptExpressionExecutorCacheStrategy strategy = new GroovyScriptExpressionExecutorCacheStrategy(
+                cacheService, classLoaderService, true);
+        // customer is not declared as a dependency, it cannot be typed
+        final SExpression expression = amountExpression("amount > 1000 && approved && customer.size() > 2");
+        context.put("amount", 2000);
+        context.put("approved", true);
+        context.put("customer", "Walter");
+
+        final Object value = strategy.evaluate(expression, context, emptyMap(), null);
+
+        assertThat(value).isEqualTo(true);
+        assertThat(strategy.getStaticScriptFromCache(expression, 123456789L)).isNull();
+    }
+
+    @Test
+    public void getTypedDeclarations_should_declare_dependencies_read_from_the_context() throws Exception {
+        final SExpression expression = amountExpression("amount > 1000 && approved");
+
+        assertThat(GroovyScriptExpressionExecutorCacheStrategy.getTypedDeclarations(expression)).isEqualTo(
+                "java.lang.Integer amount = (java.lang.Integer) getBinding().getVariables().get('amount'); "
+                        + "java.lang.Boolean approved = (java.lang.Boolean) getBinding().getVariables().get('approved'); ");
+    }
+
+    @Test
+    public void should_evaluate_same_script_with_the_context_of_each_evaluation() throws Exception {
+        final SExpression expression = expressionBuilder().setContent("firstName + '!'")
+                .setReturnType(String.class.getName()).done();
+        context.put("firstName", "Walter");
+        final Object first = groovyScriptExpressionExecutorCacheStrategy.evaluate(expression, context, emptyMap(),
+                null);
+        context.put("firstName", "Helen");
+        final Object second = groovyScriptExpressionExecutorCacheStrategy.evaluate(expression, context, emptyMap(),
+                null);
+
+        assertThat(first).isEqualTo("Walter!");
+        assertThat(second).isEqualTo("Helen!");
+    }
+
+    private static SExpression amountExpression(String content) throws SInvalidExpressionException {
+        final SExpression amount = new SExpressionImpl("amount", "amount", "TYPE_VARIABLE", Integer.class.getName(),
+                null, Collections.emptyList());
+        final SExpression approved = new SExpressionImpl("approved", "approved", "TYPE_VARIABLE",
+                Boolean.class.getName(), null, Collections.emptyList());
+        final SExpression label = new SExpressionImpl("label", "label", "TYPE_CONSTANT", String.class.getName(),
+                null, Collections.emptyList());
+        return expressionBuilder().setContent(content).setReturnType(Boolean.class.getName())
+                .setDependencies(Arrays.asList(amount, approved, label)).done();
+    }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.expression.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import org.junit.Test;
+
+public class ScriptInstancePoolTest {
+
+    private final ScriptInstancePool pool = new ScriptInstancePool();
+    private final GroovyClassLoader groovyClassLoader = new GroovyClassLoader();
+
+    @Test
+    public void should_reuse_released_script_with_the_new_binding() {
+        final Class<?> scriptClass = groovyClassLoader.parseClass("value * 2");
+        final Script first = pool.acquire(scriptClass, binding(1));
+        assertThat(first.run()).isEqualTo(2);
+        pool.release(scriptClass, first);
+
+        final Script second = pool.acquire(scriptClass, binding(21));
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.run()).isEqualTo(42);
+    }
+
+    @Test
+    public void should_not_give_the_same_script_to_nested_evaluations() {
+        final Class<?> scriptClass = groovyClassLoader.parseClass("value * 2");
+        final Script first = pool.acquire(scriptClass, binding(1));
+
+        final Script nested = pool.acquire(scriptClass, binding(2));
+
+        assertThat(nested).isNotSameAs(first);
+        assertThat(first.run()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_reuse_script_having_fields() {
+        final Class<?> scriptClass = groovyClassLoader.parseClass("@groovy.transform.Field int counter = 0\n"
+                + "counter += value");
+        final Script first = pool.acquire(scriptClass, binding(1));
+        first.run();
+        pool.release(scriptClass, first);
+
+        final Script second = pool.acquire(scriptClass, binding(1));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.run()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_reuse_scripts_after_clear() {
+        final Class<?> scriptClass = groovyClassLoader.parseClass("value");
+        final Script first = pool.acquire(scriptClass, binding(1));
+        pool.release(scriptClass, first);
+
+        pool.clear();
+
+        assertThat(pool.acquire(scriptClass, binding(1))).isNotSameAs(first);
+    }
+
+    @Test
+    public void should_keep_scripts_per_thread() throws Exception {
+        final Class<?> scriptClass = groovyClassLoader.parseClass("value");
+        final Script first = pool.acquire(scriptClass, binding(1));
+        pool.release(scriptClass, first);
+
+        final AtomicReference<Script> otherThreadScript = new AtomicReference<>();
+        final Thread thread = new Thread(() -> otherThreadScript.set(pool.acquire(scriptClass, binding(1))));
+        thread.start();
+        thread.join();
+
+        assertThat(otherThreadScript.get()).isNotSameAs(first);
+    }
+
+    private static Binding binding(int value) {
+        final Binding binding = new Binding();
+        binding.setVariable("value", value);
+        return binding;
+    }
+}
@@ -0,0 +1,423 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.lock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link LockService} shared by all the nodes of a cluster, using the <code>cluster_lock</code> table.
+ * <p>
+ * A node owns a lock when it owns the row of the locked object and the lease of that row is not expired. Each time
+ * the row changes owner, its fencing token is incremented: it can be retrieved using
+ * {@link #getFencingToken(BonitaLock, long)} and compared by the caller with a token stored along the protected
+ * resource to reject writes coming from a node that lost its lease. Leases of held locks are renewed in background,
+ * a lease that is not renewed (e.g. the node crashed) expires and the lock can be taken by another node.
+ * <p>
+ * Threads of the same node are first serialized using a local lock, so that only one thread of a node can talk to the
+ * database for a given object. When a lock is released while other threads of the node are waiting for it, the lease
+ * is kept and directly handed over to the next local thread without any database round trip.
+ * <p>
+ * Lease expiration dates are computed using the clock of the node acquiring the lock: clocks of the nodes must be
+ * synchronized with a precision far below the lease duration.
+ * <p>
+ * Enabled using <code>bonita.platform.lock.implementation=database</code>
+ */
+@Component
+@ConditionalOnProperty(name = "bonita.platform.lock.implementation", havingValue = "database")
+public class DatabaseLockService implements LockService {
+
+    static final String SELECT_LOCK = "SELECT owner, fencingtoken, expirationdate FROM cluster_lock"
+            + " WHERE tenantid = ? AND objecttype = ? AND objectid = ?";
+    static final String INSERT_LOCK = "INSERT INTO cluster_lock"
+            + " (tenantid, objecttype, objectid, owner, fencingtoken, expirationdate) VALUES (?, ?, ?, ?, 1, ?)";
+    static final String TAKE_LOCK = "UPDATE cluster_lock SET owner = ?, fencingtoken = ?, expirationdate = ?"
+            + " WHERE tenantid = ? AND objecttype = ? AND objectid = ? AND fencingtoken = ?";
+    static final String UPDATE_LEASE = "UPDATE cluster_lock SET expirationdate = ?"
+            + " WHERE tenantid = ? AND objecttype = ? AND objectid = ? AND owner = ? AND fencingtoken = ?";
+
+    private final Logger logger = LoggerFactory.getLogger(DatabaseLockService.class);
+
+    private final DataSource dataSource;
+    private final int lockTimeoutSeconds;
+    private final long leaseMillis;
+    private final long pollIntervalMillis;
+    private final String nodeId;
+    private final Map<LockKey, NodeLock> locks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leaseRenewer;
+
+    public DatabaseLockService(@Qualifier("bonitaNonXaDataSource") DataSource dataSource,
+            @Value("${bonita.platform.lock.memory.timeout}") int lockTimeoutSeconds,
+            @Value("${bonita.platform.lock.database.lease:30}") int leaseSeconds,
+            @Value("${bonita.platform.lock.database.pollInterval:50}") long pollIntervalMillis) {
+        this(dataSource, lockTimeoutSeconds, SECONDS.toMillis(leaseSeconds), pollIntervalMillis,
+                ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID());
+    }
+
+    DatabaseLockService(DataSource dataSource, int lockTimeoutSeconds, long leaseMillis, long pollIntervalMillis,
+            String nodeId) {
+        this.dataSource = dataSource;
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+        this.leaseMillis = leaseMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.nodeId = nodeId;
+        leaseRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Bonita-Lock-Lease-Renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long renewPeriod = Math.max(1, leaseMillis / 3);
+        leaseRenewer.scheduleWithFixedDelay(this::renewLeases, renewPeriod, renewPeriod, MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        leaseRenewer.shutdownNow();
+    }
+
+    @Override
+    public BonitaLock lock(long objectToLockId, String objectType, long tenantId)
+            throws SLockException, SLockTimeoutException {
+        BonitaLock bonitaLock = tryLock(objectToLockId, objectType, lockTimeoutSeconds, SECONDS, tenantId);
+        if (bonitaLock == null) {
+            throw new SLockTimeoutException(String.format("Unable to acquire lock %s,%s,%s in %s seconds",
+                    objectToLockId, objectType, tenantId, lockTimeoutSeconds));
+        }
+        return bonitaLock;
+    }
+
+    @Override
+    public BonitaLock tryLock(long objectToLockId, String objectType, long timeout, TimeUnit timeUnit, long tenantId)
+            throws SLockException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        LockKey key = new LockKey(tenantId, objectType, objectToLockId);
+        NodeLock nodeLock = reference(key);
+        boolean acquired = false;
+        try {
+            if (!nodeLock.local.tryLock(timeout, timeUnit)) {
+                logger.debug("Lock {} was not acquired locally", key);
+                releaseOrphanLease(key, nodeLock);
+                return null;
+            }
+            try {
+                if (nodeLock.holdCount > 0) {
+                    nodeLock.holdCount++;
+                    acquired = true;
+                } else if (nodeLock.fencingToken != 0 && nodeLock.leaseExpiration > now() + pollIntervalMillis) {
+                    logger.debug("Lock {} handed over locally with fencing token {}", key, nodeLock.fencingToken);
+                    nodeLock.holdCount = 1;
+                    acquired = true;
+                } else {
+                    acquired = acquireLease(key, nodeLock, deadline);
+                    if (acquired) {
+                        nodeLock.holdCount = 1;
+                    } else {
+                        logger.debug("Lock {} was not acquired, it is held by another node", key);
+                    }
+                }
+            } finally {
+                if (!acquired) {
+                    nodeLock.local.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new SLockException("interrupted while trying to get the lock", e);
+        } finally {
+            if (!acquired) {
+                dereference(key);
+            }
+        }
+        return acquired ? new BonitaLock(objectType, objectToLockId) : null;
+    }
+
+    @Override
+    public void unlock(BonitaLock lock, long tenantId) throws SLockException {
+        LockKey key = new LockKey(tenantId, lock.getObjectType(), lock.getObjectToLockId());
+        NodeLock nodeLock = locks.get(key);
+        if (nodeLock == null || !nodeLock.local.isHeldByCurrentThread()) {
+            throw new SLockException("Lock " + lock + " of tenant " + tenantId + " is not held by the current thread");
+        }
+        try {
+            if (--nodeLock.holdCount > 0) {
+                return;
+            }
+            if (!nodeLock.local.hasQueuedThreads()) {
+                releaseLease(key, nodeLock);
+            }
+        } finally {
+            nodeLock.local.unlock();
+            dereference(key);
+        }
+    }
+
+    /**
+     * @return the fencing token of the given lock held by the current thread. Tokens of a locked object strictly
+     *         increase each time the object is locked by a different node.
+     * @throws SLockException if the lock is not held by the current thread
+     */
+    public long getFencingToken(BonitaLock lock, long tenantId) throws SLockException {
+        NodeLock nodeLock = locks.get(new LockKey(tenantId, lock.getObjectType(), lock.getObjectToLockId()));
+        if (nodeLock == null || !nodeLock.local.isHeldByCurrentThread()) {
+            throw new SLockException("Lock " + lock + " of tenant " + tenantId + " is not held by the current thread");
+        }
+        return nodeLock.fencingToken;
+    }
+
+    private NodeLock reference(LockKey key) {
+        return locks.compute(key, (k, nodeLock) -> {
+            NodeLock referenced = nodeLock == null ? new NodeLock() : nodeLock;
+            referenced.references++;
+            return referenced;
+        });
+    }
+
+    private void dereference(LockKey key) {
+        locks.computeIfPresent(key, (k, nodeLock) -> --nodeLock.references == 0 ? null : nodeLock);
+    }
+
+    /**
+     * A lease kept to be handed over to a local waiter that finally timed out must be released, else other nodes
+     * would have to wait for its expiration.
+     */
+    private void releaseOrphanLease(LockKey key, NodeLock nodeLock) {
+        if (nodeLock.local.tryLock()) {
+            try {
+                if (nodeLock.holdCount == 0 && !nodeLock.local.hasQueuedThreads()) {
+                    releaseLease(key, nodeLock);
+                }
+            } catch (SLockException e) {
+                logger.warn("Unable to release lease of lock {}, it will expire by itself: {}", key, e.getMessage());
+            } finally {
+                nodeLock.local.unlock();
+            }
+        }
+    }
+
+    private boolean acquireLease(LockKey key, NodeLock nodeLock, long deadline)
+            throws SLockException, InterruptedException {
+        while (true) {
+            long fencingToken;
+            try {
+                fencingToken = tryToAcquireLease(key);
+            } catch (SQLException e) {
+                throw new SLockException("Unable to acquire lock " + key + " in database", e);
+            }
+            if (fencingToken > 0) {
+                logger.debug("Lock {} acquired in database with fencing token {}", key, fencingToken);
+                nodeLock.fencingToken = fencingToken;
+                nodeLock.leaseExpiration = now() + leaseMillis;
+                return true;
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            Thread.sleep(Math.min(pollIntervalMillis, remainingMillis));
+        }
+    }
+
+    /**
+     * @return the new fencing token if the lease was acquired, 0 if it is held by another node
+     */
+    private long tryToAcquireLease(LockKey key) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            long currentToken;
+            try (PreparedStatement select = connection.prepareStatement(SELECT_LOCK)) {
+                key.setParameters(select, 1);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return insertLease(connection, key);
+                    }
+                    if (resultSet.getLong("expirationdate") > now()
+                            && !nodeId.equals(resultSet.getString("owner"))) {
+                        return 0;
+                    }
+                    currentToken = resultSet.getLong("fencingtoken");
+                }
+            }
+            try (PreparedStatement take = connection.prepareStatement(TAKE_LOCK)) {
+                take.setString(1, nodeId);
+                take.setLong(2, currentToken + 1);
+                take.setLong(3, now() + leaseMillis);
+                key.setParameters(take, 4);
+                take.setLong(7, currentToken);
+                // the token acts as a version: no update means another node took the lease in the meantime
+                return take.executeUpdate() == 1 ? currentToken + 1 : 0;
+            }
+        }
+    }
+
+    private long insertLease(Connection connection, LockKey key) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_LOCK)) {
+            key.setParameters(insert, 1);
+            insert.setString(4, nodeId);
+            insert.setLong(5, now() + leaseMillis);
+            insert.executeUpdate();
+            return 1;
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                // integrity constraint violation: the row was inserted by another node
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    private void releaseLease(LockKey key, NodeLock nodeLock) throws SLockException {
+        // a renewal that read the token before it was cleared would extend the released lease
+        synchronized (nodeLock.lease) {
+            long fencingToken = nodeLock.fencingToken;
+            nodeLock.fencingToken = 0;
+            nodeLock.leaseExpiration = 0;
+            if (fencingToken == 0) {
+                return;
+            }
+            try {
+                if (updateLease(key, 0, fencingToken) == 0) {
+                    logger.warn("Lock {} was released but its lease with fencing token {} was already lost", key,
+                            fencingToken);
+                }
+            } catch (SQLException e) {
+                // the lease will expire by itself
+                throw new SLockException("Unable to release lock " + key + " in database", e);
+            }
+        }
+    }
+
+    void renewLeases() {
+        for (Map.Entry<LockKey, NodeLock> entry : locks.entrySet()) {
+            NodeLock nodeLock = entry.getValue();
+            synchronized (nodeLock.lease) {
+                renewLease(entry.getKey(), nodeLock);
+            }
+        }
+    }
+
+    private void renewLease(LockKey key, NodeLock nodeLock) {
+        long fencingToken = nodeLock.fencingToken;
+        if (fencingToken == 0 || fencingToken == nodeLock.lostFencingToken) {
+            return;
+        }
+        long leaseExpiration = now() + leaseMillis;
+        try {
+            if (updateLease(key, leaseExpiration, fencingToken) == 1) {
+                nodeLock.leaseExpiration = leaseExpiration;
+            } else {
+                logger.warn("Lease of lock {} with fencing token {} was lost", key, fencingToken);
+                nodeLock.lostFencingToken = fencingToken;
+                nodeLock.leaseExpiration = 0;
+            }
+        } catch (SQLException e) {
+            logger.warn("Unable to renew lease of lock {}: {}", key, e.getMessage());
+            logger.debug("Cause", e);
+        }
+    }
+
+    private int updateLease(LockKey key, long leaseExpiration, long fencingToken) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_LEASE)) {
+                update.setLong(1, leaseExpiration);
+                key.setParameters(update, 2);
+                update.setString(5, nodeId);
+                update.setLong(6, fencingToken);
+                return update.executeUpdate();
+            }
+        }
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static final class NodeLock {
+
+        private final ReentrantLock local = new ReentrantLock();
+        // serializes the release of the lease with its renewal
+        private final Object lease = new Object();
+        // guarded by locks.compute
+        private int references;
+        // guarded by local
+        private int holdCount;
+        // written while holding local, read by the lease renewer
+        private volatile long fencingToken;
+        private volatile long leaseExpiration;
+        // only used by the lease renewer
+        private long lostFencingToken;
+    }
+
+    private static final class LockKey {
+
+        private final long tenantId;
+        private final String objectType;
+        private final long objectId;
+
+        private LockKey(long tenantId, String objectType, long objectId) {
+            this.tenantId = tenantId;
+            this.objectType = objectType;
+            this.objectId = objectId;
+        }
+
+        private void setParameters(PreparedStatement statement, int firstIndex) throws SQLException {
+            statement.setLong(firstIndex, tenantId);
+            statement.setString(firstIndex + 1, objectType);
+            statement.setLong(firstIndex + 2, objectId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            LockKey that = (LockKey) o;
+            return tenantId == that.tenantId && objectId == that.objectId && objectType.equals(that.objectType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, objectType, objectId);
+        }
+
+        @Override
+        public String toString() {
+            return objectType + ":" + objectId + "@" + tenantId;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.lock;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * JVM-local {@link LockService} designed for a high number of threads locking different objects.
+ * <p>
+ * Locks are spread over a fixed number of stripes, each one guarded by its own mutex, instead of a single
+ * synchronized map. A lock is identified by the index of its object type, its id and the tenant id: no key is built
+ * on each call. Lock entries are taken from a pool of the stripe when a lock is created and given back when it is
+ * released, so that locking an object does not allocate a new {@link ReentrantLock} each time.
+ * <p>
+ * Locks are reentrant and owned by the thread that acquired them, like the ones of {@link MemoryLockService}.
+ * <p>
+ * Enabled using <code>bonita.platform.lock.implementation=striped</code>
+ */
+@Component
+@ConditionalOnProperty(name = "bonita.platform.lock.implementation", havingValue = "striped")
+public class StripedLockService implements LockService {
+
+    public static final String LOCK_WAIT_TIME = "bonita.bpmengine.lock.wait";
+    public static final String LOCK_STRIPE_QUEUE = "bonita.bpmengine.lock.stripe.queue";
+    public static final String LOCK_WAITING_THREADS = "bonita.bpmengine.lock.waiting";
+    private static final int MAX_POOLED_ENTRIES_PER_STRIPE = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(StripedLockService.class);
+
+    private final int lockTimeoutSeconds;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final ConcurrentHashMap<String, Integer> objectTypeIndexes = new ConcurrentHashMap<>();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final Timer waitTime;
+    private final DistributionSummary stripeQueueLength;
+
+    public StripedLockService(@Value("${bonita.platform.lock.memory.timeout}") int lockTimeoutSeconds,
+            @Value("${bonita.platform.lock.striped.stripes:64}") int numberOfStripes,
+            MeterRegistry meterRegistry) {
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+        // round to the next power of two so that the stripe is selected using a mask
+        int size = numberOfStripes <= 1 ? 1 : Integer.highestOneBit(numberOfStripes - 1) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+        waitTime = Timer.builder(LOCK_WAIT_TIME)
+                .description("Time spent waiting for a lock held by another thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        stripeQueueLength = DistributionSummary.builder(LOCK_STRIPE_QUEUE)
+                .baseUnit("threads")
+                .description("Number of threads already waiting on the stripe when a thread starts waiting for a lock")
+                .register(meterRegistry);
+        Gauge.builder(LOCK_WAITING_THREADS, waitingThreads, AtomicInteger::get)
+                .baseUnit("threads").description("Threads currently waiting for a lock")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public BonitaLock lock(long objectToLockId, String objectType, long tenantId)
+            throws SLockException, SLockTimeoutException {
+        BonitaLock bonitaLock = tryLock(objectToLockId, objectType, lockTimeoutSeconds, SECONDS, tenantId);
+        if (bonitaLock == null) {
+            throw new SLockTimeoutException(String.format("Unable to acquire lock %s,%s,%s in %s seconds",
+                    objectToLockId, objectType, tenantId, lockTimeoutSeconds));
+        }
+        return bonitaLock;
+    }
+
+    @Override
+    public BonitaLock tryLock(long objectToLockId, String objectType, long timeout, TimeUnit timeUnit, long tenantId)
+            throws SLockException {
+        int type = getObjectTypeIndex(objectType);
+        Stripe stripe = getStripe(type, objectToLockId, tenantId);
+        Thread currentThread = Thread.currentThread();
+        stripe.mutex.lock();
+        try {
+            LockEntry entry = stripe.find(type, objectToLockId, tenantId);
+            if (entry == null) {
+                stripe.acquire(type, objectToLockId, tenantId, currentThread);
+                logger.debug("Lock acquired for {}:{} on tenant {}", objectType, objectToLockId, tenantId);
+                return new BonitaLock(objectType, objectToLockId);
+            }
+            if (entry.owner == currentThread) {
+                entry.holdCount++;
+                return new BonitaLock(objectType, objectToLockId);
+            }
+            if (waitFor(stripe, entry, currentThread, timeUnit.toNanos(timeout))) {
+                logger.debug("Lock acquired for {}:{} on tenant {}", objectType, objectToLockId, tenantId);
+                return new BonitaLock(objectType, objectToLockId);
+            }
+            logger.debug("Lock was not acquired for {}:{} on tenant {}", objectType, objectToLockId, tenantId);
+            return null;
+        } catch (InterruptedException e) {
+            throw new SLockException("interrupted while trying to get the lock", e);
+        } finally {
+            stripe.mutex.unlock();
+        }
+    }
+
+    /**
+     * Must be called holding the mutex of the stripe
+     *
+     * @return true if the lock was acquired before the timeout expires
+     */
+    private boolean waitFor(Stripe stripe, LockEntry entry, Thread currentThread, long timeoutNanos)
+            throws InterruptedException {
+        stripeQueueLength.record(stripe.waitingThreads);
+        long start = System.nanoTime();
+        long remainingNanos = timeoutNanos;
+        entry.waitingThreads++;
+        stripe.waitingThreads++;
+        waitingThreads.incrementAndGet();
+        try {
+            while (entry.owner != null) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = entry.released.awaitNanos(remainingNanos);
+            }
+            entry.owner = currentThread;
+            entry.holdCount = 1;
+            return true;
+        } finally {
+            entry.waitingThreads--;
+            stripe.waitingThreads--;
+            waitingThreads.decrementAndGet();
+            if (entry.owner == null) {
+                if (entry.waitingThreads > 0) {
+                    // the lock was released while giving up: hand it over to another waiting thread
+                    entry.released.signal();
+                } else {
+                    // gave up waiting and nobody else wants this lock anymore
+                    stripe.release(entry);
+                }
+            }
+            waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void unlock(BonitaLock lock, long tenantId) throws SLockException {
+        int type = getObjectTypeIndex(lock.getObjectType());
+        Stripe stripe = getStripe(type, lock.getObjectToLockId(), tenantId);
+        stripe.mutex.lock();
+        try {
+            LockEntry entry = stripe.find(type, lock.getObjectToLockId(), tenantId);
+            if (entry == null) {
+                return;
+            }
+            if (entry.owner != Thread.currentThread()) {
+                throw new SLockException("Unable to release lock " + lock + ", it is not held by the current thread");
+            }
+            if (--entry.holdCount > 0) {
+                logger.debug("Lock released {}, keeping it, it was locked multiple times by the current thread", lock);
+                return;
+            }
+            entry.owner = null;
+            if (entry.waitingThreads > 0) {
+                logger.debug("Lock released {}, keeping it, some other threads are requesting it", lock);
+                entry.released.signal();
+            } else {
+                logger.debug("Lock released {}, removing it, no other thread is requesting it", lock);
+                stripe.release(entry);
+            }
+        } finally {
+            stripe.mutex.unlock();
+        }
+    }
+
+    private int getObjectTypeIndex(String objectType) {
+        Integer index = objectTypeIndexes.get(objectType);
+        if (index == null) {
+            synchronized (objectTypeIndexes) {
+                index = objectTypeIndexes.computeIfAbsent(objectType, k -> objectTypeIndexes.size());
+            }
+        }
+        return index;
+    }
+
+    private Stripe getStripe(int type, long objectToLockId, long tenantId) {
+        long hash = objectToLockId * 0x9E3779B97F4A7C15L + type * 31L + tenantId * 0xC2B2AE3D27D4EB4FL;
+        return stripes[(int) (hash ^ (hash >>> 32)) & stripeMask];
+    }
+
+    int getNumberOfStripes() {
+        return stripes.length;
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock mutex = new ReentrantLock();
+        private final ArrayDeque<LockEntry> pool = new ArrayDeque<>();
+        private LockEntry[] entries = new LockEntry[8];
+        private int size;
+        private int waitingThreads;
+
+        LockEntry find(int type, long objectToLockId, long tenantId) {
+            for (int i = 0; i < size; i++) {
+                LockEntry entry = entries[i];
+                if (entry.objectToLockId == objectToLockId && entry.type == type && entry.tenantId == tenantId) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        void acquire(int type, long objectToLockId, long tenantId, Thread owner) {
+            LockEntry entry = pool.poll();
+            if (entry == null) {
+                entry = new LockEntry(mutex.newCondition());
+            }
+            entry.type = type;
+            entry.objectToLockId = objectToLockId;
+            entry.tenantId = tenantId;
+            entry.owner = owner;
+            entry.holdCount = 1;
+            if (size == entries.length) {
+                LockEntry[] newEntries = new LockEntry[size * 2];
+                System.arraycopy(entries, 0, newEntries, 0, size);
+                entries = newEntries;
+            }
+            entries[size++] = entry;
+        }
+
+        void release(LockEntry entry) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry) {
+                    entries[i] = entries[--size];
+                    entries[size] = null;
+                    break;
+                }
+            }
+            if (pool.size() < MAX_POOLED_ENTRIES_PER_STRIPE) {
+                pool.push(entry);
+            }
+        }
+    }
+
+    private static final class LockEntry {
+
+        private final Condition released;
+        private int type;
+        private long objectToLockId;
+        private long tenantId;
+        private Thread owner;
+        private int holdCount;
+        private int waitingThreads;
+
+        LockEntry(Condition released) {
+            this.released = released;
+        }
+    }
+}
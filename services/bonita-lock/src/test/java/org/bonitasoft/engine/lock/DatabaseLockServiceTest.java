@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DatabaseLockServiceTest {
+
+    private static final long TENANT_ID = 1L;
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    private JdbcDataSource dataSource;
+    private DatabaseLockService node1;
+    private DatabaseLockService node2;
+
+    @Before
+    public void before() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:cluster_lock;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute(clusterLockTableCreation());
+        }
+        node1 = new DatabaseLockService(dataSource, 1, 10_000, 10, "node1");
+        node2 = new DatabaseLockService(dataSource, 1, 10_000, 10, "node2");
+    }
+
+    @After
+    public void after() throws Exception {
+        executorService.shutdownNow();
+        node1.stop();
+        node2.stop();
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE cluster_lock");
+        }
+    }
+
+    /**
+     * use the table declared in the script of platform-resources, so that the service is tested against it
+     */
+    private String clusterLockTableCreation() throws Exception {
+        try (InputStream script = getClass().getResourceAsStream("/sql/h2/createTables.sql")) {
+            String createTables = new String(script.readAllBytes(), StandardCharsets.UTF_8);
+            int start = createTables.indexOf("CREATE TABLE cluster_lock");
+            return createTables.substring(start, createTables.indexOf(");", start) + 1);
+        }
+    }
+
+    @Test
+    public void should_not_be_able_to_lock_an_object_locked_by_an_other_node() throws Exception {
+        node1.lock(12, "PROCESS", TENANT_ID);
+
+        assertThat(node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNull();
+    }
+
+    @Test
+    public void should_be_able_to_lock_an_object_released_by_an_other_node_with_a_greater_fencing_token()
+            throws Exception {
+        BonitaLock lock = node1.lock(12, "PROCESS", TENANT_ID);
+        long firstToken = node1.getFencingToken(lock, TENANT_ID);
+        node1.unlock(lock, TENANT_ID);
+
+        BonitaLock lockOfNode2 = node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID);
+
+        assertThat(lockOfNode2).isNotNull();
+        assertThat(node2.getFencingToken(lockOfNode2, TENANT_ID)).isGreaterThan(firstToken);
+    }
+
+    @Test
+    public void should_be_able_to_lock_different_objects_on_different_nodes() throws Exception {
+        node1.lock(12, "PROCESS", TENANT_ID);
+
+        assertThat(node2.tryLock(13, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNotNull();
+        assertThat(node2.tryLock(12, "OTHER", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNotNull();
+        assertThat(node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, 2L)).isNotNull();
+    }
+
+    @Test
+    public void should_be_reentrant() throws Exception {
+        BonitaLock lock1 = node1.lock(12, "PROCESS", TENANT_ID);
+        BonitaLock lock2 = node1.lock(12, "PROCESS", TENANT_ID);
+
+        node1.unlock(lock2, TENANT_ID);
+        assertThat(node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNull();
+        node1.unlock(lock1, TENANT_ID);
+        assertThat(node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNotNull();
+    }
+
+    @Test
+    public void should_take_the_lock_of_a_node_that_did_not_renew_its_lease() throws Exception {
+        DatabaseLockService crashedNode = new DatabaseLockService(dataSource, 1, 100, 10, "crashedNode");
+        BonitaLock lock = crashedNode.lock(12, "PROCESS", TENANT_ID);
+        long crashedNodeToken = crashedNode.getFencingToken(lock, TENANT_ID);
+        crashedNode.stop();
+
+        BonitaLock lockOfNode2 = node2.tryLock(12, "PROCESS", 1, TimeUnit.SECONDS, TENANT_ID);
+
+        assertThat(lockOfNode2).isNotNull();
+        assertThat(node2.getFencingToken(lockOfNode2, TENANT_ID)).isGreaterThan(crashedNodeToken);
+    }
+
+    @Test
+    public void should_renew_lease_of_held_locks() throws Exception {
+        DatabaseLockService shortLeaseNode = new DatabaseLockService(dataSource, 1, 100, 10, "shortLeaseNode");
+        try {
+            shortLeaseNode.lock(12, "PROCESS", TENANT_ID);
+
+            Thread.sleep(300);
+
+            assertThat(node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNull();
+        } finally {
+            shortLeaseNode.stop();
+        }
+    }
+
+    @Test
+    public void should_hand_over_the_lease_to_a_waiting_thread_of_the_same_node() throws Exception {
+        BonitaLock lock = node1.lock(12, "PROCESS", TENANT_ID);
+        long token = node1.getFencingToken(lock, TENANT_ID);
+        CountDownLatch waiting = new CountDownLatch(1);
+        Future<Long> tokenOfOtherThread = executorService.submit(() -> {
+            waiting.countDown();
+            BonitaLock otherLock = node1.lock(12, "PROCESS", TENANT_ID);
+            try {
+                return node1.getFencingToken(otherLock, TENANT_ID);
+            } finally {
+                node1.unlock(otherLock, TENANT_ID);
+            }
+        });
+        waiting.await();
+        Thread.sleep(50);
+
+        node1.unlock(lock, TENANT_ID);
+
+        assertThat(tokenOfOtherThread.get()).isEqualTo(token);
+        assertThat(node2.tryLock(12, "PROCESS", 50, TimeUnit.MILLISECONDS, TENANT_ID)).isNotNull();
+    }
+
+    @Test
+    public void should_fail_to_get_fencing_token_of_a_lock_not_held() {
+        assertThatThrownBy(() -> node1.getFencingToken(new BonitaLock("PROCESS", 12), TENANT_ID))
+                .isInstanceOf(SLockException.class);
+    }
+}
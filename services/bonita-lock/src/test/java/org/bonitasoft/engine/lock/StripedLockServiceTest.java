@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedLockServiceTest {
+
+    private static final long TENANT_ID = 1L;
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StripedLockService lockService;
+
+    @Before
+    public void before() {
+        lockService = new StripedLockService(1, 4, meterRegistry);
+    }
+
+    @After
+    public void after() {
+        executorService.shutdownNow();
+    }
+
+    private BonitaLock tryLockInAnOtherThread(long objectToLockId, String objectType, long tenantId)
+            throws Exception {
+        return executorService
+                .submit(() -> lockService.tryLock(objectToLockId, objectType, 10, TimeUnit.MILLISECONDS, tenantId))
+                .get();
+    }
+
+    @Test
+    public void should_not_be_able_to_lock_an_object_locked_by_an_other_thread() throws Exception {
+        lockService.lock(12, "PROCESS", TENANT_ID);
+
+        assertThat(tryLockInAnOtherThread(12, "PROCESS", TENANT_ID)).isNull();
+    }
+
+    @Test
+    public void should_be_able_to_lock_other_objects() throws Exception {
+        lockService.lock(12, "PROCESS", TENANT_ID);
+
+        assertThat(tryLockInAnOtherThread(13, "PROCESS", TENANT_ID)).isNotNull();
+        assertThat(tryLockInAnOtherThread(12, "SEQUENCE", TENANT_ID)).isNotNull();
+        assertThat(tryLockInAnOtherThread(12, "PROCESS", 2L)).isNotNull();
+    }
+
+    @Test
+    public void should_lock_multiple_times_on_the_same_thread() throws Exception {
+        BonitaLock bonitaLock = lockService.lock(123, "abc", TENANT_ID);
+        lockService.lock(123, "abc", TENANT_ID);
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+        assertThat(tryLockInAnOtherThread(123, "abc", TENANT_ID)).isNull();
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+        assertThat(tryLockInAnOtherThread(123, "abc", TENANT_ID)).isNotNull();
+    }
+
+    @Test
+    public void should_throw_timeout_exception_when_lock_is_not_released() throws Exception {
+        lockService.lock(2, "a", TENANT_ID);
+
+        Future<BonitaLock> lock = executorService.submit(() -> lockService.lock(2, "a", TENANT_ID));
+
+        assertThatThrownBy(lock::get).hasCauseInstanceOf(SLockTimeoutException.class);
+    }
+
+    @Test
+    public void should_give_the_lock_to_a_waiting_thread_when_released() throws Exception {
+        BonitaLock bonitaLock = lockService.lock(5, "a", TENANT_ID);
+        CountDownLatch waiting = new CountDownLatch(1);
+        Future<BonitaLock> lock = executorService.submit(() -> {
+            waiting.countDown();
+            return lockService.tryLock(5, "a", 5, TimeUnit.SECONDS, TENANT_ID);
+        });
+        waiting.await();
+        Thread.sleep(50);
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+
+        assertThat(lock.get(5, TimeUnit.SECONDS)).isEqualTo(new BonitaLock("a", 5));
+        assertThat(meterRegistry.find(StripedLockService.LOCK_WAIT_TIME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_allow_an_other_thread_to_release_the_lock() throws Exception {
+        BonitaLock bonitaLock = lockService.lock(5, "a", TENANT_ID);
+
+        Future<?> unlock = executorService.submit(() -> {
+            lockService.unlock(bonitaLock, TENANT_ID);
+            return null;
+        });
+
+        assertThatThrownBy(unlock::get).hasCauseInstanceOf(SLockException.class);
+    }
+
+    @Test
+    public void should_guarantee_mutual_exclusion_under_contention() throws Exception {
+        AtomicInteger concurrentHolders = new AtomicInteger();
+        AtomicInteger maxConcurrentHolders = new AtomicInteger();
+        Future<?>[] futures = new Future[4];
+        for (int t = 0; t < futures.length; t++) {
+            futures[t] = executorService.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    BonitaLock lock = lockService.lock(i % 3, "PROCESS", TENANT_ID);
+                    if (i % 3 == 0) {
+                        maxConcurrentHolders.accumulateAndGet(concurrentHolders.incrementAndGet(), Math::max);
+                        concurrentHolders.decrementAndGet();
+                    }
+                    lockService.unlock(lock, TENANT_ID);
+                }
+                return null;
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxConcurrentHolders.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_round_number_of_stripes_to_a_power_of_two() {
+        assertThat(new StripedLockService(1, 50, meterRegistry).getNumberOfStripes()).isEqualTo(64);
+        assertThat(new StripedLockService(1, 64, meterRegistry).getNumberOfStripes()).isEqualTo(64);
+        assertThat(new StripedLockService(1, 1, meterRegistry).getNumberOfStripes()).isEqualTo(1);
+    }
+}
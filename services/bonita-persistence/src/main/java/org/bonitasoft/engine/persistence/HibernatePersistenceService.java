@@ -234,6 +234,16 @@ public class HibernatePersistenceService implements PersistenceService {
         }
     }
 
+    @Override
+    public void insertInBatch(final List<? extends PersistentObject> entities, final int jdbcBatchSize)
+            throws SPersistenceException {
+        if (entities.size() > 1) {
+            // send consecutive inserts of the same entity to the database in JDBC batches
+            getSession().setJdbcBatchSize(jdbcBatchSize);
+        }
+        insertInBatch(entities);
+    }
+
     @Override
     public void update(final UpdateDescriptor updateDescriptor) throws SPersistenceException {
         // FIXME: deal with disconnected objects:
@@ -15,6 +15,7 @@ package org.bonitasoft.engine.persistence;
 
 import static java.util.Collections.emptySet;
 
+import java.io.Serializable;
 import java.util.*;
 
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,8 @@ import org.hibernate.query.Query;
 @Slf4j
 abstract class QueryBuilder<T> {
 
+    static final String SEARCH_TERM_CANDIDATES_PARAMETER = "searchTermCandidates";
+
     private final Query baseQuery;
     private final OrderByCheckingMode orderByCheckingMode;
     private final AbstractSelectDescriptor<T> selectDescriptor;
@@ -38,6 +41,8 @@ abstract class QueryBuilder<T> {
     private Session session;
     private boolean cacheEnabled;
     private Map<String, Object> parameters = new HashMap<>();
+    private SearchTermIndex searchTermIndex;
+    private boolean seeking;
 
     QueryBuilder(Session session, Query baseQuery, OrderByBuilder orderByBuilder,
             Map<String, String> classAliasMappings,
@@ -119,24 +124,75 @@ abstract class QueryBuilder<T> {
 
         if (!fields.isEmpty()) {
             final List<String> terms = multipleFilter.getTerms();
-            applyFiltersOnQuery(builder, fields, terms);
+            applyFiltersOnQuery(builder, fields, terms, getSearchTermCandidates(allTextFields, specificFilters, terms));
+        }
+    }
+
+    /**
+     * Ask the search term index for the ids of the entities that can match, when all searched fields belong to the
+     * searched entity
+     */
+    private Optional<Collection<Long>> getSearchTermCandidates(
+            Map<Class<? extends PersistentObject>, Set<String>> allTextFields, Set<String> specificFilters,
+            List<String> terms) {
+        if (searchTermIndex == null || selectDescriptor == null || allTextFields.size() != 1) {
+            return Optional.empty();
         }
+        Class<? extends PersistentObject> entityType = selectDescriptor.getEntityType();
+        Set<String> entityFields = allTextFields.get(entityType);
+        if (entityFields == null) {
+            return Optional.empty();
+        }
+        String alias = classAliasMappings.get(entityType.getName());
+        Set<String> searchedFields = new HashSet<>();
+        for (String field : entityFields) {
+            if (!specificFilters.contains(alias + '.' + field)) {
+                searchedFields.add(field);
+            }
+        }
+        return searchTermIndex.findCandidates(entityType, searchedFields, terms);
     }
 
     private void applyFiltersOnQuery(final StringBuilder queryBuilder, final Set<String> fields,
-            final List<String> terms) {
+            final List<String> terms, Optional<Collection<Long>> candidates) {
         if (!hasWHEREInRootQuery(queryBuilder.toString())) {
             queryBuilder.append(" WHERE ");
         } else {
             queryBuilder.append(" AND ");
         }
         queryBuilder.append("(");
+        if (candidates.isPresent()) {
+            if (candidates.get().isEmpty()) {
+                queryBuilder.append("1 = 0)");
+                return;
+            }
+            // terms are still checked by the database, on the candidates only
+            queryBuilder.append(classAliasMappings.get(selectDescriptor.getEntityType().getName()))
+                    .append(".id IN (:").append(SEARCH_TERM_CANDIDATES_PARAMETER).append(") AND (");
+            parameters.put(SEARCH_TERM_CANDIDATES_PARAMETER, candidates.get());
+        }
 
         QueryGeneratorForSearchTerm.QueryGeneratedSearchTerms result = queryGeneratorForSearchTerm.generate(fields,
                 terms);
         queryBuilder.append(result.getSearch());
 
         queryBuilder.append(")");
+        if (candidates.isPresent()) {
+            queryBuilder.append(")");
+        }
+        parameters.putAll(result.getParameters());
+    }
+
+    void appendSearchAfter(List<OrderByOption> orderByOptions, Class<? extends PersistentObject> entityType,
+            List<Serializable> searchAfter) throws SBonitaReadException {
+        QueryGeneratorForOrderBy.QueryGeneratedSearchAfter result = queryGeneratorForOrderBy
+                .generateSearchAfter(orderByOptions, entityType, searchAfter);
+        if (!hasWHEREInRootQuery(stringQueryBuilder.toString())) {
+            stringQueryBuilder.append(" WHERE ");
+        } else {
+            stringQueryBuilder.append(" AND ");
+        }
+        stringQueryBuilder.append(result.getPredicate());
         parameters.putAll(result.getParameters());
     }
 
@@ -154,16 +210,30 @@ abstract class QueryBuilder<T> {
 
     void manageFiltersAndParameters(AbstractSelectDescriptor<T> selectDescriptor)
             throws SBonitaReadException {
+        final QueryOptions queryOptions = selectDescriptor.getQueryOptions();
         if (selectDescriptor.hasAFilter()) {
-            final QueryOptions queryOptions = selectDescriptor.getQueryOptions();
             appendFilters(queryOptions.getFilters(), queryOptions.getMultipleFilter());
         }
-        if (selectDescriptor.hasOrderByParameters()) {
-            appendOrderByClause(selectDescriptor.getQueryOptions().getOrderByOptions(),
-                    selectDescriptor.getEntityType());
+        seeking = queryOptions != null && queryOptions.hasSearchAfter()
+                && QueryGeneratorForOrderBy.canSeek(queryOptions.getOrderByOptions(), selectDescriptor.getEntityType());
+        if (seeking) {
+            // the seek predicate relies on the ORDER BY generated below, even when no sort is given
+            appendSearchAfter(queryOptions.getOrderByOptions(), selectDescriptor.getEntityType(),
+                    queryOptions.getSearchAfter());
+            appendOrderByClause(queryOptions.getOrderByOptions(), selectDescriptor.getEntityType());
+        } else if (selectDescriptor.hasOrderByParameters()) {
+            appendOrderByClause(queryOptions.getOrderByOptions(), selectDescriptor.getEntityType());
         }
     }
 
+    /**
+     * Use the given index, if any, to narrow down the rows on which search terms are evaluated
+     */
+    QueryBuilder searchTermIndex(SearchTermIndex searchTermIndex) {
+        this.searchTermIndex = searchTermIndex;
+        return this;
+    }
+
     public QueryBuilder cache(boolean cacheEnabled) {
         this.cacheEnabled = cacheEnabled;
         return this;
@@ -188,7 +258,8 @@ abstract class QueryBuilder<T> {
         }
         addConstantsAsParameters(query);
         setParameters(query, selectDescriptor.getInputParameters());
-        query.setFirstResult(selectDescriptor.getStartIndex());
+        // when sorted on nullable fields, the search after values are ignored and results are paged by offset
+        query.setFirstResult(seeking ? 0 : selectDescriptor.getStartIndex());
         query.setMaxResults(selectDescriptor.getPageSize());
         query.setCacheable(cacheEnabled);
         checkOrderByClause(query);
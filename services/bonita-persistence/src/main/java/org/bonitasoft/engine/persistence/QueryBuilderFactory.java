@@ -30,6 +30,7 @@ public class QueryBuilderFactory {
     private OrderByBuilder orderByBuilder = new DefaultOrderByBuilder();
     private Map<String, String> classAliasMappings;
     private char likeEscapeCharacter;
+    private volatile SearchTermIndex searchTermIndex;
 
     public QueryBuilderFactory(OrderByCheckingMode orderByCheckingMode, Map<String, String> classAliasMappings,
             char likeEscapeCharacter)
@@ -48,11 +49,19 @@ public class QueryBuilderFactory {
                     orderByCheckingMode, selectDescriptor);
         } else {
             return new HQLQueryBuilder<>(session, query, orderByBuilder, classAliasMappings, likeEscapeCharacter,
-                    orderByCheckingMode, selectDescriptor);
+                    orderByCheckingMode, selectDescriptor).searchTermIndex(searchTermIndex);
         }
     }
 
     public void setOrderByBuilder(OrderByBuilder orderByBuilder) {
         this.orderByBuilder = orderByBuilder;
     }
+
+    /**
+     * Set the index used by HQL queries to narrow down the rows on which search terms are evaluated, or null to
+     * evaluate them on all rows. Native SQL queries never use it.
+     */
+    public void setSearchTermIndex(SearchTermIndex searchTermIndex) {
+        this.searchTermIndex = searchTermIndex;
+    }
 }
@@ -13,11 +13,20 @@
  **/
 package org.bonitasoft.engine.persistence;
 
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
 public class QueryGeneratorForOrderBy {
 
+    static final String SEARCH_AFTER_PARAMETER = "sa";
+
     private Map<String, String> classAliasMappings;
     private OrderByBuilder orderByBuilder;
 
@@ -43,34 +52,111 @@ public class QueryGeneratorForOrderBy {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(" ORDER BY ");
         boolean startWithComma = false;
-        boolean sortedById = false;
-        for (final OrderByOption orderByOption : orderByOptions) {
+        for (final OrderByOption orderByOption : getSortKeys(orderByOptions, entityType)) {
             if (startWithComma) {
                 stringBuilder.append(',');
             }
-            StringBuilder fieldNameBuilder = new StringBuilder();
-            final Class<? extends PersistentObject> clazz = orderByOption.getClazz();
-            if (clazz != null) {
-                appendClassAlias(fieldNameBuilder, clazz);
+            orderByBuilder.appendOrderBy(stringBuilder, getFieldName(orderByOption), orderByOption.getOrderByType());
+            startWithComma = true;
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Generate the predicate that keeps only the rows located after the given sort values, in the order generated by
+     * {@link #generate(List, Class)}, e.g. {@code (a > :sa0 OR (a = :sa0 AND id > :sa1))}
+     */
+    QueryGeneratedSearchAfter generateSearchAfter(List<OrderByOption> orderByOptions,
+            Class<? extends PersistentObject> entityType, List<Serializable> searchAfter)
+            throws SBonitaReadException {
+        List<OrderByOption> sortKeys = getSortKeys(orderByOptions, entityType);
+        if (searchAfter.size() != sortKeys.size()) {
+            throw new SBonitaReadException("Expected " + sortKeys.size() + " search after values, one for each of "
+                    + sortKeys + ", but got " + searchAfter);
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder predicate = new StringBuilder("(");
+        for (int i = 0; i < sortKeys.size(); i++) {
+            if (i > 0) {
+                predicate.append(" OR ");
             }
-            final String fieldName = orderByOption.getFieldName();
-            if ("id".equalsIgnoreCase(fieldName) || "sourceObjectId".equalsIgnoreCase(fieldName)) {
-                sortedById = true;
+            predicate.append('(');
+            for (int j = 0; j < i; j++) {
+                predicate.append(getFieldName(sortKeys.get(j))).append(" = :").append(SEARCH_AFTER_PARAMETER)
+                        .append(j).append(" AND ");
             }
-            fieldNameBuilder.append(fieldName);
-            orderByBuilder.appendOrderBy(stringBuilder, fieldNameBuilder.toString(),
-                    orderByOption.getOrderByType());
-            startWithComma = true;
+            OrderByType orderByType = sortKeys.get(i).getOrderByType();
+            predicate.append(getFieldName(sortKeys.get(i)))
+                    .append(orderByType.getSqlKeyword().startsWith("DESC") ? " < :" : " > :")
+                    .append(SEARCH_AFTER_PARAMETER).append(i).append(')');
+            parameters.put(SEARCH_AFTER_PARAMETER + i, searchAfter.get(i));
         }
-        if (!sortedById) {
-            if (startWithComma) {
-                stringBuilder.append(',');
+        predicate.append(')');
+        return new QueryGeneratedSearchAfter(predicate.toString(), parameters);
+    }
+
+    /**
+     * @return the keys the results are sorted by: the given ones, followed by the id when they do not include it. The
+     *         id is the only key known to be unique (e.g. several archived instances share the same sourceObjectId)
+     */
+    static List<OrderByOption> getSortKeys(List<OrderByOption> orderByOptions,
+            Class<? extends PersistentObject> entityType) {
+        List<OrderByOption> sortKeys = orderByOptions != null ? new ArrayList<>(orderByOptions) : new ArrayList<>();
+        if (sortKeys.stream().map(OrderByOption::getFieldName).noneMatch("id"::equalsIgnoreCase)) {
+            sortKeys.add(new OrderByOption(entityType, "id", OrderByType.ASC));
+        }
+        return sortKeys;
+    }
+
+    /**
+     * The seek predicate compares the sort values with {@code <} and {@code >}, which never match NULL: rows having a
+     * NULL sort value would be silently skipped. Keyset paging is then only possible when all sort keys are fields of a
+     * primitive type, the others must be paged by offset.
+     *
+     * @return true when the results sorted by the given options can be paged using
+     *         {@link #generateSearchAfter(List, Class, List)}
+     */
+    static boolean canSeek(List<OrderByOption> orderByOptions, Class<? extends PersistentObject> entityType) {
+        for (OrderByOption sortKey : getSortKeys(orderByOptions, entityType)) {
+            if ("id".equalsIgnoreCase(sortKey.getFieldName())) {
+                continue;
+            }
+            Field field = findField(sortKey.getClazz() != null ? sortKey.getClazz() : entityType,
+                    sortKey.getFieldName());
+            if (field == null || !field.getType().isPrimitive()) {
+                return false;
             }
-            appendClassAlias(stringBuilder, entityType);
-            stringBuilder.append("id");
-            stringBuilder.append(' ');
-            stringBuilder.append("ASC");
         }
-        return stringBuilder.toString();
+        return true;
+    }
+
+    private static Field findField(Class<?> clazz, String fieldName) {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current
+                .getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(fieldName)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String getFieldName(OrderByOption orderByOption) throws SBonitaReadException {
+        StringBuilder fieldNameBuilder = new StringBuilder();
+        final Class<? extends PersistentObject> clazz = orderByOption.getClazz();
+        if (clazz != null) {
+            appendClassAlias(fieldNameBuilder, clazz);
+        }
+        fieldNameBuilder.append(orderByOption.getFieldName());
+        return fieldNameBuilder.toString();
+    }
+
+    @Data
+    @AllArgsConstructor
+    static final class QueryGeneratedSearchAfter {
+
+        private String predicate;
+        private Map<String, Object> parameters;
     }
 }
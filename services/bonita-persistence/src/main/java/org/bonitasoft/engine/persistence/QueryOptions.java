@@ -14,6 +14,7 @@
 package org.bonitasoft.engine.persistence;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -37,6 +38,8 @@ public class QueryOptions implements Serializable {
 
     private final List<OrderByOption> orderByOptions;
 
+    private final List<Serializable> searchAfter;
+
     public static final int UNLIMITED_NUMBER_OF_RESULTS = Integer.MAX_VALUE;
 
     public static final QueryOptions ALL_RESULTS = new QueryOptions(0, UNLIMITED_NUMBER_OF_RESULTS);
@@ -49,6 +52,7 @@ public class QueryOptions implements Serializable {
         orderByOptions = queryOptions.getOrderByOptions();
         filters = queryOptions.getFilters();
         multipleFilter = queryOptions.getMultipleFilter();
+        searchAfter = queryOptions.getSearchAfter();
     }
 
     /**
@@ -61,6 +65,7 @@ public class QueryOptions implements Serializable {
         orderByOptions = Collections.emptyList();
         filters = Collections.emptyList();
         multipleFilter = null;
+        searchAfter = null;
     }
 
     public QueryOptions(final int fromIndex, final int numberOfResults, final List<OrderByOption> orderByOptions) {
@@ -70,17 +75,32 @@ public class QueryOptions implements Serializable {
         this.orderByOptions = orderByOptions;
         filters = Collections.emptyList();
         multipleFilter = null;
+        searchAfter = null;
     }
 
     public QueryOptions(final int fromIndex, final int numberOfResults, final List<OrderByOption> orderByOptions,
             final List<FilterOption> filters,
             final SearchFields multipleFilter) {
+        this(fromIndex, numberOfResults, orderByOptions, filters, multipleFilter, null);
+    }
+
+    /**
+     * @param searchAfter
+     *        when not null, only the results located after these sort values are returned: the values of the given
+     *        order by options followed by the id, when they do not already sort by id, as returned by
+     *        {@link #getSearchAfterOf(PersistentObject)} for the last element of the previous page. The fromIndex is
+     *        still used when the results are sorted on nullable fields, which cannot be paged using sort values
+     */
+    public QueryOptions(final int fromIndex, final int numberOfResults, final List<OrderByOption> orderByOptions,
+            final List<FilterOption> filters, final SearchFields multipleFilter,
+            final List<Serializable> searchAfter) {
         super();
         this.fromIndex = fromIndex;
         this.numberOfResults = numberOfResults;
         this.orderByOptions = orderByOptions;
         this.filters = filters;
         this.multipleFilter = multipleFilter;
+        this.searchAfter = searchAfter;
     }
 
     /**
@@ -104,6 +124,7 @@ public class QueryOptions implements Serializable {
         }
         filters = Collections.emptyList();
         multipleFilter = null;
+        searchAfter = null;
     }
 
     @Deprecated
@@ -114,6 +135,7 @@ public class QueryOptions implements Serializable {
         this.orderByOptions = orderByOptions;
         filters = Collections.emptyList();
         multipleFilter = null;
+        searchAfter = null;
     }
 
     @Deprecated
@@ -126,6 +148,7 @@ public class QueryOptions implements Serializable {
         orderByOptions.add(new OrderByOption(clazz, fieldName, orderByType));
         filters = Collections.emptyList();
         multipleFilter = null;
+        searchAfter = null;
     }
 
     public int getFromIndex() {
@@ -152,6 +175,61 @@ public class QueryOptions implements Serializable {
         return orderByOptions != null && !orderByOptions.isEmpty();
     }
 
+    public List<Serializable> getSearchAfter() {
+        return searchAfter;
+    }
+
+    public boolean hasSearchAfter() {
+        return searchAfter != null;
+    }
+
+    /**
+     * Get the values to give as search after to get the results located after the given one, in the order of these
+     * options
+     *
+     * @return the sort values of the given object, or null when one of them is null or cannot be read from the object,
+     *         or when these options sort on nullable fields
+     */
+    public List<Serializable> getSearchAfterOf(final PersistentObject object) {
+        if (!QueryGeneratorForOrderBy.canSeek(orderByOptions, object.getClass())) {
+            return null;
+        }
+        final List<Serializable> values = new ArrayList<>();
+        for (final OrderByOption sortKey : QueryGeneratorForOrderBy.getSortKeys(orderByOptions, object.getClass())) {
+            if ("id".equals(sortKey.getFieldName())
+                    && (sortKey.getClazz() == null || sortKey.getClazz().isInstance(object))) {
+                values.add(object.getId());
+                continue;
+            }
+            final Serializable value = getFieldValue(object, sortKey);
+            if (value == null) {
+                return null;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static Serializable getFieldValue(final PersistentObject object, final OrderByOption sortKey) {
+        if (sortKey.getClazz() != null && !sortKey.getClazz().isInstance(object)) {
+            // sorted on a joined entity
+            return null;
+        }
+        for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                final Field field = clazz.getDeclaredField(sortKey.getFieldName());
+                field.setAccessible(true);
+                final Object value = field.get(object);
+                return value instanceof Serializable ? (Serializable) value : null;
+            } catch (final NoSuchFieldException e) {
+                // look in the super class
+            } catch (final IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
     /**
      * Just for get number of elements on a table
      */
@@ -168,7 +246,7 @@ public class QueryOptions implements Serializable {
     @Override
     public String toString() {
         return "QueryOptions [fromIndex=" + fromIndex + ", numberOfResults=" + numberOfResults + ", orderByOptions="
-                + orderByOptions + "]";
+                + orderByOptions + (searchAfter != null ? ", searchAfter=" + searchAfter : "") + "]";
     }
 
     public boolean hasAFilter() {
@@ -201,6 +279,9 @@ public class QueryOptions implements Serializable {
         if (orderByOptions != null ? !orderByOptions.equals(that.orderByOptions) : that.orderByOptions != null) {
             return false;
         }
+        if (searchAfter != null ? !searchAfter.equals(that.searchAfter) : that.searchAfter != null) {
+            return false;
+        }
 
         return true;
     }
@@ -212,6 +293,7 @@ public class QueryOptions implements Serializable {
         result = 31 * result + (filters != null ? filters.hashCode() : 0);
         result = 31 * result + (multipleFilter != null ? multipleFilter.hashCode() : 0);
         result = 31 * result + (orderByOptions != null ? orderByOptions.hashCode() : 0);
+        result = 31 * result + (searchAfter != null ? searchAfter.hashCode() : 0);
         return result;
     }
 }
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of the text fields of some entities, used to narrow down the rows on which the search terms of a search are
+ * evaluated.
+ * <p>
+ * The ids returned must include all entities matching the terms: the search term clause is still evaluated by the
+ * database on them, so the index may return more ids than needed but never less.
+ */
+public interface SearchTermIndex {
+
+    /**
+     * @param entityClass the searched entity
+     * @param fields the fields of the entity on which terms are searched
+     * @param terms the terms, an entity matches when one of its fields contains one of the terms
+     * @return the ids of the entities that can match, or empty when the index cannot answer (entity or field not
+     *         indexed, index not up to date or too many matching entities): the search is then done by the database
+     *         only
+     */
+    Optional<Collection<Long>> findCandidates(Class<? extends PersistentObject> entityClass, Set<String> fields,
+            List<String> terms);
+
+}
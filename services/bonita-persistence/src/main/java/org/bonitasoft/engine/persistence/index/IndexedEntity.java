@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence.index;
+
+import java.util.List;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.bonitasoft.engine.persistence.PersistentObject;
+
+/**
+ * An entity indexed by the {@link LuceneSearchTermIndex}: its text fields, and the events fired when one of these
+ * fields changes. Fields must be short texts, like names, as each value is indexed as a single term.
+ */
+@Getter
+@ToString
+public class IndexedEntity {
+
+    private final Class<? extends PersistentObject> entityClass;
+    private final Set<String> fields;
+    private final List<String> eventTypes;
+
+    /**
+     * @param entityClass the entity, also matches its subclasses
+     * @param fields the fields that are searched using search terms
+     * @param eventTypes the events creating, updating or deleting an entity, having it as object
+     */
+    public IndexedEntity(Class<? extends PersistentObject> entityClass, Set<String> fields, List<String> eventTypes) {
+        this.entityClass = entityClass;
+        this.fields = fields;
+        this.eventTypes = eventTypes;
+    }
+
+}
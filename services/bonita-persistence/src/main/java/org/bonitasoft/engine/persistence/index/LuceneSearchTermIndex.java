@@ -0,0 +1,677 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence.index;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.bonitasoft.engine.commons.ClassReflector;
+import org.bonitasoft.engine.commons.TenantLifecycleService;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.commons.exceptions.SReflectException;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.SDeleteEvent;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SHandlerExecutionException;
+import org.bonitasoft.engine.persistence.FilterOption;
+import org.bonitasoft.engine.persistence.OrderByOption;
+import org.bonitasoft.engine.persistence.OrderByType;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.QueryBuilderFactory;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SearchTermIndex;
+import org.bonitasoft.engine.persistence.search.FilterOperationType;
+import org.bonitasoft.engine.services.PersistenceService;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+
+/**
+ * {@link SearchTermIndex} stored in a Lucene index, in a folder per tenant.
+ * <p>
+ * The text fields of the {@link IndexedEntity indexed entities} are kept lower-cased, one term per value, and terms
+ * are searched using wildcard queries, so that an entity matches the same terms as with the <code>LIKE</code> clause,
+ * regardless of the case. The database still evaluates the terms on the ids returned.
+ * <p>
+ * Handlers on the events of the indexed entities collect the changes of each transaction. Once it is committed, these
+ * changes are queued and a dedicated thread applies them to the index: they are visible to searches some time after
+ * the commit, see the <code>bonita.bpmengine.search.index.lag</code> timer. Until then, from just before the commit,
+ * the ids of the changed entities are added to the candidates, as well as the ones changed by the current transaction.
+ * <p>
+ * The index is rebuilt in background when it was not closed properly (e.g. the node crashed): entities are read
+ * page by page by the same thread, changes queued in the meantime are applied between pages. Searches are done by the
+ * database only until the rebuild completes. Changes done without events are not followed.
+ * <p>
+ * Each node has its own index: it must only be enabled when a single node runs the tenant.
+ * Enabled using <code>bonita.tenant.search.index.enabled=true</code>
+ */
+@Slf4j
+public class LuceneSearchTermIndex implements SearchTermIndex, TenantLifecycleService {
+
+    public static final String INDEX_PENDING = "bonita.bpmengine.search.index.pending";
+    public static final String INDEX_LAG = "bonita.bpmengine.search.index.lag";
+    public static final String INDEX_REBUILDING = "bonita.bpmengine.search.index.rebuilding";
+    public static final String INDEX_QUERIES = "bonita.bpmengine.search.index.queries";
+
+    static final String TYPE_FIELD = "_type";
+    static final String KEY_FIELD = "_key";
+    static final String ID_FIELD = "_id";
+    private static final String ID = "id";
+    private static final String COMPLETE = "complete";
+    private static final int BATCH_SIZE = 1000;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long RETRY_DELAY_MILLIS = 10_000;
+
+    private final EventService eventService;
+    private final UserTransactionService transactionService;
+    private final PersistenceService persistenceService;
+    private final SessionAccessor sessionAccessor;
+    private final QueryBuilderFactory queryBuilderFactory;
+    private final Map<Class<? extends PersistentObject>, IndexedEntity> indexedEntities = new LinkedHashMap<>();
+    private final long tenantId;
+    private final boolean enabled;
+    private final Path indexFolder;
+    private final int maxCandidates;
+    private final BlockingQueue<IndexChange> queue = new LinkedBlockingQueue<>();
+    private final ThreadLocal<List<IndexChange>> currentChanges = new ThreadLocal<>();
+    /**
+     * Number of changes committing or committed but not yet visible in the index, by id, for each indexed entity
+     */
+    private final Map<Class<? extends PersistentObject>, Map<Long, Integer>> pendingIds = new HashMap<>();
+    private final SearchTermIndexHandler handler = new SearchTermIndexHandler();
+    private final Timer lagTimer;
+    private final Counter answeredCounter;
+    private final Counter notAnsweredCounter;
+
+    private volatile boolean running;
+    private volatile boolean upToDate;
+    private volatile boolean rebuilding;
+    private volatile boolean rebuildRequested;
+    private boolean changesLost;
+    private Directory directory;
+    private IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private Thread indexerThread;
+
+    public LuceneSearchTermIndex(EventService eventService, UserTransactionService transactionService,
+            PersistenceService persistenceService, SessionAccessor sessionAccessor,
+            QueryBuilderFactory queryBuilderFactory, List<IndexedEntity> indexedEntities, long tenantId,
+            boolean enabled, String folder, int maxCandidates, MeterRegistry meterRegistry) {
+        this.eventService = eventService;
+        this.transactionService = transactionService;
+        this.persistenceService = persistenceService;
+        this.sessionAccessor = sessionAccessor;
+        this.queryBuilderFactory = queryBuilderFactory;
+        for (IndexedEntity indexedEntity : indexedEntities) {
+            this.indexedEntities.put(indexedEntity.getEntityClass(), indexedEntity);
+            this.pendingIds.put(indexedEntity.getEntityClass(), new ConcurrentHashMap<>());
+        }
+        this.tenantId = tenantId;
+        this.enabled = enabled;
+        this.indexFolder = Paths.get(folder, "tenant-" + tenantId);
+        this.maxCandidates = maxCandidates;
+        Tags tags = Tags.of("tenant", String.valueOf(tenantId));
+        Gauge.builder(INDEX_PENDING, queue, BlockingQueue::size).tags(tags)
+                .baseUnit("changes").description("Changes waiting to be applied to the search index")
+                .register(meterRegistry);
+        Gauge.builder(INDEX_REBUILDING, this, index -> index.rebuilding ? 1 : 0).tags(tags)
+                .description("Whether the search index is being rebuilt")
+                .register(meterRegistry);
+        lagTimer = Timer.builder(INDEX_LAG).tags(tags)
+                .description("Time between the commit of a change and its visibility in the search index")
+                .register(meterRegistry);
+        answeredCounter = Counter.builder(INDEX_QUERIES).tags(tags.and("result", "index"))
+                .description("Searches with terms answered using the search index")
+                .register(meterRegistry);
+        notAnsweredCounter = Counter.builder(INDEX_QUERIES).tags(tags.and("result", "database"))
+                .description("Searches with terms the search index could not answer, done by the database only")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isUpToDate() {
+        return upToDate;
+    }
+
+    @Override
+    public synchronized void start() throws SBonitaException {
+        if (!enabled) {
+            // changes are not followed while disabled: enabling it again must rebuild it
+            deleteIndexFolder();
+            return;
+        }
+        if (running) {
+            return;
+        }
+        try {
+            open();
+        } catch (IOException e) {
+            log.error("Unable to open the search index of tenant {} in {}, searches are done by the database only",
+                    tenantId, indexFolder, e);
+            closeQuietly();
+            return;
+        }
+        for (IndexedEntity indexedEntity : indexedEntities.values()) {
+            for (String eventType : indexedEntity.getEventTypes()) {
+                eventService.addHandler(eventType, handler);
+            }
+        }
+        running = true;
+        indexerThread = new Thread(this::indexLoop, "Bonita-Search-Index-" + tenantId);
+        indexerThread.setDaemon(true);
+        indexerThread.start();
+        queryBuilderFactory.setSearchTermIndex(this);
+        log.info("Search index of tenant {} started{}", tenantId, rebuildRequested ? ", rebuilding it" : "");
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(indexFolder);
+        directory = FSDirectory.open(indexFolder);
+        boolean complete = DirectoryReader.indexExists(directory)
+                && "true".equals(SegmentInfos.readLatestCommit(directory).getUserData().get(COMPLETE));
+        writer = new IndexWriter(directory,
+                new IndexWriterConfig().setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        // a crash before the next clean stop must rebuild the index
+        commit(false);
+        searcherManager = new SearcherManager(writer, null);
+        rebuildRequested = !complete || changesLost;
+        changesLost = false;
+        upToDate = !rebuildRequested;
+    }
+
+    @Override
+    public synchronized void stop() throws SBonitaException {
+        if (!running) {
+            return;
+        }
+        queryBuilderFactory.setSearchTermIndex(null);
+        eventService.removeAllHandlers(handler);
+        running = false;
+        try {
+            indexerThread.join(SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        indexerThread = null;
+        try {
+            List<IndexChange> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            try {
+                apply(remaining);
+            } finally {
+                unmarkPending(remaining);
+            }
+            commit(upToDate && !rebuildRequested);
+        } catch (IOException e) {
+            log.warn("Unable to save the search index of tenant {}, it will be rebuilt: {}", tenantId,
+                    e.getMessage());
+        }
+        upToDate = false;
+        closeQuietly();
+        log.info("Search index of tenant {} stopped", tenantId);
+    }
+
+    @Override
+    public void pause() throws SBonitaException {
+        stop();
+    }
+
+    @Override
+    public void resume() throws SBonitaException {
+        start();
+    }
+
+    @Override
+    public Optional<Collection<Long>> findCandidates(Class<? extends PersistentObject> entityClass,
+            Set<String> fields, List<String> terms) {
+        Optional<Collection<Long>> candidates = Optional.empty();
+        if (canAnswer(entityClass, fields, terms)) {
+            try {
+                candidates = search(entityClass, fields, terms).flatMap(ids -> withPendingIds(entityClass, ids));
+            } catch (IOException | IllegalStateException e) {
+                // index closed or failing: let the database do the search
+                log.debug("Unable to search the index: {}", e.getMessage());
+            }
+        }
+        (candidates.isPresent() ? answeredCounter : notAnsweredCounter).increment();
+        return candidates;
+    }
+
+    private boolean canAnswer(Class<? extends PersistentObject> entityClass, Set<String> fields,
+            List<String> terms) {
+        IndexedEntity indexedEntity = indexedEntities.get(entityClass);
+        return upToDate && indexedEntity != null && !fields.isEmpty()
+                && indexedEntity.getFields().containsAll(fields)
+                // an empty term matches nearly everything
+                && !terms.isEmpty() && terms.stream().noneMatch(String::isEmpty);
+    }
+
+    /**
+     * Add the ids of the entities whose changes are not visible in the index yet: they may match the terms now
+     */
+    private Optional<Collection<Long>> withPendingIds(Class<? extends PersistentObject> entityClass,
+            Collection<Long> ids) {
+        Set<Long> candidates = new LinkedHashSet<>(ids);
+        candidates.addAll(pendingIds.get(entityClass).keySet());
+        List<IndexChange> transactionChanges = currentChanges.get();
+        if (transactionChanges != null) {
+            for (IndexChange change : transactionChanges) {
+                if (change.indexedEntity.getEntityClass() == entityClass) {
+                    candidates.add(change.id);
+                }
+            }
+        }
+        if (candidates.size() > maxCandidates) {
+            return Optional.empty();
+        }
+        return Optional.of(candidates);
+    }
+
+    private Optional<Collection<Long>> search(Class<? extends PersistentObject> entityClass, Set<String> fields,
+            List<String> terms) throws IOException {
+        BooleanQuery.Builder termsQuery = new BooleanQuery.Builder();
+        for (String field : fields) {
+            for (String term : terms) {
+                termsQuery.add(new WildcardQuery(new Term(field, "*" + escapeWildcards(normalize(term)) + "*")),
+                        BooleanClause.Occur.SHOULD);
+            }
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TYPE_FIELD, entityClass.getName())), BooleanClause.Occur.FILTER)
+                .add(termsQuery.build(), BooleanClause.Occur.FILTER)
+                .build();
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            return Optional.empty();
+        }
+        IndexSearcher searcher = manager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, maxCandidates + 1);
+            if (topDocs.scoreDocs.length > maxCandidates) {
+                // the IN clause would be too large, the database is better at it
+                return Optional.empty();
+            }
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                ids.add(storedFields.document(scoreDoc.doc).getField(ID_FIELD).numericValue().longValue());
+            }
+            return Optional.of(ids);
+        } finally {
+            manager.release(searcher);
+        }
+    }
+
+    private void indexLoop() {
+        sessionAccessor.setTenantId(tenantId);
+        while (running) {
+            try {
+                if (rebuildRequested) {
+                    rebuild();
+                    continue;
+                }
+                List<IndexChange> batch = new ArrayList<>(BATCH_SIZE);
+                IndexChange first = queue.poll(POLL_TIMEOUT_MILLIS, MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    try {
+                        apply(batch);
+                    } finally {
+                        // changes not applied are in the index rebuilt
+                        unmarkPending(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Unable to update the search index of tenant {}, it will be rebuilt: {}", tenantId,
+                        e.getMessage());
+                log.debug("Cause", e);
+                upToDate = false;
+                rebuildRequested = true;
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void rebuild() throws Exception {
+        upToDate = false;
+        rebuilding = true;
+        try {
+            long start = System.currentTimeMillis();
+            writer.deleteAll();
+            long documents = 0;
+            for (IndexedEntity indexedEntity : indexedEntities.values()) {
+                long lastId = 0;
+                List<? extends PersistentObject> page;
+                do {
+                    page = readPage(indexedEntity, lastId);
+                    for (PersistentObject entity : page) {
+                        writer.updateDocument(keyTerm(indexedEntity, entity.getId()),
+                                toDocument(indexedEntity, entity.getId(), getValues(indexedEntity, entity)));
+                        lastId = entity.getId();
+                    }
+                    documents += page.size();
+                    // changes committed since the page was read are newer than it
+                    List<IndexChange> changes = new ArrayList<>();
+                    queue.drainTo(changes);
+                    try {
+                        apply(changes);
+                    } finally {
+                        unmarkPending(changes);
+                    }
+                } while (page.size() == REBUILD_PAGE_SIZE && running);
+                if (!running) {
+                    return;
+                }
+            }
+            searcherManager.maybeRefresh();
+            rebuildRequested = false;
+            upToDate = true;
+            log.info("Search index of tenant {} rebuilt with {} entities in {} ms", tenantId, documents,
+                    System.currentTimeMillis() - start);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private List<? extends PersistentObject> readPage(IndexedEntity indexedEntity, long lastId) throws Exception {
+        Class<? extends PersistentObject> entityClass = indexedEntity.getEntityClass();
+        QueryOptions queryOptions = new QueryOptions(0, REBUILD_PAGE_SIZE,
+                singletonList(new OrderByOption(entityClass, ID, OrderByType.ASC)),
+                singletonList(new FilterOption(entityClass, ID, lastId, FilterOperationType.GREATER)),
+                null);
+        return transactionService
+                .executeInTransaction(() -> persistenceService.searchEntity(entityClass, queryOptions, emptyMap()));
+    }
+
+    private void apply(List<IndexChange> changes) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (IndexChange change : changes) {
+            Term key = keyTerm(change.indexedEntity, change.id);
+            if (change.values == null) {
+                writer.deleteDocuments(key);
+            } else {
+                writer.updateDocument(key, toDocument(change.indexedEntity, change.id, change.values));
+            }
+        }
+        searcherManager.maybeRefreshBlocking();
+        long now = System.nanoTime();
+        for (IndexChange change : changes) {
+            lagTimer.record(now - change.committedAt, NANOSECONDS);
+        }
+    }
+
+    private void commit(boolean complete) throws IOException {
+        writer.setLiveCommitData(Map.of(COMPLETE, String.valueOf(complete)).entrySet());
+        writer.commit();
+    }
+
+    private static Term keyTerm(IndexedEntity indexedEntity, long id) {
+        return new Term(KEY_FIELD, indexedEntity.getEntityClass().getName() + ':' + id);
+    }
+
+    private static Document toDocument(IndexedEntity indexedEntity, long id, Map<String, String> values) {
+        Document document = new Document();
+        document.add(new StringField(KEY_FIELD, indexedEntity.getEntityClass().getName() + ':' + id,
+                Field.Store.NO));
+        document.add(new StringField(TYPE_FIELD, indexedEntity.getEntityClass().getName(), Field.Store.NO));
+        document.add(new StoredField(ID_FIELD, id));
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            document.add(new StringField(value.getKey(), value.getValue(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static Map<String, String> getValues(IndexedEntity indexedEntity, Object entity)
+            throws SReflectException {
+        Map<String, String> values = new HashMap<>();
+        for (String field : indexedEntity.getFields()) {
+            Object value = ClassReflector.invokeGetter(entity, ClassReflector.getGetterName(field));
+            if (value != null) {
+                values.put(field, normalize(value.toString()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Lower case each character on its own: unlike {@link String#toLowerCase()}, a term then always matches the
+     * values it is a substring of
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        text.codePoints().map(Character::toLowerCase).forEach(normalized::appendCodePoint);
+        return normalized.toString();
+    }
+
+    private static String escapeWildcards(String term) {
+        return term.replace("\\", "\\\\").replace("*", "\\*").replace("?", "\\?");
+    }
+
+    private IndexedEntity getIndexedEntity(Object entity) {
+        for (IndexedEntity indexedEntity : indexedEntities.values()) {
+            if (indexedEntity.getEntityClass().isInstance(entity)) {
+                return indexedEntity;
+            }
+        }
+        return null;
+    }
+
+    private void record(IndexChange change) {
+        List<IndexChange> changes = currentChanges.get();
+        if (changes != null) {
+            changes.add(change);
+            return;
+        }
+        List<IndexChange> transactionChanges = new ArrayList<>();
+        transactionChanges.add(change);
+        try {
+            transactionService.registerBonitaSynchronization(new BonitaTransactionSynchronization() {
+
+                @Override
+                public void beforeCompletion() {
+                    // other transactions may see the changes as soon as they are committed
+                    markPending(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    currentChanges.remove();
+                    if (status == Status.STATUS_COMMITTED) {
+                        enqueue(transactionChanges);
+                    } else {
+                        unmarkPending(transactionChanges);
+                    }
+                }
+            });
+        } catch (STransactionNotFoundException e) {
+            enqueue(transactionChanges);
+            return;
+        }
+        currentChanges.set(transactionChanges);
+    }
+
+    private synchronized void enqueue(List<IndexChange> changes) {
+        if (!running) {
+            // stopped while the transaction was committing: the index is no more up to date
+            changesLost = true;
+            unmarkPending(changes);
+            return;
+        }
+        // changes recorded after the transaction started to complete are also pending
+        markPending(changes);
+        long now = System.nanoTime();
+        for (IndexChange change : changes) {
+            change.committedAt = now;
+        }
+        queue.addAll(changes);
+    }
+
+    private void markPending(List<IndexChange> changes) {
+        for (IndexChange change : changes) {
+            if (!change.pending) {
+                change.pending = true;
+                pendingIds.get(change.indexedEntity.getEntityClass()).merge(change.id, 1, Integer::sum);
+            }
+        }
+    }
+
+    private void unmarkPending(List<IndexChange> changes) {
+        for (IndexChange change : changes) {
+            if (change.pending) {
+                change.pending = false;
+                pendingIds.get(change.indexedEntity.getEntityClass()).computeIfPresent(change.id,
+                        (id, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    private void deleteIndexFolder() {
+        if (!Files.exists(indexFolder)) {
+            return;
+        }
+        log.info("Search index of tenant {} is disabled, deleting it from {}", tenantId, indexFolder);
+        try (Stream<Path> files = Files.walk(indexFolder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Unable to delete the search index folder {}: {}", indexFolder, e.getMessage());
+        }
+    }
+
+    private void closeQuietly() {
+        for (AutoCloseable closeable : new AutoCloseable[] { searcherManager, writer, directory }) {
+            if (closeable != null) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Unable to close the search index: {}", e.getMessage());
+                }
+            }
+        }
+        searcherManager = null;
+        writer = null;
+        directory = null;
+    }
+
+    private static final class IndexChange {
+
+        private final IndexedEntity indexedEntity;
+        private final long id;
+        /**
+         * lower-cased values of the indexed fields, null when the entity is deleted
+         */
+        private final Map<String, String> values;
+        private long committedAt;
+        private volatile boolean pending;
+
+        private IndexChange(IndexedEntity indexedEntity, long id, Map<String, String> values) {
+            this.indexedEntity = indexedEntity;
+            this.id = id;
+            this.values = values;
+        }
+    }
+
+    private class SearchTermIndexHandler implements SHandler<SEvent> {
+
+        @Override
+        public void execute(SEvent event) throws SHandlerExecutionException {
+            PersistentObject entity = (PersistentObject) event.getObject();
+            IndexedEntity indexedEntity = getIndexedEntity(entity);
+            try {
+                // values are read now, the entity may change before the commit
+                record(new IndexChange(indexedEntity, entity.getId(),
+                        event instanceof SDeleteEvent ? null : getValues(indexedEntity, entity)));
+            } catch (SReflectException e) {
+                throw new SHandlerExecutionException(e);
+            }
+        }
+
+        @Override
+        public boolean isInterested(SEvent event) {
+            return getIndexedEntity(event.getObject()) != null;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return "LuceneSearchTermIndex-" + tenantId;
+        }
+    }
+}
@@ -15,9 +15,13 @@ package org.bonitasoft.engine.sequence;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.bonitasoft.engine.commons.exceptions.SObjectNotFoundException;
 import org.bonitasoft.engine.lock.LockService;
 
@@ -40,22 +44,43 @@ public class SequenceManagerImpl implements SequenceManager {
 
     private final LockService lockService;
 
-    private final Map<Long, TenantSequenceManagerImpl> sequenceManagers = new HashMap<>();
+    private final int prefetchPercentage;
+
+    private final int maxRangeSizeFactor;
+
+    private final long targetRefillIntervalMillis;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService prefetchExecutor;
+
+    private final Map<Long, TenantSequenceManagerImpl> sequenceManagers = new ConcurrentHashMap<>();
 
     public SequenceManagerImpl(final LockService lockService,
             final SequenceMappingProvider sequenceMappingProvider,
-            final DataSource datasource, final int retries, final int delay, final int delayFactor) {
+            final DataSource datasource, final int retries, final int delay, final int delayFactor,
+            final int prefetchPercentage, final int maxRangeSizeFactor, final long targetRefillIntervalMillis,
+            final MeterRegistry meterRegistry) {
         this.lockService = lockService;
         this.sequenceMappingProvider = sequenceMappingProvider;
         this.retries = retries;
         this.delay = delay;
         this.delayFactor = delayFactor;
         this.datasource = datasource;
+        this.prefetchPercentage = prefetchPercentage;
+        this.maxRangeSizeFactor = maxRangeSizeFactor;
+        this.targetRefillIntervalMillis = targetRefillIntervalMillis;
+        this.meterRegistry = meterRegistry;
+        this.prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Bonita-Sequence-Prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void reset() {
-        this.sequenceManagers.clear();
+        clear();
     }
 
     @Override
@@ -64,35 +89,37 @@ public class SequenceManagerImpl implements SequenceManager {
     }
 
     private TenantSequenceManagerImpl getTenantSequenceManager(long tenantId) {
-        if (sequenceManagers.get(tenantId) == null) {
-            synchronized (this) {
-                if (sequenceManagers.get(tenantId) == null) {
-                    this.sequenceManagers.put(tenantId, createTenantSequenceManager(tenantId));
-                }
-            }
+        TenantSequenceManagerImpl tenantSequenceManager = sequenceManagers.get(tenantId);
+        if (tenantSequenceManager != null) {
+            return tenantSequenceManager;
         }
-        return sequenceManagers.get(tenantId);
+        return sequenceManagers.computeIfAbsent(tenantId, this::createTenantSequenceManager);
     }
 
     TenantSequenceManagerImpl createTenantSequenceManager(long tenantId) {
         return new TenantSequenceManagerImpl(tenantId, lockService, getSequenceIdToRangeSizeMap(),
                 getClassNameToSequenceIdMap(), datasource, retries, delay,
-                delayFactor);
+                delayFactor, prefetchPercentage, maxRangeSizeFactor, targetRefillIntervalMillis, prefetchExecutor,
+                meterRegistry);
     }
 
     @Override
     public void clear() {
+        sequenceManagers.values().forEach(TenantSequenceManagerImpl::removeMeters);
         this.sequenceManagers.clear();
     }
 
     @Override
     public void close() {
-        // Do nothing
+        prefetchExecutor.shutdownNow();
     }
 
     @Override
     public void clear(final long tenantId) {
-        this.sequenceManagers.remove(tenantId);
+        TenantSequenceManagerImpl removed = this.sequenceManagers.remove(tenantId);
+        if (removed != null) {
+            removed.removeMeters();
+        }
     }
 
     private Map<String, Long> getClassNameToSequenceIdMap() {
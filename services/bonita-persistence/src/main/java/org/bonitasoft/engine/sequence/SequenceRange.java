@@ -14,38 +14,145 @@
 package org.bonitasoft.engine.sequence;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Ids of a sequence that were reserved in database and that can be given without accessing the database.
+ * <p>
+ * Ids are taken from the current range without any lock. The next range can be fetched in advance and stored as the
+ * prefetched range, it then replaces the current range once all its ids are taken.
+ */
 public class SequenceRange {
 
-    private AtomicLong nextAvailableId;
-    private long lastIdInRange;
+    static final long NO_ID = -1;
+
     private final int rangeSize;
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+    private volatile Range current;
+    private volatile Range prefetched;
+    // written while holding the monitor of this object
+    private volatile int nextRangeSize;
+    private long lastRefillNanos;
 
     public SequenceRange(int rangeSize) {
         this.rangeSize = rangeSize;
+        this.nextRangeSize = rangeSize;
     }
 
     public Optional<Long> getNextAvailableId() {
-        if (nextAvailableId == null) {
-            // Range is not initialized yet:
-            return Optional.empty();
-        }
-        long nextId = nextAvailableId.getAndUpdate(current -> {
-            if (current == -1 || current >= lastIdInRange) {
-                return -1; // -1 means no more Id available
-            } else {
-                return current + 1;
-            }
-        });
-        if (nextId < 0) {
+        long nextId = nextId();
+        if (nextId == NO_ID) {
             return Optional.empty();
         }
         return Optional.of(nextId);
     }
 
+    /**
+     * @return the next id of the current range or {@link #NO_ID} when it has no more id available
+     */
+    long nextId() {
+        Range range = current;
+        if (range == null) {
+            // Range is not initialized yet:
+            return NO_ID;
+        }
+        // the counter can go beyond the last id of the range, these values are never given
+        long nextId = range.nextAvailableId.getAndIncrement();
+        return nextId <= range.lastIdInRange ? nextId : NO_ID;
+    }
+
+    /**
+     * @return true if the given id is the one from which the next range should be prefetched
+     */
+    boolean isPrefetchTrigger(long id) {
+        Range range = current;
+        return range != null && range.prefetchTrigger == id;
+    }
+
     public void updateToNextRange(long nextAvailableIdFromDatabase) {
-        nextAvailableId = new AtomicLong(nextAvailableIdFromDatabase);
-        lastIdInRange = nextAvailableIdFromDatabase + rangeSize - 1;
+        updateToNextRange(nextAvailableIdFromDatabase, rangeSize, 0);
+    }
+
+    void updateToNextRange(long nextAvailableIdFromDatabase, int size, int prefetchThreshold) {
+        current = new Range(nextAvailableIdFromDatabase, size, prefetchThreshold);
+    }
+
+    void setPrefetchedRange(long nextAvailableIdFromDatabase, int size, int prefetchThreshold) {
+        prefetched = new Range(nextAvailableIdFromDatabase, size, prefetchThreshold);
+    }
+
+    boolean hasPrefetchedRange() {
+        return prefetched != null;
+    }
+
+    /**
+     * replace the current range by the prefetched one
+     *
+     * @return false if there is no prefetched range
+     */
+    boolean switchToPrefetchedRange() {
+        Range next = prefetched;
+        if (next == null) {
+            return false;
+        }
+        prefetched = null;
+        current = next;
+        return true;
+    }
+
+    /**
+     * @return true if the caller is the one that must prefetch the next range
+     */
+    boolean startPrefetching() {
+        return prefetched == null && prefetching.compareAndSet(false, true);
+    }
+
+    void prefetchingDone() {
+        prefetching.set(false);
+    }
+
+    /**
+     * Compute the size of the range to fetch from the database: it is doubled, up to the given maximum, when the
+     * previous range was consumed faster than the target interval, and halved, down to the configured size, when it
+     * was consumed a lot slower.
+     */
+    int computeNextRangeSize(long nowNanos, long targetRefillIntervalNanos, int maxRangeSize) {
+        int size = nextRangeSize;
+        if (lastRefillNanos != 0) {
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed < targetRefillIntervalNanos) {
+                size = (int) Math.min((long) size * 2, Math.max(maxRangeSize, rangeSize));
+            } else if (elapsed > 4 * targetRefillIntervalNanos) {
+                size = Math.max(size / 2, rangeSize);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Must be called while holding the monitor of this object, once a range of the given size was reserved in
+     * database
+     */
+    void rangeFetched(long nowNanos, int size) {
+        lastRefillNanos = nowNanos;
+        nextRangeSize = size;
+    }
+
+    int getNextRangeSize() {
+        return nextRangeSize;
+    }
+
+    private static final class Range {
+
+        private final AtomicLong nextAvailableId;
+        private final long lastIdInRange;
+        private final long prefetchTrigger;
+
+        private Range(long firstId, int size, int prefetchThreshold) {
+            nextAvailableId = new AtomicLong(firstId);
+            lastIdInRange = firstId + size - 1;
+            prefetchTrigger = prefetchThreshold > 0 ? lastIdInRange - prefetchThreshold + 1 : NO_ID;
+        }
     }
 }
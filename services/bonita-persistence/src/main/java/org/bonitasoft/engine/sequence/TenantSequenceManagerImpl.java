@@ -13,14 +13,25 @@
  **/
 package org.bonitasoft.engine.sequence;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
 import org.bonitasoft.engine.commons.exceptions.SObjectNotFoundException;
 import org.bonitasoft.engine.lock.BonitaLock;
@@ -31,6 +42,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Give ids of the sequences of a tenant.
+ * <p>
+ * Ids are taken without any lock from a range reserved in database. When a given percentage of the range remains,
+ * the next range is fetched in background, so that threads do not have to wait for the database when the current
+ * range runs out. The size of the ranges of a sequence grows, up to a maximum, when ranges are consumed faster than
+ * the target refill interval, and shrinks back to the configured size when the sequence is less used.
+ *
  * @author Charles Souillard
  * @author Matthieu Chaffotte
  * @author Baptiste Mesta
@@ -40,9 +58,13 @@ public class TenantSequenceManagerImpl {
     private static Logger logger = LoggerFactory.getLogger(TenantSequenceManagerImpl.class);
 
     static final String SEQUENCE = "SEQUENCE";
+    public static final String SEQUENCE_REFILL = "bonita.bpmengine.sequence.refill";
+    public static final String SEQUENCE_RANGE_SIZE = "bonita.bpmengine.sequence.range.size";
 
     private final Long tenantId;
-    private final Map<Long, SequenceRange> sequences = new HashMap<>();
+    private final Map<Long, SequenceRange> sequences = new ConcurrentHashMap<>();
+    private final Queue<Meter> meters = new ConcurrentLinkedQueue<>();
+    private final Map<String, Timer> refillTimers = new ConcurrentHashMap<>();
     private final Map<Long, Integer> sequenceIdToRangeSize;
     private final Map<String, Long> classNameToSequenceId;
 
@@ -56,10 +78,22 @@ public class TenantSequenceManagerImpl {
 
     private final LockService lockService;
 
+    private final int prefetchPercentage;
+
+    private final int maxRangeSizeFactor;
+
+    private final long targetRefillIntervalNanos;
+
+    private final Executor prefetchExecutor;
+
+    private final MeterRegistry meterRegistry;
+
     public TenantSequenceManagerImpl(final long tenantId, final LockService lockService,
             final Map<Long, Integer> sequenceIdToRangeSize,
             final Map<String, Long> classNameToSequenceId,
-            final DataSource datasource, final int retries, final int delay, final int delayFactor) {
+            final DataSource datasource, final int retries, final int delay, final int delayFactor,
+            final int prefetchPercentage, final int maxRangeSizeFactor, final long targetRefillIntervalMillis,
+            final Executor prefetchExecutor, final MeterRegistry meterRegistry) {
         this.tenantId = tenantId;
         this.lockService = lockService;
         this.sequenceIdToRangeSize = sequenceIdToRangeSize;
@@ -68,42 +102,128 @@ public class TenantSequenceManagerImpl {
         this.delay = delay;
         this.delayFactor = delayFactor;
         this.datasource = datasource;
+        this.prefetchPercentage = prefetchPercentage;
+        this.maxRangeSizeFactor = Math.max(1, maxRangeSizeFactor);
+        this.targetRefillIntervalNanos = MILLISECONDS.toNanos(targetRefillIntervalMillis);
+        this.prefetchExecutor = prefetchExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     public long getNextId(final String entityName) throws SObjectNotFoundException {
         final Long sequenceId = getSequenceId(entityName);
         SequenceRange sequence = getSequence(sequenceId);
-        Optional<Long> nextAvailableId = sequence.getNextAvailableId();
-        if (nextAvailableId.isPresent()) {
-            return nextAvailableId.get();
+        long nextId = sequence.nextId();
+        if (nextId != SequenceRange.NO_ID) {
+            prefetchIfNeeded(sequenceId, sequence, nextId);
+            return nextId;
         }
         //synchronize on the sequence object itself (we will read/update only on this one)
         synchronized (sequence) {
-            nextAvailableId = sequence.getNextAvailableId();
+            nextId = sequence.nextId();
             int loopCounter = 0;
             // set a max number of retries to 100:
-            while (!nextAvailableId.isPresent() && loopCounter < 100) {
+            while (nextId == SequenceRange.NO_ID && loopCounter < 100) {
                 if (loopCounter > 0) {
                     logger.debug("Could not get an Id after updating to next range. Retrying...");
                 }
-                sequence.updateToNextRange(setNewRange(sequenceId));
-                nextAvailableId = sequence.getNextAvailableId();
+                if (!sequence.switchToPrefetchedRange()) {
+                    fetchNextRange(sequenceId, sequence, false);
+                }
+                nextId = sequence.nextId();
                 loopCounter++;
             }
-            return nextAvailableId.orElseThrow(
-                    () -> new IllegalStateException("No new available id found for sequence " + entityName));
+            if (nextId == SequenceRange.NO_ID) {
+                throw new IllegalStateException("No new available id found for sequence " + entityName);
+            }
         }
+        prefetchIfNeeded(sequenceId, sequence, nextId);
+        return nextId;
     }
 
-    private SequenceRange getSequence(Long sequenceId) {
-        if (!sequences.containsKey(sequenceId)) {
-            synchronized (this) {
-                if (!sequences.containsKey(sequenceId)) {
-                    sequences.put(sequenceId, new SequenceRange(sequenceIdToRangeSize.get(sequenceId)));
+    private void prefetchIfNeeded(long sequenceId, SequenceRange sequence, long givenId) {
+        if (!sequence.isPrefetchTrigger(givenId) || !sequence.startPrefetching()) {
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    synchronized (sequence) {
+                        if (!sequence.hasPrefetchedRange()) {
+                            fetchNextRange(sequenceId, sequence, true);
+                        }
+                    }
+                } catch (RuntimeException | SObjectNotFoundException e) {
+                    logger.warn("Unable to prefetch the next range of sequence {}, it will be fetched when needed: {}",
+                            sequenceId, e.getMessage());
+                    logger.debug("Cause:", e);
+                } finally {
+                    sequence.prefetchingDone();
                 }
-            }
+            });
+        } catch (RejectedExecutionException e) {
+            sequence.prefetchingDone();
         }
-        return sequences.get(sequenceId);
+    }
+
+    /**
+     * Must be called while holding the monitor of the sequence
+     */
+    private void fetchNextRange(long sequenceId, SequenceRange sequence, boolean prefetch)
+            throws SObjectNotFoundException {
+        long start = System.nanoTime();
+        int rangeSize = sequence.computeNextRangeSize(start, targetRefillIntervalNanos, getMaxRangeSize(sequenceId));
+        long nextAvailableId = setNewRange(sequenceId, rangeSize);
+        sequence.rangeFetched(start, rangeSize);
+        int prefetchThreshold = prefetchPercentage > 0 ? (int) Math.max(1, (long) rangeSize * prefetchPercentage / 100) : 0;
+        if (prefetch) {
+            sequence.setPrefetchedRange(nextAvailableId, rangeSize, prefetchThreshold);
+        } else {
+            sequence.updateToNextRange(nextAvailableId, rangeSize, prefetchThreshold);
+        }
+        getRefillTimer(sequenceId, prefetch ? "prefetch" : "sync").record(System.nanoTime() - start, NANOSECONDS);
+    }
+
+    private Timer getRefillTimer(long sequenceId, String mode) {
+        return refillTimers.computeIfAbsent(sequenceId + ":" + mode, key -> {
+            Timer timer = Timer.builder(SEQUENCE_REFILL)
+                    .tags(getTags(sequenceId).and("mode", mode))
+                    .description("Time taken to reserve a new range of ids of a sequence in database")
+                    .register(meterRegistry);
+            meters.add(timer);
+            return timer;
+        });
+    }
+
+    private int getMaxRangeSize(long sequenceId) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) sequenceIdToRangeSize.get(sequenceId) * maxRangeSizeFactor);
+    }
+
+    private SequenceRange getSequence(Long sequenceId) {
+        SequenceRange sequence = sequences.get(sequenceId);
+        if (sequence != null) {
+            return sequence;
+        }
+        return sequences.computeIfAbsent(sequenceId, id -> {
+            SequenceRange newSequence = new SequenceRange(sequenceIdToRangeSize.get(id));
+            meters.add(Gauge.builder(SEQUENCE_RANGE_SIZE, newSequence, SequenceRange::getNextRangeSize)
+                    .tags(getTags(id))
+                    .description("Size of the next range of ids of a sequence reserved in database")
+                    .register(meterRegistry));
+            return newSequence;
+        });
+    }
+
+    /**
+     * remove meters of the sequences, gauges would keep referencing ranges of this instance once it is discarded
+     */
+    void removeMeters() {
+        meters.forEach(meterRegistry::remove);
+        meters.clear();
+        refillTimers.clear();
+    }
+
+    private Tags getTags(long sequenceId) {
+        return Tags.of("tenant", String.valueOf(tenantId), "sequence", String.valueOf(sequenceId));
     }
 
     private Long getSequenceId(String entityName) throws SObjectNotFoundException {
@@ -119,7 +239,7 @@ public class TenantSequenceManagerImpl {
      *
      * @return the next available id of the sequence
      */
-    private long setNewRange(final long sequenceId) throws SObjectNotFoundException {
+    private long setNewRange(final long sequenceId, final int rangeSize) throws SObjectNotFoundException {
         BonitaLock lock = createLock(sequenceId);
         Exception lastException = null;
         try {
@@ -134,7 +254,7 @@ public class TenantSequenceManagerImpl {
                     connection.setAutoCommit(false);
                     SequenceDAO sequenceDAO = createDao(connection);
                     long nextAvailableId = sequenceDAO.selectById(sequenceId);
-                    sequenceDAO.updateSequence(nextAvailableId + sequenceIdToRangeSize.get(sequenceId), sequenceId);
+                    sequenceDAO.updateSequence(nextAvailableId + rangeSize, sequenceId);
                     connection.commit();
                     return nextAvailableId;
                 } catch (final SObjectNotFoundException t) {
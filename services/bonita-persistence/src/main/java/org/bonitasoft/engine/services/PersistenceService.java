@@ -46,6 +46,17 @@ public interface PersistenceService extends ReadPersistenceService {
      */
     void insertInBatch(final List<? extends PersistentObject> entities) throws SPersistenceException;
 
+    /**
+     * Same as {@link #insertInBatch(List)}, but the inserts are sent to the database in JDBC batches of the given size.
+     * It applies to the whole session, it must only be used by transactions dedicated to these inserts.
+     *
+     * @param entities
+     * @param jdbcBatchSize
+     * @throws SPersistenceException
+     */
+    void insertInBatch(final List<? extends PersistentObject> entities, int jdbcBatchSize)
+            throws SPersistenceException;
+
     /**
      * Delete a record from the table by given persistentObject.
      *
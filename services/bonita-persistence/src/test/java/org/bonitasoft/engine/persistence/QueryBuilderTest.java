@@ -13,18 +13,24 @@
  **/
 package org.bonitasoft.engine.persistence;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -128,6 +134,92 @@ public class QueryBuilderTest {
 
     }
 
+    @Test
+    public void should_order_by_id_after_the_source_object_id_which_is_not_unique() throws Exception {
+        //given
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj");
+        //when
+        queryBuilder.appendOrderByClause(
+                singletonList(new OrderByOption(TestObject.class, "sourceObjectId", OrderByType.DESC)),
+                TestObject.class);
+        //then
+        assertThat(queryBuilder.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj ORDER BY testObj.sourceObjectId DESC,testObj.id ASC");
+    }
+
+    @Test
+    public void should_generate_query_seeking_after_the_sort_values_and_the_id() throws Exception {
+        //given
+        QueryBuilder queryBuilder = createQueryBuilder(
+                "SELECT testObj.* FROM test_object testObj WHERE testObj.enabled = true");
+        List<OrderByOption> orderByOptions = Arrays.asList(
+                new OrderByOption(TestObject.class, "lastName", OrderByType.DESC),
+                new OrderByOption(TestObject.class, "age", OrderByType.ASC));
+        //when
+        queryBuilder.appendSearchAfter(orderByOptions, TestObject.class, Arrays.asList("Doe", 25, 12L));
+        queryBuilder.appendOrderByClause(orderByOptions, TestObject.class);
+        //then
+        assertThat(queryBuilder.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj WHERE testObj.enabled = true AND ((testObj.lastName < :sa0)"
+                        + " OR (testObj.lastName = :sa0 AND testObj.age > :sa1)"
+                        + " OR (testObj.lastName = :sa0 AND testObj.age = :sa1 AND testObj.id > :sa2))"
+                        + " ORDER BY testObj.lastName DESC,testObj.age ASC,testObj.id ASC");
+        assertThat(queryBuilder.getQueryParameters()).containsEntry("sa0", "Doe").containsEntry("sa1", 25)
+                .containsEntry("sa2", 12L);
+    }
+
+    @Test
+    public void should_seek_after_the_id_only_when_there_is_no_sort() throws Exception {
+        //given
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj");
+        //when
+        queryBuilder.appendSearchAfter(emptyList(), TestObject.class, singletonList(12L));
+        //then
+        assertThat(queryBuilder.getQuery())
+                .isEqualTo("SELECT testObj.* FROM test_object testObj WHERE ((testObj.id > :sa0))");
+    }
+
+    @Test(expected = SBonitaReadException.class)
+    public void should_not_seek_when_the_search_after_values_do_not_match_the_sort() throws Exception {
+        createQueryBuilder("SELECT testObj.* FROM test_object testObj").appendSearchAfter(
+                singletonList(new OrderByOption(TestObject.class, "lastName", OrderByType.DESC)),
+                TestObject.class, singletonList("Doe"));
+    }
+
+    @Test
+    public void should_seek_instead_of_skipping_results_when_sorting_on_non_nullable_fields() throws Exception {
+        //given
+        HQLQueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj",
+                descriptorWithSearchAfter("age", Arrays.asList(25, 12L)), OrderByCheckingMode.NONE);
+        //when
+        Query builtQuery = queryBuilder.build();
+        //then
+        assertThat(builtQuery.getQueryString()).isEqualTo("SELECT testObj.* FROM test_object testObj"
+                + " WHERE ((testObj.age > :sa0) OR (testObj.age = :sa0 AND testObj.id > :sa1))"
+                + " ORDER BY testObj.age ASC,testObj.id ASC");
+        verify(builtQuery).setFirstResult(0);
+    }
+
+    @Test
+    public void should_skip_results_instead_of_seeking_when_sorting_on_nullable_fields() throws Exception {
+        //given
+        HQLQueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj",
+                descriptorWithSearchAfter("lastName", Arrays.asList("Doe", 12L)), OrderByCheckingMode.NONE);
+        //when
+        Query builtQuery = queryBuilder.build();
+        //then
+        assertThat(builtQuery.getQueryString()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj ORDER BY testObj.lastName ASC,testObj.id ASC");
+        verify(builtQuery).setFirstResult(20);
+    }
+
+    private SelectListDescriptor<TestObject> descriptorWithSearchAfter(String sortField,
+            List<Serializable> searchAfter) {
+        return new SelectListDescriptor<>("someQuery", emptyMap(), TestObject.class, new QueryOptions(20, 10,
+                singletonList(new OrderByOption(TestObject.class, sortField, OrderByType.ASC)), emptyList(), null,
+                searchAfter));
+    }
+
     @Test
     public void should_generate_query_with_filter() {
         //given
@@ -273,6 +365,51 @@ public class QueryBuilderTest {
         assertThat(queryBuilder.getQueryParameters().get("s1")).isEqualTo("%the'value§%with§_special:§_§§§§%");
     }
 
+    @Test
+    public void should_evaluate_search_terms_only_on_candidates_found_by_the_search_term_index() {
+        SearchTermIndex searchTermIndex = mock(SearchTermIndex.class);
+        doReturn(Optional.of(Arrays.asList(12L, 15L))).when(searchTermIndex).findCandidates(TestObject.class,
+                aSet("field2"), singletonList("toto"));
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj",
+                descriptorWithoutOrderBy(), OrderByCheckingMode.NONE).searchTermIndex(searchTermIndex);
+
+        queryBuilder.appendFilters(singletonList(new FilterOption(TestObject.class, "field1", "tata")),
+                new SearchFields(singletonList("toto"), singletonMap(TestObject.class, aSet("field1", "field2"))));
+
+        assertThat(queryBuilder.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj WHERE (testObj.field1 = :f1) AND " +
+                        "(testObj.id IN (:searchTermCandidates) AND (testObj.field2 LIKE :s1 ESCAPE '§'))");
+        assertThat(queryBuilder.getQueryParameters().get("searchTermCandidates")).isEqualTo(Arrays.asList(12L, 15L));
+        assertThat(queryBuilder.getQueryParameters().get("s1")).isEqualTo("%toto%");
+    }
+
+    @Test
+    public void should_match_nothing_when_the_search_term_index_finds_no_candidate() {
+        SearchTermIndex searchTermIndex = mock(SearchTermIndex.class);
+        doReturn(Optional.of(emptyList())).when(searchTermIndex).findCandidates(any(), any(), any());
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj",
+                descriptorWithoutOrderBy(), OrderByCheckingMode.NONE).searchTermIndex(searchTermIndex);
+
+        queryBuilder.appendFilters(Collections.emptyList(),
+                new SearchFields(singletonList("toto"), singletonMap(TestObject.class, aSet("field1"))));
+
+        assertThat(queryBuilder.getQuery()).isEqualTo("SELECT testObj.* FROM test_object testObj WHERE (1 = 0)");
+    }
+
+    @Test
+    public void should_evaluate_search_terms_on_all_rows_when_the_search_term_index_cannot_answer() {
+        SearchTermIndex searchTermIndex = mock(SearchTermIndex.class);
+        doReturn(Optional.empty()).when(searchTermIndex).findCandidates(any(), any(), any());
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj",
+                descriptorWithoutOrderBy(), OrderByCheckingMode.NONE).searchTermIndex(searchTermIndex);
+
+        queryBuilder.appendFilters(Collections.emptyList(),
+                new SearchFields(singletonList("toto"), singletonMap(TestObject.class, aSet("field1"))));
+
+        assertThat(queryBuilder.getQuery())
+                .isEqualTo("SELECT testObj.* FROM test_object testObj WHERE (testObj.field1 LIKE :s1 ESCAPE '§')");
+    }
+
     @Test
     public void should_generate_query_with_greater_or_equals_filter() {
         //given
@@ -66,6 +66,40 @@ public class QueryOptionsTest {
         assertThat(nextPage.getMultipleFilter()).isNotNull();
     }
 
+    @Test
+    public void getSearchAfterOfShouldReturnSortValuesFollowedByTheId() {
+        final Book book = new Book();
+        book.setId(12L);
+        final QueryOptions queryOptions = new QueryOptions(0, 10,
+                list(new OrderByOption(Book.class, "id", OrderByType.DESC)));
+
+        assertThat(queryOptions.getSearchAfterOf(book)).containsExactly(12L);
+    }
+
+    @Test
+    public void getSearchAfterOfShouldReturnNullWhenSortingOnNullableFields() {
+        final Book book = new Book();
+        book.setId(12L);
+        book.setAuthor("Hugo");
+        book.setTitle("Les Misérables");
+        final QueryOptions queryOptions = new QueryOptions(0, 10,
+                Arrays.asList(new OrderByOption(Book.class, "author", OrderByType.ASC),
+                        new OrderByOption(Book.class, "title", OrderByType.DESC)));
+
+        // rows having a null author or title would be skipped by the seek predicate, these results are paged by offset
+        assertThat(queryOptions.getSearchAfterOf(book)).isNull();
+    }
+
+    @Test
+    public void getSearchAfterOfShouldReturnNullWhenASortValueIsNull() {
+        final Book book = new Book();
+        book.setId(12L);
+        final QueryOptions queryOptions = new QueryOptions(0, 10,
+                list(new OrderByOption(Book.class, "author", OrderByType.ASC)));
+
+        assertThat(queryOptions.getSearchAfterOf(book)).isNull();
+    }
+
     private List list(final Object o) {
         return Arrays.asList(o);
     }
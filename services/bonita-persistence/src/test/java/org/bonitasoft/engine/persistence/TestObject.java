@@ -18,6 +18,9 @@ package org.bonitasoft.engine.persistence;
  */
 public class TestObject implements PersistentObject {
 
+    private String lastName;
+    private int age;
+
     @Override
     public long getId() {
         return 0;
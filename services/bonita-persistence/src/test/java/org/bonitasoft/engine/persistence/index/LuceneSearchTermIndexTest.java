@@ -0,0 +1,247 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence.index;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SInsertEvent;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.QueryBuilderFactory;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.services.PersistenceService;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneSearchTermIndexTest {
+
+    private static final long TENANT_ID = 1L;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Mock
+    private EventService eventService;
+    @Mock
+    private UserTransactionService transactionService;
+    @Mock
+    private PersistenceService persistenceService;
+    @Mock
+    private SessionAccessor sessionAccessor;
+    @Mock
+    private QueryBuilderFactory queryBuilderFactory;
+
+    private LuceneSearchTermIndex index;
+
+    @Before
+    public void before() throws Exception {
+        lenient().doAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call()).when(transactionService)
+                .executeInTransaction(any());
+        index = createIndex(true);
+    }
+
+    @After
+    public void after() throws Exception {
+        index.stop();
+    }
+
+    private LuceneSearchTermIndex createIndex(boolean enabled) {
+        return new LuceneSearchTermIndex(eventService, transactionService, persistenceService, sessionAccessor,
+                queryBuilderFactory,
+                singletonList(new IndexedEntity(Employee.class, new HashSet<>(asList("name", "jobTitle")),
+                        singletonList("EMPLOYEE_CREATED"))),
+                TENANT_ID, enabled, folder.getRoot().getPath(), 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void should_rebuild_a_new_index_from_the_entities_and_find_them_regardless_of_the_case() throws Exception {
+        doReturn(asList(new Employee(1L, "John Doe"), new Employee(2L, "Jane Doe"), new Employee(3L, "Bob")))
+                .when(persistenceService).searchEntity(eq(Employee.class), any(QueryOptions.class), anyMap());
+
+        index.start();
+
+        await().until(index::isUpToDate);
+        assertThat(index.findCandidates(Employee.class, singleton("name"), singletonList("DOE")))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L));
+        assertThat(index.findCandidates(Employee.class, singleton("name"), asList("n d", "bo")))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 3L));
+        verify(queryBuilderFactory).setSearchTermIndex(index);
+    }
+
+    @Test
+    public void should_index_changes_of_committed_transactions_only() throws Exception {
+        index.start();
+        await().until(index::isUpToDate);
+        SHandler<SEvent> handler = getHandler();
+
+        handler.execute(insertEvent(new Employee(3L, "Walter White")));
+        afterCompletion(0, Status.STATUS_COMMITTED);
+        handler.execute(insertEvent(new Employee(4L, "Walter Black")));
+        afterCompletion(1, Status.STATUS_ROLLEDBACK);
+
+        await().until(() -> index.findCandidates(Employee.class, singleton("name"), singletonList("walter")),
+                candidates -> candidates.isPresent() && candidates.get().contains(3L));
+        assertThat(index.findCandidates(Employee.class, singleton("name"), singletonList("walter")))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+    }
+
+    @Test
+    public void should_return_entities_changed_but_not_yet_indexed_as_candidates() throws Exception {
+        index.start();
+        await().until(index::isUpToDate);
+        SHandler<SEvent> handler = getHandler();
+
+        handler.execute(insertEvent(new Employee(5L, "Skyler White")));
+        // changes of the current transaction
+        assertThat(index.findCandidates(Employee.class, singleton("name"), singletonList("skyler")))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(5L));
+        // changes being committed, seen by other transactions
+        synchronization(0).beforeCompletion();
+        assertThat(CompletableFuture.supplyAsync(
+                () -> index.findCandidates(Employee.class, singleton("name"), singletonList("skyler"))).get())
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(5L));
+
+        synchronization(0).afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertThat(index.findCandidates(Employee.class, singleton("name"), singletonList("skyler")))
+                .hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    public void should_not_answer_when_too_many_entities_match_or_a_field_is_not_indexed() throws Exception {
+        doReturn(asList(new Employee(1L, "John Doe"), new Employee(2L, "Jane Doe"), new Employee(3L, "Jim Doe")))
+                .when(persistenceService).searchEntity(eq(Employee.class), any(QueryOptions.class), anyMap());
+        index.start();
+        await().until(index::isUpToDate);
+
+        assertThat(index.findCandidates(Employee.class, singleton("name"), singletonList("doe"))).isEmpty();
+        assertThat(index.findCandidates(Employee.class, new HashSet<>(asList("name", "email")),
+                singletonList("john"))).isEmpty();
+        assertThat(index.findCandidates(Employee.class, singleton("name"), singletonList(""))).isEmpty();
+    }
+
+    @Test
+    public void should_not_rebuild_an_index_that_was_stopped_properly() throws Exception {
+        index.start();
+        await().until(index::isUpToDate);
+        index.stop();
+
+        index.start();
+
+        assertThat(index.isUpToDate()).isTrue();
+        verify(persistenceService, times(1)).searchEntity(eq(Employee.class), any(QueryOptions.class), anyMap());
+    }
+
+    @Test
+    public void should_delete_the_index_when_disabled() throws Exception {
+        index.start();
+        index.stop();
+
+        createIndex(false).start();
+
+        assertThat(Paths.get(folder.getRoot().getPath(), "tenant-" + TENANT_ID)).doesNotExist();
+    }
+
+    @Test
+    public void should_match_terms_regardless_of_the_case_of_each_character() {
+        assertThat(LuceneSearchTermIndex.normalize("ÉTÉ ΟΔΟΣ")).isEqualTo("été οδοσ");
+    }
+
+    @SuppressWarnings("unchecked")
+    private SHandler<SEvent> getHandler() throws Exception {
+        ArgumentCaptor<SHandler<SEvent>> handler = ArgumentCaptor.forClass(SHandler.class);
+        verify(eventService).addHandler(eq("EMPLOYEE_CREATED"), handler.capture());
+        return handler.getValue();
+    }
+
+    private void afterCompletion(int transaction, int status) throws Exception {
+        synchronization(transaction).afterCompletion(status);
+    }
+
+    private BonitaTransactionSynchronization synchronization(int transaction) throws Exception {
+        ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(transactionService, times(transaction + 1)).registerBonitaSynchronization(synchronization.capture());
+        return synchronization.getAllValues().get(transaction);
+    }
+
+    private static SInsertEvent insertEvent(Object object) {
+        SInsertEvent event = new SInsertEvent("EMPLOYEE_CREATED");
+        event.setObject(object);
+        return event;
+    }
+
+    public static class Employee implements PersistentObject {
+
+        private long id;
+        private final String name;
+
+        Employee(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void setTenantId(long id) {
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getJobTitle() {
+            return null;
+        }
+    }
+}
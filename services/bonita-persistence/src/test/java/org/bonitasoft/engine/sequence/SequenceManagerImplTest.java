@@ -20,6 +20,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.lock.LockService;
 import org.junit.Before;
 import org.junit.Rule;
@@ -50,7 +51,8 @@ public class SequenceManagerImplTest {
 
     @Before
     public void before() {
-        sequenceManager = new SequenceManagerImpl(lockService, sequenceMappingProvider, dataSource, 2, 1, 1) {
+        sequenceManager = new SequenceManagerImpl(lockService, sequenceMappingProvider, dataSource, 2, 1, 1, 20, 8, 1000,
+                new SimpleMeterRegistry()) {
 
             @Override
             TenantSequenceManagerImpl createTenantSequenceManager(long tenantId) {
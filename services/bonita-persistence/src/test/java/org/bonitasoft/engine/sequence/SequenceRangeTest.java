@@ -63,4 +63,40 @@ public class SequenceRangeTest {
         assertThat(sequenceRange.getNextAvailableId()).isNotPresent();
         assertThat(sequenceRange.getNextAvailableId()).isNotPresent();
     }
+
+    @Test
+    public void should_give_ids_of_prefetched_range_once_current_range_is_completed() {
+        SequenceRange sequenceRange = new SequenceRange(2);
+        sequenceRange.updateToNextRange(1);
+        sequenceRange.setPrefetchedRange(10, 2, 0);
+
+        assertThat(sequenceRange.nextId()).isEqualTo(1L);
+        assertThat(sequenceRange.nextId()).isEqualTo(2L);
+        assertThat(sequenceRange.nextId()).isEqualTo(SequenceRange.NO_ID);
+        assertThat(sequenceRange.switchToPrefetchedRange()).isTrue();
+        assertThat(sequenceRange.nextId()).isEqualTo(10L);
+        assertThat(sequenceRange.hasPrefetchedRange()).isFalse();
+    }
+
+    @Test
+    public void should_trigger_prefetch_when_the_threshold_is_reached() {
+        SequenceRange sequenceRange = new SequenceRange(10);
+        sequenceRange.updateToNextRange(1, 10, 3);
+
+        assertThat(sequenceRange.isPrefetchTrigger(7)).isFalse();
+        assertThat(sequenceRange.isPrefetchTrigger(8)).isTrue();
+        assertThat(sequenceRange.startPrefetching()).isTrue();
+        assertThat(sequenceRange.startPrefetching()).isFalse();
+    }
+
+    @Test
+    public void should_shrink_range_size_back_to_the_configured_one_when_sequence_is_less_used() {
+        SequenceRange sequenceRange = new SequenceRange(10);
+        sequenceRange.rangeFetched(1, 80);
+
+        assertThat(sequenceRange.computeNextRangeSize(1 + 100, 10, 100)).isEqualTo(40);
+        sequenceRange.rangeFetched(101, 40);
+        assertThat(sequenceRange.computeNextRangeSize(101 + 5, 10, 100)).isEqualTo(80);
+        assertThat(sequenceRange.computeNextRangeSize(101 + 5, 10, 50)).isEqualTo(50);
+    }
 }
@@ -27,6 +27,7 @@ import java.util.List;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.commons.exceptions.SObjectNotFoundException;
 import org.bonitasoft.engine.lock.BonitaLock;
 import org.bonitasoft.engine.lock.LockService;
@@ -66,16 +67,19 @@ public class TenantSequenceManagerImplTest {
     private Connection connection;
 
     private TenantSequenceManagerImpl tenantSequenceManager;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HashMap<Long, Integer> sequenceIdToRangeSize;
+    private HashMap<String, Long> classNameToSequenceId;
 
     @Before
     public void before() throws Exception {
         doReturn(connection).when(dataSource).getConnection();
-        HashMap<Long, Integer> sequenceIdToRangeSize = new HashMap<>();
+        sequenceIdToRangeSize = new HashMap<>();
         sequenceIdToRangeSize.put(SEQUENCE_w_2, 2);
         sequenceIdToRangeSize.put(SEQUENCE_w_5, 5);
         sequenceIdToRangeSize.put(SEQUENCE_w_100, 100);
         sequenceIdToRangeSize.put(SEQUENCE_w_1000, 1000);
-        HashMap<String, Long> classNameToSequenceId = new HashMap<>();
+        classNameToSequenceId = new HashMap<>();
         classNameToSequenceId.put(OBJECT_w_2, SEQUENCE_w_2);
         classNameToSequenceId.put(OBJECT_w_5, SEQUENCE_w_5);
         classNameToSequenceId.put(OBJECT_w_100, SEQUENCE_w_100);
@@ -83,8 +87,16 @@ public class TenantSequenceManagerImplTest {
 
         doReturn(lock).when(lockService).lock(anyLong(), anyString(), anyLong());
 
-        tenantSequenceManager = new TenantSequenceManagerImpl(TENANT_ID, lockService, sequenceIdToRangeSize,
-                classNameToSequenceId, dataSource, RETRIES, 1, 1) {
+        // no prefetching and fixed range sizes
+        tenantSequenceManager = createTenantSequenceManager(0, 1, 1000);
+    }
+
+    private TenantSequenceManagerImpl createTenantSequenceManager(int prefetchPercentage, int maxRangeSizeFactor,
+            long targetRefillIntervalMillis) {
+        // prefetching is executed synchronously to be deterministic
+        return new TenantSequenceManagerImpl(TENANT_ID, lockService, sequenceIdToRangeSize,
+                classNameToSequenceId, dataSource, RETRIES, 1, 1, prefetchPercentage, maxRangeSizeFactor,
+                targetRefillIntervalMillis, Runnable::run, meterRegistry) {
 
             @Override
             SequenceDAO createDao(Connection connection) {
@@ -269,4 +281,97 @@ public class TenantSequenceManagerImplTest {
         assertThatThrownBy(() -> tenantSequenceManager.getNextId(OBJECT_w_5))
                 .hasMessage("Unable to get a sequence id for 554");
     }
+
+    @Test
+    public void should_prefetch_next_range_when_the_current_one_is_about_to_run_out() throws Exception {
+        tenantSequenceManager = createTenantSequenceManager(20, 1, 1000);
+        doReturn(100L, 200L).when(sequenceDAO).selectById(SEQUENCE_w_5);
+
+        for (int i = 0; i < 4; i++) {
+            tenantSequenceManager.getNextId(OBJECT_w_5);
+        }
+        verify(sequenceDAO, times(1)).selectById(SEQUENCE_w_5);
+        // last id of the range: triggers the prefetch
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(104);
+        verify(sequenceDAO, times(2)).selectById(SEQUENCE_w_5);
+
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(200);
+        verify(sequenceDAO, times(2)).selectById(SEQUENCE_w_5);
+    }
+
+    @Test
+    public void should_still_give_ids_when_prefetching_fails() throws Exception {
+        tenantSequenceManager = createTenantSequenceManager(20, 1, 1000);
+        doReturn(100L).doThrow(new SQLException("SQL error")).doThrow(new SQLException("SQL error"))
+                .doReturn(200L).when(sequenceDAO).selectById(SEQUENCE_w_2);
+
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_2)).isEqualTo(100);
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_2)).isEqualTo(101);
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_2)).isEqualTo(200);
+    }
+
+    @Test
+    public void should_grow_range_size_of_a_sequence_consumed_faster_than_the_target_refill_interval()
+            throws Exception {
+        tenantSequenceManager = createTenantSequenceManager(0, 2, 3_600_000);
+        doReturn(100L, 200L, 300L).when(sequenceDAO).selectById(SEQUENCE_w_5);
+
+        for (int i = 0; i < 5 + 10 + 1; i++) {
+            tenantSequenceManager.getNextId(OBJECT_w_5);
+        }
+
+        InOrder inOrder = inOrder(sequenceDAO);
+        inOrder.verify(sequenceDAO).updateSequence(105L, SEQUENCE_w_5);
+        inOrder.verify(sequenceDAO).updateSequence(210L, SEQUENCE_w_5);
+        // maximum range size is reached
+        inOrder.verify(sequenceDAO).updateSequence(310L, SEQUENCE_w_5);
+    }
+
+    @Test
+    public void should_keep_range_size_of_a_sequence_consumed_slower_than_the_target_refill_interval()
+            throws Exception {
+        tenantSequenceManager = createTenantSequenceManager(0, 2, 0);
+        doReturn(100L, 200L).when(sequenceDAO).selectById(SEQUENCE_w_5);
+
+        for (int i = 0; i < 5 + 1; i++) {
+            tenantSequenceManager.getNextId(OBJECT_w_5);
+        }
+
+        verify(sequenceDAO).updateSequence(105L, SEQUENCE_w_5);
+        verify(sequenceDAO).updateSequence(205L, SEQUENCE_w_5);
+    }
+
+    @Test
+    public void should_record_refills_of_sequences() throws Exception {
+        tenantSequenceManager = createTenantSequenceManager(20, 1, 1000);
+        doReturn(100L, 200L).when(sequenceDAO).selectById(SEQUENCE_w_5);
+
+        for (int i = 0; i < 5; i++) {
+            tenantSequenceManager.getNextId(OBJECT_w_5);
+        }
+
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_REFILL)
+                .tags("tenant", String.valueOf(TENANT_ID), "sequence", String.valueOf(SEQUENCE_w_5), "mode", "sync")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_REFILL)
+                .tags("tenant", String.valueOf(TENANT_ID), "sequence", String.valueOf(SEQUENCE_w_5), "mode",
+                        "prefetch")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_RANGE_SIZE)
+                .tags("sequence", String.valueOf(SEQUENCE_w_5)).gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    public void should_remove_all_meters_of_sequences() throws Exception {
+        tenantSequenceManager = createTenantSequenceManager(20, 1, 1000);
+        doReturn(100L, 200L).when(sequenceDAO).selectById(SEQUENCE_w_5);
+        for (int i = 0; i < 5; i++) {
+            tenantSequenceManager.getNextId(OBJECT_w_5);
+        }
+
+        tenantSequenceManager.removeMeters();
+
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_REFILL).meters()).isEmpty();
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_RANGE_SIZE).meters()).isEmpty();
+    }
 }
@@ -13,6 +13,8 @@
  **/
 package org.bonitasoft.engine.work;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.concurrent.*;
@@ -22,6 +24,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.bonitasoft.engine.commons.time.EngineClock;
 import org.bonitasoft.engine.work.audit.WorkExecutionAuditor;
 import org.slf4j.Logger;
@@ -33,6 +36,8 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
     public static final String NUMBER_OF_WORKS_PENDING = "bonita.bpmengine.work.pending";
     public static final String NUMBER_OF_WORKS_RUNNING = "bonita.bpmengine.work.running";
     public static final String NUMBER_OF_WORKS_EXECUTED = "bonita.bpmengine.work.executed";
+    public static final String NUMBER_OF_WORKS_DELAYED = "bonita.bpmengine.work.delayed";
+    public static final String WORKS_DELAYED_LATENESS = "bonita.bpmengine.work.delayed.lateness";
     public static final String WORKS_UNIT = "works";
 
     private final WorkFactory workFactory;
@@ -42,10 +47,18 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
     private final MeterRegistry meterRegistry;
 
     private final AtomicLong runningWorks = new AtomicLong();
+    private final AtomicLong delayedWorks = new AtomicLong();
     private final Counter executedWorkCounter;
     private final Gauge numberOfWorksPending;
     private final Gauge numberOfWorksRunning;
+    private final Gauge numberOfWorksDelayed;
+    private final Timer delayedWorksLateness;
     private final ThreadPoolExecutor executor;
+    /**
+     * Holds works having an execution threshold in the future until they are due, so that they do not use any worker
+     * thread while waiting.
+     */
+    private final ScheduledThreadPoolExecutor delayedWorkScheduler;
 
     public DefaultBonitaExecutorService(final ThreadPoolExecutor executor,
             final WorkFactory workFactory,
@@ -60,6 +73,9 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
         this.workExecutionCallback = workExecutionCallback;
         this.workExecutionAuditor = workExecutionAuditor;
         this.meterRegistry = meterRegistry;
+        this.delayedWorkScheduler = new ScheduledThreadPoolExecutor(1,
+                new WorkerThreadFactory("Bonita-Work-Delay", tenantId));
+        this.delayedWorkScheduler.setRemoveOnCancelPolicy(true);
 
         Tags tags = Tags.of("tenant", String.valueOf(tenantId));
         numberOfWorksPending = Gauge.builder(NUMBER_OF_WORKS_PENDING, executor.getQueue(), Collection::size)
@@ -68,6 +84,12 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
         numberOfWorksRunning = Gauge.builder(NUMBER_OF_WORKS_RUNNING, runningWorks, AtomicLong::get)
                 .tags(tags).baseUnit(WORKS_UNIT).description("Works currently executing")
                 .register(meterRegistry);
+        numberOfWorksDelayed = Gauge.builder(NUMBER_OF_WORKS_DELAYED, delayedWorks, AtomicLong::get)
+                .tags(tags).baseUnit(WORKS_UNIT).description("Works waiting for their execution threshold")
+                .register(meterRegistry);
+        delayedWorksLateness = Timer.builder(WORKS_DELAYED_LATENESS)
+                .tags(tags).description("Time elapsed between the execution threshold of a work and its execution")
+                .register(meterRegistry);
         executedWorkCounter = Counter.builder(NUMBER_OF_WORKS_EXECUTED)
                 .tags(tags).baseUnit(WORKS_UNIT).description("total works executed since last server start")
                 .register(meterRegistry);
@@ -80,6 +102,7 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
     @Override
     public void clearAllQueues() {
         executor.getQueue().clear();
+        clearDelayedWorks();
     }
 
     @Override
@@ -87,19 +110,33 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
         executor.shutdown();
         log.info("Clearing queue of work, had {} elements", executor.getQueue().size());
         executor.getQueue().clear();
+        delayedWorkScheduler.shutdownNow();
+        log.info("Clearing delayed works, had {} elements", delayedWorks.get());
+        delayedWorks.set(0);
         meterRegistry.remove(numberOfWorksPending);
         meterRegistry.remove(numberOfWorksRunning);
+        meterRegistry.remove(numberOfWorksDelayed);
+        meterRegistry.remove(delayedWorksLateness);
         meterRegistry.remove(executedWorkCounter);
     }
 
+    private void clearDelayedWorks() {
+        delayedWorkScheduler.getQueue().forEach(task -> {
+            if (((Future<?>) task).cancel(false)) {
+                delayedWorks.decrementAndGet();
+            }
+        });
+    }
+
     @Override
     public Future<?> submit(WorkDescriptor work) {
+        Instant now = engineClock.now();
+        if (isRequiringDelayedExecution(work, now)) {
+            return scheduleDelayedExecution(work, Duration.between(now, work.getExecutionThreshold()));
+        }
         return executor.submit(() -> {
-            if (isRequiringDelayedExecution(work)) {
-                // Future implementation should use a real delay e.g. using a ScheduledThreadPoolExecutor
-                // Will be executed later
-                submit(work);
-                return;
+            if (work.getExecutionThreshold() != null) {
+                delayedWorksLateness.record(Duration.between(work.getExecutionThreshold(), engineClock.now()));
             }
             work.incrementExecutionCount();
             workExecutionAuditor.detectAbnormalExecutionAndNotify(work);
@@ -138,7 +175,29 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
         return executor.awaitTermination(workTerminationTimeout, seconds);
     }
 
-    private boolean isRequiringDelayedExecution(WorkDescriptor work) {
-        return work.getExecutionThreshold() != null && work.getExecutionThreshold().isAfter(engineClock.now());
+    /**
+     * Keep the work in the delay scheduler until its execution threshold is reached. When the delay expires, the work
+     * goes through {@link #submit(WorkDescriptor)} again: if the engine clock says it is still not due, it is simply
+     * scheduled again for the remaining time.
+     */
+    private Future<?> scheduleDelayedExecution(WorkDescriptor work, Duration delay) {
+        // only schedule if not shutdown, same as the work executor
+        if (delayedWorkScheduler.isShutdown()) {
+            return null;
+        }
+        delayedWorks.incrementAndGet();
+        return delayedWorkScheduler.schedule(() -> {
+            delayedWorks.decrementAndGet();
+            try {
+                submit(work);
+            } catch (RejectedExecutionException e) {
+                log.warn("Unable to submit delayed work {}, it will be restarted by the recovery mechanism: {}",
+                        work, e.getMessage());
+            }
+        }, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean isRequiringDelayedExecution(WorkDescriptor work, Instant now) {
+        return work.getExecutionThreshold() != null && work.getExecutionThreshold().isAfter(now);
     }
 }
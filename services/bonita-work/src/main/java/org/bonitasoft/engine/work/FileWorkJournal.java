@@ -0,0 +1,360 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.work;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link WorkJournal} stored in an append-only file per tenant.
+ * <p>
+ * Each record is written as <code>[length][crc32][type][uuid length][uuid][serialized work]</code>. A single writer
+ * thread drains all the records submitted concurrently and forces them to disk at once (group commit), so the cost of
+ * the <code>fsync</code> is shared by all the transactions committing at the same time.
+ * When the file grows over the compaction threshold, it is rewritten with only the works still pending.
+ * <p>
+ * A torn record at the end of the file (crash during a write) is ignored when the journal is read.
+ * <p>
+ * Appending never blocks the caller for long: when too many records are waiting to be written, the work is not
+ * journaled (it is still executed) and a warning is logged. When records are not written within the write timeout, the
+ * caller stops waiting: they are still written in background, but the works are executed without waiting for it.
+ * <p>
+ * The journal is disabled by default, see property <code>bonita.tenant.work.journal.enabled</code>.
+ */
+@Component
+@ConditionalOnSingleCandidate(WorkJournal.class)
+public class FileWorkJournal implements WorkJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(FileWorkJournal.class);
+    static final String JOURNAL_FILE_NAME = "works.journal";
+    private static final String COMPACTED_FILE_NAME = "works.journal.compacted";
+    private static final byte ADDED = 1;
+    private static final byte COMPLETED = 2;
+    private static final int MAX_RECORDS_PER_WRITE = 1000;
+
+    private final boolean enabled;
+    private final Path journalFolder;
+    private final long compactionThreshold;
+    private final long writeTimeoutMillis;
+
+    /**
+     * Serialized form of works appended but not yet completed, used to rewrite the journal on compaction
+     */
+    private final Map<String, byte[]> pendingWorks = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final BlockingQueue<JournalRecord> recordsToWrite;
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean opened;
+
+    public FileWorkJournal(@Value("${tenantId}") long tenantId,
+            @Value("${bonita.tenant.work.journal.enabled:false}") boolean enabled,
+            @Value("${bonita.tenant.work.journal.folder:${bonita.home:${user.dir}}/work_journal}") String folder,
+            @Value("${bonita.tenant.work.journal.compactionThreshold:67108864}") long compactionThreshold,
+            @Value("${bonita.tenant.work.journal.queueCapacity:10000}") int queueCapacity,
+            @Value("${bonita.tenant.work.journal.writeTimeout:1000}") long writeTimeoutMillis) {
+        this.enabled = enabled;
+        this.journalFolder = Paths.get(folder, Long.toString(tenantId));
+        this.compactionThreshold = compactionThreshold;
+        this.recordsToWrite = new LinkedBlockingQueue<>(queueCapacity);
+        this.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    @Override
+    public synchronized List<WorkDescriptor> open() throws SWorkException {
+        if (!enabled || opened) {
+            return Collections.emptyList();
+        }
+        List<WorkDescriptor> works = new ArrayList<>();
+        try {
+            Files.createDirectories(journalFolder);
+            pendingWorks.clear();
+            pendingWorks.putAll(readPendingWorks(journalFolder.resolve(JOURNAL_FILE_NAME)));
+            for (byte[] serializedWork : pendingWorks.values()) {
+                works.add(deserialize(serializedWork));
+            }
+            compact();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SWorkException("Unable to open the work journal in " + journalFolder, e);
+        }
+        opened = true;
+        writer = new Thread(this::writeRecords, "Bonita-Work-Journal-" + journalFolder.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Work journal opened in {}, {} works not completed before the last shutdown will be executed",
+                journalFolder, works.size());
+        return works;
+    }
+
+    @Override
+    public void append(List<WorkDescriptor> works) {
+        if (!opened || works.isEmpty()) {
+            return;
+        }
+        List<WorkDescriptor> journaledWorks = new ArrayList<>(works.size());
+        List<JournalRecord> records = new ArrayList<>(works.size());
+        for (WorkDescriptor work : works) {
+            byte[] serializedWork;
+            try {
+                serializedWork = serialize(work);
+            } catch (IOException e) {
+                log.warn("Unable to write work {} in the journal, it will not be restarted in case of crash: {}",
+                        work, e.getMessage());
+                continue;
+            }
+            pendingWorks.put(work.getUuid(), serializedWork);
+            JournalRecord record = new JournalRecord(ADDED, work.getUuid(), serializedWork);
+            if (!recordsToWrite.offer(record)) {
+                pendingWorks.remove(work.getUuid());
+                log.warn("Too many records waiting to be written in the work journal, work {} will not be restarted "
+                        + "in case of crash", work);
+                continue;
+            }
+            journaledWorks.add(work);
+            records.add(record);
+        }
+        // records offered together are usually forced to disk by the same write: they share the write timeout
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                records.get(i).written.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("Unable to write work {} in the journal, it will not be restarted in case of crash: {}",
+                        journaledWorks.get(i), e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                log.warn("Timed out while writing {} works in the journal, they are still written in background but "
+                        + "might not be restarted in case of crash", records.size());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void complete(WorkDescriptor work) {
+        if (!opened) {
+            return;
+        }
+        if (pendingWorks.remove(work.getUuid()) != null) {
+            // no need to wait, nor to retry when the queue is full: at worst the work is executed again after a crash
+            recordsToWrite.offer(new JournalRecord(COMPLETED, work.getUuid(), new byte[0]));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!opened) {
+            return;
+        }
+        opened = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Unable to close the work journal: {}", e.getMessage());
+        }
+        pendingWorks.clear();
+    }
+
+    private void writeRecords() {
+        List<JournalRecord> batch = new ArrayList<>();
+        while (opened || !recordsToWrite.isEmpty()) {
+            try {
+                JournalRecord first = recordsToWrite.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                recordsToWrite.drainTo(batch, MAX_RECORDS_PER_WRITE - 1);
+                write(batch);
+                if (channel.size() > compactionThreshold) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Unable to write to the work journal: {}", e.getMessage());
+                batch.forEach(r -> r.written.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<JournalRecord> batch) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            buffers[i] = batch.get(i).toByteBuffer();
+        }
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        channel.force(false);
+        batch.forEach(r -> r.written.complete(null));
+    }
+
+    /**
+     * Rewrite the journal with only the works that are still pending, then continue appending to the new file
+     */
+    private void compact() throws IOException {
+        Path compacted = journalFolder.resolve(COMPACTED_FILE_NAME);
+        List<JournalRecord> records = new ArrayList<>();
+        synchronized (pendingWorks) {
+            pendingWorks.forEach((uuid, serializedWork) -> records.add(new JournalRecord(ADDED, uuid, serializedWork)));
+        }
+        try (FileChannel compactedChannel = FileChannel.open(compacted, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            for (JournalRecord record : records) {
+                ByteBuffer buffer = record.toByteBuffer();
+                while (buffer.hasRemaining()) {
+                    compactedChannel.write(buffer);
+                }
+            }
+            compactedChannel.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(compacted, journalFolder.resolve(JOURNAL_FILE_NAME), REPLACE_EXISTING, ATOMIC_MOVE);
+        channel = FileChannel.open(journalFolder.resolve(JOURNAL_FILE_NAME), CREATE, WRITE, APPEND);
+        log.debug("Work journal compacted, {} works pending", records.size());
+    }
+
+    private static Map<String, byte[]> readPendingWorks(Path journalFile) throws IOException {
+        Map<String, byte[]> works = new LinkedHashMap<>();
+        if (!Files.exists(journalFile)) {
+            return works;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            while (true) {
+                byte[] body;
+                long expectedChecksum;
+                try {
+                    int length = input.readInt();
+                    expectedChecksum = input.readInt() & 0xFFFFFFFFL;
+                    body = new byte[length];
+                    input.readFully(body);
+                } catch (EOFException e) {
+                    // end of the journal, or a record partially written when the node crashed
+                    return works;
+                }
+                if (checksum(body) != expectedChecksum) {
+                    log.warn("Corrupted record found in work journal {}, ignoring the rest of the file", journalFile);
+                    return works;
+                }
+                ByteBuffer record = ByteBuffer.wrap(body);
+                byte type = record.get();
+                byte[] uuid = new byte[record.getShort()];
+                record.get(uuid);
+                if (type == ADDED) {
+                    byte[] serializedWork = new byte[record.remaining()];
+                    record.get(serializedWork);
+                    works.put(new String(uuid, UTF_8), serializedWork);
+                } else {
+                    works.remove(new String(uuid, UTF_8));
+                }
+            }
+        }
+    }
+
+    private static long checksum(byte[] body) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(body);
+        return crc32.getValue();
+    }
+
+    private static byte[] serialize(WorkDescriptor work) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(work);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static WorkDescriptor deserialize(byte[] serializedWork) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(serializedWork))) {
+            return (WorkDescriptor) input.readObject();
+        }
+    }
+
+    private static class JournalRecord {
+
+        private final byte type;
+        private final byte[] uuid;
+        private final byte[] serializedWork;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        JournalRecord(byte type, String uuid, byte[] serializedWork) {
+            this.type = type;
+            this.uuid = uuid.getBytes(UTF_8);
+            this.serializedWork = serializedWork;
+        }
+
+        ByteBuffer toByteBuffer() {
+            ByteBuffer body = ByteBuffer.allocate(1 + 2 + uuid.length + serializedWork.length);
+            body.put(type).putShort((short) uuid.length).put(uuid).put(serializedWork);
+            byte[] bodyBytes = body.array();
+            ByteBuffer record = ByteBuffer.allocate(8 + bodyBytes.length);
+            record.putInt(bodyBytes.length).putInt((int) checksum(bodyBytes)).put(bodyBytes);
+            record.flip();
+            return record;
+        }
+    }
+}
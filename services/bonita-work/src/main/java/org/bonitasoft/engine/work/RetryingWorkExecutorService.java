@@ -53,6 +53,7 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
     private final ExceptionRetryabilityEvaluator exceptionRetryabilityEvaluator;
     private final AtomicLong retriedWorks = new AtomicLong();
     private final BonitaExecutorServiceFactory bonitaExecutorServiceFactory;
+    private final WorkJournal workJournal;
     private final long workTerminationTimeout;
     private BonitaExecutorService executor;
     private final IncidentService incidentService;
@@ -70,8 +71,10 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
             WorkExecutionAuditor workExecutionAuditor,
             MeterRegistry meterRegistry,
             IncidentService incidentService,
+            WorkJournal workJournal,
             @Value("${tenantId}") long tenantId) {
         this.bonitaExecutorServiceFactory = bonitaExecutorServiceFactory;
+        this.workJournal = workJournal;
         this.engineClock = engineClock;
         this.workTerminationTimeout = workTerminationTimeout;
         this.maxRetry = maxRetry;
@@ -99,6 +102,7 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
             retriedWorks.decrementAndGet();
         }
         logger.debug("Completed work {}", work);
+        workJournal.complete(work);
         workExecutionAuditor.notifySuccess(work);
     }
 
@@ -123,6 +127,7 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
                     logger.warn("Work was not executed because preconditions were not met, {} : {}",
                             bonitaWork.getDescription(), thrown.getMessage());
                     decrementRetryCounterIfNeeded(work);
+                    workJournal.complete(work);
                 } else {
                     logger.warn("Work {} failed. The element will be marked as failed. Exception is: {}",
                             bonitaWork.getDescription(),
@@ -167,6 +172,8 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
     public void handleFailure(WorkDescriptor work, BonitaWork bonitaWork, Map<String, Object> context,
             Throwable thrown) {
         decrementRetryCounterIfNeeded(work);
+        // the element is either marked as failed or left to the recovery mechanism
+        workJournal.complete(work);
         try {
             bonitaWork.handleFailure(thrown, context);
         } catch (Exception e) {
@@ -257,6 +264,8 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
             } else {
                 logger.warn(e.getMessage());
             }
+        } finally {
+            workJournal.close();
         }
     }
 
@@ -264,6 +273,17 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
     public synchronized void start() {
         if (isStopped()) {
             executor = bonitaExecutorServiceFactory.createExecutorService(this);
+            replayJournal();
+        }
+    }
+
+    private void replayJournal() {
+        try {
+            // works registered but not completed before the last shutdown or crash
+            workJournal.open().forEach(this::execute);
+        } catch (SWorkException e) {
+            logger.warn("Unable to replay the work journal, works not completed before the last shutdown will be "
+                    + "restarted by the recovery mechanism. Cause: {}", e.getMessage());
         }
     }
 
@@ -276,7 +296,11 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
         shutdownExecutor();
         // completely clear the queue because it's a global pause
         executor.clearAllQueues();
-        awaitTermination();
+        try {
+            awaitTermination();
+        } finally {
+            workJournal.close();
+        }
     }
 
     @Override
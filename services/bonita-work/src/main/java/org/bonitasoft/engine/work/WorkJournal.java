@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.work;
+
+import java.util.List;
+
+/**
+ * Durable record of the works that were registered in a committed transaction but not yet completed.
+ * It allows to re-execute these works right after a crash of the node instead of waiting for the recovery mechanism
+ * to find the elements when scanning the database.
+ */
+public interface WorkJournal {
+
+    /**
+     * Open the journal and read the works that were registered but never completed, e.g. because the node crashed.
+     * These works are still considered pending by the journal.
+     *
+     * @return the works to re-execute, in registration order
+     * @throws SWorkException if the journal cannot be opened
+     */
+    List<WorkDescriptor> open() throws SWorkException;
+
+    /**
+     * Record that the works must be executed. Best effort: wait for the works to be durably written to the journal, at
+     * most for a configured timeout. Works whose write times out are still written later, but a crash of the node
+     * before that loses them from the journal: they are then only restarted by the recovery mechanism. Works that
+     * cannot be written at all are not journaled, a warning is logged. In all cases the works must still be executed.
+     *
+     * @param works the works registered in a committed transaction
+     */
+    void append(List<WorkDescriptor> works);
+
+    /**
+     * Record that the work does not need to be re-executed anymore, either because it succeeded or because it was
+     * handled as failed.
+     *
+     * @param work the completed work
+     */
+    void complete(WorkDescriptor work);
+
+    /**
+     * Close the journal, works not yet completed will be returned on the next call to {@link #open()}
+     */
+    void close();
+
+}
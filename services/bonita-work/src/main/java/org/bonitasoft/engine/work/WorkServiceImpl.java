@@ -15,6 +15,7 @@ package org.bonitasoft.engine.work;
 
 import org.bonitasoft.engine.commons.time.EngineClock;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
 import org.bonitasoft.engine.transaction.STransactionNotFoundException;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.slf4j.Logger;
@@ -37,17 +38,21 @@ public class WorkServiceImpl implements WorkService {
     private final UserTransactionService transactionService;
     private final SessionAccessor sessionAccessor;
     private final WorkExecutorService workExecutorService;
+    private final WorkJournal workJournal;
     private final EngineClock engineClock;
     private int workDelayOnMultipleXAResource;
+    private final ThreadLocal<WorkSynchronization> currentSynchronization = new ThreadLocal<>();
 
     public WorkServiceImpl(UserTransactionService transactionService,
             SessionAccessor sessionAccessor,
             WorkExecutorService workExecutorService,
+            WorkJournal workJournal,
             EngineClock engineClock,
             @Value("${bonita.tenant.work.${db.vendor}.delayOnMultipleXAResource:0}") int workDelayOnMultipleXAResource) {
         this.transactionService = transactionService;
         this.sessionAccessor = sessionAccessor;
         this.workExecutorService = workExecutorService;
+        this.workJournal = workJournal;
         this.engineClock = engineClock;
         this.workDelayOnMultipleXAResource = workDelayOnMultipleXAResource;
     }
@@ -60,19 +65,29 @@ public class WorkServiceImpl implements WorkService {
         }
         workDescriptor.setRegistrationDate(engineClock.now());
         log.debug("Registering work {}", workDescriptor);
-        createAndRegisterNewSynchronization(workDescriptor);
+        getOrRegisterSynchronization().addWork(workDescriptor);
         log.debug("Work registered");
     }
 
-    private WorkSynchronization createAndRegisterNewSynchronization(WorkDescriptor workDescriptor)
-            throws SWorkRegisterException {
-        WorkSynchronization synchro = new WorkSynchronization(transactionService, workExecutorService, sessionAccessor,
-                workDescriptor, workDelayOnMultipleXAResource);
+    /**
+     * a single synchronization per transaction, so that its works are journaled at once when it commits
+     */
+    private WorkSynchronization getOrRegisterSynchronization() throws SWorkRegisterException {
+        WorkSynchronization synchro = currentSynchronization.get();
+        if (synchro != null) {
+            return synchro;
+        }
+        synchro = new WorkSynchronization(transactionService, workExecutorService, workJournal,
+                sessionAccessor, workDelayOnMultipleXAResource);
         try {
+            // registered first, so that works registered while the transaction completes use a new synchronization
+            transactionService.registerBonitaSynchronization(
+                    (BonitaTransactionSynchronization) transactionStatus -> currentSynchronization.remove());
             transactionService.registerBonitaSynchronization(synchro);
         } catch (final STransactionNotFoundException e) {
             throw new SWorkRegisterException(e.getMessage(), e);
         }
+        currentSynchronization.set(synchro);
         return synchro;
     }
 
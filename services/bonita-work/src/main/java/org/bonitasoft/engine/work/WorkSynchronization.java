@@ -14,6 +14,8 @@
 package org.bonitasoft.engine.work;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import javax.transaction.Status;
@@ -25,21 +27,27 @@ import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Executes the works registered in a transaction once it is committed. A single synchronization is registered per
+ * transaction, so that all its works are appended to the {@link WorkJournal} at once.
+ */
 public class WorkSynchronization implements BonitaTransactionSynchronization {
 
     private static final Logger LOG = LoggerFactory.getLogger(WorkSynchronization.class);
 
-    private final WorkDescriptor work;
+    private final List<WorkDescriptor> works = new ArrayList<>();
 
     private final WorkExecutorService workExecutorService;
 
+    private final WorkJournal workJournal;
+
     private long tenantId;
     private UserTransactionService transactionService;
     private int workDelayOnMultipleXAResource;
 
     WorkSynchronization(final UserTransactionService transactionService, final WorkExecutorService workExecutorService,
-            final SessionAccessor sessionAccessor,
-            WorkDescriptor work, int workDelayOnMultipleXAResource) {
+            final WorkJournal workJournal, final SessionAccessor sessionAccessor,
+            int workDelayOnMultipleXAResource) {
         this.transactionService = transactionService;
         this.workDelayOnMultipleXAResource = workDelayOnMultipleXAResource;
         try {
@@ -49,29 +57,38 @@ public class WorkSynchronization implements BonitaTransactionSynchronization {
             // We are not in a tenant
             tenantId = -1L;
         }
-        this.work = work;
         this.workExecutorService = workExecutorService;
+        this.workJournal = workJournal;
     }
 
-    WorkDescriptor getWork() {
-        return work;
+    void addWork(WorkDescriptor work) {
+        works.add(work);
+    }
+
+    List<WorkDescriptor> getWorks() {
+        return works;
     }
 
     @Override
     public void afterCompletion(final int transactionStatus) {
         if (Status.STATUS_COMMITTED == transactionStatus) {
-            work.setTenantId(tenantId);
+            boolean delayed = false;
             if (workDelayOnMultipleXAResource > 0) {
                 Optional<Boolean> hasMultipleResources = transactionService.hasMultipleResources();
                 // to be safe, if we are unable to know if there are multiple resources, we add the delay anyway.
-                if (!hasMultipleResources.isPresent() || hasMultipleResources.get()) {
+                delayed = !hasMultipleResources.isPresent() || hasMultipleResources.get();
+            }
+            for (WorkDescriptor work : works) {
+                work.setTenantId(tenantId);
+                if (delayed) {
                     work.mustBeExecutedAfter(Instant.now().plusMillis(workDelayOnMultipleXAResource));
                 }
             }
-            workExecutorService.execute(work);
+            workJournal.append(works);
+            works.forEach(workExecutorService::execute);
         } else {
-            LOG.debug("Transaction completion with state {} != COMMITTED. Not triggering the work: {}",
-                    transactionStatus, work);
+            LOG.debug("Transaction completion with state {} != COMMITTED. Not triggering the works: {}",
+                    transactionStatus, works);
         }
     }
 
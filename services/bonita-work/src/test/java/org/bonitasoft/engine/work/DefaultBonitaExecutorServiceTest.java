@@ -101,6 +101,45 @@ public class DefaultBonitaExecutorServiceTest {
         await().until(workExecutionCallback::isOnSuccessCalled);
     }
 
+    @Test
+    public void should_not_occupy_worker_thread_while_work_is_delayed() {
+        WorkDescriptor delayedWork = WorkDescriptor.create("NORMAL");
+        delayedWork.mustBeExecutedAfter(engineClock.now().plus(5, SECONDS));
+
+        bonitaExecutorService.submit(delayedWork);
+
+        assertThat(bonitaExecutorService.getExecutor().getQueue()).isEmpty();
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_DELAYED).gauge().value())
+                .as("Delayed works number").isEqualTo(1);
+    }
+
+    @Test
+    public void should_record_lateness_when_delayed_work_is_executed() {
+        WorkDescriptor workDescriptor = WorkDescriptor.create("NORMAL");
+        workDescriptor.mustBeExecutedAfter(engineClock.now().plusMillis(100));
+
+        bonitaExecutorService.submit(workDescriptor);
+        engineClock.addTime(1, SECONDS);
+
+        await().until(workExecutionCallback::isOnSuccessCalled);
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_DELAYED).gauge().value())
+                .as("Delayed works number").isZero();
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.WORKS_DELAYED_LATENESS).timer().count())
+                .as("Delayed works executed").isEqualTo(1);
+    }
+
+    @Test
+    public void should_drop_delayed_works_when_clearing_queues() {
+        WorkDescriptor workDescriptor = WorkDescriptor.create("NORMAL");
+        workDescriptor.mustBeExecutedAfter(engineClock.now().plus(5, SECONDS));
+        bonitaExecutorService.submit(workDescriptor);
+
+        bonitaExecutorService.clearAllQueues();
+
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_DELAYED).gauge().value())
+                .as("Delayed works number").isZero();
+    }
+
     @Test
     public void should_update_meter_when_work_executes() {
         Gauge currentWorkQueue = meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING).gauge();
@@ -154,6 +193,10 @@ public class DefaultBonitaExecutorServiceTest {
                 .tag("tenant", String.valueOf(TENANT_ID)).gauge()).isNotNull();
         assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING)
                 .tag("tenant", String.valueOf(TENANT_ID)).gauge()).isNotNull();
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_DELAYED)
+                .tag("tenant", String.valueOf(TENANT_ID)).gauge()).isNotNull();
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.WORKS_DELAYED_LATENESS)
+                .tag("tenant", String.valueOf(TENANT_ID)).timer()).isNotNull();
     }
 
     @Test
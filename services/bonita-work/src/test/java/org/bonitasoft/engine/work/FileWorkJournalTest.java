@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2026 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.work;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileWorkJournalTest {
+
+    private static final long TENANT_ID = 5L;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File journalFolder;
+    private FileWorkJournal workJournal;
+
+    @Before
+    public void before() throws Exception {
+        journalFolder = temporaryFolder.newFolder();
+        workJournal = createJournal(true, 64 * 1024 * 1024);
+    }
+
+    @After
+    public void after() {
+        workJournal.close();
+    }
+
+    private FileWorkJournal createJournal(boolean enabled, long compactionThreshold) {
+        return new FileWorkJournal(TENANT_ID, enabled, journalFolder.getAbsolutePath(), compactionThreshold,
+                10000, 1000);
+    }
+
+    private Path journalFile() {
+        return journalFolder.toPath().resolve(Long.toString(TENANT_ID)).resolve(FileWorkJournal.JOURNAL_FILE_NAME);
+    }
+
+    @Test
+    public void should_return_works_not_completed_when_reopened() throws Exception {
+        workJournal.open();
+        WorkDescriptor work1 = WorkDescriptor.create("WORK_1").withParameter("processInstanceId", 12L);
+        WorkDescriptor work2 = WorkDescriptor.create("WORK_2");
+        workJournal.append(asList(work1, work2));
+        workJournal.close();
+
+        workJournal = createJournal(true, 64 * 1024 * 1024);
+        List<WorkDescriptor> works = workJournal.open();
+
+        assertThat(works).extracting(WorkDescriptor::getUuid).containsExactly(work1.getUuid(), work2.getUuid());
+        assertThat(works.get(0).getLong("processInstanceId")).isEqualTo(12L);
+    }
+
+    @Test
+    public void should_not_return_completed_works_when_reopened() throws Exception {
+        workJournal.open();
+        WorkDescriptor work1 = WorkDescriptor.create("WORK_1");
+        WorkDescriptor work2 = WorkDescriptor.create("WORK_2");
+        workJournal.append(singletonList(work1));
+        workJournal.append(singletonList(work2));
+        workJournal.complete(work1);
+        workJournal.close();
+
+        workJournal = createJournal(true, 64 * 1024 * 1024);
+        List<WorkDescriptor> works = workJournal.open();
+
+        assertThat(works).extracting(WorkDescriptor::getUuid).containsExactly(work2.getUuid());
+    }
+
+    @Test
+    public void should_ignore_partially_written_record_at_the_end_of_the_journal() throws Exception {
+        workJournal.open();
+        WorkDescriptor work1 = WorkDescriptor.create("WORK_1");
+        workJournal.append(singletonList(work1));
+        workJournal.close();
+        // simulate a crash while writing a record
+        Files.write(journalFile(), new byte[] { 0, 0, 1, 0, 12, 34 }, APPEND);
+
+        workJournal = createJournal(true, 64 * 1024 * 1024);
+        List<WorkDescriptor> works = workJournal.open();
+
+        assertThat(works).extracting(WorkDescriptor::getUuid).containsExactly(work1.getUuid());
+    }
+
+    @Test
+    public void should_only_keep_pending_works_when_compacting() throws Exception {
+        workJournal = createJournal(true, 1);
+        workJournal.open();
+        WorkDescriptor work1 = WorkDescriptor.create("WORK_1");
+        WorkDescriptor work2 = WorkDescriptor.create("WORK_2");
+        workJournal.append(singletonList(work1));
+        workJournal.append(singletonList(work2));
+        workJournal.complete(work1);
+        workJournal.close();
+
+        workJournal = createJournal(true, 1);
+        List<WorkDescriptor> works = workJournal.open();
+
+        assertThat(works).extracting(WorkDescriptor::getUuid).containsExactly(work2.getUuid());
+    }
+
+    @Test
+    public void should_not_write_anything_when_disabled() throws Exception {
+        workJournal = createJournal(false, 64 * 1024 * 1024);
+
+        assertThat(workJournal.open()).isEmpty();
+        workJournal.append(singletonList(WorkDescriptor.create("WORK_1")));
+
+        assertThat(journalFile()).doesNotExist();
+    }
+}
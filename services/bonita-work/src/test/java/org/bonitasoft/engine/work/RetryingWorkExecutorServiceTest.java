@@ -71,6 +71,8 @@ public class RetryingWorkExecutorServiceTest {
     private WorkExecutionAuditor workExecutionAuditor;
     @Mock
     private IncidentService incidentService;
+    @Mock
+    private WorkJournal workJournal;
     @Mock(lenient = true)
     private ExceptionRetryabilityEvaluator retryabilityEvaluator;
     private final FixedEngineClock engineClock = new FixedEngineClock(Instant.EPOCH);
@@ -90,7 +92,7 @@ public class RetryingWorkExecutorServiceTest {
         workExecutorService = new RetryingWorkExecutorService(
                 bonitaExecutorServiceFactory, engineClock, WORK_TERMINATION_TIMEOUT, MAX_RETRY, DELAY, DELAY_FACTOR,
                 retryabilityEvaluator,
-                workExecutionAuditor, meterRegistry, incidentService, TENANT_ID);
+                workExecutionAuditor, meterRegistry, incidentService, workJournal, TENANT_ID);
         doReturn(true).when(bonitaExecutorService).awaitTermination(anyLong(), any(TimeUnit.class));
         workExecutorService.start();
     }
@@ -275,6 +277,56 @@ public class RetryingWorkExecutorServiceTest {
         assertThat(systemOutRule.getLog()).contains("WARN");
     }
 
+    @Test
+    public void should_execute_works_not_completed_in_journal_when_starting() throws Exception {
+        workExecutorService.stop();
+        WorkDescriptor journaledWork = WorkDescriptor.create("JOURNALED_WORK");
+        doReturn(Collections.singletonList(journaledWork)).when(workJournal).open();
+
+        workExecutorService.start();
+
+        verify(bonitaExecutorService).submit(eq(journaledWork));
+    }
+
+    @Test
+    public void should_start_even_when_journal_cannot_be_opened() throws Exception {
+        workExecutorService.stop();
+        doThrow(new SWorkException("unable to open")).when(workJournal).open();
+
+        workExecutorService.start();
+
+        assertThat(workExecutorService.isStopped()).isFalse();
+    }
+
+    @Test
+    public void should_close_journal_when_stopping() {
+        workExecutorService.stop();
+
+        verify(workJournal).close();
+    }
+
+    @Test
+    public void should_complete_work_in_journal_on_success() {
+        workExecutorService.onSuccess(workDescriptor);
+
+        verify(workJournal).complete(workDescriptor);
+    }
+
+    @Test
+    public void should_complete_work_in_journal_when_failure_is_handled() throws Exception {
+        workExecutorService.onFailure(workDescriptor, bonitaWork, emptyMap(), new Exception("my exception"));
+
+        verify(workJournal).complete(workDescriptor);
+    }
+
+    @Test
+    public void should_not_complete_work_in_journal_when_it_is_retried() {
+        workExecutorService.onFailure(workDescriptor, bonitaWork, emptyMap(),
+                new SRetryableException(new Exception("rootCause")));
+
+        verify(workJournal, never()).complete(workDescriptor);
+    }
+
     @Test
     public void should_log_on_success() {
         workExecutorService.onSuccess(workDescriptor);
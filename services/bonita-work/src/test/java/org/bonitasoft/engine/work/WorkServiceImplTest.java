@@ -13,12 +13,16 @@
  **/
 package org.bonitasoft.engine.work;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.commons.time.EngineClock;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
@@ -26,6 +30,7 @@ import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -40,13 +45,15 @@ public class WorkServiceImplTest {
     @Mock
     private WorkExecutorService workExecutorService;
     @Mock
+    private WorkJournal workJournal;
+    @Mock
     private EngineClock engineClock;
 
     @Before
     public void before() throws Exception {
         doReturn(1L).when(sessionAccessor).getTenantId();
         workService = new WorkServiceImpl(transactionService, sessionAccessor, workExecutorService,
-                engineClock, 0);
+                workJournal, engineClock, 0);
     }
 
     @Test
@@ -65,7 +72,7 @@ public class WorkServiceImplTest {
     }
 
     @Test
-    public void should_register_a_new_synchronization_for_each_work() throws SBonitaException {
+    public void should_register_a_single_synchronization_for_the_works_of_a_transaction() throws SBonitaException {
         // given
         WorkDescriptor workDescriptor1 = WorkDescriptor.create("MY_WORK1");
         WorkDescriptor workDescriptor2 = WorkDescriptor.create("MY_WORK2");
@@ -75,10 +82,29 @@ public class WorkServiceImplTest {
         workService.registerWork(workDescriptor2);
 
         // then
-        verify(transactionService).registerBonitaSynchronization(
-                argThat(s -> ((WorkSynchronization) s).getWork().getType().equals("MY_WORK1")));
-        verify(transactionService).registerBonitaSynchronization(
-                argThat(s -> ((WorkSynchronization) s).getWork().getType().equals("MY_WORK2")));
+        ArgumentCaptor<Synchronization> synchronizations = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService, times(2)).registerBonitaSynchronization(synchronizations.capture());
+        assertThat(synchronizations.getAllValues()).filteredOn(WorkSynchronization.class::isInstance).hasSize(1)
+                .flatExtracting(s -> ((WorkSynchronization) s).getWorks())
+                .containsExactly(workDescriptor1, workDescriptor2);
+    }
+
+    @Test
+    public void should_register_a_new_synchronization_once_the_transaction_is_completed() throws SBonitaException {
+        WorkDescriptor workDescriptor1 = WorkDescriptor.create("MY_WORK1");
+        WorkDescriptor workDescriptor2 = WorkDescriptor.create("MY_WORK2");
+        workService.registerWork(workDescriptor1);
+        ArgumentCaptor<Synchronization> firstTransaction = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService, times(2)).registerBonitaSynchronization(firstTransaction.capture());
+        firstTransaction.getAllValues().get(0).afterCompletion(Status.STATUS_COMMITTED);
+
+        workService.registerWork(workDescriptor2);
+
+        ArgumentCaptor<Synchronization> synchronizations = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService, times(4)).registerBonitaSynchronization(synchronizations.capture());
+        assertThat(synchronizations.getAllValues()).filteredOn(WorkSynchronization.class::isInstance)
+                .extracting(s -> ((WorkSynchronization) s).getWorks())
+                .containsExactly(singletonList(workDescriptor1), singletonList(workDescriptor2));
     }
 
 }
@@ -15,7 +15,10 @@ package org.bonitasoft.engine.work;
 
 import static javax.transaction.Status.STATUS_COMMITTED;
 import static javax.transaction.Status.STATUS_ROLLEDBACK;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 import java.util.Optional;
@@ -24,6 +27,7 @@ import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -39,25 +43,66 @@ public class WorkSynchronizationTest {
     private SessionAccessor sessionAccessor;
     @Mock
     private UserTransactionService userTransactionService;
+    @Mock
+    private WorkJournal workJournal;
 
     private final WorkDescriptor workDescriptor1 = WorkDescriptor.create("myWork1");
+    private final WorkDescriptor workDescriptor2 = WorkDescriptor.create("myWork2");
 
     @Test
     public void should_submit_work_on_commit() {
         WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 0);
+                workJournal, sessionAccessor, 0);
+        workSynchronization.addWork(workDescriptor1);
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
 
         verify(workExecutorService).execute(workDescriptor1);
     }
 
+    @Test
+    public void should_append_work_to_journal_before_submitting_it_on_commit() {
+        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
+                workJournal, sessionAccessor, 0);
+        workSynchronization.addWork(workDescriptor1);
+
+        workSynchronization.afterCompletion(STATUS_COMMITTED);
+
+        InOrder inOrder = inOrder(workJournal, workExecutorService);
+        inOrder.verify(workJournal).append(singletonList(workDescriptor1));
+        inOrder.verify(workExecutorService).execute(workDescriptor1);
+    }
+
+    @Test
+    public void should_append_all_works_of_the_transaction_to_journal_at_once() {
+        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
+                workJournal, sessionAccessor, 0);
+        workSynchronization.addWork(workDescriptor1);
+        workSynchronization.addWork(workDescriptor2);
+
+        workSynchronization.afterCompletion(STATUS_COMMITTED);
+
+        verify(workJournal, times(1)).append(asList(workDescriptor1, workDescriptor2));
+        verify(workExecutorService).execute(workDescriptor1);
+        verify(workExecutorService).execute(workDescriptor2);
+    }
+
+    @Test
+    public void should_not_append_work_to_journal_on_transaction_not_in_committed_state() {
+        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
+                workJournal, sessionAccessor, 0);
+        workSynchronization.addWork(workDescriptor1);
+
+        workSynchronization.afterCompletion(STATUS_ROLLEDBACK);
+
+        verify(workJournal, never()).append(anyList());
+    }
+
     @Test
     public void should_not_submit_work_on_transaction_not_in_committed_state() {
         WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 0);
+                workJournal, sessionAccessor, 0);
+        workSynchronization.addWork(workDescriptor1);
         workSynchronization.afterCompletion(STATUS_ROLLEDBACK);
 
         verify(workExecutorService, never()).execute(workDescriptor1);
@@ -66,8 +111,8 @@ public class WorkSynchronizationTest {
     @Test
     public void should_not_add_delay_when_the_workDelayOnMultipleXAResource_equal_0() {
         WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 0);
+                workJournal, sessionAccessor, 0);
+        workSynchronization.addWork(workDescriptor1);
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
         assertThat(workDescriptor1.getExecutionThreshold()).isNull();
@@ -77,8 +122,8 @@ public class WorkSynchronizationTest {
     @Test
     public void should_add_delay_when_the_workDelayOnMultipleXAResource_greater_than_0_and_multiple_resources() {
         WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 10);
+                workJournal, sessionAccessor, 10);
+        workSynchronization.addWork(workDescriptor1);
         when(userTransactionService.hasMultipleResources()).thenReturn(Optional.of(true));
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
@@ -89,8 +134,8 @@ public class WorkSynchronizationTest {
     @Test
     public void should_not_add_delay_when_the_workDelayOnMultipleXAResource_greater_than_0_and_no_multiple_resources() {
         WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 10);
+                workJournal, sessionAccessor, 10);
+        workSynchronization.addWork(workDescriptor1);
         when(userTransactionService.hasMultipleResources()).thenReturn(Optional.of(false));
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
@@ -101,8 +146,8 @@ public class WorkSynchronizationTest {
     @Test
     public void should_add_delay_when_the_workDelayOnMultipleXAResource_greater_than_0_and_multiple_resources_not_defined() {
         WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 10);
+                workJournal, sessionAccessor, 10);
+        workSynchronization.addWork(workDescriptor1);
         when(userTransactionService.hasMultipleResources()).thenReturn(Optional.empty());
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);